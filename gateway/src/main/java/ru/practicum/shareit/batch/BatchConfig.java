@@ -0,0 +1,33 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.DispatcherServlet;
+import ru.practicum.shareit.shared.deadline.RequestDeadlines;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(BatchProperties.class)
+@Profile("!reactive")
+public class BatchConfig {
+
+    @Bean
+    public BatchDispatcher batchDispatcher(DispatcherServlet dispatcherServlet, ObjectMapper objectMapper,
+                                           BatchProperties properties,
+                                           ObjectProvider<RequestDeadlines> requestDeadlines) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), new CustomizableThreadFactory("batch-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return new BatchDispatcher(dispatcherServlet, executor, objectMapper, properties.getParallelism(),
+                requestDeadlines.getIfAvailable());
+    }
+}
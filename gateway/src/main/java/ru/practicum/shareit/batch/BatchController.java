@@ -0,0 +1,38 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+import static ru.practicum.shareit.shared.ControllerConstants.MAX_BATCH_OPERATIONS;
+
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+@Validated
+@Profile("!reactive")
+public class BatchController {
+
+    private final BatchDispatcher batchDispatcher;
+
+    @PostMapping
+    public List<BatchResultDto> executeBatch(@RequestBody @NotEmpty @Size(max = MAX_BATCH_OPERATIONS)
+                                             List<@Valid BatchOperationDto> operations,
+                                             HttpServletRequest request,
+                                             HttpServletResponse response) {
+        return batchDispatcher.dispatch(operations, request, response);
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.shared.deadline.RequestDeadlines;
+import ru.practicum.shareit.shared.exception.ErrorCode;
+import ru.practicum.shareit.shared.exception.ErrorResponse;
+
+import javax.servlet.Servlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Выполнение операций пакетного запроса. Каждая операция передается DispatcherServlet и проходит через те же
+ * интерсепторы, контроллеры, клиенты и обработчики ошибок, что и отдельный HTTP-запрос, а ее ответ
+ * накапливается в памяти.
+ * <p>
+ * Идущие подряд операции чтения (GET) выполняются параллельно, но не более чем в parallelism потоков на пакет.
+ * Операция записи начинается только после завершения всех предыдущих операций, а следующие за ней операции -
+ * после ее завершения. Поэтому записи выполняются в заданном порядке, и каждая операция видит результаты
+ * предшествующих записей.
+ * <p>
+ * Каждая операция получает в заголовке X-Request-Timeout-Ms время, оставшееся до срока выполнения пакетного
+ * запроса на момент ее начала, поэтому операции не выполняются дольше, чем клиент ждет ответа на пакет.
+ */
+@Slf4j
+public class BatchDispatcher {
+
+    private final Servlet dispatcherServlet;
+
+    private final ExecutorService executor;
+
+    private final ObjectMapper objectMapper;
+
+    private final int parallelism;
+
+    @Nullable
+    private final RequestDeadlines deadlines;
+
+    public BatchDispatcher(Servlet dispatcherServlet, ExecutorService executor, ObjectMapper objectMapper,
+                           int parallelism, @Nullable RequestDeadlines deadlines) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.parallelism = Math.max(1, parallelism);
+        this.deadlines = deadlines;
+    }
+
+    public List<BatchResultDto> dispatch(List<BatchOperationDto> operations, HttpServletRequest batchRequest,
+                                         HttpServletResponse batchResponse) {
+        int size = operations.size();
+        BatchSubRequest[] requests = new BatchSubRequest[size];
+        for (int i = 0; i < size; i++) {
+            requests[i] = toSubRequest(operations.get(i), batchRequest);
+        }
+        Long deadline = deadlines == null ? null : deadlines.deadline(batchRequest);
+        BatchResultDto[] results = new BatchResultDto[size];
+        int start = 0;
+        while (start < size) {
+            int end = start + 1;
+            if (isRead(operations.get(start))) {
+                while (end < size && isRead(operations.get(end))) {
+                    end++;
+                }
+            }
+            executeAll(requests, batchResponse, deadline, results, start, end);
+            start = end;
+        }
+        return Arrays.asList(results);
+    }
+
+    public void close() {
+        executor.shutdown();
+    }
+
+    private void executeAll(BatchSubRequest[] requests, HttpServletResponse batchResponse, @Nullable Long deadline,
+                            BatchResultDto[] results, int from, int to) {
+        AtomicInteger next = new AtomicInteger(from);
+        Runnable worker = () -> {
+            int i;
+            while ((i = next.getAndIncrement()) < to) {
+                results[i] = execute(requests[i], batchResponse, deadline);
+            }
+        };
+        int workers = Math.min(parallelism, to - from);
+        CompletableFuture<?>[] futures = new CompletableFuture[workers - 1];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(worker, executor);
+        }
+        worker.run();
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private BatchResultDto execute(BatchSubRequest request, HttpServletResponse batchResponse,
+                                   @Nullable Long deadline) {
+        if (deadlines != null && deadline != null) {
+            request.limitTimeout(deadlines.remainingMillis(deadline));
+        }
+        BatchSubResponse response = new BatchSubResponse(batchResponse);
+        try {
+            dispatcherServlet.service(request, response);
+        } catch (Exception e) {
+            log.error("Ошибка выполнения операции пакета {} {}: {}", request.getMethod(), request.getRequestURI(),
+                    e.getLocalizedMessage());
+            ErrorResponse errorResponse = new ErrorResponse();
+            errorResponse.getErrors().put("errorMessage", e.getLocalizedMessage());
+            errorResponse.getErrors().put("errorCode", ErrorCode.INTERNAL_ERROR.name());
+            return new BatchResultDto(HttpStatus.INTERNAL_SERVER_ERROR.value(), errorResponse);
+        }
+        return new BatchResultDto(response.getStatus(), toBody(response));
+    }
+
+    private BatchSubRequest toSubRequest(BatchOperationDto operation, HttpServletRequest batchRequest) {
+        byte[] body = new byte[0];
+        if (operation.getBody() != null) {
+            try {
+                body = objectMapper.writeValueAsBytes(operation.getBody());
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+        return new BatchSubRequest(batchRequest, operation.getMethod().name(), operation.getPath(),
+                operation.getHeaders() == null ? Collections.emptyMap() : operation.getHeaders(), body);
+    }
+
+    private Object toBody(BatchSubResponse response) {
+        byte[] body = response.getBody();
+        if (body.length == 0) {
+            return null;
+        }
+        String contentType = response.getHeader(HttpHeaders.CONTENT_TYPE);
+        String text = new String(body, StandardCharsets.UTF_8);
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return new RawValue(text);
+        }
+        return text;
+    }
+
+    private static boolean isRead(BatchOperationDto operation) {
+        return operation.getMethod() == HttpMethod.GET;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки выполнения пакетных запросов.
+ */
+@ConfigurationProperties(prefix = "shareit-gateway.batch")
+@Getter
+@Setter
+public class BatchProperties {
+
+    /**
+     * Максимальное количество операций одного пакета, выполняемых одновременно.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Количество потоков, общих для всех пакетных запросов. Если все потоки заняты, операции выполняются в потоке
+     * пакетного запроса.
+     */
+    private int threads = 32;
+}
@@ -0,0 +1,322 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import ru.practicum.shareit.shared.deadline.RequestDeadlines;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Запрос операции пакета. Все данные, которые нужны контроллерам и DispatcherServlet, хранятся в самом объекте
+ * и заполняются в потоке пакетного запроса, поэтому операции можно выполнять в других потоках, не обращаясь к
+ * объекту запроса контейнера. Атрибуты у каждой операции свои.
+ */
+class BatchSubRequest extends HttpServletRequestWrapper {
+
+    private static final List<String> INHERITED_HEADERS = List.of("X-Sharer-User-Id", HttpHeaders.ACCEPT_LANGUAGE);
+
+    private final String method;
+
+    private final String contextPath;
+
+    private final String requestUri;
+
+    private final StringBuffer requestUrl;
+
+    private final String pathInfo;
+
+    private final String queryString;
+
+    private final Map<String, String[]> parameters;
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    private final byte[] body;
+
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    private final List<Locale> locales;
+
+    private final Cookie[] cookies;
+
+    private String characterEncoding = StandardCharsets.UTF_8.name();
+
+    BatchSubRequest(HttpServletRequest batchRequest, String method, String path,
+                    Map<String, String> operationHeaders, byte[] body) {
+        super(batchRequest);
+        UriComponents uri = UriComponentsBuilder.fromUriString(path).build();
+        this.method = method;
+        this.contextPath = batchRequest.getContextPath();
+        this.pathInfo = UriUtils.decode(uri.getPath(), StandardCharsets.UTF_8);
+        this.requestUri = contextPath + uri.getPath();
+        this.requestUrl = new StringBuffer(batchRequest.getScheme()).append("://").append(batchRequest.getServerName())
+                .append(':').append(batchRequest.getServerPort()).append(requestUri);
+        this.queryString = uri.getQuery();
+        this.parameters = decode(uri.getQueryParams());
+        for (String name : INHERITED_HEADERS) {
+            String value = batchRequest.getHeader(name);
+            if (value != null) {
+                headers.set(name, value);
+            }
+        }
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (body.length > 0) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+        operationHeaders.forEach(headers::set);
+        this.body = body;
+        this.locales = Collections.list(batchRequest.getLocales());
+        this.cookies = batchRequest.getCookies();
+    }
+
+    /**
+     * Ограничение времени на выполнение операции временем, оставшимся до срока выполнения пакетного запроса. Если
+     * операция сама задала меньшее время в заголовке X-Request-Timeout-Ms, оно сохраняется.
+     *
+     * @param remainingMillis оставшееся время пакетного запроса в миллисекундах
+     */
+    void limitTimeout(long remainingMillis) {
+        long timeout = Math.max(0, remainingMillis);
+        String operationTimeout = headers.getFirst(RequestDeadlines.TIMEOUT_HEADER);
+        if (operationTimeout != null) {
+            try {
+                timeout = Math.min(timeout, Long.parseLong(operationTimeout.trim()));
+            } catch (NumberFormatException ignored) {
+                // некорректное значение операции заменяется оставшимся временем пакета
+            }
+        }
+        headers.set(RequestDeadlines.TIMEOUT_HEADER, String.valueOf(timeout));
+    }
+
+    private static Map<String, String[]> decode(MultiValueMap<String, String> encodedParameters) {
+        MultiValueMap<String, String> decoded = new LinkedMultiValueMap<>();
+        encodedParameters.forEach((name, values) -> {
+            String decodedName = UriUtils.decode(name, StandardCharsets.UTF_8);
+            for (String value : values) {
+                decoded.add(decodedName, value == null ? "" : UriUtils.decode(value, StandardCharsets.UTF_8));
+            }
+        });
+        Map<String, String[]> result = new LinkedHashMap<>();
+        decoded.forEach((name, values) -> result.put(name, values.toArray(new String[0])));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(requestUrl);
+    }
+
+    @Override
+    public String getServletPath() {
+        return "";
+    }
+
+    @Override
+    public String getPathInfo() {
+        return pathInfo;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values == null ? null : values[0];
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return Collections.enumeration(headers.getOrEmpty(name));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return headers.getFirstDate(name);
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String characterEncoding) {
+        this.characterEncoding = characterEncoding;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                Charset.forName(characterEncoding)));
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locales.isEmpty() ? Locale.getDefault() : locales.get(0);
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(locales);
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return cookies;
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+}
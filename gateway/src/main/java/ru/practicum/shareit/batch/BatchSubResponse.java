@@ -0,0 +1,244 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Ответ операции пакета. Статус, заголовки и тело накапливаются в памяти и не попадают в ответ пакетного
+ * запроса.
+ */
+class BatchSubResponse extends HttpServletResponseWrapper {
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+        @Override
+        public void write(int b) {
+            body.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            body.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private PrintWriter writer;
+
+    private int status = HttpStatus.OK.value();
+
+    private String characterEncoding = StandardCharsets.UTF_8.name();
+
+    private Locale locale = Locale.getDefault();
+
+    BatchSubResponse(HttpServletResponse batchResponse) {
+        super(batchResponse);
+    }
+
+    byte[] getBody() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body.toByteArray();
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public void sendError(int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendError(int status, String message) {
+        this.status = status;
+        resetBuffer();
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        this.status = HttpStatus.FOUND.value();
+        headers.setLocation(URI.create(location));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        return headers.getOrEmpty(name);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return headers.keySet();
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        headers.set(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.add(name, value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        headers.set(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        headers.add(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        headers.setDate(name, date);
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        HttpHeaders formatted = new HttpHeaders();
+        formatted.setDate(name, date);
+        headers.addAll(name, formatted.getOrEmpty(name));
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public void setContentType(String type) {
+        if (type == null) {
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+        } else {
+            headers.set(HttpHeaders.CONTENT_TYPE, type);
+        }
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String characterEncoding) {
+        this.characterEncoding = characterEncoding;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(body, Charset.forName(characterEncoding)));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public int getBufferSize() {
+        return body.size();
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = HttpStatus.OK.value();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        body.reset();
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+    }
+}
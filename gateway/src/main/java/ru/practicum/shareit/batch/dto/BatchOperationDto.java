@@ -0,0 +1,40 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpMethod;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import java.util.Map;
+
+/**
+ * Операция пакетного запроса.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchOperationDto {
+
+    @NotNull(message = "Не указан метод операции.")
+    private HttpMethod method;
+
+    /**
+     * Путь операции вместе со строкой запроса, например /items/search?text=дрель.
+     */
+    @NotBlank(message = "Не указан путь операции.")
+    @Pattern(regexp = "^/(?!batch(?:[/?]|$)).*", message = "Некорректный путь операции.")
+    private String path;
+
+    private JsonNode body;
+
+    /**
+     * Заголовки операции. Заголовок X-Sharer-User-Id по умолчанию берется из пакетного запроса.
+     */
+    private Map<String, String> headers;
+}
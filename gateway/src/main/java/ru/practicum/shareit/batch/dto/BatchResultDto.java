@@ -0,0 +1,19 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Результат операции пакетного запроса. Тело ответа в формате JSON встраивается в результат без повторной
+ * сериализации, тело другого типа передается строкой.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResultDto {
+
+    private int status;
+
+    private Object body;
+}
@@ -3,47 +3,72 @@ package ru.practicum.shareit.booking;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.AddBookingDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.GetBookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.UnknownUserCache;
+import ru.practicum.shareit.client.UpstreamGuards;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 import java.util.Map;
 
 @Service
+@Profile("!reactive")
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ResponseCache responseCache;
+
+    private final RequestCoalescer requestCoalescer;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory shareItRequestFactory, ResponseCache responseCache,
+                         RequestCoalescer requestCoalescer, UpstreamGuards upstreamGuards,
+                         UnknownUserCache unknownUserCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItRequestFactory)
+                        .build(),
+                upstreamGuards.forClient("bookings"),
+                unknownUserCache
         );
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    public void getBookingsByIds(long userId, List<Long> ids, HttpServletResponse response) {
+        relay("?ids={ids}", userId, Map.of("ids", StringUtils.collectionToCommaDelimitedString(ids)), response);
     }
 
-    public List<BookingDto> getBookings(long userId, GetBookingState state, Long from, Integer size) {
+    public void getBookings(long userId, GetBookingState state, Long from, Integer size, boolean ndjson,
+                            HttpServletResponse response) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters, List.class);
+        relay("?state={state}&from={from}&size={size}", userId, parameters, ndjson, response);
     }
 
-    public List<BookingDto> getOwnerBookings(long userId, GetBookingState state, Long from, Integer size) {
+    public void getOwnerBookings(long userId, GetBookingState state, Long from, Integer size, boolean ndjson,
+                                 HttpServletResponse response) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters, List.class);
+        relay("/owner?state={state}&from={from}&size={size}", userId, parameters, ndjson, response);
     }
 
 
@@ -52,10 +77,15 @@ public class BookingClient extends BaseClient {
     }
 
     public BookingDto getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId, BookingDto.class);
+        return requestCoalescer.execute(API_PREFIX + "/" + bookingId, userId,
+                () -> getHedged("/" + bookingId, userId, BookingDto.class));
     }
 
     public BookingDto acknowledgeBooking(long userId, Long bookingId, Boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userId, BookingDto.class);
+        BookingDto booking = patch("/" + bookingId + "?approved=" + approved, userId, BookingDto.class);
+        if (booking != null && booking.getItem() != null) {
+            responseCache.evict("/items/" + booking.getItem().getId());
+        }
+        return booking;
     }
 }
@@ -2,25 +2,33 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.AddBookingDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.GetBookingState;
+import ru.practicum.shareit.shared.Ndjson;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 import static ru.practicum.shareit.shared.ControllerConstants.DEFAULT_PAGE_SIZE;
+import static ru.practicum.shareit.shared.ControllerConstants.MAX_BATCH_SIZE;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
+@Profile("!reactive")
 public class BookingController {
 
     private final BookingClient bookingClient;
@@ -29,7 +37,7 @@ public class BookingController {
     @ResponseStatus(HttpStatus.CREATED)
     public BookingDto addNewBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                                 @Valid @RequestBody AddBookingDto bookingDto) {
-        log.info("Creating booking {}, userId={}", bookingDto, userId);
+        log.info("Creating booking of item {}, userId={}", bookingDto.getItemId(), userId);
         return bookingClient.addBooking(userId, bookingDto);
     }
 
@@ -48,21 +56,33 @@ public class BookingController {
         return bookingClient.getBooking(userId, bookingId);
     }
 
+    @GetMapping(params = "ids")
+    public void getBookingsByIds(@RequestHeader("X-Sharer-User-Id") long userId,
+                                 @RequestParam @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Positive Long> ids,
+                                 HttpServletResponse response) {
+        log.info("Get bookings {}, userId={}", ids, userId);
+        bookingClient.getBookingsByIds(userId, ids, response);
+    }
+
     @GetMapping
-    public List<BookingDto> getAllBookingsFromUser(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                   @RequestParam(defaultValue = "ALL") GetBookingState state,
-                                                   @PositiveOrZero @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
-                                                   @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size) {
+    public void getAllBookingsFromUser(@RequestHeader("X-Sharer-User-Id") long userId,
+                                       @RequestParam(defaultValue = "ALL") GetBookingState state,
+                                       @PositiveOrZero @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
+                                       @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                       HttpServletResponse response) {
         log.info("Get booking with state {}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        bookingClient.getBookings(userId, state, from, size, Ndjson.isRequested(accept), response);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                      @RequestParam(defaultValue = "ALL") GetBookingState state,
-                                                      @PositiveOrZero @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
-                                                      @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size) {
-        log.info("Get booking with state {}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingClient.getOwnerBookings(userId, state, from, size);
+    public void getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                    @RequestParam(defaultValue = "ALL") GetBookingState state,
+                                    @PositiveOrZero @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
+                                    @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                    HttpServletResponse response) {
+        log.info("Get owner bookings with state {}, userId={}, from={}, size={}", state, userId, from, size);
+        bookingClient.getOwnerBookings(userId, state, from, size, Ndjson.isRequested(accept), response);
     }
 }
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.AddBookingDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.GetBookingState;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                 ClientHttpConnector shareItClientHttpConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(shareItClientHttpConnector)
+                        .build()
+        );
+    }
+
+    public Flux<BookingDto> getBookings(long userId, GetBookingState state, Long from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        );
+        return getAll("?state={state}&from={from}&size={size}", userId, parameters, BookingDto.class);
+    }
+
+    public Flux<BookingDto> getOwnerBookings(long userId, GetBookingState state, Long from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        );
+        return getAll("/owner?state={state}&from={from}&size={size}", userId, parameters, BookingDto.class);
+    }
+
+    public Mono<BookingDto> addBooking(long userId, AddBookingDto bookingDto) {
+        return post("", userId, bookingDto, BookingDto.class);
+    }
+
+    public Mono<BookingDto> getBooking(long userId, Long bookingId) {
+        return get("/" + bookingId, userId, BookingDto.class);
+    }
+
+    public Mono<BookingDto> acknowledgeBooking(long userId, Long bookingId, Boolean approved) {
+        return patch("/" + bookingId + "?approved=" + approved, userId, BookingDto.class);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.AddBookingDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.GetBookingState;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static ru.practicum.shareit.shared.ControllerConstants.DEFAULT_PAGE_SIZE;
+
+@RestController
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+@Profile("reactive")
+public class ReactiveBookingController {
+
+    private final ReactiveBookingClient bookingClient;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BookingDto> addNewBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                          @Valid @RequestBody AddBookingDto bookingDto) {
+        log.info("Creating booking of item {}, userId={}", bookingDto.getItemId(), userId);
+        return bookingClient.addBooking(userId, bookingDto);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<BookingDto> acknowledgeBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @PathVariable Long bookingId,
+                                               @RequestParam Boolean approved) {
+        return bookingClient.acknowledgeBooking(userId, bookingId, approved);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<BookingDto> getBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                           @PathVariable Long bookingId) {
+        log.info("Get booking {}, userId={}", bookingId, userId);
+        return bookingClient.getBooking(userId, bookingId);
+    }
+
+    @GetMapping
+    public Flux<BookingDto> getAllBookingsFromUser(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @RequestParam(defaultValue = "ALL") GetBookingState state,
+                                                   @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
+                                                   @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size) {
+        log.info("Get booking with state {}, userId={}, from={}, size={}", state, userId, from, size);
+        return bookingClient.getBookings(userId, state, from, size);
+    }
+
+    @GetMapping("/owner")
+    public Flux<BookingDto> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @RequestParam(defaultValue = "ALL") GetBookingState state,
+                                                @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
+                                                @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size) {
+        log.info("Get owner bookings with state {}, userId={}, from={}, size={}", state, userId, from, size);
+        return bookingClient.getOwnerBookings(userId, state, from, size);
+    }
+}
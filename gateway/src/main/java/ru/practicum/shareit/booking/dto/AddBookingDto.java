@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ValidateDateRange(start = "start", end = "end", message = "Задан некорректный интервал бронирования.")
+@ValidateDateRange(start = "start", end = "end", message = "Задан некорректный интервал бронирования.",
+        startMessage = "Дата начала бронирования должна быть в будущем.",
+        endMessage = "Дата окончания бронирования должна быть позже даты начала.")
 public class AddBookingDto {
 
     @NotNull(message = "Не указан идентификатор вещи.")
@@ -18,6 +18,16 @@ public @interface ValidateDateRange {
 
     String message() default "Неверно заданы даты.";
 
+    /**
+     * Сообщение для поля начала интервала, если дата начала не в будущем.
+     */
+    String startMessage() default "Дата начала должна быть в будущем.";
+
+    /**
+     * Сообщение для поля окончания интервала, если дата окончания не позже даты начала.
+     */
+    String endMessage() default "Дата окончания должна быть позже даты начала.";
+
     Class<?>[] groups() default {};
 
     Class<? extends Payload>[] payload() default {};
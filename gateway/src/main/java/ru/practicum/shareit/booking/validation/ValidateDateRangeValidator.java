@@ -1,41 +1,92 @@
 package ru.practicum.shareit.booking.validation;
 
+import javax.validation.ConstraintDeclarationException;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.time.LocalDateTime;
 
+/**
+ * Проверка интервала дат. Доступ к полям интервала определяется один раз для каждого проверяемого класса,
+ * поэтому при проверке объекта рефлексия не используется. Незаполненные даты считаются корректными, их
+ * проверяет {@link javax.validation.constraints.NotNull}. При ошибке, помимо общего сообщения, указывается
+ * поле, содержащее некорректную дату.
+ */
 public class ValidateDateRangeValidator implements ConstraintValidator<ValidateDateRange, Object> {
 
+    private static final MethodType GETTER_TYPE = MethodType.methodType(LocalDateTime.class, Object.class);
+
     String start;
     String end;
-    String message;
+    String startMessage;
+    String endMessage;
+
+    private final ClassValue<MethodHandle[]> accessors = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+            return new MethodHandle[]{findGetter(type, start), findGetter(type, end)};
+        }
+    };
 
     @Override
     public void initialize(ValidateDateRange constraintAnnotation) {
         ConstraintValidator.super.initialize(constraintAnnotation);
         start = constraintAnnotation.start();
         end = constraintAnnotation.end();
-        message = constraintAnnotation.message();
+        startMessage = constraintAnnotation.startMessage();
+        endMessage = constraintAnnotation.endMessage();
     }
 
     @Override
     public boolean isValid(Object object, ConstraintValidatorContext constraintValidatorContext) {
+        if (object == null) {
+            return true;
+        }
+        MethodHandle[] getters = getters(object.getClass());
+        LocalDateTime startDate;
+        LocalDateTime endDate;
         try {
-            Field startField = object.getClass().getDeclaredField(start);
-            startField.setAccessible(true);
-            Field endField = object.getClass().getDeclaredField(end);
-            endField.setAccessible(true);
-
-            LocalDateTime startDate = (LocalDateTime) startField.get(object);
-            LocalDateTime endDate = (LocalDateTime) endField.get(object);
-            if (startDate == null || endDate == null) {
-                return false;
-            }
-            return endDate.isAfter(startDate) && !endDate.isEqual(startDate) &&
-                    !endDate.isEqual(LocalDateTime.now()) && startDate.isAfter(LocalDateTime.now());
-        } catch (NoSuchFieldException | IllegalAccessException e) {
+            startDate = (LocalDateTime) getters[0].invokeExact(object);
+            endDate = (LocalDateTime) getters[1].invokeExact(object);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Не удалось прочитать интервал дат объекта " + object.getClass().getName(), e);
+        }
+        if (startDate == null || endDate == null) {
+            return true;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!startDate.isAfter(now)) {
+            addViolation(constraintValidatorContext, start, startMessage);
+            return false;
+        }
+        if (!endDate.isAfter(startDate)) {
+            addViolation(constraintValidatorContext, end, endMessage);
             return false;
         }
+        return true;
+    }
+
+    MethodHandle[] getters(Class<?> type) {
+        return accessors.get(type);
+    }
+
+    private static void addViolation(ConstraintValidatorContext context, String field, String message) {
+        context.buildConstraintViolationWithTemplate(message)
+                .addPropertyNode(field)
+                .addConstraintViolation();
+    }
+
+    private static MethodHandle findGetter(Class<?> type, String field) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                    .findGetter(type, field, LocalDateTime.class)
+                    .asType(GETTER_TYPE);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new ConstraintDeclarationException("В классе " + type.getName()
+                    + " нет доступного поля " + field + " типа LocalDateTime", e);
+        }
     }
 }
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный лимит одновременных запросов к основному сервису (AIMD). Пока запросы выполняются быстрее
+ * заданного порога, лимит растет примерно на единицу за каждые limit запросов. Медленный или неуспешный запрос
+ * уменьшает лимит в заданное число раз. Лимит не выходит за пределы [minLimit, maxLimit], где maxLimit —
+ * размер изолированного пула (bulkhead) клиента.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimit(UpstreamGuardProperties.ConcurrencyLimit properties, int maxLimit) {
+        this.maxLimit = Math.max(1, maxLimit);
+        minLimit = Math.max(1, Math.min(properties.getMinLimit(), this.maxLimit));
+        latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        backoffRatio = properties.getBackoffRatio();
+        limit = Math.max(minLimit, Math.min(properties.getInitialLimit(), this.maxLimit));
+    }
+
+    /**
+     * Попытка занять место для запроса к основному сервису.
+     *
+     * @return true, если место занято, false, если лимит исчерпан
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождение места без учета результата запроса.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Освобождение места с учетом результата запроса.
+     *
+     * @param latencyNanos время выполнения запроса
+     * @param dropped      true, если запрос завершился ошибкой основного сервиса
+     */
+    public void onComplete(long latencyNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (dropped || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (current * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
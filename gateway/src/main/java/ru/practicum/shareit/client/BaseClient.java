@@ -1,17 +1,60 @@
 package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.shared.Ndjson;
+import ru.practicum.shareit.shared.exception.UnknownUserException;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
+/**
+ * Базовый клиент основного сервиса. Идемпотентные запросы (GET, PUT, DELETE) повторяются после ошибки основного
+ * сервиса. Запросы POST и PATCH не повторяются: основной сервис не распознает повторные попытки, и повтор мог бы
+ * создать или изменить сущность дважды. Потоковая передача ответа не повторяется, так как часть ответа может быть
+ * уже отправлена клиенту.
+ */
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(),
+            "keep-alive",
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.TE.toLowerCase(),
+            HttpHeaders.TRAILER.toLowerCase(),
+            HttpHeaders.UPGRADE.toLowerCase(),
+            HttpHeaders.PROXY_AUTHENTICATE.toLowerCase(),
+            HttpHeaders.PROXY_AUTHORIZATION.toLowerCase()
+    );
+
+    private static final List<MediaType> NDJSON_ACCEPT = List.of(Ndjson.APPLICATION_NDJSON, MediaType.APPLICATION_JSON);
+
     protected final RestTemplate rest;
 
-    public BaseClient(RestTemplate rest) {
+    private final UpstreamGuard upstreamGuard;
+
+    private final UnknownUserCache unknownUserCache;
+
+    public BaseClient(RestTemplate rest, UpstreamGuard upstreamGuard, UnknownUserCache unknownUserCache) {
         this.rest = rest;
+        this.upstreamGuard = upstreamGuard;
+        this.unknownUserCache = unknownUserCache;
     }
 
     protected <S> S get(String path, Class<S> returnType) {
@@ -24,7 +67,58 @@ public class BaseClient {
 
     protected <S> S get(String path, Long userId, @Nullable Map<String, Object> parameters,
                         Class<S> returnType) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, returnType);
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, returnType, false);
+    }
+
+    /**
+     * GET-запрос с дублированием: если ответ не получен за время, в которое укладывается заданный перцентиль
+     * ответов, отправляется второй запрос, и используется первый полученный ответ.
+     */
+    protected <S> S getHedged(String path, long userId, Class<S> returnType) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, returnType, true);
+    }
+
+    /**
+     * Условный GET-запрос к основному сервису. Значение If-None-Match передается основному сервису, и если у клиента
+     * актуальная версия, то возвращается ответ со статусом 304 без тела. ETag основного сервиса возвращается в
+     * заголовках ответа.
+     *
+     * @param path        путь запроса
+     * @param userId      идентификатор пользователя, делающего запрос
+     * @param ifNoneMatch значение заголовка If-None-Match запроса клиента
+     * @param returnType  тип тела ответа
+     * @return ответ основного сервиса вместе с заголовками
+     */
+    protected <S> ResponseEntity<S> getIfNoneMatch(String path, @Nullable Long userId, @Nullable String ifNoneMatch,
+                                                   Class<S> returnType) {
+        return getIfNoneMatch(path, userId, ifNoneMatch, returnType, false);
+    }
+
+    /**
+     * Условный GET-запрос к основному сервису, при необходимости с дублированием (см. {@link #getHedged}).
+     */
+    protected <S> ResponseEntity<S> getIfNoneMatch(String path, @Nullable Long userId, @Nullable String ifNoneMatch,
+                                                   Class<S> returnType, boolean hedged) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
+        return sendIdempotent(userId, () -> rest.exchange(path, HttpMethod.GET, requestEntity, returnType), hedged);
+    }
+
+    /**
+     * Ключ объединения одинаковых условных запросов: запросы с разными If-None-Match могут получить разные ответы.
+     */
+    protected static String conditionalKey(String path, @Nullable String ifNoneMatch) {
+        return ifNoneMatch == null ? path : path + "#" + ifNoneMatch;
+    }
+
+    /**
+     * Проверка, что ответ основного сервиса содержит тело и может быть сохранен в кэше.
+     */
+    protected static boolean isFullResponse(ResponseEntity<?> response) {
+        return response.getStatusCode() == HttpStatus.OK && response.hasBody();
     }
 
     protected <T, S> S post(String path, T body, Class<S> returnType) {
@@ -37,7 +131,7 @@ public class BaseClient {
 
     protected <T, S> S post(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
                             Class<S> returnType) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, returnType);
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, returnType, false);
     }
 
     protected <T, S> S put(String path, long userId, T body, Class<S> returnType) {
@@ -46,7 +140,7 @@ public class BaseClient {
 
     protected <T, S> S put(String path, long userId, @Nullable Map<String, Object> parameters, T body,
                            Class<S> returnType) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, returnType);
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, returnType, false);
     }
 
     protected <T, S> S patch(String path, T body, Class<S> returnType) {
@@ -63,7 +157,7 @@ public class BaseClient {
 
     protected <T, S> S patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
                              Class<S> returnType) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, returnType);
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, returnType, false);
     }
 
     protected void delete(String path) {
@@ -75,21 +169,174 @@ public class BaseClient {
     }
 
     protected void delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, Void.class);
+        makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, Void.class, false);
+    }
+
+    protected void relay(String path, HttpServletResponse response) {
+        relay(path, null, null, response);
+    }
+
+    protected void relay(String path, long userId, HttpServletResponse response) {
+        relay(path, userId, null, response);
+    }
+
+    /**
+     * Проксирование GET-запроса к основному сервису без десериализации ответа. Статус, заголовки и тело ответа
+     * копируются напрямую в выходной поток сервлета. Ответы с ошибками обрабатываются так же, как и в
+     * {@link #makeAndSendRequest}.
+     *
+     * @param path       путь запроса
+     * @param userId     идентификатор пользователя, делающего запрос
+     * @param parameters параметры запроса
+     * @param response   ответ, в который копируется ответ основного сервиса
+     */
+    protected void relay(String path, Long userId, @Nullable Map<String, Object> parameters,
+                         HttpServletResponse response) {
+        relay(path, userId, parameters, false, response);
+    }
+
+    /**
+     * Проксирование GET-запроса к основному сервису. Если запрошен ответ в формате NDJSON, он передается клиенту
+     * по мере получения от основного сервиса: каждая прочитанная часть сразу отправляется клиенту, и ответ целиком
+     * не накапливается ни в памяти шлюза, ни в буфере ответа.
+     * <p>
+     * Под защитой {@link UpstreamGuard} выполняется только получение статуса и заголовков ответа: время передачи
+     * тела клиенту шлюза зависит от скорости клиента, а не основного сервиса, и ошибки записи в ответ клиенту
+     * не считаются ошибками основного сервиса.
+     *
+     * @param path       путь запроса
+     * @param userId     идентификатор пользователя, делающего запрос
+     * @param parameters параметры запроса
+     * @param ndjson     запрос ответа в формате NDJSON
+     * @param response   ответ, в который копируется ответ основного сервиса
+     */
+    protected void relay(String path, Long userId, @Nullable Map<String, Object> parameters, boolean ndjson,
+                         HttpServletResponse response) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ndjson) {
+            headers.setAccept(NDJSON_ACCEPT);
+        }
+        try (ClientHttpResponse shareitServerResponse = send(userId, () -> openResponse(path, parameters, headers))) {
+            if (ndjson) {
+                streamResponse(shareitServerResponse, response);
+            } else {
+                copyResponse(shareitServerResponse, response);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Проксирование GET-запроса с объединением одинаковых одновременных запросов. Ответ основного сервиса
+     * считывается целиком и передается всем ожидающим запросам, поэтому метод предназначен для ответов
+     * ограниченного размера (например, постраничных).
+     *
+     * @param coalescer      объединение одновременных запросов
+     * @param coalescingKey  ключ объединения запросов
+     * @param coalescingUser идентификатор пользователя, если ответ зависит от пользователя, иначе null
+     * @param path           путь запроса
+     * @param userId         идентификатор пользователя, делающего запрос
+     * @param parameters     параметры запроса
+     * @param response       ответ, в который копируется ответ основного сервиса
+     */
+    protected void relayCoalesced(RequestCoalescer coalescer, String coalescingKey, @Nullable Long coalescingUser,
+                                  String path, Long userId, @Nullable Map<String, Object> parameters,
+                                  HttpServletResponse response) {
+        BufferedResponse shareitServerResponse = coalescer.execute(coalescingKey, coalescingUser,
+                () -> sendIdempotent(userId, () -> {
+                    RequestCallback requestCallback = request -> request.getHeaders().putAll(defaultHeaders(userId));
+                    ResponseExtractor<BufferedResponse> responseExtractor = BufferedResponse::of;
+                    if (parameters != null) {
+                        return rest.execute(path, HttpMethod.GET, requestCallback, responseExtractor, parameters);
+                    }
+                    return rest.execute(path, HttpMethod.GET, requestCallback, responseExtractor);
+                }, false));
+        try {
+            response.setStatus(shareitServerResponse.status);
+            copyHeaders(shareitServerResponse.headers, response);
+            response.getOutputStream().write(shareitServerResponse.body);
+            response.flushBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private <T, S> S makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                        @Nullable Map<String, Object> parameters, @Nullable T body, Class<S> returnType) {
+                                        @Nullable Map<String, Object> parameters, @Nullable T body, Class<S> returnType,
+                                        boolean hedged) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<S> shareitServerResponse;
+        Supplier<ResponseEntity<S>> call = () -> {
+            if (parameters != null) {
+                return rest.exchange(path, method, requestEntity, returnType, parameters);
+            }
+            return rest.exchange(path, method, requestEntity, returnType);
+        };
+        boolean idempotent = method == HttpMethod.GET || method == HttpMethod.PUT || method == HttpMethod.DELETE;
+        ResponseEntity<S> shareitServerResponse = idempotent
+                ? sendIdempotent(userId, call, hedged && method == HttpMethod.GET)
+                : send(userId, call);
+        return shareitServerResponse.getBody();
+    }
 
-        if (parameters != null) {
-            shareitServerResponse = rest.exchange(path, method, requestEntity, returnType, parameters);
-        } else {
-            shareitServerResponse = rest.exchange(path, method, requestEntity, returnType);
+    /**
+     * Отправка GET-запроса основному сервису и получение ответа, тело которого еще не прочитано. Ответы с ошибками
+     * обрабатываются обработчиком ошибок {@link RestTemplate}, как и в {@link RestTemplate#execute}. Успешный ответ
+     * должен быть закрыт вызывающим кодом.
+     */
+    private ClientHttpResponse openResponse(String path, @Nullable Map<String, Object> parameters,
+                                            HttpHeaders headers) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ClientHttpResponse response = null;
+        boolean opened = false;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().putAll(headers);
+            response = request.execute();
+            ResponseErrorHandler errorHandler = rest.getErrorHandler();
+            if (errorHandler.hasError(response)) {
+                errorHandler.handleError(uri, HttpMethod.GET, response);
+            }
+            opened = true;
+            return response;
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        } finally {
+            if (!opened && response != null) {
+                response.close();
+            }
+        }
+    }
+
+    private <S> S send(@Nullable Long userId, Supplier<S> call) {
+        return checkUnknownUser(userId, () -> upstreamGuard.execute(call));
+    }
+
+    private <S> S sendIdempotent(@Nullable Long userId, Supplier<S> call, boolean hedged) {
+        return checkUnknownUser(userId, () -> upstreamGuard.executeIdempotent(call, hedged));
+    }
+
+    /**
+     * Отправка запроса основному сервису. Запросы от имени пользователей, о которых известно, что они не найдены,
+     * отклоняются без обращения к основному сервису.
+     */
+    private <S> S checkUnknownUser(@Nullable Long userId, Supplier<S> guardedCall) {
+        if (userId == null) {
+            return guardedCall.get();
+        }
+        if (unknownUserCache.isUnknown(userId)) {
+            throw new UnknownUserException(userId);
+        }
+        long generation = unknownUserCache.generation();
+        try {
+            return guardedCall.get();
+        } catch (HttpClientErrorException.NotFound e) {
+            unknownUserCache.recordIfUserNotFound(userId, generation, e);
+            throw e;
         }
-        return shareitServerResponse.getBody();
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -101,4 +348,54 @@ public class BaseClient {
         }
         return headers;
     }
+
+    private void copyResponse(ClientHttpResponse shareitServerResponse, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(shareitServerResponse.getRawStatusCode());
+        copyHeaders(shareitServerResponse.getHeaders(), response);
+        StreamUtils.copy(shareitServerResponse.getBody(), response.getOutputStream());
+        response.flushBuffer();
+    }
+
+    private void streamResponse(ClientHttpResponse shareitServerResponse, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(shareitServerResponse.getRawStatusCode());
+        copyHeaders(shareitServerResponse.getHeaders(), response);
+        InputStream in = shareitServerResponse.getBody();
+        OutputStream out = response.getOutputStream();
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+        response.flushBuffer();
+    }
+
+    private void copyHeaders(HttpHeaders headers, HttpServletResponse response) {
+        headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+    }
+
+    private static class BufferedResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private BufferedResponse(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        private static BufferedResponse of(ClientHttpResponse shareitServerResponse) throws IOException {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(shareitServerResponse.getHeaders());
+            return new BufferedResponse(shareitServerResponse.getRawStatusCode(), headers,
+                    StreamUtils.copyToByteArray(shareitServerResponse.getBody()));
+        }
+    }
 }
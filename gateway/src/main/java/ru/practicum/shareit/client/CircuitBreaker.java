@@ -0,0 +1,163 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Автомат защиты для запросов к основному сервису. В замкнутом состоянии учитываются результаты последних
+ * запросов, и при превышении доли ошибок автомат размыкается. В разомкнутом состоянии запросы сразу отклоняются.
+ * По истечении заданного времени автомат переходит в полуоткрытое состояние и пропускает несколько пробных
+ * запросов: если все они успешны, автомат замыкается, при первой ошибке снова размыкается.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    private static final long HALF_OPEN_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+
+    private final boolean[] failures;
+
+    private final int minimumNumberOfCalls;
+
+    private final float failureRateThreshold;
+
+    private final long openDurationNanos;
+
+    private final int permittedCallsInHalfOpenState;
+
+    private final LongSupplier clock;
+
+    private final Map<State, LongAdder> transitions = new EnumMap<>(State.class);
+
+    private volatile State state = State.CLOSED;
+
+    private int position;
+
+    private int recordedCalls;
+
+    private int failedCalls;
+
+    private long openedAt;
+
+    private int halfOpenCalls;
+
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, UpstreamGuardProperties.CircuitBreaker properties) {
+        this(name, properties, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, UpstreamGuardProperties.CircuitBreaker properties, LongSupplier clock) {
+        this.name = name;
+        failures = new boolean[Math.max(1, properties.getSlidingWindowSize())];
+        minimumNumberOfCalls = Math.max(1, Math.min(properties.getMinimumNumberOfCalls(), failures.length));
+        failureRateThreshold = properties.getFailureRateThreshold();
+        openDurationNanos = properties.getOpenDuration().toNanos();
+        permittedCallsInHalfOpenState = Math.max(1, properties.getPermittedCallsInHalfOpenState());
+        this.clock = clock;
+        for (State value : State.values()) {
+            transitions.put(value, new LongAdder());
+        }
+    }
+
+    /**
+     * Получение разрешения на запрос к основному сервису.
+     *
+     * @return 0, если запрос разрешен, иначе время в наносекундах, через которое запрос можно повторить
+     */
+    public synchronized long tryAcquirePermission() {
+        if (state == State.OPEN) {
+            long remainingNanos = openedAt + openDurationNanos - clock.getAsLong();
+            if (remainingNanos > 0) {
+                return remainingNanos;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenCalls >= permittedCallsInHalfOpenState) {
+                return HALF_OPEN_RETRY_NANOS;
+            }
+            halfOpenCalls++;
+        }
+        return 0;
+    }
+
+    public synchronized void onSuccess() {
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        record(true);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getTransitionCount(State to) {
+        return transitions.get(to).sum();
+    }
+
+    private void record(boolean failure) {
+        switch (state) {
+            case CLOSED:
+                if (recordedCalls == failures.length) {
+                    if (failures[position]) {
+                        failedCalls--;
+                    }
+                } else {
+                    recordedCalls++;
+                }
+                failures[position] = failure;
+                if (failure) {
+                    failedCalls++;
+                }
+                position = (position + 1) % failures.length;
+                if (recordedCalls >= minimumNumberOfCalls
+                        && failedCalls * 100f / recordedCalls >= failureRateThreshold) {
+                    transitionTo(State.OPEN);
+                }
+                break;
+            case HALF_OPEN:
+                if (failure) {
+                    transitionTo(State.OPEN);
+                } else if (++halfOpenSuccesses >= permittedCallsInHalfOpenState) {
+                    transitionTo(State.CLOSED);
+                }
+                break;
+            default:
+                // Результат запроса, начатого до размыкания автомата, не учитывается.
+                break;
+        }
+    }
+
+    private void transitionTo(State newState) {
+        log.warn("Автомат защиты {} переходит из состояния {} в состояние {}.", name, state, newState);
+        state = newState;
+        transitions.get(newState).increment();
+        switch (newState) {
+            case OPEN:
+                openedAt = clock.getAsLong();
+                break;
+            case HALF_OPEN:
+                halfOpenCalls = 0;
+                halfOpenSuccesses = 0;
+                break;
+            default:
+                position = 0;
+                recordedCalls = 0;
+                failedCalls = 0;
+                break;
+        }
+    }
+}
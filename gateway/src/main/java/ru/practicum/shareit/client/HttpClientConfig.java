@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий для всех клиентов шлюза пул keep-alive соединений к основному сервису. По умолчанию используется HTTP/1.1,
+ * при котором каждый одновременный запрос занимает отдельное соединение. При включенном h2c запросы
+ * мультиплексируются в соединениях HTTP/2. Если указаны несколько экземпляров основного сервиса, запросы
+ * распределяются между ними балансировщиком.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    private static final String H2C_PREFIX = "shareit-server.http-client";
+
+    @Configuration
+    @ConditionalOnProperty(prefix = H2C_PREFIX, name = "h2c", havingValue = "false", matchIfMissing = true)
+    static class Http11ClientConfig {
+
+        @Bean
+        public PoolingHttpClientConnectionManager shareItConnectionManager(HttpClientProperties properties) {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                    properties.getTimeToLive().toMillis(), TimeUnit.MILLISECONDS);
+            connectionManager.setMaxTotal(properties.getMaxTotal());
+            connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+            connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+            return connectionManager;
+        }
+
+        @Bean
+        public CloseableHttpClient shareItHttpClient(PoolingHttpClientConnectionManager shareItConnectionManager,
+                                                     HttpClientProperties properties) {
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                    .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                    .setConnectionRequestTimeout((int) properties.getPoolAcquireTimeout().toMillis())
+                    .build();
+            return HttpClients.custom()
+                    .setConnectionManager(shareItConnectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(properties.getIdleEvictionTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactory shareItRequestFactory(CloseableHttpClient shareItHttpClient,
+                                                              LoadBalancer loadBalancer) {
+            return loadBalancer.decorate(new HttpComponentsClientHttpRequestFactory(shareItHttpClient));
+        }
+
+        @Bean
+        public MeterBinder shareItConnectionPoolMetrics(PoolingHttpClientConnectionManager shareItConnectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(shareItConnectionManager, "shareit-server");
+        }
+    }
+
+    /**
+     * Транспорт HTTP/2 без TLS. Соединение открывается сразу по протоколу HTTP/2 (prior knowledge), без
+     * промежуточного запроса Upgrade.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = H2C_PREFIX, name = "h2c", havingValue = "true")
+    static class H2cClientConfig {
+
+        @Bean
+        public ConnectionPool shareItConnectionPool(HttpClientProperties properties) {
+            return new ConnectionPool(properties.getMaxPerRoute(), properties.getIdleEvictionTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+
+        @Bean
+        public OkHttpClient shareItOkHttpClient(ConnectionPool shareItConnectionPool, HttpClientProperties properties) {
+            return new OkHttpClient.Builder()
+                    .protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE))
+                    .connectionPool(shareItConnectionPool)
+                    .connectTimeout(properties.getConnectTimeout())
+                    .readTimeout(properties.getReadTimeout())
+                    .retryOnConnectionFailure(false)
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactory shareItRequestFactory(OkHttpClient shareItOkHttpClient,
+                                                              LoadBalancer loadBalancer) {
+            return loadBalancer.decorate(new OkHttp3ClientHttpRequestFactory(shareItOkHttpClient));
+        }
+
+        @Bean
+        public MeterBinder shareItConnectionPoolMetrics(ConnectionPool shareItConnectionPool) {
+            return new OkHttpConnectionPoolMetrics(shareItConnectionPool, Tags.of("target", "shareit-server"));
+        }
+    }
+}
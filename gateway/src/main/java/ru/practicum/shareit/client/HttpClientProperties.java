@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула HTTP-соединений между шлюзом и основным сервисом.
+ */
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+@Getter
+@Setter
+public class HttpClientProperties {
+
+    /**
+     * Использование HTTP/2 без TLS (h2c) вместо HTTP/1.1. Запросы мультиплексируются в небольшом количестве
+     * соединений, поэтому на основном сервисе также должен быть включен h2c (shareit-server.h2c.enabled).
+     */
+    private boolean h2c = false;
+
+    /**
+     * Максимальное количество соединений в пуле.
+     */
+    private int maxTotal = 200;
+
+    /**
+     * Максимальное количество соединений к одному маршруту (хосту основного сервиса).
+     */
+    private int maxPerRoute = 100;
+
+    /**
+     * Таймаут установки TCP-соединения.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Таймаут ожидания данных от основного сервиса.
+     */
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Таймаут ожидания свободного соединения из пула.
+     */
+    private Duration poolAcquireTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Время, после которого неиспользуемое соединение закрывается.
+     */
+    private Duration idleEvictionTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Максимальное время жизни соединения. Нулевое значение означает отсутствие ограничения.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * Интервал, после которого соединение из пула проверяется перед повторным использованием.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Время ответа основного сервиса на последние запросы клиента. Хранится фиксированное количество последних
+ * значений, перцентиль пересчитывается после каждых RECALCULATE_EVERY новых значений, поэтому запись значения
+ * выполняется без блокировок и сортировки.
+ */
+class LatencyTracker {
+
+    private static final int SIZE = 1024;
+
+    private static final int RECALCULATE_EVERY = 64;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+
+    private final AtomicLong recorded = new AtomicLong();
+
+    private final double percentile;
+
+    private final int minSamples;
+
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(double percentile, int minSamples) {
+        this.percentile = Math.max(0, Math.min(1, percentile));
+        this.minSamples = Math.max(1, Math.min(SIZE, minSamples));
+    }
+
+    void record(long latencyNanos) {
+        long count = recorded.incrementAndGet();
+        samples.set((int) ((count - 1) % SIZE), latencyNanos);
+        if (count >= minSamples && (count % RECALCULATE_EVERY == 0 || percentileNanos < 0)) {
+            recalculate(count);
+        }
+    }
+
+    /**
+     * Перцентиль времени ответа в наносекундах или -1, если ответов пока слишком мало.
+     */
+    long getPercentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recalculate(long count) {
+        int size = (int) Math.min(count, SIZE);
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        percentileNanos = copy[Math.max(0, Math.min(size - 1, (int) Math.ceil(percentile * size) - 1))];
+    }
+}
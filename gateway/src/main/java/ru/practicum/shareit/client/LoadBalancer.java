@@ -0,0 +1,176 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Распределение запросов шлюза между экземплярами основного сервиса. Экземпляр выбирается по количеству
+ * выполняющихся запросов с учетом веса. Состояние экземпляров отслеживается пассивно, по результатам обычных
+ * запросов: после нескольких ошибок подряд (ошибки ввода-вывода и ответы 5xx) экземпляр исключается из
+ * балансировки на время, которое растет при повторных исключениях. Вернувшийся экземпляр получает нагрузку
+ * постепенно, чтобы не перегрузить его сразу после перезапуска.
+ */
+@Slf4j
+public class LoadBalancer implements MeterBinder {
+
+    private final List<ServerInstance> instances;
+
+    private final LoadBalancerProperties.Policy policy;
+
+    private final int consecutiveFailures;
+
+    private final long baseEjectionNanos;
+
+    private final long maxEjectionNanos;
+
+    private final int maxEjected;
+
+    private final long slowStartWindowNanos;
+
+    private final LongSupplier clock;
+
+    /**
+     * Исключение очередного экземпляра было пропущено, так как исключено максимальное количество экземпляров.
+     * Предупреждение пишется только при переходе в это состояние, а не на каждую ошибку. Изменяется под
+     * блокировкой tryEject.
+     */
+    private boolean ejectionLimitReached;
+
+    public LoadBalancer(LoadBalancerProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    LoadBalancer(LoadBalancerProperties properties, LongSupplier clock) {
+        List<ServerInstance> list = new ArrayList<>();
+        for (String instance : properties.getInstances()) {
+            if (!instance.isBlank()) {
+                list.add(new ServerInstance(URI.create(instance.trim())));
+            }
+        }
+        instances = Collections.unmodifiableList(list);
+        policy = properties.getPolicy();
+        consecutiveFailures = Math.max(1, properties.getConsecutiveFailures());
+        baseEjectionNanos = properties.getBaseEjectionTime().toNanos();
+        maxEjectionNanos = properties.getMaxEjectionTime().toNanos();
+        maxEjected = instances.size() * Math.max(0, Math.min(100, properties.getMaxEjectionPercent())) / 100;
+        slowStartWindowNanos = Math.max(1, properties.getSlowStartWindow().toNanos());
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return !instances.isEmpty();
+    }
+
+    public List<ServerInstance> getInstances() {
+        return instances;
+    }
+
+    /**
+     * Добавление балансировки к фабрике HTTP-запросов. Если экземпляры не указаны, фабрика возвращается без
+     * изменений.
+     */
+    public ClientHttpRequestFactory decorate(ClientHttpRequestFactory requestFactory) {
+        if (!isEnabled()) {
+            return requestFactory;
+        }
+        return new LoadBalancingClientHttpRequestFactory(requestFactory, this);
+    }
+
+    /**
+     * Выбор экземпляра для очередного запроса. Исключенные экземпляры не выбираются; если исключены все,
+     * выбор идет среди всех экземпляров.
+     */
+    public ServerInstance choose() {
+        if (instances.size() == 1) {
+            return instances.get(0);
+        }
+        long now = clock.getAsLong();
+        List<ServerInstance> candidates = new ArrayList<>(instances.size());
+        for (ServerInstance instance : instances) {
+            if (!instance.isEjected(now)) {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        if (policy == LoadBalancerProperties.Policy.LEAST_REQUESTS) {
+            ServerInstance best = null;
+            double bestLoad = Double.MAX_VALUE;
+            for (ServerInstance candidate : candidates) {
+                double load = load(candidate, now);
+                if (load < bestLoad) {
+                    best = candidate;
+                    bestLoad = load;
+                }
+            }
+            return best;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServerInstance a = candidates.get(first);
+        ServerInstance b = candidates.get(second);
+        return load(a, now) <= load(b, now) ? a : b;
+    }
+
+    void onSuccess(ServerInstance instance, long latencyNanos) {
+        instance.onSuccess(latencyNanos);
+    }
+
+    void onFailure(ServerInstance instance, long latencyNanos) {
+        if (instance.onFailure(latencyNanos) >= consecutiveFailures && instances.size() > 1) {
+            tryEject(instance);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        instances.forEach(instance -> instance.bindTo(registry));
+    }
+
+    private synchronized void tryEject(ServerInstance instance) {
+        long now = clock.getAsLong();
+        int ejected = 0;
+        for (ServerInstance other : instances) {
+            if (other.isEjected(now)) {
+                ejected++;
+            }
+        }
+        if (ejected >= maxEjected) {
+            if (!ejectionLimitReached) {
+                ejectionLimitReached = true;
+                log.warn("Экземпляр {} не исключен из балансировки: исключено максимальное количество экземпляров.",
+                        instance.getName());
+            } else {
+                log.debug("Экземпляр {} не исключен из балансировки: исключено максимальное количество экземпляров.",
+                        instance.getName());
+            }
+            return;
+        }
+        ejectionLimitReached = false;
+        if (instance.eject(now, baseEjectionNanos, maxEjectionNanos)) {
+            log.warn("Экземпляр {} исключен из балансировки после {} ошибок подряд.", instance.getName(),
+                    consecutiveFailures);
+        }
+    }
+
+    private double load(ServerInstance instance, long now) {
+        return (instance.getOutstanding() + 1) / instance.weight(now, slowStartWindowNanos);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public LoadBalancer loadBalancer(LoadBalancerProperties properties) {
+        return new LoadBalancer(properties);
+    }
+}
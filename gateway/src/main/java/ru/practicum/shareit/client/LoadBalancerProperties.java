@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки распределения запросов шлюза между несколькими экземплярами основного сервиса.
+ */
+@ConfigurationProperties(prefix = "shareit-server.load-balancer")
+@Getter
+@Setter
+public class LoadBalancerProperties {
+
+    public enum Policy {
+        /**
+         * Выбор экземпляра с наименьшим количеством выполняющихся запросов среди всех экземпляров.
+         */
+        LEAST_REQUESTS,
+
+        /**
+         * Выбор менее загруженного из двух случайных экземпляров.
+         */
+        POWER_OF_TWO_CHOICES
+    }
+
+    /**
+     * Адреса экземпляров основного сервиса, например http://server-1:9090. Если список пуст, все запросы
+     * отправляются по адресу shareit-server.url.
+     */
+    private List<String> instances = new ArrayList<>();
+
+    /**
+     * Способ выбора экземпляра.
+     */
+    private Policy policy = Policy.POWER_OF_TWO_CHOICES;
+
+    /**
+     * Количество ошибок подряд, после которого экземпляр временно исключается из балансировки.
+     */
+    private int consecutiveFailures = 5;
+
+    /**
+     * Базовое время исключения экземпляра. При повторных исключениях время увеличивается кратно их количеству.
+     */
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+    /**
+     * Максимальное время исключения экземпляра.
+     */
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    /**
+     * Максимальная доля одновременно исключенных экземпляров в процентах.
+     */
+    private int maxEjectionPercent = 50;
+
+    /**
+     * Время, в течение которого доля запросов к вернувшемуся экземпляру плавно увеличивается до обычной.
+     */
+    private Duration slowStartWindow = Duration.ofSeconds(30);
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Фабрика HTTP-запросов, отправляющая каждый запрос на экземпляр основного сервиса, выбранный балансировщиком.
+ * Клиенты по-прежнему строят адреса от shareit-server.url, фабрика заменяет в них схему и хост. Запрос считается
+ * выполняющимся до закрытия ответа, поэтому потоковая передача ответа клиенту тоже учитывается в нагрузке.
+ */
+public class LoadBalancingClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private final ClientHttpRequestFactory delegate;
+
+    private final LoadBalancer loadBalancer;
+
+    public LoadBalancingClientHttpRequestFactory(ClientHttpRequestFactory delegate, LoadBalancer loadBalancer) {
+        this.delegate = delegate;
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        ServerInstance instance = loadBalancer.choose();
+        return new LoadBalancedRequest(delegate.createRequest(instance.resolve(uri), httpMethod), instance);
+    }
+
+    private class LoadBalancedRequest implements ClientHttpRequest {
+
+        private final ClientHttpRequest request;
+
+        private final ServerInstance instance;
+
+        LoadBalancedRequest(ClientHttpRequest request, ServerInstance instance) {
+            this.request = request;
+            this.instance = instance;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            instance.onStart();
+            long start = System.nanoTime();
+            ClientHttpResponse response;
+            int status;
+            try {
+                response = request.execute();
+                status = response.getRawStatusCode();
+            } catch (IOException | RuntimeException e) {
+                instance.onComplete();
+                loadBalancer.onFailure(instance, System.nanoTime() - start);
+                throw e;
+            }
+            if (status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                loadBalancer.onFailure(instance, System.nanoTime() - start);
+            } else {
+                loadBalancer.onSuccess(instance, System.nanoTime() - start);
+            }
+            return new LoadBalancedResponse(response, instance);
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public String getMethodValue() {
+            return request.getMethodValue();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+    }
+
+    private static class LoadBalancedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+
+        private final ServerInstance instance;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        LoadBalancedResponse(ClientHttpResponse response, ServerInstance instance) {
+            this.response = response;
+            this.instance = instance;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    instance.onComplete();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неблокирующий аналог {@link BaseClient}. Ответы основного сервиса с ошибками приводят к
+ * {@link org.springframework.web.reactive.function.client.WebClientResponseException}, которое обрабатывается
+ * в {@link ru.practicum.shareit.shared.exception.GatewayExceptionHandler}.
+ */
+public class ReactiveBaseClient {
+    protected final WebClient webClient;
+
+    public ReactiveBaseClient(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    protected <S> Mono<S> get(String path, Class<S> returnType) {
+        return get(path, null, null, returnType);
+    }
+
+    protected <S> Mono<S> get(String path, long userId, Class<S> returnType) {
+        return get(path, userId, null, returnType);
+    }
+
+    protected <S> Mono<S> get(String path, Long userId, @Nullable Map<String, Object> parameters,
+                              Class<S> returnType) {
+        return retrieve(HttpMethod.GET, path, userId, parameters, null).bodyToMono(returnType);
+    }
+
+    protected <S> Flux<S> getAll(String path, Class<S> elementType) {
+        return getAll(path, null, null, elementType);
+    }
+
+    protected <S> Flux<S> getAll(String path, long userId, Class<S> elementType) {
+        return getAll(path, userId, null, elementType);
+    }
+
+    protected <S> Flux<S> getAll(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                 Class<S> elementType) {
+        return retrieve(HttpMethod.GET, path, userId, parameters, null).bodyToFlux(elementType);
+    }
+
+    protected <T, S> Mono<S> post(String path, T body, Class<S> returnType) {
+        return post(path, null, body, returnType);
+    }
+
+    protected <T, S> Mono<S> post(String path, Long userId, T body, Class<S> returnType) {
+        return retrieve(HttpMethod.POST, path, userId, null, body).bodyToMono(returnType);
+    }
+
+    protected <T, S> Mono<S> patch(String path, T body, Class<S> returnType) {
+        return patch(path, null, body, returnType);
+    }
+
+    protected <S> Mono<S> patch(String path, long userId, Class<S> returnType) {
+        return patch(path, userId, null, returnType);
+    }
+
+    protected <T, S> Mono<S> patch(String path, Long userId, @Nullable T body, Class<S> returnType) {
+        return retrieve(HttpMethod.PATCH, path, userId, null, body).bodyToMono(returnType);
+    }
+
+    protected Mono<Void> delete(String path) {
+        return retrieve(HttpMethod.DELETE, path, null, null, null).bodyToMono(Void.class);
+    }
+
+    private <T> WebClient.ResponseSpec retrieve(HttpMethod method, String path, Long userId,
+                                                @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.putAll(defaultHeaders(userId)));
+        if (body != null) {
+            return request.bodyValue(body).retrieve();
+        }
+        return request.retrieve();
+    }
+
+    private HttpHeaders defaultHeaders(Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Неблокирующий транспорт к основному сервису для режима шлюза reactive. Использует те же настройки пула и
+ * таймаутов, что и блокирующие клиенты.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxTotal())
+                .pendingAcquireTimeout(properties.getPoolAcquireTimeout())
+                .maxIdleTime(properties.getIdleEvictionTimeout())
+                .maxLifeTime(properties.getTimeToLive())
+                .evictInBackground(properties.getIdleEvictionTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector shareItClientHttpConnector(ConnectionProvider shareItConnectionProvider,
+                                                          HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareItConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        if (properties.isH2c()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C);
+        }
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых одновременных запросов к основному сервису. Пока выполняется запрос, все остальные запросы
+ * с тем же ключом не обращаются к основному сервису, а дожидаются его результата (в том числе ошибки). Идентификатор
+ * пользователя входит в ключ только для тех запросов, ответ на которые зависит от пользователя.
+ */
+public class RequestCoalescer implements MeterBinder {
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+
+    private final LongAdder collapsed = new LongAdder();
+
+    private final boolean enabled;
+
+    public RequestCoalescer(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Выполнение запроса к основному сервису или ожидание результата уже выполняющегося запроса с тем же ключом.
+     *
+     * @param path   путь запроса вместе с параметрами
+     * @param userId идентификатор пользователя, если ответ зависит от пользователя, иначе null
+     * @param call   запрос к основному сервису
+     * @return ответ основного сервиса
+     */
+    @SuppressWarnings("unchecked")
+    public <S> S execute(String path, @Nullable Long userId, Supplier<S> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        Key key = new Key(path, userId);
+        CompletableFuture<Object> ownCall = new CompletableFuture<>();
+        CompletableFuture<Object> leaderCall = inFlight.putIfAbsent(key, ownCall);
+        if (leaderCall != null) {
+            collapsed.increment();
+            return (S) await(leaderCall);
+        }
+        executed.increment();
+        try {
+            S response = call.get();
+            ownCall.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            ownCall.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ownCall);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.coalescing.executed", executed, LongAdder::sum)
+                .description("Запросы, отправленные в основной сервис")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalescing.collapsed", collapsed, LongAdder::sum)
+                .description("Запросы, дождавшиеся результата одинакового выполняющегося запроса")
+                .register(registry);
+        Gauge.builder("gateway.coalescing.in.flight", inFlight, ConcurrentMap::size)
+                .register(registry);
+    }
+
+    private Object await(CompletableFuture<Object> leaderCall) {
+        try {
+            return leaderCall.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Value
+    private static class Key {
+        String path;
+        Long userId;
+    }
+}
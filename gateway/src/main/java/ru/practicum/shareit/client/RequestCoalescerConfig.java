@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RequestCoalescerConfig {
+
+    @Bean
+    public RequestCoalescer requestCoalescer(
+            @Value("${shareit-gateway.request-coalescing.enabled:true}") boolean enabled) {
+        return new RequestCoalescer(enabled);
+    }
+}
@@ -0,0 +1,270 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Кэш ответов основного сервиса на запросы получения отдельных сущностей. Ключом служит путь запроса вместе с
+ * параметрами и идентификатор пользователя из заголовка X-Sharer-User-Id, так как ответ может зависеть от того, кто
+ * его запрашивает (например, даты бронирований видит только владелец вещи). Ответы с ошибками не кэшируются.
+ * <p>
+ * Ключи закэшированных ответов проиндексированы по пути, по пользователю и по меткам ответа, поэтому удаление
+ * затрагивает только нужные ответы и не перебирает весь кэш. Индексы меняются в той же атомарной операции над
+ * записью кэша, в которой ответ сохраняется или удаляется, а при вытеснении ответа по размеру или времени жизни
+ * ключ удаляется из индексов синхронно слушателем вытеснения.
+ * <p>
+ * Ответ, загрузка которого началась до удаления ответов по его пути, пользователю или метке, в кэш не попадает: он
+ * мог быть получен до изменения, из-за которого ответы удалялись. Для этого каждое удаление получает номер из общей
+ * последовательности и записывает его в ячейку, выбранную по хешу пути, пользователя или метки. После сохранения
+ * ответ удаляется, если в ячейке его пути, пользователя или одной из меток записан номер больше номера на момент
+ * начала загрузки. Удаления по другим путям, пользователям и меткам не мешают кэшированию, кроме редких совпадений
+ * ячеек.
+ */
+public class ResponseCache {
+
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private static final int PATH_STRIPE_SEED = 1;
+
+    private static final int USER_STRIPE_SEED = 2;
+
+    private static final int TAG_STRIPE_SEED = 3;
+
+    private final Cache<Key, Entry> cache;
+
+    private final boolean enabled;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLongArray lastInvalidation = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    private final ConcurrentMap<String, Set<Key>> keysByPath = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Set<Key>> keysByTag = new ConcurrentHashMap<>();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .<Key, Entry>evictionListener((key, entry, cause) -> {
+                    if (key != null && entry != null) {
+                        unindex(key, entry);
+                    }
+                })
+                .recordStats()
+                .build();
+        enabled = properties.isEnabled();
+    }
+
+    /**
+     * Получение ответа из кэша. Если ответа нет, то он загружается из основного сервиса и сохраняется в кэше.
+     *
+     * @param path   путь запроса вместе с параметрами
+     * @param userId идентификатор пользователя, делающего запрос
+     * @param loader загрузка ответа из основного сервиса
+     * @return ответ основного сервиса
+     */
+    public <S> S get(String path, @Nullable Long userId, Supplier<S> loader) {
+        return get(path, userId, loader, Objects::nonNull);
+    }
+
+    /**
+     * Получение ответа из кэша. Если ответа нет, то он загружается из основного сервиса и сохраняется в кэше, если
+     * удовлетворяет условию (например, ответ 304 без тела не сохраняется).
+     *
+     * @param path      путь запроса вместе с параметрами
+     * @param userId    идентификатор пользователя, делающего запрос
+     * @param loader    загрузка ответа из основного сервиса
+     * @param cacheable условие сохранения ответа в кэше
+     * @return ответ основного сервиса
+     */
+    public <S> S get(String path, @Nullable Long userId, Supplier<S> loader, Predicate<S> cacheable) {
+        return get(path, userId, loader, cacheable, response -> Set.of());
+    }
+
+    /**
+     * Получение ответа из кэша с метками. По метке удаляются ответы, содержащие данные других сущностей (например,
+     * имена авторов отзывов в ответе с вещью).
+     *
+     * @param path      путь запроса вместе с параметрами
+     * @param userId    идентификатор пользователя, делающего запрос
+     * @param loader    загрузка ответа из основного сервиса
+     * @param cacheable условие сохранения ответа в кэше
+     * @param tags      метки сохраняемого ответа
+     * @return ответ основного сервиса
+     */
+    @SuppressWarnings("unchecked")
+    public <S> S get(String path, @Nullable Long userId, Supplier<S> loader, Predicate<S> cacheable,
+                     Function<S, Set<String>> tags) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(path, userId);
+        Entry cachedEntry = cache.getIfPresent(key);
+        if (cachedEntry != null) {
+            return (S) cachedEntry.getResponse();
+        }
+        long loadStart = invalidations.get();
+        S response = loader.get();
+        if (response != null && cacheable.test(response)) {
+            Entry entry = new Entry(response, Set.copyOf(tags.apply(response)));
+            cache.asMap().compute(key, (k, previous) -> {
+                if (previous != null) {
+                    unindex(k, previous);
+                }
+                index(k, entry);
+                return entry;
+            });
+            if (invalidatedSince(key, entry, loadStart)) {
+                removeIfSame(key, entry);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Удаление из кэша ответов на запрос по указанному пути для всех пользователей.
+     *
+     * @param path путь запроса
+     */
+    public void evict(String path) {
+        invalidate(keysByPath, path, PATH_STRIPE_SEED);
+    }
+
+    /**
+     * Удаление из кэша всех ответов, полученных от имени пользователя.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void evictByUser(long userId) {
+        invalidate(keysByUser, userId, USER_STRIPE_SEED);
+    }
+
+    /**
+     * Удаление из кэша всех ответов с указанной меткой.
+     *
+     * @param tag метка ответа
+     */
+    public void evictByTag(String tag) {
+        invalidate(keysByTag, tag, TAG_STRIPE_SEED);
+    }
+
+    Cache<Key, Entry> getCache() {
+        return cache;
+    }
+
+    Map<String, Set<Key>> getKeysByPath() {
+        return keysByPath;
+    }
+
+    Map<Long, Set<Key>> getKeysByUser() {
+        return keysByUser;
+    }
+
+    Map<String, Set<Key>> getKeysByTag() {
+        return keysByTag;
+    }
+
+    private <T> void invalidate(ConcurrentMap<T, Set<Key>> index, T indexKey, int seed) {
+        lastInvalidation.accumulateAndGet(stripe(indexKey, seed), invalidations.incrementAndGet(), Math::max);
+        Set<Key> keys = index.get(indexKey);
+        if (keys != null) {
+            List.copyOf(keys).forEach(key -> cache.asMap().computeIfPresent(key, (k, entry) -> {
+                unindex(k, entry);
+                return null;
+            }));
+        }
+    }
+
+    private void removeIfSame(Key key, Entry entry) {
+        cache.asMap().computeIfPresent(key, (k, current) -> {
+            if (current != entry) {
+                return current;
+            }
+            unindex(k, current);
+            return null;
+        });
+    }
+
+    private boolean invalidatedSince(Key key, Entry entry, long loadStart) {
+        if (lastInvalidation.get(stripe(key.getPath(), PATH_STRIPE_SEED)) > loadStart) {
+            return true;
+        }
+        if (key.getUserId() != null && lastInvalidation.get(stripe(key.getUserId(), USER_STRIPE_SEED)) > loadStart) {
+            return true;
+        }
+        return entry.getTags().stream()
+                .anyMatch(tag -> lastInvalidation.get(stripe(tag, TAG_STRIPE_SEED)) > loadStart);
+    }
+
+    private static int stripe(Object indexKey, int seed) {
+        int hash = (indexKey.hashCode() + seed) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    /**
+     * Добавление ключа в индексы. Вызывается внутри атомарной операции над записью кэша.
+     */
+    private void index(Key key, Entry entry) {
+        add(keysByPath, key.getPath(), key);
+        if (key.getUserId() != null) {
+            add(keysByUser, key.getUserId(), key);
+        }
+        entry.getTags().forEach(tag -> add(keysByTag, tag, key));
+    }
+
+    /**
+     * Удаление ключа из индексов. Вызывается внутри атомарной операции над записью кэша или слушателем вытеснения,
+     * который Caffeine вызывает в той же операции, что и вытеснение.
+     */
+    private void unindex(Key key, Entry entry) {
+        remove(keysByPath, key.getPath(), key);
+        if (key.getUserId() != null) {
+            remove(keysByUser, key.getUserId(), key);
+        }
+        entry.getTags().forEach(tag -> remove(keysByTag, tag, key));
+    }
+
+    private static <T> void add(ConcurrentMap<T, Set<Key>> index, T indexKey, Key key) {
+        index.compute(indexKey, (k, keys) -> {
+            Set<Key> result = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            result.add(key);
+            return result;
+        });
+    }
+
+    private static <T> void remove(ConcurrentMap<T, Set<Key>> index, T indexKey, Key key) {
+        index.computeIfPresent(indexKey, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    @Value
+    static class Key {
+        String path;
+        Long userId;
+    }
+
+    @Value
+    static class Entry {
+        Object response;
+        Set<String> tags;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCache responseCache(ResponseCacheProperties properties) {
+        return new ResponseCache(properties);
+    }
+
+    @Bean
+    public MeterBinder responseCacheMetrics(ResponseCache responseCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, responseCache.getCache(), "gateway.responses");
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша ответов основного сервиса в шлюзе.
+ */
+@ConfigurationProperties(prefix = "shareit-gateway.response-cache")
+@Getter
+@Setter
+public class ResponseCacheProperties {
+
+    /**
+     * Включение кэширования ответов.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Максимальное количество закэшированных ответов.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Время жизни закэшированного ответа.
+     */
+    private Duration timeToLive = Duration.ofSeconds(30);
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Общий для всех клиентов бюджет повторных и дублирующих запросов к основному сервису. Каждый запрос пополняет
+ * бюджет на долю budget-ratio, кроме того бюджет пополняется на min-per-second в секунду. Повторный или
+ * дублирующий запрос расходует единицу бюджета. Когда основной сервис перегружен и отвечает ошибками, бюджет
+ * быстро заканчивается, и повторы не увеличивают нагрузку на него больше, чем на заданную долю.
+ */
+public class RetryBudget {
+
+    /**
+     * Количество долей в единице бюджета. Бюджет хранится в целых долях, чтобы изменять его без блокировок.
+     */
+    private static final long SCALE = 1000;
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long deposit;
+
+    private final double refillPerNano;
+
+    private final long capacity;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong balance;
+
+    private final AtomicLong refilledAt;
+
+    public RetryBudget(UpstreamGuardProperties.Retry properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RetryBudget(UpstreamGuardProperties.Retry properties, LongSupplier clock) {
+        deposit = Math.round(properties.getBudgetRatio() * SCALE);
+        refillPerNano = properties.getMinPerSecond() * SCALE / NANOS_PER_SECOND;
+        capacity = Math.max(1, properties.getMaxBudget()) * SCALE;
+        this.clock = clock;
+        balance = new AtomicLong(capacity);
+        refilledAt = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Учет первой попытки запроса.
+     */
+    public void onRequest() {
+        add(deposit);
+    }
+
+    /**
+     * Попытка израсходовать единицу бюджета на повторный или дублирующий запрос.
+     *
+     * @return true, если бюджет позволяет отправить запрос
+     */
+    public boolean tryWithdraw() {
+        refill();
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Количество повторных и дублирующих запросов, которое можно отправить сейчас.
+     */
+    public double getAvailable() {
+        refill();
+        return (double) balance.get() / SCALE;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        long last = refilledAt.get();
+        long amount = (long) ((now - last) * refillPerNano);
+        if (amount > 0 && refilledAt.compareAndSet(last, now)) {
+            add(amount);
+        }
+    }
+
+    private void add(long amount) {
+        balance.accumulateAndGet(amount, (current, delta) -> Math.min(capacity, current + delta));
+    }
+}
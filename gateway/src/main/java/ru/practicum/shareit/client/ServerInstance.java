@@ -0,0 +1,180 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Экземпляр основного сервиса и пассивно собранные сведения о его состоянии: количество выполняющихся запросов,
+ * ошибки подряд, время исключения из балансировки и время возвращения в нее.
+ */
+public class ServerInstance {
+
+    private final URI uri;
+
+    private final String name;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder ejections = new LongAdder();
+
+    private volatile Timer latency;
+
+    private volatile boolean ejected;
+
+    private volatile long ejectedUntil;
+
+    private volatile long readmittedAt;
+
+    private volatile boolean slowStart;
+
+    private volatile int ejectionCount;
+
+    ServerInstance(URI uri) {
+        this.uri = uri;
+        name = uri.getRawAuthority();
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Адрес запроса к этому экземпляру: схема и хост заменяются, путь и параметры сохраняются.
+     */
+    URI resolve(URI requestUri) {
+        StringBuilder target = new StringBuilder(uri.getScheme()).append("://").append(uri.getRawAuthority());
+        if (requestUri.getRawPath() != null) {
+            target.append(requestUri.getRawPath());
+        }
+        if (requestUri.getRawQuery() != null) {
+            target.append('?').append(requestUri.getRawQuery());
+        }
+        return URI.create(target.toString());
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Проверка, исключен ли экземпляр из балансировки в текущий момент. По истечении времени исключения
+     * экземпляр возвращается в балансировку в режиме плавного увеличения нагрузки.
+     */
+    boolean isEjected(long now) {
+        if (!ejected) {
+            return false;
+        }
+        synchronized (this) {
+            if (ejected && now - ejectedUntil >= 0) {
+                ejected = false;
+                readmittedAt = now;
+                slowStart = true;
+            }
+            return ejected;
+        }
+    }
+
+    /**
+     * Вес экземпляра в балансировке от 0 до 1. Вернувшийся после исключения экземпляр получает нагрузку постепенно.
+     */
+    double weight(long now, long slowStartWindowNanos) {
+        if (!slowStart) {
+            return 1;
+        }
+        long elapsed = now - readmittedAt;
+        if (elapsed >= slowStartWindowNanos) {
+            slowStart = false;
+            return 1;
+        }
+        return Math.max(0.1, (double) elapsed / slowStartWindowNanos);
+    }
+
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    void onComplete() {
+        outstanding.decrementAndGet();
+    }
+
+    void onSuccess(long latencyNanos) {
+        record(latencyNanos);
+        consecutiveFailures.set(0);
+        if (!slowStart && ejectionCount > 0) {
+            synchronized (this) {
+                ejectionCount = 0;
+            }
+        }
+    }
+
+    /**
+     * Учет ошибки запроса.
+     *
+     * @return количество ошибок подряд
+     */
+    int onFailure(long latencyNanos) {
+        record(latencyNanos);
+        failures.increment();
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Исключение экземпляра из балансировки. Время исключения растет с каждым повторным исключением.
+     */
+    synchronized boolean eject(long now, long baseEjectionNanos, long maxEjectionNanos) {
+        if (ejected) {
+            return false;
+        }
+        ejectionCount++;
+        ejected = true;
+        ejectedUntil = now + Math.min(baseEjectionNanos * ejectionCount, maxEjectionNanos);
+        consecutiveFailures.set(0);
+        ejections.increment();
+        return true;
+    }
+
+    void bindTo(MeterRegistry registry) {
+        latency = Timer.builder("gateway.upstream.instance.latency")
+                .description("Время ответа экземпляра основного сервиса")
+                .tag("instance", name)
+                .register(registry);
+        FunctionCounter.builder("gateway.upstream.instance.failures", failures, LongAdder::sum)
+                .description("Ошибки запросов к экземпляру основного сервиса")
+                .tag("instance", name)
+                .register(registry);
+        FunctionCounter.builder("gateway.upstream.instance.ejections", ejections, LongAdder::sum)
+                .description("Исключения экземпляра основного сервиса из балансировки")
+                .tag("instance", name)
+                .register(registry);
+        Gauge.builder("gateway.upstream.instance.in.flight", outstanding, AtomicInteger::get)
+                .description("Выполняющиеся запросы к экземпляру основного сервиса")
+                .tag("instance", name)
+                .register(registry);
+        Gauge.builder("gateway.upstream.instance.ejected", this, instance -> instance.ejected ? 1 : 0)
+                .description("Исключен ли экземпляр основного сервиса из балансировки")
+                .tag("instance", name)
+                .register(registry);
+    }
+
+    private void record(long latencyNanos) {
+        Timer timer = latency;
+        if (timer != null) {
+            timer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.web.client.HttpClientErrorException;
+import ru.practicum.shareit.shared.exception.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш идентификаторов пользователей, для которых основной сервис ответил ошибкой с кодом USER_NOT_FOUND. Повторные
+ * запросы от имени таких пользователей отклоняются шлюзом без обращения к основному сервису. Кэш ограничен по
+ * размеру и времени жизни записей. При создании пользователя его идентификатор удаляется из кэша, а ответы на
+ * запросы, начатые до создания, в кэш не попадают.
+ */
+public class UnknownUserCache {
+
+    private final Cache<Long, Boolean> cache;
+
+    private final boolean enabled;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ObjectMapper objectMapper;
+
+    public UnknownUserCache(UnknownUserCacheProperties properties, ObjectMapper objectMapper) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        enabled = properties.isEnabled();
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isUnknown(long userId) {
+        return enabled && cache.getIfPresent(userId) != null;
+    }
+
+    /**
+     * Текущее поколение кэша. Изменяется при каждом создании пользователя.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Запоминание пользователя, если основной сервис ответил ошибкой с кодом USER_NOT_FOUND. Запросы с
+     * идентификатором пользователя в заголовке проверяют существование этого пользователя до остальных проверок,
+     * поэтому такой ответ относится к пользователю, от имени которого сделан запрос.
+     *
+     * @param userId     идентификатор пользователя, от имени которого сделан запрос
+     * @param generation поколение кэша на момент начала запроса
+     * @param e          ответ основного сервиса со статусом 404
+     */
+    public void recordIfUserNotFound(long userId, long generation, HttpClientErrorException.NotFound e) {
+        if (!enabled || !isUserNotFound(e.getResponseBodyAsString(StandardCharsets.UTF_8))) {
+            return;
+        }
+        cache.put(userId, Boolean.TRUE);
+        if (this.generation.get() != generation) {
+            cache.invalidate(userId);
+        }
+    }
+
+    /**
+     * Удаление пользователя из кэша после его создания.
+     *
+     * @param userId идентификатор созданного пользователя
+     */
+    public void evict(long userId) {
+        generation.incrementAndGet();
+        cache.invalidate(userId);
+    }
+
+    private boolean isUserNotFound(String body) {
+        try {
+            return ErrorCode.USER_NOT_FOUND.name()
+                    .equals(objectMapper.readTree(body).path("errors").path("errorCode").asText());
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    Cache<Long, Boolean> getCache() {
+        return cache;
+    }
+}
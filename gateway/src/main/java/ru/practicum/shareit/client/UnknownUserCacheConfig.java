@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(UnknownUserCacheProperties.class)
+public class UnknownUserCacheConfig {
+
+    @Bean
+    public UnknownUserCache unknownUserCache(UnknownUserCacheProperties properties, ObjectMapper objectMapper) {
+        return new UnknownUserCache(properties, objectMapper);
+    }
+
+    @Bean
+    public MeterBinder unknownUserCacheMetrics(UnknownUserCache unknownUserCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, unknownUserCache.getCache(), "gateway.unknown.users");
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша ненайденных пользователей в шлюзе.
+ */
+@ConfigurationProperties(prefix = "shareit-gateway.unknown-user-cache")
+@Getter
+@Setter
+public class UnknownUserCacheProperties {
+
+    /**
+     * Включение кэша ненайденных пользователей.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Максимальное количество запоминаемых идентификаторов.
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * Время, в течение которого запросы от имени ненайденного пользователя отклоняются шлюзом.
+     */
+    private Duration timeToLive = Duration.ofMinutes(1);
+}
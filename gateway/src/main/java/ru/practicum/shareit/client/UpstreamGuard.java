@@ -0,0 +1,330 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.shared.exception.ServiceUnavailableException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Защита запросов клиента к основному сервису: изолированный адаптивный лимит одновременных запросов и автомат
+ * защиты. Ошибками основного сервиса считаются ошибки ввода-вывода (в том числе таймауты) и ответы со статусом
+ * 5xx, включая 503, которым основной сервис отклоняет запросы при перегрузке. Ошибки уменьшают лимит
+ * одновременных запросов и учитываются автоматом защиты. Ответы со статусом 4xx являются штатными ответами и на
+ * состояние автомата не влияют.
+ * <p>
+ * Идемпотентные запросы после ошибки основного сервиса повторяются, а запросы с дублированием отправляются
+ * повторно, если ответ не получен за время, в которое укладывается заданный перцентиль ответов, и результатом
+ * становится первый полученный ответ. Повторные и дублирующие запросы расходуют общий бюджет {@link RetryBudget}.
+ */
+public class UpstreamGuard {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final LongAdder rejectedByCircuitBreaker = new LongAdder();
+
+    private final LongAdder rejectedByConcurrencyLimit = new LongAdder();
+
+    private final RetryBudget retryBudget;
+
+    private final int maxAttempts;
+
+    private final long maxRetryAfterNanos;
+
+    private final Executor hedgingExecutor;
+
+    private final LatencyTracker hedgedLatency;
+
+    private final long minHedgingDelayNanos;
+
+    private final LongAdder retries = new LongAdder();
+
+    private final LongAdder hedges = new LongAdder();
+
+    public UpstreamGuard(String name, CircuitBreaker circuitBreaker, AdaptiveConcurrencyLimit concurrencyLimit,
+                         RetryBudget retryBudget, UpstreamGuardProperties.Retry retry,
+                         UpstreamGuardProperties.Hedging hedging, @Nullable Executor hedgingExecutor) {
+        this.name = name;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimit = concurrencyLimit;
+        this.retryBudget = retryBudget;
+        maxAttempts = Math.max(1, retry.getMaxAttempts());
+        maxRetryAfterNanos = retry.getMaxRetryAfter().toNanos();
+        this.hedgingExecutor = hedgingExecutor;
+        hedgedLatency = new LatencyTracker(hedging.getPercentile(), hedging.getMinSamples());
+        minHedgingDelayNanos = hedging.getMinDelay().toNanos();
+    }
+
+    /**
+     * Выполнение запроса к основному сервису под защитой.
+     *
+     * @param call запрос к основному сервису
+     * @return результат запроса
+     * @throws ServiceUnavailableException если автомат защиты разомкнут или лимит одновременных запросов исчерпан
+     */
+    public <S> S execute(Supplier<S> call) {
+        if (!concurrencyLimit.tryAcquire()) {
+            rejectedByConcurrencyLimit.increment();
+            throw new ServiceUnavailableException("Превышен лимит одновременных запросов к сервису " + name + ".", 1);
+        }
+        long waitNanos = circuitBreaker.tryAcquirePermission();
+        if (waitNanos > 0) {
+            concurrencyLimit.release();
+            rejectedByCircuitBreaker.increment();
+            throw new ServiceUnavailableException("Сервис " + name + " временно недоступен.",
+                    (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            S result = call.get();
+            failed = false;
+            return result;
+        } catch (RuntimeException e) {
+            failed = isUpstreamFailure(e);
+            throw e;
+        } finally {
+            if (failed) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            concurrencyLimit.onComplete(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Выполнение идемпотентного запроса к основному сервису под защитой. После ошибки ввода-вывода или ответа 5xx
+     * запрос повторяется, пока не исчерпано количество попыток или бюджет повторов. Ответ 504 не повторяется:
+     * основной сервис возвращает его, когда срок выполнения запроса уже истек. После ответа 503 повтор
+     * выполняется не раньше времени из заголовка Retry-After. Если это время больше maxRetryAfter, запрос не
+     * повторяется, и клиент получает Retry-After основного сервиса.
+     *
+     * @param call   запрос к основному сервису
+     * @param hedged отправлять ли дублирующий запрос при долгом ожидании ответа. Время ожидания определяется по
+     *               ответам на запросы с дублированием, поэтому дублирование следует включать для запросов со
+     *               схожим временем выполнения, например для получения одной сущности по идентификатору
+     * @return результат запроса
+     */
+    public <S> S executeIdempotent(Supplier<S> call, boolean hedged) {
+        retryBudget.onRequest();
+        int attempt = 1;
+        while (true) {
+            try {
+                return hedged && hedgingExecutor != null ? executeHedged(call) : execute(call);
+            } catch (RuntimeException e) {
+                long retryAfterNanos = retryAfterNanos(e);
+                if (attempt >= maxAttempts || !isRetryable(e) || retryAfterNanos > maxRetryAfterNanos
+                        || !retryBudget.tryWithdraw()) {
+                    throw e;
+                }
+                if (retryAfterNanos > 0 && !sleep(retryAfterNanos)) {
+                    throw e;
+                }
+                attempt++;
+                retries.increment();
+            }
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public AdaptiveConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    void bindTo(MeterRegistry registry) {
+        Gauge.builder("gateway.upstream.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Состояние автомата защиты: 0 — замкнут, 1 — разомкнут, 2 — полуоткрыт")
+                .tag("client", name)
+                .register(registry);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            FunctionCounter.builder("gateway.upstream.circuit.transitions", circuitBreaker,
+                            breaker -> breaker.getTransitionCount(state))
+                    .description("Переходы автомата защиты в состояние")
+                    .tag("client", name)
+                    .tag("state", state.name().toLowerCase())
+                    .register(registry);
+        }
+        FunctionCounter.builder("gateway.upstream.rejected", rejectedByCircuitBreaker, LongAdder::sum)
+                .description("Запросы, отклоненные без обращения к основному сервису")
+                .tag("client", name)
+                .tag("reason", "circuit_open")
+                .register(registry);
+        FunctionCounter.builder("gateway.upstream.rejected", rejectedByConcurrencyLimit, LongAdder::sum)
+                .description("Запросы, отклоненные без обращения к основному сервису")
+                .tag("client", name)
+                .tag("reason", "concurrency_limit")
+                .register(registry);
+        Gauge.builder("gateway.upstream.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Текущий лимит одновременных запросов к основному сервису")
+                .tag("client", name)
+                .register(registry);
+        Gauge.builder("gateway.upstream.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Выполняющиеся запросы к основному сервису")
+                .tag("client", name)
+                .register(registry);
+        FunctionCounter.builder("gateway.upstream.retries", retries, LongAdder::sum)
+                .description("Повторные запросы к основному сервису после ошибки")
+                .tag("client", name)
+                .register(registry);
+        FunctionCounter.builder("gateway.upstream.hedges", hedges, LongAdder::sum)
+                .description("Дублирующие запросы к основному сервису, отправленные при долгом ожидании ответа")
+                .tag("client", name)
+                .register(registry);
+    }
+
+    private <S> S executeHedged(Supplier<S> call) {
+        long delayNanos = hedgedLatency.getPercentileNanos();
+        if (delayNanos < 0) {
+            return executeTimed(call);
+        }
+        HedgedCall<S> hedgedCall = new HedgedCall<>(call);
+        if (!hedgedCall.submit()) {
+            return executeTimed(call);
+        }
+        return hedgedCall.await(Math.max(delayNanos, minHedgingDelayNanos));
+    }
+
+    private <S> S executeTimed(Supplier<S> call) {
+        long start = System.nanoTime();
+        S result = execute(call);
+        hedgedLatency.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private static boolean isRetryable(RuntimeException e) {
+        return e instanceof ResourceAccessException || isUpstreamFailure(e)
+                && ((HttpServerErrorException) e).getStatusCode() != HttpStatus.GATEWAY_TIMEOUT;
+    }
+
+    private static boolean isUpstreamFailure(RuntimeException e) {
+        return e instanceof ResourceAccessException || e instanceof HttpServerErrorException;
+    }
+
+    /**
+     * Время, которое основной сервис просит подождать перед повтором: значение заголовка Retry-After ответа 503 в
+     * секундах или в виде даты. Для других ошибок и некорректного значения заголовка возвращается ноль.
+     */
+    private static long retryAfterNanos(RuntimeException e) {
+        if (!(e instanceof HttpServerErrorException)
+                || ((HttpServerErrorException) e).getStatusCode() != HttpStatus.SERVICE_UNAVAILABLE) {
+            return 0;
+        }
+        HttpHeaders headers = ((HttpServerErrorException) e).getResponseHeaders();
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException ignored) {
+            // значение в виде даты
+        }
+        try {
+            long delayMillis = headers.getFirstDate(HttpHeaders.RETRY_AFTER) - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        } catch (IllegalArgumentException ignored) {
+            return 0;
+        }
+    }
+
+    private static boolean sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Запрос с дублированием. Попытки выполняются в потоках hedgingExecutor с атрибутами исходного запроса
+     * клиента. Результатом становится первый успешный ответ; ошибка возвращается, только если завершились
+     * ошибкой все отправленные попытки. Проигравшая попытка не прерывается, ее ответ отбрасывается.
+     */
+    private class HedgedCall<S> {
+
+        private final Supplier<S> call;
+
+        private final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        private final CompletableFuture<S> result = new CompletableFuture<>();
+
+        private final AtomicInteger running = new AtomicInteger();
+
+        HedgedCall(Supplier<S> call) {
+            this.call = call;
+        }
+
+        boolean submit() {
+            running.incrementAndGet();
+            try {
+                hedgingExecutor.execute(this::run);
+                return true;
+            } catch (RejectedExecutionException e) {
+                running.decrementAndGet();
+                return false;
+            }
+        }
+
+        S await(long delayNanos) {
+            try {
+                try {
+                    return result.get(delayNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (!result.isDone() && retryBudget.tryWithdraw() && submit()) {
+                        hedges.increment();
+                    }
+                    return result.get();
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw (RuntimeException) e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ожидание ответа сервиса " + name + " прервано.", e);
+            }
+        }
+
+        private void run() {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                result.complete(executeTimed(call));
+            } catch (RuntimeException | Error e) {
+                if (running.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }
+    }
+}
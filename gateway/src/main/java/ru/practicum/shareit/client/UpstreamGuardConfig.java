@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(UpstreamGuardProperties.class)
+public class UpstreamGuardConfig {
+
+    @Bean
+    public UpstreamGuards upstreamGuards(UpstreamGuardProperties properties) {
+        return new UpstreamGuards(properties);
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки защиты запросов шлюза к основному сервису.
+ */
+@ConfigurationProperties(prefix = "shareit-gateway.upstream")
+@Getter
+@Setter
+public class UpstreamGuardProperties {
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    /**
+     * Максимальное количество одновременных запросов для отдельных клиентов (items, bookings, users, requests).
+     * Для клиентов, не указанных здесь, используется concurrency-limit.max-limit.
+     */
+    private Map<String, Integer> bulkheads = new HashMap<>();
+
+    private Retry retry = new Retry();
+
+    private Hedging hedging = new Hedging();
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        /**
+         * Количество последних запросов, по которым вычисляется доля ошибок.
+         */
+        private int slidingWindowSize = 20;
+
+        /**
+         * Минимальное количество запросов, после которого автомат может разомкнуться.
+         */
+        private int minimumNumberOfCalls = 10;
+
+        /**
+         * Доля ошибок в процентах, при которой автомат размыкается.
+         */
+        private float failureRateThreshold = 50;
+
+        /**
+         * Время, в течение которого автомат остается разомкнутым.
+         */
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        /**
+         * Количество пробных запросов в полуоткрытом состоянии.
+         */
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class ConcurrencyLimit {
+
+        /**
+         * Начальный лимит одновременных запросов.
+         */
+        private int initialLimit = 20;
+
+        /**
+         * Минимальный лимит одновременных запросов.
+         */
+        private int minLimit = 1;
+
+        /**
+         * Максимальный лимит одновременных запросов.
+         */
+        private int maxLimit = 100;
+
+        /**
+         * Время выполнения запроса, превышение которого уменьшает лимит.
+         */
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+
+        /**
+         * Коэффициент уменьшения лимита.
+         */
+        private double backoffRatio = 0.9;
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /**
+         * Максимальное количество попыток идемпотентного запроса, включая первую.
+         */
+        private int maxAttempts = 2;
+
+        /**
+         * Доля от количества запросов, которую могут составлять повторные и дублирующие запросы.
+         */
+        private double budgetRatio = 0.1;
+
+        /**
+         * Количество повторных и дублирующих запросов в секунду, разрешенное независимо от количества запросов.
+         */
+        private double minPerSecond = 5;
+
+        /**
+         * Максимальный запас повторных и дублирующих запросов, который может накопиться в бюджете.
+         */
+        private int maxBudget = 20;
+
+        /**
+         * Максимальное время ожидания перед повтором после ответа 503, указанное основным сервисом в Retry-After.
+         * Если основной сервис просит подождать дольше, запрос не повторяется и клиент получает Retry-After.
+         */
+        private Duration maxRetryAfter = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Hedging {
+
+        /**
+         * Включение дублирующих запросов.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Перцентиль времени ответа, после которого отправляется дублирующий запрос.
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Минимальная задержка перед отправкой дублирующего запроса.
+         */
+        private Duration minDelay = Duration.ofMillis(10);
+
+        /**
+         * Количество ответов, которое нужно получить, прежде чем начать отправлять дублирующие запросы.
+         */
+        private int minSamples = 100;
+
+        /**
+         * Максимальное количество потоков, выполняющих запросы с дублированием.
+         */
+        private int threads = 64;
+    }
+}
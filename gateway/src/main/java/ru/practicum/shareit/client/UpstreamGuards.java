@@ -0,0 +1,85 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Реестр защит запросов к основному сервису. Каждый клиент получает собственную защиту, поэтому проблемы
+ * с одним видом запросов не занимают ресурсы, выделенные для остальных. Бюджет повторных запросов и потоки для
+ * запросов с дублированием общие для всех клиентов.
+ */
+public class UpstreamGuards implements MeterBinder, AutoCloseable {
+
+    private final UpstreamGuardProperties properties;
+
+    private final Map<String, UpstreamGuard> guards = new HashMap<>();
+
+    private final List<MeterRegistry> registries = new ArrayList<>();
+
+    private final RetryBudget retryBudget;
+
+    private final ThreadPoolExecutor hedgingExecutor;
+
+    public UpstreamGuards(UpstreamGuardProperties properties) {
+        this.properties = properties;
+        retryBudget = new RetryBudget(properties.getRetry());
+        if (properties.getHedging().isEnabled()) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            hedgingExecutor = new ThreadPoolExecutor(0, Math.max(1, properties.getHedging().getThreads()),
+                    60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "upstream-hedging-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            hedgingExecutor = null;
+        }
+    }
+
+    /**
+     * Получение защиты запросов клиента.
+     *
+     * @param name имя клиента, например items
+     * @return защита запросов клиента
+     */
+    public synchronized UpstreamGuard forClient(String name) {
+        return guards.computeIfAbsent(name, this::createGuard);
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        guards.values().forEach(guard -> guard.bindTo(registry));
+        Gauge.builder("gateway.upstream.retry.budget", retryBudget, RetryBudget::getAvailable)
+                .description("Количество повторных и дублирующих запросов, которое можно отправить сейчас")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        if (hedgingExecutor != null) {
+            hedgingExecutor.shutdownNow();
+        }
+    }
+
+    private UpstreamGuard createGuard(String name) {
+        int maxConcurrentCalls = properties.getBulkheads()
+                .getOrDefault(name, properties.getConcurrencyLimit().getMaxLimit());
+        UpstreamGuard guard = new UpstreamGuard(name,
+                new CircuitBreaker(name, properties.getCircuitBreaker()),
+                new AdaptiveConcurrencyLimit(properties.getConcurrencyLimit(), maxConcurrentCalls),
+                retryBudget, properties.getRetry(), properties.getHedging(), hedgingExecutor);
+        registries.forEach(guard::bindTo);
+        return guard;
+    }
+}
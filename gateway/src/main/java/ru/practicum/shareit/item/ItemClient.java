@@ -2,63 +2,128 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.UnknownUserCache;
+import ru.practicum.shareit.client.UpstreamGuards;
 import ru.practicum.shareit.item.dto.AddCommentDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.SearchMode;
+import ru.practicum.shareit.user.UserClient;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
+@Profile("!reactive")
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    private final ResponseCache responseCache;
+
+    private final RequestCoalescer requestCoalescer;
+
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareItRequestFactory, ResponseCache responseCache,
+                      RequestCoalescer requestCoalescer, UpstreamGuards upstreamGuards,
+                      UnknownUserCache unknownUserCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItRequestFactory)
+                        .build(),
+                upstreamGuards.forClient("items"),
+                unknownUserCache
         );
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
     }
 
     public ItemDto addItem(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto, ItemDto.class);
+        ItemDto addedItem = post("", userId, itemDto, ItemDto.class);
+        evictItemRequest(addedItem);
+        return addedItem;
     }
 
     public ItemDto updateItem(Long userId, long itemId, ItemUpdateDto itemUpdateDto) {
-        return patch("/" + itemId, userId, itemUpdateDto, ItemDto.class);
+        ItemDto updatedItem = patch("/" + itemId, userId, itemUpdateDto, ItemDto.class);
+        responseCache.evict(API_PREFIX + "/" + itemId);
+        evictItemRequest(updatedItem);
+        return updatedItem;
     }
 
-    public GetItemDto findItemById(Long userId, long itemId) {
-        return get("/" + itemId, userId, GetItemDto.class);
+    public ResponseEntity<GetItemDto> findItemById(Long userId, long itemId, @Nullable String ifNoneMatch) {
+        String path = API_PREFIX + "/" + itemId;
+        return responseCache.get(path, userId,
+                () -> requestCoalescer.execute(conditionalKey(path, ifNoneMatch), userId,
+                        () -> getIfNoneMatch("/" + itemId, userId, ifNoneMatch, GetItemDto.class, true)),
+                BaseClient::isFullResponse, ItemClient::commentAuthorTags);
     }
 
-    public List<GetItemDto> findAllItemsByUserId(Long userId, Long from, Integer size) {
+    public void findItemsByIds(Long userId, List<Long> ids, HttpServletResponse response) {
+        relay("?ids={ids}", userId, Map.of("ids", StringUtils.collectionToCommaDelimitedString(ids)), response);
+    }
+
+    public void findAllItemsByUserId(Long userId, Long from, Integer size, boolean ndjson,
+                                     HttpServletResponse response) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters, List.class);
+        relay("?from={from}&size={size}", userId, parameters, ndjson, response);
     }
 
-    public List<ItemDto> searchItems(Long userId, String text, Long from, Integer size) {
+    public void searchItems(Long userId, String text, SearchMode mode, Long from, Integer size,
+                            HttpServletResponse response) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
-                "size", size
+                "size", size,
+                "mode", mode
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters, List.class);
+        String coalescingKey = API_PREFIX + "/search?text=" + text + "&from=" + from + "&size=" + size
+                + "&mode=" + mode;
+        relayCoalesced(requestCoalescer, coalescingKey, null,
+                "/search?text={text}&from={from}&size={size}&mode={mode}", userId, parameters, response);
     }
 
     public CommentDto addCommentToItem(Long userId, Long itemId, AddCommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto, CommentDto.class);
+        CommentDto addedComment = post("/" + itemId + "/comment", userId, commentDto, CommentDto.class);
+        responseCache.evict(API_PREFIX + "/" + itemId);
+        return addedComment;
+    }
+
+    private static Set<String> commentAuthorTags(ResponseEntity<GetItemDto> response) {
+        GetItemDto item = response.getBody();
+        if (item == null) {
+            return Set.of();
+        }
+        return item.getComments().stream()
+                .map(CommentDto::getAuthorId)
+                .filter(Objects::nonNull)
+                .map(UserClient::commentAuthorTag)
+                .collect(Collectors.toSet());
+    }
+
+    private void evictItemRequest(ItemDto itemDto) {
+        if (itemDto != null && itemDto.getRequestId() != null) {
+            responseCache.evict("/requests/" + itemDto.getRequestId());
+        }
     }
 }
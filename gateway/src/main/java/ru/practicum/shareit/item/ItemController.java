@@ -1,22 +1,35 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.shared.Ndjson;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
-import java.util.Collections;
+import javax.validation.constraints.Size;
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 
+import static ru.practicum.shareit.shared.ConditionalRequests.bodyIfModified;
 import static ru.practicum.shareit.shared.ControllerConstants.DEFAULT_PAGE_SIZE;
+import static ru.practicum.shareit.shared.ControllerConstants.MAX_BATCH_SIZE;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Validated
+@Profile("!reactive")
 public class ItemController {
 
     private final ItemClient itemClient;
@@ -35,26 +48,43 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public GetItemDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
-        return itemClient.findItemById(userId, itemId);
+    public GetItemDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
+                                  ServletWebRequest request) {
+        return bodyIfModified(itemClient.findItemById(userId, itemId, request.getHeader(HttpHeaders.IF_NONE_MATCH)),
+                request);
+    }
+
+    @GetMapping(params = "ids")
+    public void getItemsByIds(@RequestHeader("X-Sharer-User-Id") long userId,
+                              @RequestParam @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Positive Long> ids,
+                              HttpServletResponse response) {
+        itemClient.findItemsByIds(userId, ids, response);
     }
 
     @GetMapping
-    public List<GetItemDto> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
-                                                @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size) {
-        return itemClient.findAllItemsByUserId(userId, from, size);
+    public void getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
+                                    @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
+                                    @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                    HttpServletResponse response) {
+        itemClient.findAllItemsByUserId(userId, from, size, Ndjson.isRequested(accept), response);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam String text,
-                                              @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
-                                              @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size) {
+    public void searchItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                            @RequestParam String text,
+                            @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
+                            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size,
+                            @RequestParam(defaultValue = "substring") @Pattern(regexp = "(?i)substring|fulltext")
+                            String mode,
+                            HttpServletResponse response) throws IOException {
         if (text.isBlank()) {
-            return Collections.emptyList();
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("[]");
+            return;
         }
-        return itemClient.searchItems(userId, text, from, size);
+        SearchMode searchMode = SearchMode.valueOf(mode.toUpperCase(Locale.ROOT));
+        itemClient.searchItems(userId, text, searchMode, from, size, response);
     }
 
     @PostMapping("/{itemId}/comment")
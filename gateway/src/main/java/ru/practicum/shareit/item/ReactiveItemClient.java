@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.AddCommentDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.GetItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+
+import java.util.Map;
+
+@Component
+@Profile("reactive")
+public class ReactiveItemClient extends ReactiveBaseClient {
+
+    private static final String API_PREFIX = "/items";
+
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              ClientHttpConnector shareItClientHttpConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(shareItClientHttpConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ItemDto> addItem(Long userId, ItemDto itemDto) {
+        return post("", userId, itemDto, ItemDto.class);
+    }
+
+    public Mono<ItemDto> updateItem(Long userId, long itemId, ItemUpdateDto itemUpdateDto) {
+        return patch("/" + itemId, userId, itemUpdateDto, ItemDto.class);
+    }
+
+    public Mono<GetItemDto> findItemById(Long userId, long itemId) {
+        return get("/" + itemId, userId, GetItemDto.class);
+    }
+
+    public Flux<GetItemDto> findAllItemsByUserId(Long userId, Long from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return getAll("?from={from}&size={size}", userId, parameters, GetItemDto.class);
+    }
+
+    public Flux<ItemDto> searchItems(Long userId, String text, Long from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return getAll("/search?text={text}&from={from}&size={size}", userId, parameters, ItemDto.class);
+    }
+
+    public Mono<CommentDto> addCommentToItem(Long userId, Long itemId, AddCommentDto commentDto) {
+        return post("/" + itemId + "/comment", userId, commentDto, CommentDto.class);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static ru.practicum.shareit.shared.ControllerConstants.DEFAULT_PAGE_SIZE;
+
+@RestController
+@RequestMapping("/items")
+@RequiredArgsConstructor
+@Validated
+@Profile("reactive")
+public class ReactiveItemController {
+
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ItemDto> addItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                 @Valid @RequestBody ItemDto itemDto) {
+        return itemClient.addItem(userId, itemDto);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ItemDto> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                    @PathVariable long itemId,
+                                    @RequestBody ItemUpdateDto itemUpdateDto) {
+        return itemClient.updateItem(userId, itemId, itemUpdateDto);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<GetItemDto> getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
+        return itemClient.findItemById(userId, itemId);
+    }
+
+    @GetMapping
+    public Flux<GetItemDto> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
+                                                @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size) {
+        return itemClient.findAllItemsByUserId(userId, from, size);
+    }
+
+    @GetMapping("/search")
+    public Flux<ItemDto> searchItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                     @RequestParam String text,
+                                     @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
+                                     @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size) {
+        if (text.isBlank()) {
+            return Flux.empty();
+        }
+        return itemClient.searchItems(userId, text, from, size);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<CommentDto> addCommentToItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                             @PathVariable Long itemId,
+                                             @RequestBody @Valid AddCommentDto commentDto) {
+        return itemClient.addCommentToItem(userId, itemId, commentDto);
+    }
+}
@@ -2,47 +2,72 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.UnknownUserCache;
+import ru.practicum.shareit.client.UpstreamGuards;
 import ru.practicum.shareit.request.dto.AddItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
-import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 import java.util.Map;
 
 @Component
+@Profile("!reactive")
 public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    private final ResponseCache responseCache;
+
+    private final RequestCoalescer requestCoalescer;
+
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory shareItRequestFactory, ResponseCache responseCache,
+                             RequestCoalescer requestCoalescer, UpstreamGuards upstreamGuards,
+                             UnknownUserCache unknownUserCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItRequestFactory)
+                        .build(),
+                upstreamGuards.forClient("requests"),
+                unknownUserCache
         );
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
     }
 
     public ItemRequestDto addNewItemRequest(Long userId, AddItemRequestDto addItemRequestDto) {
         return post("", userId, addItemRequestDto, ItemRequestDto.class);
     }
 
-    public List<ItemRequestDto> getAllItemRequestsFromUser(Long userId) {
-        return get("", userId, List.class);
+    public void getAllItemRequestsFromUser(Long userId, HttpServletResponse response) {
+        relay("", userId, response);
     }
 
-    public List<ItemRequestDto> getAvailableItemRequests(Long userId, Long from, Integer size) {
+    public void getAvailableItemRequests(Long userId, Long from, Integer size, boolean ndjson,
+                                         HttpServletResponse response) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters, List.class);
+        relay("/all?from={from}&size={size}", userId, parameters, ndjson, response);
     }
 
-    public ItemRequestDto getItemRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId, ItemRequestDto.class);
+    public ResponseEntity<ItemRequestDto> getItemRequestById(Long userId, Long requestId,
+                                                             @Nullable String ifNoneMatch) {
+        String path = API_PREFIX + "/" + requestId;
+        return responseCache.get(path, userId,
+                () -> requestCoalescer.execute(conditionalKey(path, ifNoneMatch), userId,
+                        () -> getIfNoneMatch("/" + requestId, userId, ifNoneMatch, ItemRequestDto.class)),
+                BaseClient::isFullResponse);
     }
 }
@@ -1,22 +1,28 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.practicum.shareit.request.dto.AddItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.shared.Ndjson;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
-import java.util.List;
 
+import static ru.practicum.shareit.shared.ConditionalRequests.bodyIfModified;
 import static ru.practicum.shareit.shared.ControllerConstants.DEFAULT_PAGE_SIZE;
 
 @RestController
 @RequestMapping("/requests")
 @RequiredArgsConstructor
 @Validated
+@Profile("!reactive")
 public class ItemRequestController {
 
     private final ItemRequestClient itemRequestClient;
@@ -28,20 +34,25 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getAllItemRequestsFromUser(@RequestHeader("X-Sharer-User-id") long userId) {
-        return itemRequestClient.getAllItemRequestsFromUser(userId);
+    public void getAllItemRequestsFromUser(@RequestHeader("X-Sharer-User-id") long userId,
+                                           HttpServletResponse response) {
+        itemRequestClient.getAllItemRequestsFromUser(userId, response);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAvailableItemRequests(@RequestHeader("X-Sharer-User-id") long userId,
-                                                         @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
-                                                         @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size) {
-        return itemRequestClient.getAvailableItemRequests(userId, from, size);
+    public void getAvailableItemRequests(@RequestHeader("X-Sharer-User-id") long userId,
+                                         @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
+                                         @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                         HttpServletResponse response) {
+        itemRequestClient.getAvailableItemRequests(userId, from, size, Ndjson.isRequested(accept), response);
     }
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-id") long userId,
-                                             @PathVariable Long requestId) {
-        return itemRequestClient.getItemRequestById(userId, requestId);
+                                             @PathVariable Long requestId,
+                                             ServletWebRequest request) {
+        return bodyIfModified(itemRequestClient.getItemRequestById(userId, requestId,
+                request.getHeader(HttpHeaders.IF_NONE_MATCH)), request);
     }
 }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.request.dto.AddItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.Map;
+
+@Component
+@Profile("reactive")
+public class ReactiveItemRequestClient extends ReactiveBaseClient {
+
+    private static final String API_PREFIX = "/requests";
+
+    public ReactiveItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                     ClientHttpConnector shareItClientHttpConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(shareItClientHttpConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ItemRequestDto> addNewItemRequest(Long userId, AddItemRequestDto addItemRequestDto) {
+        return post("", userId, addItemRequestDto, ItemRequestDto.class);
+    }
+
+    public Flux<ItemRequestDto> getAllItemRequestsFromUser(Long userId) {
+        return getAll("", userId, ItemRequestDto.class);
+    }
+
+    public Flux<ItemRequestDto> getAvailableItemRequests(Long userId, Long from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return getAll("/all?from={from}&size={size}", userId, parameters, ItemRequestDto.class);
+    }
+
+    public Mono<ItemRequestDto> getItemRequestById(Long userId, Long requestId) {
+        return get("/" + requestId, userId, ItemRequestDto.class);
+    }
+}
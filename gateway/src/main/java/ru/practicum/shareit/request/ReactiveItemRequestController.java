@@ -0,0 +1,50 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.AddItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static ru.practicum.shareit.shared.ControllerConstants.DEFAULT_PAGE_SIZE;
+
+@RestController
+@RequestMapping("/requests")
+@RequiredArgsConstructor
+@Validated
+@Profile("reactive")
+public class ReactiveItemRequestController {
+
+    private final ReactiveItemRequestClient itemRequestClient;
+
+    @PostMapping
+    public Mono<ItemRequestDto> addNewItemRequest(@RequestHeader("X-Sharer-User-id") long userId,
+                                                  @RequestBody @Valid AddItemRequestDto addItemRequestDto) {
+        return itemRequestClient.addNewItemRequest(userId, addItemRequestDto);
+    }
+
+    @GetMapping
+    public Flux<ItemRequestDto> getAllItemRequestsFromUser(@RequestHeader("X-Sharer-User-id") long userId) {
+        return itemRequestClient.getAllItemRequestsFromUser(userId);
+    }
+
+    @GetMapping("/all")
+    public Flux<ItemRequestDto> getAvailableItemRequests(@RequestHeader("X-Sharer-User-id") long userId,
+                                                         @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
+                                                         @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive Integer size) {
+        return itemRequestClient.getAvailableItemRequests(userId, from, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ItemRequestDto> getItemRequestById(@RequestHeader("X-Sharer-User-id") long userId,
+                                                   @PathVariable Long requestId) {
+        return itemRequestClient.getItemRequestById(userId, requestId);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.shared;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Обработка условных GET-запросов на шлюзе. ETag формирует основной сервис, шлюз только сравнивает его с заголовком
+ * If-None-Match клиента и возвращает 304 без тела, если у клиента актуальная версия.
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Получение тела ответа для клиента с учетом заголовка If-None-Match.
+     *
+     * @param response ответ основного сервиса (или из кэша шлюза)
+     * @param request  запрос клиента
+     * @return тело ответа или null, если клиенту возвращается 304
+     */
+    public static <S> S bodyIfModified(ResponseEntity<S> response, ServletWebRequest request) {
+        String etag = response.getHeaders().getETag();
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            HttpServletResponse servletResponse = request.getResponse();
+            if (servletResponse != null) {
+                servletResponse.setStatus(HttpStatus.NOT_MODIFIED.value());
+            }
+            return null;
+        }
+        return response.getBody();
+    }
+}
@@ -6,4 +6,8 @@ import lombok.experimental.UtilityClass;
 public class ControllerConstants {
 
     public static final String DEFAULT_PAGE_SIZE = "10";
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    public static final int MAX_BATCH_OPERATIONS = 20;
 }
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.shared;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+
+/**
+ * Ответы в формате NDJSON (по одному JSON-объекту в строке) для больших списков. Формат включается явным указанием
+ * application/x-ndjson в заголовке Accept, ответы с ошибками по-прежнему возвращаются в формате JSON.
+ */
+@UtilityClass
+public class Ndjson {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    /**
+     * Проверка, запрошен ли клиентом ответ в формате NDJSON.
+     *
+     * @param accept значение заголовка Accept
+     * @return true, если формат NDJSON указан явно
+     */
+    public static boolean isRequested(@Nullable String accept) {
+        if (accept == null || !accept.contains(APPLICATION_NDJSON_VALUE)) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(APPLICATION_NDJSON));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.shared.deadline;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.shared.exception.DeadlineExceededException;
+
+import java.io.IOException;
+
+/**
+ * Передача оставшегося времени на выполнение входящего запроса в заголовке запроса к основному сервису. Если
+ * срок уже истек, запрос к основному сервису не отправляется: его результат клиенту больше не нужен.
+ */
+@RequiredArgsConstructor
+public class DeadlineClientInterceptor implements ClientHttpRequestInterceptor {
+
+    private final RequestDeadlines deadlines;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Object deadline = currentDeadline();
+        if (deadline != null) {
+            long remainingMillis = deadlines.remainingMillis((Long) deadline);
+            if (remainingMillis <= 0) {
+                deadlines.onExpired();
+                throw new DeadlineExceededException("Срок выполнения запроса истек до обращения к основному сервису.");
+            }
+            request.getHeaders().set(RequestDeadlines.TIMEOUT_HEADER, String.valueOf(remainingMillis));
+        }
+        return execution.execute(request, body);
+    }
+
+    /**
+     * Срок выполнения входящего запроса. Дублирующий запрос к основному сервису может начаться в другом потоке уже
+     * после завершения входящего запроса, тогда его атрибуты недоступны и срок не передается.
+     */
+    private static Object currentDeadline() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        try {
+            return attributes.getAttribute(RequestDeadlines.DEADLINE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.shared.deadline;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+@ConditionalOnProperty(prefix = "shareit-gateway.deadline", name = "enabled", matchIfMissing = true)
+public class DeadlineConfig {
+
+    @Bean
+    public RequestDeadlines requestDeadlines(DeadlineProperties properties) {
+        return new RequestDeadlines(properties);
+    }
+
+    @Bean
+    public WebMvcConfigurer deadlineConfigurer(RequestDeadlines requestDeadlines) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new DeadlineInterceptor(requestDeadlines));
+            }
+        };
+    }
+
+    @Bean
+    public RestTemplateCustomizer deadlineRestTemplateCustomizer(RequestDeadlines requestDeadlines) {
+        return restTemplate -> restTemplate.getInterceptors().add(new DeadlineClientInterceptor(requestDeadlines));
+    }
+
+    @Bean
+    public MeterBinder deadlineMetrics(RequestDeadlines requestDeadlines) {
+        return registry -> FunctionCounter.builder("gateway.requests.deadline.exceeded",
+                        requestDeadlines.expiredRequests(), LongAdder::sum)
+                .description("Запросы, отклоненные шлюзом из-за истекшего срока выполнения")
+                .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.shared.deadline;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.shared.exception.DeadlineExceededException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Назначение срока выполнения входящему запросу до вызова контроллера. Если клиент передал уже истекший срок,
+ * запрос отклоняется сразу.
+ */
+@RequiredArgsConstructor
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    private final RequestDeadlines deadlines;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object path = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (path == null) {
+            return true;
+        }
+        long deadline = deadlines.assign(request, request.getMethod(), path.toString());
+        if (deadlines.remainingMillis(deadline) <= 0) {
+            deadlines.onExpired();
+            throw new DeadlineExceededException("Срок выполнения запроса истек до его обработки.");
+        }
+        return true;
+    }
+}
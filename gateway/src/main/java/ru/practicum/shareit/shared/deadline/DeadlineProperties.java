@@ -0,0 +1,53 @@
+package ru.practicum.shareit.shared.deadline;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки сроков выполнения запросов, которые шлюз передает основному сервису.
+ */
+@ConfigurationProperties(prefix = "shareit-gateway.deadline")
+@Getter
+@Setter
+public class DeadlineProperties {
+
+    /**
+     * Включение передачи срока выполнения запроса основному сервису.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Время на выполнение запроса для эндпоинтов, для которых не задано собственное время.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Время на выполнение запроса для отдельных эндпоинтов.
+     */
+    private List<EndpointTimeout> endpoints = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class EndpointTimeout {
+
+        /**
+         * HTTP-метод эндпоинта.
+         */
+        private String method = "GET";
+
+        /**
+         * Шаблон пути эндпоинта в том виде, в котором он указан в контроллере, например /items/{itemId}.
+         */
+        private String path;
+
+        /**
+         * Время на выполнение запроса.
+         */
+        private Duration timeout;
+    }
+}
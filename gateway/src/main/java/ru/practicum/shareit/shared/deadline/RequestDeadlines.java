@@ -0,0 +1,97 @@
+package ru.practicum.shareit.shared.deadline;
+
+import org.springframework.lang.Nullable;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Сроки выполнения входящих запросов. Срок хранится в атрибуте запроса как значение System.nanoTime(), а
+ * основному сервису передается оставшееся время в миллисекундах: относительное значение не зависит от
+ * расхождения часов на разных машинах.
+ */
+public class RequestDeadlines {
+
+    /**
+     * Заголовок с оставшимся временем на выполнение запроса в миллисекундах. Этот же заголовок принимается от
+     * клиентов шлюза, если они хотят ограничить время ожидания сильнее, чем задано в настройках.
+     */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    static final String DEADLINE_ATTRIBUTE = RequestDeadlines.class.getName() + ".deadline";
+
+    private final long defaultTimeoutNanos;
+
+    private final Map<String, Long> endpointTimeoutNanos = new HashMap<>();
+
+    private final LongSupplier clock;
+
+    private final LongAdder expired = new LongAdder();
+
+    public RequestDeadlines(DeadlineProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RequestDeadlines(DeadlineProperties properties, LongSupplier clock) {
+        defaultTimeoutNanos = properties.getDefaultTimeout().toNanos();
+        for (DeadlineProperties.EndpointTimeout endpoint : properties.getEndpoints()) {
+            endpointTimeoutNanos.put(key(endpoint.getMethod(), endpoint.getPath()), endpoint.getTimeout().toNanos());
+        }
+        this.clock = clock;
+    }
+
+    /**
+     * Назначение срока выполнения запросу. Время берется из настроек эндпоинта и может быть уменьшено клиентом
+     * через заголовок X-Request-Timeout-Ms. Некорректное значение заголовка игнорируется.
+     *
+     * @return срок выполнения в единицах System.nanoTime()
+     */
+    long assign(HttpServletRequest request, String method, String path) {
+        long timeoutNanos = endpointTimeoutNanos.getOrDefault(key(method, path), defaultTimeoutNanos);
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                timeoutNanos = Math.min(timeoutNanos, TimeUnit.MILLISECONDS.toNanos(Long.parseLong(header.trim())));
+            } catch (NumberFormatException ignored) {
+                // клиент указал некорректное значение, используется время из настроек
+            }
+        }
+        long deadline = clock.getAsLong() + timeoutNanos;
+        request.setAttribute(DEADLINE_ATTRIBUTE, deadline);
+        return deadline;
+    }
+
+    /**
+     * Срок выполнения, назначенный запросу при его обработке.
+     *
+     * @return срок выполнения в единицах System.nanoTime() или null, если срок запросу не назначен
+     */
+    @Nullable
+    public Long deadline(HttpServletRequest request) {
+        return (Long) request.getAttribute(DEADLINE_ATTRIBUTE);
+    }
+
+    /**
+     * Оставшееся время на выполнение запроса в миллисекундах. Значение меньше или равное нулю означает, что срок
+     * уже истек.
+     */
+    public long remainingMillis(long deadline) {
+        return TimeUnit.NANOSECONDS.toMillis(deadline - clock.getAsLong());
+    }
+
+    void onExpired() {
+        expired.increment();
+    }
+
+    LongAdder expiredRequests() {
+        return expired;
+    }
+
+    private static String key(String method, String path) {
+        return method.toUpperCase() + ' ' + path;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.shared.exception;
+
+/**
+ * Срок выполнения запроса истек. Исключение создается без стека вызовов, так как отклонение запроса должно быть
+ * как можно дешевле.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.shared.exception;
+
+/**
+ * Машиночитаемые коды ошибок, которые формирует сам шлюз. Ошибки, полученные от сервера, передаются клиенту
+ * без изменений.
+ */
+public enum ErrorCode {
+    VALIDATION_ERROR,
+    UNKNOWN_STATE,
+    MISSING_HEADER,
+    MISSING_PARAMETER,
+    USER_NOT_FOUND,
+    RATE_LIMITED,
+    SERVICE_UNAVAILABLE,
+    DEADLINE_EXCEEDED,
+    INTERNAL_ERROR
+}
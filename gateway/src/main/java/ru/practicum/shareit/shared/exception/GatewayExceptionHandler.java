@@ -1,6 +1,11 @@
 package ru.practicum.shareit.shared.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -13,16 +18,32 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import javax.validation.ConstraintViolationException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GatewayExceptionHandler {
 
+    /**
+     * Стек вызовов непредвиденной ошибки пишется в лог для каждой STACK_TRACE_SAMPLE_RATE-й ошибки, остальные
+     * логируются одной строкой. При включенном уровне DEBUG стек пишется всегда.
+     */
+    private static final long STACK_TRACE_SAMPLE_RATE = 100;
+
+    private static final String ERROR_MESSAGE = "errorMessage";
+
+    private static final String ERROR_CODE = "errorCode";
+
+    private final AtomicLong unexpectedErrors = new AtomicLong();
+
+    private final ObjectMapper objectMapper;
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorMessage handleConversionFailedException(MethodArgumentTypeMismatchException e) {
@@ -36,7 +57,7 @@ public class GatewayExceptionHandler {
     public ErrorResponse handleInvalidException(MethodArgumentNotValidException e) {
         ErrorResponse errorResponse = new ErrorResponse();
         Map<String, String> exceptions = errorResponse.getErrors();
-        for (ObjectError oe : e.getBindingResult().getAllErrors()) {
+        for (ObjectError oe : e.getBindingResult().getGlobalErrors()) {
             exceptions.put(oe.getObjectName(), oe.getDefaultMessage());
             log.error("Объект {} не прошло валидацию. Причина: {}.", oe.getObjectName(), oe.getDefaultMessage());
         }
@@ -44,6 +65,7 @@ public class GatewayExceptionHandler {
             exceptions.put(error.getField(), error.getDefaultMessage());
             log.error("Поле {} не прошло валидацию. Причина: {}.", error.getField(), error.getDefaultMessage());
         }
+        exceptions.put(ERROR_CODE, ErrorCode.VALIDATION_ERROR.name());
 
         return errorResponse;
     }
@@ -51,10 +73,8 @@ public class GatewayExceptionHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleItemUnavailableException(ConstraintViolationException e) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.getErrors().put("errorMessage", e.getLocalizedMessage());
         log.error(e.getLocalizedMessage());
-        return errorResponse;
+        return errorResponse(ErrorCode.VALIDATION_ERROR, e.getLocalizedMessage());
     }
 
     @ExceptionHandler
@@ -62,6 +82,7 @@ public class GatewayExceptionHandler {
     public ErrorResponse handleMissingRequestHeaderException(MissingRequestHeaderException e) {
         ErrorResponse errorResponse = new ErrorResponse();
         errorResponse.getErrors().put(e.getHeaderName(), e.getLocalizedMessage());
+        errorResponse.getErrors().put(ERROR_CODE, ErrorCode.MISSING_HEADER.name());
         log.error(e.getLocalizedMessage());
         return errorResponse;
     }
@@ -71,32 +92,103 @@ public class GatewayExceptionHandler {
     public ErrorResponse handleMissingServletRequestParameterException(MissingServletRequestParameterException e) {
         ErrorResponse errorResponse = new ErrorResponse();
         errorResponse.getErrors().put(e.getParameterName(), e.getLocalizedMessage());
+        errorResponse.getErrors().put(ERROR_CODE, ErrorCode.MISSING_PARAMETER.name());
         log.error(e.getLocalizedMessage());
         return errorResponse;
     }
 
     @ExceptionHandler
     public ResponseEntity<ErrorResponse> handleMissingServletRequestParameterException(HttpStatusCodeException e) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.getErrors().put("errorMessage", e.getResponseBodyAsString());
+        ErrorResponse errorResponse = upstreamErrorResponse(e.getResponseBodyAsString(StandardCharsets.UTF_8));
+        log.error(e.getLocalizedMessage());
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(e.getStatusCode());
+        HttpHeaders headers = e.getResponseHeaders();
+        if (headers != null && headers.containsKey(HttpHeaders.RETRY_AFTER)) {
+            response.header(HttpHeaders.RETRY_AFTER, headers.getFirst(HttpHeaders.RETRY_AFTER));
+        }
+        return response.body(errorResponse);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleWebClientResponseException(WebClientResponseException e) {
+        ErrorResponse errorResponse = upstreamErrorResponse(e.getResponseBodyAsString(StandardCharsets.UTF_8));
         log.error(e.getLocalizedMessage());
-        return ResponseEntity.status(e.getStatusCode()).body(errorResponse);
+        return ResponseEntity.status(e.getRawStatusCode()).body(errorResponse);
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleUnknownUserException(UnknownUserException e) {
+        log.debug(e.getLocalizedMessage());
+        return errorResponse(ErrorCode.USER_NOT_FOUND, e.getLocalizedMessage());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(TooManyRequestsException e) {
+        log.debug(e.getLocalizedMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse(ErrorCode.RATE_LIMITED, e.getLocalizedMessage()));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException e) {
+        log.warn(e.getLocalizedMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse(ErrorCode.SERVICE_UNAVAILABLE, e.getLocalizedMessage()));
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ErrorResponse handleDeadlineExceededException(DeadlineExceededException e) {
+        log.debug(e.getLocalizedMessage());
+        return errorResponse(ErrorCode.DEADLINE_EXCEEDED, e.getLocalizedMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleAllException(Exception e) {
+        if (log.isDebugEnabled() || unexpectedErrors.getAndIncrement() % STACK_TRACE_SAMPLE_RATE == 0) {
+            log.error(e.getLocalizedMessage(), e);
+        } else {
+            log.error("{}: {}", e.getClass().getName(), e.getLocalizedMessage());
+        }
+        return errorResponse(ErrorCode.INTERNAL_ERROR, e.getLocalizedMessage());
+    }
+
+    /**
+     * Ответ с ошибкой основного сервиса. Если тело ответа содержит ошибку в формате основного сервиса, клиенту
+     * передаются ее поля errorMessage и errorCode, поэтому ответ совпадает с ответом, который шлюз формирует сам
+     * (например, для {@link UnknownUserException}). Иначе тело ответа передается клиенту в поле errorMessage.
+     */
+    private ErrorResponse upstreamErrorResponse(String body) {
         ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.getErrors().put("errorMessage", e.getLocalizedMessage());
-        errorResponse.getErrors().put("stackTrace", getStackTraceAsString(e));
-        log.error(e.getLocalizedMessage());
+        try {
+            JsonNode errors = objectMapper.readTree(body).path("errors");
+            if (errors.isObject()) {
+                copyUpstreamError(errors, ERROR_MESSAGE, errorResponse);
+                copyUpstreamError(errors, ERROR_CODE, errorResponse);
+                return errorResponse;
+            }
+        } catch (JsonProcessingException e) {
+            log.debug("Ответ основного сервиса с ошибкой не в формате JSON: {}", body);
+        }
+        errorResponse.getErrors().put(ERROR_MESSAGE, body);
         return errorResponse;
     }
 
-    private String getStackTraceAsString(Exception e) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        return sw.toString();
+    private void copyUpstreamError(JsonNode errors, String field, ErrorResponse errorResponse) {
+        JsonNode value = errors.get(field);
+        if (value != null && !value.isNull()) {
+            errorResponse.getErrors().put(field, value.isTextual() ? value.textValue() : value.toString());
+        }
+    }
+
+    private ErrorResponse errorResponse(ErrorCode code, String message) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.getErrors().put(ERROR_MESSAGE, message);
+        errorResponse.getErrors().put(ERROR_CODE, code.name());
+        return errorResponse;
     }
 }
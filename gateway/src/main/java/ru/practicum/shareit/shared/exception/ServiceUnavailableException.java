@@ -0,0 +1,18 @@
+package ru.practicum.shareit.shared.exception;
+
+import lombok.Getter;
+
+/**
+ * Основной сервис временно недоступен для шлюза: автомат защиты разомкнут или исчерпан лимит одновременных
+ * запросов. Исключение создается без стека вызовов, так как отклонение запроса должно быть как можно дешевле.
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.shared.exception;
+
+import lombok.Getter;
+
+/**
+ * Превышение лимита запросов пользователя. Исключение создается без стека вызовов, так как отклонение запроса
+ * должно быть как можно дешевле.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(long retryAfterSeconds) {
+        super("Превышен лимит запросов. Повторите запрос через " + retryAfterSeconds + " с.", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
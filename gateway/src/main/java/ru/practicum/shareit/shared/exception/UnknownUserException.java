@@ -0,0 +1,17 @@
+package ru.practicum.shareit.shared.exception;
+
+/**
+ * Пользователь, о котором известно, что он не найден в основном сервисе. Сообщение совпадает с сообщением
+ * основного сервиса. Исключение создается без стека вызовов, так как отклонение запроса должно быть как можно
+ * дешевле.
+ */
+public class UnknownUserException extends RuntimeException {
+
+    public UnknownUserException(long userId) {
+        super(message(userId), null, false, false);
+    }
+
+    public static String message(long userId) {
+        return "Пользователь с id '" + userId + "' не найден.";
+    }
+}
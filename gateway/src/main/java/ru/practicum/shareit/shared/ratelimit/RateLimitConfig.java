@@ -0,0 +1,29 @@
+package ru.practicum.shareit.shared.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "shareit-gateway.rate-limit", name = "enabled", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public TokenBucketRateLimiter tokenBucketRateLimiter(RateLimitProperties properties) {
+        return new TokenBucketRateLimiter(properties);
+    }
+
+    @Bean
+    public WebMvcConfigurer rateLimitConfigurer(TokenBucketRateLimiter tokenBucketRateLimiter) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new RateLimitInterceptor(tokenBucketRateLimiter));
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.shared.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.shared.exception.TooManyRequestsException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка лимита запросов пользователя из заголовка X-Sharer-User-Id до вызова контроллера. Запросы без
+ * заголовка или с некорректным заголовком пропускаются, чтобы их отклонил контроллер.
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String userIdHeader = request.getHeader(USER_ID_HEADER);
+        Object path = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (userIdHeader == null || path == null) {
+            return true;
+        }
+        long userId;
+        try {
+            userId = Long.parseLong(userIdHeader.trim());
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        long waitNanos = rateLimiter.tryAcquire(request.getMethod(), path.toString(), userId);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException((waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        }
+        return true;
+    }
+}
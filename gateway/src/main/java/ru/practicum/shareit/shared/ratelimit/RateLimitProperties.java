@@ -0,0 +1,78 @@
+package ru.practicum.shareit.shared.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки ограничения частоты запросов пользователей к шлюзу.
+ */
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    /**
+     * Включение ограничения частоты запросов.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Лимит для эндпоинтов, для которых не задан собственный лимит.
+     */
+    private Limit defaultLimit = new Limit();
+
+    /**
+     * Лимиты для отдельных эндпоинтов.
+     */
+    private List<EndpointLimit> endpoints = new ArrayList<>();
+
+    /**
+     * Количество сегментов, на которые делятся корзины пользователей.
+     */
+    private int stripes = 16;
+
+    /**
+     * Время простоя, после которого полностью заполненная корзина пользователя удаляется.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Интервал поиска и удаления простаивающих корзин.
+     */
+    private Duration evictionInterval = Duration.ofMinutes(1);
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        /**
+         * Максимальное количество запросов, которое пользователь может сделать подряд.
+         */
+        private int capacity = 100;
+
+        /**
+         * Количество запросов в секунду, на которое пополняется корзина.
+         */
+        private double refillPerSecond = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class EndpointLimit extends Limit {
+
+        /**
+         * HTTP-метод эндпоинта.
+         */
+        private String method = "GET";
+
+        /**
+         * Шаблон пути эндпоинта в том виде, в котором он указан в контроллере, например /items/{itemId}.
+         */
+        private String path;
+    }
+}
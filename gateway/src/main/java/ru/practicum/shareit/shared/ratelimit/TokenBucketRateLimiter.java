@@ -0,0 +1,167 @@
+package ru.practicum.shareit.shared.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничение частоты запросов пользователей по алгоритму token bucket. Состояние корзины пользователя хранится
+ * в одном {@link AtomicLong} в виде теоретического времени прихода следующего запроса (GCRA), поэтому проверка
+ * выполняется без блокировок одной операцией compare-and-set. Корзины разбиты на сегменты по идентификатору
+ * пользователя. Полностью заполненные корзины, к которым долго не обращались, удаляются: новая корзина того же
+ * пользователя будет в точности такой же, поэтому удаление не влияет на лимиты.
+ */
+public class TokenBucketRateLimiter implements MeterBinder, AutoCloseable {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Лимиты эндпоинтов по HTTP-методу и шаблону пути. Вложенные таблицы позволяют найти лимит без сборки
+     * строкового ключа на каждый запрос.
+     */
+    private final Map<String, Map<String, Limit>> endpointLimits = new HashMap<>();
+
+    private final Limit defaultLimit;
+
+    private final long idleTimeoutNanos;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final ScheduledExecutorService evictionExecutor;
+
+    public TokenBucketRateLimiter(RateLimitProperties properties) {
+        int stripes = Integer.highestOneBit(Math.max(1, properties.getStripes()));
+        defaultLimit = new Limit(properties.getDefaultLimit(), stripes);
+        for (RateLimitProperties.EndpointLimit endpointLimit : properties.getEndpoints()) {
+            endpointLimits.computeIfAbsent(endpointLimit.getMethod(), method -> new HashMap<>())
+                    .put(endpointLimit.getPath(), new Limit(endpointLimit, stripes));
+        }
+        idleTimeoutNanos = properties.getIdleTimeout().toNanos();
+        evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionInterval = properties.getEvictionInterval().toMillis();
+        evictionExecutor.scheduleWithFixedDelay(this::evictIdleBuckets, evictionInterval, evictionInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Попытка выполнить запрос пользователя к эндпоинту.
+     *
+     * @param method HTTP-метод запроса
+     * @param path   шаблон пути эндпоинта
+     * @param userId идентификатор пользователя
+     * @return 0, если запрос разрешен, иначе время в наносекундах, через которое запрос можно повторить
+     */
+    public long tryAcquire(String method, String path, long userId) {
+        return tryAcquire(method, path, userId, System.nanoTime());
+    }
+
+    long tryAcquire(String method, String path, long userId, long now) {
+        Map<String, Limit> pathLimits = endpointLimits.get(method);
+        Limit limit = pathLimits == null ? defaultLimit : pathLimits.getOrDefault(path, defaultLimit);
+        long waitNanos = limit.tryAcquire(userId, now);
+        if (waitNanos > 0) {
+            rejected.increment();
+        }
+        return waitNanos;
+    }
+
+    void evictIdleBuckets() {
+        evictIdleBuckets(System.nanoTime());
+    }
+
+    void evictIdleBuckets(long now) {
+        defaultLimit.evictIdleBuckets(now, idleTimeoutNanos);
+        endpointLimits.values().forEach(pathLimits -> pathLimits.values()
+                .forEach(limit -> limit.evictIdleBuckets(now, idleTimeoutNanos)));
+    }
+
+    long size() {
+        return defaultLimit.size() + endpointLimits.values().stream()
+                .flatMap(pathLimits -> pathLimits.values().stream())
+                .mapToLong(Limit::size)
+                .sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.rate.limit.rejected", rejected, LongAdder::sum)
+                .description("Запросы, отклоненные из-за превышения лимита")
+                .register(registry);
+        Gauge.builder("gateway.rate.limit.buckets", this, TokenBucketRateLimiter::size)
+                .description("Количество корзин пользователей")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        evictionExecutor.shutdownNow();
+    }
+
+    private static final class Limit {
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final ConcurrentHashMap<Long, AtomicLong>[] stripes;
+
+        @SuppressWarnings("unchecked")
+        private Limit(RateLimitProperties.Limit limit, int stripeCount) {
+            emissionIntervalNanos = (long) (NANOS_PER_SECOND / limit.getRefillPerSecond());
+            burstToleranceNanos = emissionIntervalNanos * (Math.max(1, limit.getCapacity()) - 1);
+            stripes = new ConcurrentHashMap[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new ConcurrentHashMap<>();
+            }
+        }
+
+        private long tryAcquire(long userId, long now) {
+            ConcurrentHashMap<Long, AtomicLong> stripe = stripe(userId);
+            AtomicLong theoreticalArrivalTime = stripe.get(userId);
+            if (theoreticalArrivalTime == null) {
+                theoreticalArrivalTime = stripe.computeIfAbsent(userId, id -> new AtomicLong(now));
+            }
+            while (true) {
+                long current = theoreticalArrivalTime.get();
+                long arrival = Math.max(current, now);
+                long waitNanos = arrival - now - burstToleranceNanos;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (theoreticalArrivalTime.compareAndSet(current, arrival + emissionIntervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        private void evictIdleBuckets(long now, long idleTimeoutNanos) {
+            for (ConcurrentHashMap<Long, AtomicLong> stripe : stripes) {
+                stripe.values().removeIf(theoreticalArrivalTime -> now - theoreticalArrivalTime.get() > idleTimeoutNanos);
+            }
+        }
+
+        private long size() {
+            long size = 0;
+            for (ConcurrentHashMap<Long, AtomicLong> stripe : stripes) {
+                size += stripe.size();
+            }
+            return size;
+        }
+
+        private ConcurrentHashMap<Long, AtomicLong> stripe(long userId) {
+            long hash = userId * 0x9E3779B97F4A7C15L;
+            return stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+        }
+    }
+}
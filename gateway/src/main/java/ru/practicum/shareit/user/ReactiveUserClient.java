@@ -0,0 +1,49 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+
+@Component
+@Profile("reactive")
+public class ReactiveUserClient extends ReactiveBaseClient {
+
+    private static final String API_PREFIX = "/users";
+
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              ClientHttpConnector shareItClientHttpConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(shareItClientHttpConnector)
+                        .build()
+        );
+    }
+
+    public Mono<UserDto> addUser(UserDto userDto) {
+        return post("", userDto, UserDto.class);
+    }
+
+    public Mono<UserDto> updateUser(long userId, UserUpdateDto userUpdateDto) {
+        return patch("/" + userId, userUpdateDto, UserDto.class);
+    }
+
+    public Mono<UserDto> findUserById(long userId) {
+        return get("/" + userId, UserDto.class);
+    }
+
+    public Flux<UserDto> findAllUsers() {
+        return getAll("", UserDto.class);
+    }
+
+    public Mono<Void> deleteUserById(long userId) {
+        return delete("/" + userId);
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+@Slf4j
+@Profile("reactive")
+public class ReactiveUserController {
+
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    public Mono<UserDto> addUser(@Valid @RequestBody UserDto userDto) {
+        log.info("Создание нового пользователя.");
+        return userClient.addUser(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<UserDto> updateUser(@PathVariable long userId, @RequestBody UserUpdateDto userUpdateDto) {
+        return userClient.updateUser(userId, userUpdateDto);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<UserDto> getUserById(@PathVariable long userId) {
+        return userClient.findUserById(userId);
+    }
+
+    @GetMapping
+    public Flux<UserDto> getAllUsers() {
+        return userClient.findAllUsers();
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<Void> deleteUserById(@PathVariable long userId) {
+        return userClient.deleteUserById(userId);
+    }
+}
@@ -2,46 +2,102 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.UnknownUserCache;
+import ru.practicum.shareit.client.UpstreamGuards;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.Map;
 
 @Component
+@Profile("!reactive")
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    private final ResponseCache responseCache;
+
+    private final RequestCoalescer requestCoalescer;
+
+    private final UnknownUserCache unknownUserCache;
+
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareItRequestFactory, ResponseCache responseCache,
+                      RequestCoalescer requestCoalescer, UpstreamGuards upstreamGuards,
+                      UnknownUserCache unknownUserCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItRequestFactory)
+                        .build(),
+                upstreamGuards.forClient("users"),
+                unknownUserCache
         );
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.unknownUserCache = unknownUserCache;
     }
 
     public UserDto addUser(UserDto userDto) {
-        return post("", userDto, UserDto.class);
+        UserDto addedUser = post("", userDto, UserDto.class);
+        unknownUserCache.evict(addedUser.getId());
+        return addedUser;
     }
 
+    /**
+     * Обновление пользователя. Имя пользователя входит в ответы с вещами, на которые он оставил отзывы, поэтому при
+     * смене имени из кэша удаляются ответы с меткой автора отзывов.
+     */
     public UserDto updateUser(long userId, UserUpdateDto userUpdateDto) {
-        return patch("/" + userId, userUpdateDto, UserDto.class);
+        UserDto updatedUser = patch("/" + userId, userUpdateDto, UserDto.class);
+        responseCache.evict(API_PREFIX + "/" + userId);
+        if (userUpdateDto.getName() != null) {
+            responseCache.evictByTag(commentAuthorTag(userId));
+        }
+        return updatedUser;
+    }
+
+    public ResponseEntity<UserDto> findUserById(long userId, @Nullable String ifNoneMatch) {
+        String path = API_PREFIX + "/" + userId;
+        return responseCache.get(path, null,
+                () -> requestCoalescer.execute(conditionalKey(path, ifNoneMatch), null,
+                        () -> getIfNoneMatch("/" + userId, null, ifNoneMatch, UserDto.class)),
+                BaseClient::isFullResponse);
+    }
+
+    /**
+     * Метка ответов кэша, содержащих отзывы пользователя.
+     *
+     * @param userId идентификатор автора отзывов
+     * @return метка ответа
+     */
+    public static String commentAuthorTag(long userId) {
+        return "comment-author:" + userId;
     }
 
-    public UserDto findUserById(long userId) {
-        return get("/" + userId, UserDto.class);
+    public void findUsersByIds(List<Long> ids, HttpServletResponse response) {
+        relay("?ids={ids}", null, Map.of("ids", StringUtils.collectionToCommaDelimitedString(ids)), response);
     }
 
-    public List<UserDto> findAllUsers() {
-        return get("", List.class);
+    public void findAllUsers(HttpServletResponse response) {
+        relay("", response);
     }
 
     public void deleteUserById(long userId) {
         delete("/" + userId);
+        responseCache.evict(API_PREFIX + "/" + userId);
+        responseCache.evictByUser(userId);
     }
 }
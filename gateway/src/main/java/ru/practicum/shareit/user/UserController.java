@@ -2,24 +2,37 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
 import java.util.List;
 
+import static ru.practicum.shareit.shared.ConditionalRequests.bodyIfModified;
+import static ru.practicum.shareit.shared.ControllerConstants.MAX_BATCH_SIZE;
+
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
+@Profile("!reactive")
 public class UserController {
 
     private final UserClient userClient;
 
     @PostMapping
     public UserDto addUser(@Valid @RequestBody UserDto userDto) {
-        log.info("Создание нового пользователя: {}.", userDto);
+        log.info("Создание нового пользователя.");
         return userClient.addUser(userDto);
     }
 
@@ -29,13 +42,19 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable long userId) {
-        return userClient.findUserById(userId);
+    public UserDto getUserById(@PathVariable long userId, ServletWebRequest request) {
+        return bodyIfModified(userClient.findUserById(userId, request.getHeader(HttpHeaders.IF_NONE_MATCH)), request);
+    }
+
+    @GetMapping(params = "ids")
+    public void getUsersByIds(@RequestParam @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Positive Long> ids,
+                              HttpServletResponse response) {
+        userClient.findUsersByIds(ids, response);
     }
 
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        return userClient.findAllUsers();
+    public void getAllUsers(HttpServletResponse response) {
+        userClient.findAllUsers(response);
     }
 
     @DeleteMapping("/{userId}")
@@ -0,0 +1,233 @@
+package ru.practicum.shareit;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Нагрузочное сравнение режимов шлюза: блокирующего и реактивного, а также транспорта HTTP/1.1 и h2c между шлюзом и
+ * основным сервисом в блокирующем режиме. Шлюз запускается в том же процессе перед заглушкой основного сервиса, которая
+ * принимает HTTP/1.1 и h2c, отвечает на GET /users/{id} с заданной задержкой и считает принятые TCP-соединения.
+ * Заданное количество клиентов в замкнутом цикле запрашивает пользователей со случайными id в течение заданного
+ * времени. Сначала оба варианта сравнения запускаются для прогрева JIT, затем измеряются. Перед каждым замером пулы
+ * соединений заполняются в течение двух секунд. Для каждого варианта в журнал выводятся пропускная способность,
+ * перцентили задержки, количество ошибок и количество соединений шлюза с основным сервисом (новых за время замера и
+ * одновременно открытых).
+ * <p>
+ * Кэш ответов, ограничение частоты запросов и хеджирование отключены, ограничения одновременных запросов к основному
+ * сервису подняты до количества клиентов, чтобы сравнивались только модель потоков и транспорт. Заглушка и клиенты
+ * работают на собственных потоках, так как общие ресурсы Reactor Netty освобождаются при остановке шлюза.
+ * <p>
+ * Запуск: {@code mvn test -Dbenchmark=true -Dtest=GatewayLoadBenchmark}. Параметры: benchmark.clients (по умолчанию
+ * 1000), benchmark.latency (задержка ответа заглушки, по умолчанию 100 мс), benchmark.duration (по умолчанию 20 с) и
+ * benchmark.warmup (время прогрева, по умолчанию 10 с).
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j(topic = "benchmark")
+class GatewayLoadBenchmark {
+
+    private static final Duration POOL_WARMUP = Duration.ofSeconds(2);
+
+    private final int clients = Integer.getInteger("benchmark.clients", 1000);
+
+    private final Duration latency = Duration.parse(System.getProperty("benchmark.latency", "PT0.1S"));
+
+    private final Duration duration = Duration.parse(System.getProperty("benchmark.duration", "PT20S"));
+
+    private final Duration warmup = Duration.parse(System.getProperty("benchmark.warmup", "PT10S"));
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    private final AtomicInteger peakConnections = new AtomicInteger();
+
+    private final LongAdder acceptedConnections = new LongAdder();
+
+    private LoopResources upstreamLoops;
+
+    private LoopResources clientLoops;
+
+    private DisposableServer upstream;
+
+    @BeforeAll
+    void startUpstream() {
+        upstreamLoops = LoopResources.create("upstream");
+        clientLoops = LoopResources.create("client");
+        upstream = HttpServer.create()
+                .runOn(upstreamLoops)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .host("127.0.0.1")
+                .port(0)
+                .option(ChannelOption.SO_BACKLOG, 4096)
+                .doOnChannelInit((observer, channel, address) -> {
+                    acceptedConnections.increment();
+                    peakConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+                    channel.closeFuture().addListener(future -> openConnections.decrementAndGet());
+                })
+                .route(routes -> routes.get("/users/{userId}", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.delay(latency).thenReturn("{\"id\":" + request.param("userId")
+                                + ",\"name\":\"Пользователь\",\"email\":\"user@mail.ru\"}"))))
+                .bindNow();
+    }
+
+    @AfterAll
+    void stopUpstream() {
+        upstream.disposeNow();
+        upstreamLoops.dispose();
+        clientLoops.dispose();
+    }
+
+    @Test
+    @DisplayName("Блокирующий и реактивный режимы шлюза при медленном основном сервисе")
+    void blockingVsReactive() {
+        run("blocking (прогрев)", false, false, warmup);
+        run("reactive (прогрев)", true, false, warmup);
+        Result blocking = run("blocking", false, false, duration);
+        Result reactive = run("reactive", true, false, duration);
+
+        assertThat(blocking.requests, greaterThan(0L));
+        assertThat(reactive.requests, greaterThan(0L));
+    }
+
+    @Test
+    @DisplayName("HTTP/1.1 и h2c между шлюзом и основным сервисом")
+    void http11VsH2c() {
+        run("http/1.1 (прогрев)", false, false, warmup);
+        run("h2c (прогрев)", false, true, warmup);
+        Result http11 = run("http/1.1", false, false, duration);
+        Result h2c = run("h2c", false, true, duration);
+
+        assertThat(http11.requests, greaterThan(0L));
+        assertThat(h2c.requests, greaterThan(0L));
+    }
+
+    private Result run(String name, boolean reactive, boolean h2c, Duration time) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("shareit-server.url", "http://127.0.0.1:" + upstream.port());
+        properties.put("shareit-server.http-client.h2c", h2c);
+        properties.put("shareit-server.http-client.max-total", clients);
+        properties.put("shareit-server.http-client.max-per-route", clients);
+        properties.put("shareit-gateway.response-cache.enabled", false);
+        properties.put("shareit-gateway.rate-limit.enabled", false);
+        properties.put("shareit-gateway.upstream.hedging.enabled", false);
+        properties.put("shareit-gateway.upstream.concurrency-limit.initial-limit", clients);
+        properties.put("shareit-gateway.upstream.concurrency-limit.min-limit", clients);
+        properties.put("shareit-gateway.upstream.concurrency-limit.max-limit", clients);
+        properties.put("shareit-gateway.upstream.bulkheads.users", clients);
+        properties.put("logging.level.ru.practicum.shareit", "WARN");
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItGateway.class);
+        if (reactive) {
+            builder.profiles("reactive");
+        }
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = builder.run(args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ConnectionProvider provider = ConnectionProvider.builder("benchmark")
+                    .maxConnections(clients)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            try {
+                HttpClient client = HttpClient.create(provider)
+                        .runOn(clientLoops)
+                        .baseUrl("http://localhost:" + port)
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10_000)
+                        .responseTimeout(Duration.ofSeconds(30));
+                load(client, POOL_WARMUP);
+                acceptedConnections.reset();
+                peakConnections.set(openConnections.get());
+                Result result = load(client, time);
+                log.info("{}: {} клиентов, задержка основного сервиса {} мс: {} запросов/с, p50 {} мс, p99 {} мс, "
+                                + "max {} мс, ошибок {}, новых соединений с основным сервисом {}, одновременно "
+                                + "открытых не более {}", name, clients, latency.toMillis(),
+                        result.requests * 1000 / time.toMillis(), result.percentile(0.5),
+                        result.percentile(0.99), result.percentile(1), result.errors, acceptedConnections.sum(),
+                        peakConnections.get());
+                return result;
+            } finally {
+                provider.disposeLater().block();
+            }
+        }
+    }
+
+    private Result load(HttpClient client, Duration time) {
+        long deadline = System.nanoTime() + time.toNanos();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        LongAdder errors = new LongAdder();
+        Mono<Void> request = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return client.get()
+                    .uri("/users/" + ThreadLocalRandom.current().nextInt(1, 1_000_000))
+                    .responseSingle((response, body) -> body.asString().defaultIfEmpty("")
+                            .doOnNext(ignored -> {
+                                if (response.status().code() == 200) {
+                                    latencies.add(System.nanoTime() - start);
+                                } else {
+                                    errors.increment();
+                                }
+                            }))
+                    .onErrorResume(e -> {
+                        errors.increment();
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+        Flux.range(0, clients)
+                .flatMap(i -> request.repeat(() -> System.nanoTime() < deadline), clients)
+                .blockLast();
+        return new Result(latencies.stream().mapToLong(Long::longValue).sorted().toArray(), errors.sum());
+    }
+
+    private static class Result {
+
+        private final long[] latencies;
+
+        private final long requests;
+
+        private final long errors;
+
+        Result(long[] latencies, long errors) {
+            this.latencies = latencies;
+            this.requests = latencies.length;
+            this.errors = errors;
+        }
+
+        long percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1);
+            return Duration.ofNanos(latencies[Math.max(0, index)]).toMillis();
+        }
+    }
+}
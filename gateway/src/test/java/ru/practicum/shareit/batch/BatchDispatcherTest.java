@@ -0,0 +1,191 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.shared.deadline.RequestDeadlines;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchDispatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<String> timeouts = Collections.synchronizedList(new ArrayList<>());
+
+    private final RequestDeadlines deadlines = mock(RequestDeadlines.class);
+
+    private CyclicBarrier readBarrier;
+
+    private BatchDispatcher batchDispatcher;
+
+    private MockHttpServletRequest batchRequest;
+
+    @BeforeEach
+    void setUp() {
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            @SneakyThrows
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                calls.add(req.getMethod() + " " + req.getPathInfo());
+                timeouts.add(req.getHeader(RequestDeadlines.TIMEOUT_HEADER));
+                if (req.getPathInfo().equals("/fail")) {
+                    throw new ServletException("Сбой операции");
+                }
+                if (readBarrier != null && req.getMethod().equals("GET")) {
+                    readBarrier.await(5, TimeUnit.SECONDS);
+                }
+                String requestBody = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                resp.setStatus(req.getMethod().equals("POST") ? 201 : 200);
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.getOutputStream().write(objectMapper.writeValueAsBytes(new Echo(req.getPathInfo(),
+                        req.getHeader("X-Sharer-User-Id"), req.getParameter("text"), requestBody)));
+            }
+        };
+        batchDispatcher = new BatchDispatcher(servlet, Executors.newFixedThreadPool(4), objectMapper, 3,
+                deadlines);
+        batchRequest = new MockHttpServletRequest("POST", "/batch");
+        batchRequest.addHeader("X-Sharer-User-Id", "1");
+        when(deadlines.deadline(batchRequest)).thenReturn(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchDispatcher.close();
+    }
+
+    @Test
+    @DisplayName("Результаты операций возвращаются в заданном порядке")
+    @SneakyThrows
+    void dispatch_ShouldReturnResultsInDeclaredOrder() {
+        List<BatchResultDto> results = batchDispatcher.dispatch(List.of(
+                operation(HttpMethod.GET, "/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C"),
+                BatchOperationDto.builder()
+                        .method(HttpMethod.POST)
+                        .path("/items")
+                        .body(objectMapper.readTree("{\"name\":\"Дрель\"}"))
+                        .build()), batchRequest, new MockHttpServletResponse());
+
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0).getStatus(), is(200));
+        assertThat(objectMapper.writeValueAsString(results.get(0)), is("{\"status\":200,\"body\":" +
+                "{\"path\":\"/items/search\",\"userId\":\"1\",\"text\":\"дрель\",\"body\":\"\"}}"));
+        assertThat(results.get(1).getStatus(), is(201));
+        assertThat(objectMapper.writeValueAsString(results.get(1)), is("{\"status\":201,\"body\":" +
+                "{\"path\":\"/items\",\"userId\":\"1\",\"text\":null,\"body\":\"{\\\"name\\\":\\\"Дрель\\\"}\"}}"));
+    }
+
+    @Test
+    @DisplayName("Идущие подряд операции чтения выполняются параллельно")
+    void dispatch_ConsecutiveReads_ShouldRunConcurrently() {
+        readBarrier = new CyclicBarrier(3);
+
+        List<BatchResultDto> results = batchDispatcher.dispatch(List.of(
+                operation(HttpMethod.GET, "/items/1"),
+                operation(HttpMethod.GET, "/users/1"),
+                operation(HttpMethod.GET, "/requests/all")), batchRequest, new MockHttpServletResponse());
+
+        results.forEach(result -> assertThat(result.getStatus(), is(200)));
+    }
+
+    @Test
+    @DisplayName("Операции записи выполняются в заданном порядке после предыдущих операций")
+    void dispatch_Writes_ShouldKeepDeclaredOrder() {
+        batchDispatcher.dispatch(List.of(
+                operation(HttpMethod.GET, "/items/1"),
+                operation(HttpMethod.POST, "/bookings"),
+                operation(HttpMethod.GET, "/bookings/1"),
+                operation(HttpMethod.PATCH, "/bookings/1"),
+                operation(HttpMethod.DELETE, "/users/2")), batchRequest, new MockHttpServletResponse());
+
+        assertThat(calls, is(List.of("GET /items/1", "POST /bookings", "GET /bookings/1", "PATCH /bookings/1",
+                "DELETE /users/2")));
+    }
+
+    @Test
+    @DisplayName("Ошибка одной операции не прерывает выполнение пакета")
+    void dispatch_FailedOperation_ShouldReturnInternalError() {
+        List<BatchResultDto> results = batchDispatcher.dispatch(List.of(
+                operation(HttpMethod.GET, "/fail"),
+                operation(HttpMethod.GET, "/items/1")), batchRequest, new MockHttpServletResponse());
+
+        assertThat(results.get(0).getStatus(), is(500));
+        assertThat(results.get(1).getStatus(), is(200));
+    }
+
+    @Test
+    @DisplayName("Операция получает время, оставшееся до срока выполнения пакета на момент ее начала")
+    void dispatch_BatchDeadline_ShouldLimitOperationTimeout() {
+        when(deadlines.deadline(batchRequest)).thenReturn(100L);
+        when(deadlines.remainingMillis(100L)).thenReturn(1500L, 700L, -20L);
+
+        batchDispatcher.dispatch(List.of(
+                operation(HttpMethod.POST, "/items"),
+                BatchOperationDto.builder()
+                        .method(HttpMethod.PATCH)
+                        .path("/items/1")
+                        .headers(Map.of(RequestDeadlines.TIMEOUT_HEADER, "300"))
+                        .build(),
+                operation(HttpMethod.DELETE, "/items/1")), batchRequest, new MockHttpServletResponse());
+
+        assertThat(timeouts, is(List.of("1500", "300", "0")));
+    }
+
+    @Test
+    @DisplayName("Без срока выполнения пакета время операции не ограничивается")
+    void dispatch_NoBatchDeadline_ShouldNotSetTimeout() {
+        batchDispatcher.dispatch(List.of(operation(HttpMethod.GET, "/items/1")), batchRequest,
+                new MockHttpServletResponse());
+
+        assertThat(timeouts, is(Collections.singletonList(null)));
+    }
+
+    private static BatchOperationDto operation(HttpMethod method, String path) {
+        return BatchOperationDto.builder()
+                .method(method)
+                .path(path)
+                .build();
+    }
+
+    private static class Echo {
+        public final String path;
+        public final String userId;
+        public final String text;
+        public final String body;
+
+        private Echo(String path, String userId, String text, String body) {
+            this.path = path;
+            this.userId = userId;
+            this.text = text;
+            this.body = body;
+        }
+    }
+}
@@ -147,7 +147,7 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof MissingRequestHeaderException));
 
-        verify(bookingClient, never()).getBookings(anyLong(), any(GetBookingState.class), anyLong(), anyInt());
+        verify(bookingClient, never()).getBookings(anyLong(), any(GetBookingState.class), anyLong(), anyInt(), anyBoolean(), any());
     }
 
     @Test
@@ -165,7 +165,7 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof MethodArgumentTypeMismatchException));
 
-        verify(bookingClient, never()).getBookings(anyLong(), any(GetBookingState.class), anyLong(), anyInt());
+        verify(bookingClient, never()).getBookings(anyLong(), any(GetBookingState.class), anyLong(), anyInt(), anyBoolean(), any());
     }
 
     @Test
@@ -183,7 +183,7 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof MissingRequestHeaderException));
 
-        verify(bookingClient, never()).getOwnerBookings(anyLong(), any(GetBookingState.class), anyLong(), anyInt());
+        verify(bookingClient, never()).getOwnerBookings(anyLong(), any(GetBookingState.class), anyLong(), anyInt(), anyBoolean(), any());
     }
 
     @Test
@@ -201,6 +201,6 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof MethodArgumentTypeMismatchException));
 
-        verify(bookingClient, never()).getOwnerBookings(anyLong(), any(GetBookingState.class), anyLong(), anyInt());
+        verify(bookingClient, never()).getOwnerBookings(anyLong(), any(GetBookingState.class), anyLong(), anyInt(), anyBoolean(), any());
     }
 }
\ No newline at end of file
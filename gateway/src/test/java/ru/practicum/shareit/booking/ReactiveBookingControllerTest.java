@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.AddBookingDto;
+
+import javax.validation.ConstraintViolationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ReactiveBookingController.class)
+@ActiveProfiles("reactive")
+class ReactiveBookingControllerTest {
+
+    @MockBean
+    private ReactiveBookingClient bookingClient;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long userId;
+
+    private String header;
+
+    private AddBookingDto addBookingDto;
+
+    @BeforeEach
+    void setUp() {
+        userId = 1;
+        header = "X-Sharer-User-Id";
+        addBookingDto = AddBookingDto.builder()
+                .itemId(2L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(5))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Добавление бронирования в реактивном режиме, дата старта в прошлом")
+    @SneakyThrows
+    void addNewBooking_BookingStartInPast_ShouldThrowMethodArgumentNotValidException() {
+        addBookingDto.setStart(LocalDateTime.now().minusDays(1));
+
+        mvc.perform(post("/bookings")
+                        .header(header, userId)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addBookingDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof MethodArgumentNotValidException))
+                .andExpect(jsonPath("$.errors.addBookingDto", is("Задан некорректный интервал бронирования.")));
+
+        verify(bookingClient, never()).addBooking(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Поиск бронирований в реактивном режиме, from < 0")
+    @SneakyThrows
+    void getAllBookingsFromUser_NegativeFrom_ShouldThrowConstraintViolationException() {
+        mvc.perform(get("/bookings")
+                        .header(header, userId)
+                        .param("from", "-1")
+                        .param("size", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
+
+        verify(bookingClient, never()).getBookings(anyLong(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Получение бронирования в реактивном режиме, ошибка основного сервиса")
+    @SneakyThrows
+    void getBookingById_ServerReturnsNotFound_ShouldReturnStatus404() {
+        WebClientResponseException notFound = WebClientResponseException.create(404, "Not Found",
+                new HttpHeaders(), "Бронирование не найдено.".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        when(bookingClient.getBooking(userId, 3L))
+                .thenReturn(Mono.error(notFound));
+
+        MvcResult mvcResult = mvc.perform(get("/bookings/{bookingId}", 3L)
+                        .header(header, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errors.errorMessage", is("Бронирование не найдено.")));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.booking.dto.AddBookingDto;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение проверки интервала дат с поиском полей через рефлексию при каждом вызове (как было до кэширования
+ * доступа к полям) и с доступом через закэшированные для класса MethodHandle. Тесты legacyIsValid и isValid
+ * выполняют проверку целиком, тесты reflectionRead и cachedRead только читают даты. Запуск:
+ * <pre>
+ * mvn -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) \
+ *     ru.practicum.shareit.booking.validation.ValidateDateRangeValidatorBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidateDateRangeValidatorBenchmark {
+
+    private final ValidateDateRangeValidator validator = new ValidateDateRangeValidator();
+
+    private AddBookingDto booking;
+
+    @Setup
+    public void setUp() {
+        validator.initialize(AddBookingDto.class.getAnnotation(ValidateDateRange.class));
+        LocalDateTime start = LocalDateTime.now().plusYears(1);
+        booking = new AddBookingDto(1L, start, start.plusDays(1));
+    }
+
+    @Benchmark
+    public boolean legacyIsValid() throws ReflectiveOperationException {
+        Field startField = booking.getClass().getDeclaredField(validator.start);
+        startField.setAccessible(true);
+        Field endField = booking.getClass().getDeclaredField(validator.end);
+        endField.setAccessible(true);
+        LocalDateTime startDate = (LocalDateTime) startField.get(booking);
+        LocalDateTime endDate = (LocalDateTime) endField.get(booking);
+        if (startDate == null || endDate == null) {
+            return false;
+        }
+        return endDate.isAfter(startDate) && !endDate.isEqual(startDate)
+                && !endDate.isEqual(LocalDateTime.now()) && startDate.isAfter(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(booking, null);
+    }
+
+    @Benchmark
+    public LocalDateTime reflectionRead() throws ReflectiveOperationException {
+        Field startField = booking.getClass().getDeclaredField(validator.start);
+        startField.setAccessible(true);
+        Field endField = booking.getClass().getDeclaredField(validator.end);
+        endField.setAccessible(true);
+        LocalDateTime startDate = (LocalDateTime) startField.get(booking);
+        return startDate == null ? null : (LocalDateTime) endField.get(booking);
+    }
+
+    @Benchmark
+    public LocalDateTime cachedRead() throws Throwable {
+        MethodHandle[] accessors = validator.getters(booking.getClass());
+        LocalDateTime startDate = (LocalDateTime) accessors[0].invokeExact((Object) booking);
+        return startDate == null ? null : (LocalDateTime) accessors[1].invokeExact((Object) booking);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ValidateDateRangeValidatorBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
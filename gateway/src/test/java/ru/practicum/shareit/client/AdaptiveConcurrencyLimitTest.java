@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+
+    @BeforeEach
+    void setUp() {
+        UpstreamGuardProperties.ConcurrencyLimit properties = new UpstreamGuardProperties.ConcurrencyLimit();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+        properties.setLatencyThreshold(Duration.ofSeconds(1));
+        properties.setBackoffRatio(0.5);
+        concurrencyLimit = new AdaptiveConcurrencyLimit(properties, 4);
+    }
+
+    @Test
+    @DisplayName("Запросы сверх лимита отклоняются")
+    void tryAcquire_AboveLimit_ShouldReject() {
+        assertThat(concurrencyLimit.tryAcquire(), is(true));
+        assertThat(concurrencyLimit.tryAcquire(), is(true));
+        assertThat(concurrencyLimit.tryAcquire(), is(false));
+
+        concurrencyLimit.release();
+
+        assertThat(concurrencyLimit.tryAcquire(), is(true));
+    }
+
+    @Test
+    @DisplayName("Быстрые запросы при полной загрузке увеличивают лимит, но не выше размера пула")
+    void onComplete_FastCalls_ShouldIncreaseLimitUpToMax() {
+        for (int i = 0; i < 20; i++) {
+            concurrencyLimit.tryAcquire();
+            concurrencyLimit.tryAcquire();
+            concurrencyLimit.onComplete(FAST, false);
+            concurrencyLimit.onComplete(FAST, false);
+        }
+
+        assertThat(concurrencyLimit.getLimit(), is(4));
+        assertThat(concurrencyLimit.getInFlight(), is(0));
+    }
+
+    @Test
+    @DisplayName("Медленные и неуспешные запросы уменьшают лимит, но не ниже минимального")
+    void onComplete_SlowOrDroppedCalls_ShouldDecreaseLimitDownToMin() {
+        concurrencyLimit.tryAcquire();
+        concurrencyLimit.onComplete(SLOW, false);
+
+        assertThat(concurrencyLimit.getLimit(), is(1));
+
+        concurrencyLimit.tryAcquire();
+        concurrencyLimit.onComplete(FAST, true);
+
+        assertThat(concurrencyLimit.getLimit(), is(1));
+    }
+}
@@ -0,0 +1,224 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.shared.Ndjson;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+
+    private static final String SERVER_URL = "http://localhost:9090/items";
+
+    private MockRestServiceServer server;
+
+    private UpstreamGuard upstreamGuard;
+
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL));
+        server = MockRestServiceServer.bindTo(rest).build();
+        UpstreamGuardProperties properties = new UpstreamGuardProperties();
+        properties.getRetry().setMaxAttempts(2);
+        properties.getRetry().setMaxBudget(10);
+        properties.getRetry().setMinPerSecond(0);
+        upstreamGuard = new UpstreamGuard("items",
+                new CircuitBreaker("items", properties.getCircuitBreaker()),
+                new AdaptiveConcurrencyLimit(properties.getConcurrencyLimit(), 10),
+                new RetryBudget(properties.getRetry()), properties.getRetry(), properties.getHedging(), null);
+        client = new BaseClient(rest, upstreamGuard, new UnknownUserCache(new UnknownUserCacheProperties(),
+                new ObjectMapper()));
+    }
+
+    @Test
+    @DisplayName("Запрос PUT повторяется после ответа 5xx")
+    void put_ServerError_ShouldRetry() {
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andExpect(method(HttpMethod.PUT))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andExpect(method(HttpMethod.PUT))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        Map<?, ?> result = client.put("/1", 1L, Map.of("id", 1), Map.class);
+
+        assertThat(result.get("id"), is(1));
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Запросы POST и PATCH не повторяются после ответа 5xx")
+    void postAndPatch_ServerError_ShouldNotRetry() {
+        server.expect(requestTo(SERVER_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        assertThrows(HttpServerErrorException.class, () -> client.post("", 1L, Map.of("id", 1), Map.class));
+        assertThrows(HttpServerErrorException.class, () -> client.patch("/1", 1L, Map.of("id", 1), Map.class));
+
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Проксирование копирует статус, заголовки и тело ответа без заголовков hop-by-hop")
+    @SneakyThrows
+    void relay_ShouldCopyStatusHeadersAndBody() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"1\"");
+        headers.setConnection("keep-alive");
+        headers.set("Keep-Alive", "timeout=60");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        server.expect(requestTo(SERVER_URL + "?ids=1%2C2"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess("[{\"id\":1},{\"id\":2}]", MediaType.APPLICATION_JSON).headers(headers));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.relay("?ids={ids}", 1L, Map.of("ids", "1,2"), response);
+
+        assertThat(response.getStatus(), is(HttpStatus.OK.value()));
+        assertThat(response.getContentAsString(), is("[{\"id\":1},{\"id\":2}]"));
+        assertThat(response.getContentType(), is(MediaType.APPLICATION_JSON_VALUE));
+        assertThat(response.getHeader(HttpHeaders.ETAG), is("\"1\""));
+        assertThat(response.containsHeader(HttpHeaders.CONNECTION), is(false));
+        assertThat(response.containsHeader("Keep-Alive"), is(false));
+        assertThat(response.containsHeader(HttpHeaders.TRANSFER_ENCODING), is(false));
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Проксирование копирует статус ответа без ошибки")
+    void relay_NotModified_ShouldCopyStatus() {
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.relay("/1", 1L, response);
+
+        assertThat(response.getStatus(), is(HttpStatus.NOT_MODIFIED.value()));
+        assertThat(response.getContentLength(), is(0));
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Проксирование в формате NDJSON запрашивает NDJSON и передает тело ответа")
+    @SneakyThrows
+    void relay_Ndjson_ShouldRequestAndStreamNdjson() {
+        String body = "{\"id\":1}\n{\"id\":2}\n";
+        server.expect(requestTo(SERVER_URL))
+                .andExpect(header(HttpHeaders.ACCEPT, Ndjson.APPLICATION_NDJSON_VALUE + ", "
+                        + MediaType.APPLICATION_JSON_VALUE))
+                .andRespond(withSuccess(body, Ndjson.APPLICATION_NDJSON));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.relay("", 1L, null, true, response);
+
+        assertThat(response.getContentAsString(), is(body));
+        assertThat(response.getContentType(), is(Ndjson.APPLICATION_NDJSON_VALUE));
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Ответ основного сервиса с ошибкой передается обработчику ошибок шлюза вместе с телом")
+    void relay_NotFound_ShouldThrowWithResponseBody() {
+        String body = "{\"errorMessage\":\"Вещь с id '1' не найдена.\"}";
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(body));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        HttpClientErrorException e = assertThrows(HttpClientErrorException.NotFound.class,
+                () -> client.relay("/1", 1L, response));
+
+        assertThat(e.getResponseBodyAsString(StandardCharsets.UTF_8), is(body));
+        assertThat(response.isCommitted(), is(false));
+        assertThat(response.getContentLength(), is(0));
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Объединенное проксирование копирует статус, заголовки и тело ответа без заголовков hop-by-hop")
+    @SneakyThrows
+    void relayCoalesced_ShouldCopyBufferedResponse() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setConnection("close");
+        server.expect(requestTo(SERVER_URL + "/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(headers));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.relayCoalesced(new RequestCoalescer(true), "/items/search?text=дрель", null, "/search?text={text}",
+                1L, Map.of("text", "дрель"), response);
+
+        assertThat(response.getStatus(), is(HttpStatus.OK.value()));
+        assertThat(response.getContentAsString(), is("[]"));
+        assertThat(response.containsHeader(HttpHeaders.CONNECTION), is(false));
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Ошибка записи ответа клиенту шлюза не считается ошибкой основного сервиса")
+    void relay_ClientDisconnected_ShouldNotCountUpstreamFailure() {
+        server.expect(ExpectedCount.times(20), requestTo(SERVER_URL + "/1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        throw new IOException("Broken pipe");
+                    }
+                };
+            }
+        };
+
+        for (int i = 0; i < 20; i++) {
+            assertThrows(UncheckedIOException.class, () -> client.relay("/1", 1L, response));
+        }
+
+        assertThat(upstreamGuard.getCircuitBreaker().getState(), is(CircuitBreaker.State.CLOSED));
+        server.verify();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        UpstreamGuardProperties.CircuitBreaker properties = new UpstreamGuardProperties.CircuitBreaker();
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumNumberOfCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setPermittedCallsInHalfOpenState(2);
+        circuitBreaker = new CircuitBreaker("items", properties, clock::get);
+    }
+
+    @Test
+    @DisplayName("Автомат остается замкнутым, пока доля ошибок ниже порога")
+    void onFailure_BelowThreshold_ShouldStayClosed() {
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(circuitBreaker.tryAcquirePermission(), is(0L));
+    }
+
+    @Test
+    @DisplayName("Автомат размыкается при превышении доли ошибок и отклоняет запросы")
+    void onFailure_AboveThreshold_ShouldOpenAndReject() {
+        openCircuit();
+
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(circuitBreaker.tryAcquirePermission(), is(TimeUnit.SECONDS.toNanos(10)));
+        assertThat(circuitBreaker.getTransitionCount(CircuitBreaker.State.OPEN), is(1L));
+    }
+
+    @Test
+    @DisplayName("После пробных успешных запросов автомат замыкается")
+    void tryAcquirePermission_AfterOpenDuration_ShouldCloseOnSuccessfulTrialCalls() {
+        openCircuit();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(circuitBreaker.tryAcquirePermission(), is(0L));
+        assertThat(circuitBreaker.tryAcquirePermission(), is(0L));
+        assertThat(circuitBreaker.tryAcquirePermission(), greaterThan(0L));
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.HALF_OPEN));
+
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    @DisplayName("Ошибка пробного запроса снова размыкает автомат")
+    void onFailure_InHalfOpenState_ShouldOpen() {
+        openCircuit();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(circuitBreaker.getTransitionCount(CircuitBreaker.State.OPEN), is(2L));
+    }
+
+    private void openCircuit() {
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HttpClientConfigTest {
+
+    private final HttpClientConfig.Http11ClientConfig config = new HttpClientConfig.Http11ClientConfig();
+
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    private HttpClientProperties properties;
+
+    private HttpServer server;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            connections.add(exchange.getRemoteAddress());
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        properties = new HttpClientProperties();
+        properties.setMaxTotal(1);
+        properties.setMaxPerRoute(1);
+        properties.setPoolAcquireTimeout(Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Пул соединений создается с ограничениями из настроек")
+    void connectionManager_ShouldApplyPoolLimits() {
+        properties.setMaxTotal(50);
+        properties.setMaxPerRoute(20);
+
+        connectionManager = config.shareItConnectionManager(properties);
+
+        assertThat(connectionManager.getMaxTotal(), is(50));
+        assertThat(connectionManager.getDefaultMaxPerRoute(), is(20));
+    }
+
+    @Test
+    @DisplayName("Клиенты с общей фабрикой запросов переиспользуют одно keep-alive соединение")
+    void requestFactory_SeveralClients_ShouldReuseOneConnection() {
+        ClientHttpRequestFactory requestFactory = requestFactory();
+        RestTemplate itemRest = new RestTemplate(requestFactory);
+        RestTemplate userRest = new RestTemplate(requestFactory);
+
+        for (int i = 0; i < 5; i++) {
+            itemRest.getForObject(url("/items/1"), String.class);
+            userRest.getForObject(url("/users/1"), String.class);
+        }
+
+        assertThat(connections.size(), is(1));
+        assertThat(connectionManager.getTotalStats().getAvailable(), is(1));
+        assertThat(connectionManager.getTotalStats().getLeased(), is(0));
+    }
+
+    @Test
+    @DisplayName("Запрос завершается ошибкой, если свободное соединение не появилось за время ожидания пула")
+    void requestFactory_PoolExhausted_ShouldFailAfterAcquireTimeout() throws IOException {
+        ClientHttpRequestFactory requestFactory = requestFactory();
+        RestTemplate rest = new RestTemplate(requestFactory);
+
+        try (ClientHttpResponse leased = requestFactory.createRequest(url("/items/1"), HttpMethod.GET).execute()) {
+            assertThat(leased.getRawStatusCode(), is(200));
+            assertThat(connectionManager.getTotalStats().getLeased(), is(1));
+
+            assertThrows(ResourceAccessException.class, () -> rest.getForObject(url("/items/2"), String.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Метрики пула содержат количество занятых, ожидающих и свободных соединений")
+    void connectionPoolMetrics_ShouldPublishPoolGauges() {
+        RestTemplate rest = new RestTemplate(requestFactory());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        config.shareItConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+        rest.getForObject(url("/items/1"), String.class);
+
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased")
+                .gauge().value(), is(0.0));
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "available")
+                .gauge().value(), is(1.0));
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.pending").gauge(), notNullValue());
+    }
+
+    private ClientHttpRequestFactory requestFactory() {
+        connectionManager = config.shareItConnectionManager(properties);
+        httpClient = config.shareItHttpClient(connectionManager, properties);
+        return config.shareItRequestFactory(httpClient, new LoadBalancer(new LoadBalancerProperties()));
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+}
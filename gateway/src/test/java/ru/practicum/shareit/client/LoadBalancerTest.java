@@ -0,0 +1,177 @@
+package ru.practicum.shareit.client;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class LoadBalancerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private LoadBalancerProperties properties;
+
+    private LoadBalancer loadBalancer;
+
+    private ServerInstance first;
+
+    private ServerInstance second;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoadBalancerProperties();
+        properties.setInstances(List.of("http://server-1:9090", "http://server-2:9090"));
+        properties.setPolicy(LoadBalancerProperties.Policy.LEAST_REQUESTS);
+        properties.setConsecutiveFailures(3);
+        properties.setBaseEjectionTime(Duration.ofSeconds(10));
+        properties.setMaxEjectionPercent(50);
+        properties.setSlowStartWindow(Duration.ofSeconds(20));
+        loadBalancer = new LoadBalancer(properties, clock::get);
+        first = loadBalancer.getInstances().get(0);
+        second = loadBalancer.getInstances().get(1);
+    }
+
+    @Test
+    @DisplayName("Выбирается экземпляр с наименьшим количеством выполняющихся запросов")
+    void choose_LeastRequests_ShouldReturnLeastLoadedInstance() {
+        first.onStart();
+        first.onStart();
+        second.onStart();
+
+        assertThat(loadBalancer.choose(), is(second));
+    }
+
+    @Test
+    @DisplayName("Из двух случайных экземпляров выбирается менее загруженный")
+    void choose_PowerOfTwoChoices_ShouldReturnLessLoadedInstance() {
+        properties.setPolicy(LoadBalancerProperties.Policy.POWER_OF_TWO_CHOICES);
+        loadBalancer = new LoadBalancer(properties, clock::get);
+        loadBalancer.getInstances().get(0).onStart();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(loadBalancer.choose(), is(loadBalancer.getInstances().get(1)));
+        }
+    }
+
+    @Test
+    @DisplayName("После ошибок подряд экземпляр исключается, затем возвращается с плавным увеличением нагрузки")
+    void onFailure_ConsecutiveFailures_ShouldEjectAndReadmitWithSlowStart() {
+        failTimes(first, 3);
+
+        second.onStart();
+        second.onStart();
+        assertThat(loadBalancer.choose(), is(second));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(loadBalancer.choose(), is(second));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(15));
+        assertThat(loadBalancer.choose(), is(first));
+        assertThat(first.weight(clock.get(), TimeUnit.SECONDS.toNanos(20)), closeTo(0.75, 0.001));
+    }
+
+    @Test
+    @DisplayName("Успешный запрос сбрасывает счетчик ошибок подряд")
+    void onSuccess_BetweenFailures_ShouldNotEject() {
+        failTimes(first, 2);
+        loadBalancer.onSuccess(first, 1);
+        failTimes(first, 2);
+
+        assertThat(first.isEjected(clock.get()), is(false));
+    }
+
+    @Test
+    @DisplayName("Экземпляр не исключается, если исключено максимальное количество экземпляров")
+    void onFailure_MaxEjectedReached_ShouldNotEjectMoreInstances() {
+        failTimes(first, 3);
+        failTimes(second, 3);
+
+        assertThat(first.isEjected(clock.get()), is(true));
+        assertThat(second.isEjected(clock.get()), is(false));
+    }
+
+    @Test
+    @DisplayName("Предупреждение о достижении лимита исключенных экземпляров пишется один раз")
+    void onFailure_MaxEjectedReached_ShouldWarnOncePerTransition() {
+        Logger logger = (Logger) LoggerFactory.getLogger(LoadBalancer.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            failTimes(first, 3);
+            failTimes(second, 10);
+
+            assertThat(warnings(appender, "не исключен"), is(1L));
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(11));
+            failTimes(second, 1);
+            failTimes(first, 5);
+
+            assertThat(second.isEjected(clock.get()), is(true));
+            assertThat(warnings(appender, "не исключен"), is(2L));
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+
+    @Test
+    @DisplayName("Ответы 503 считаются ошибками экземпляра")
+    void execute_ServiceUnavailable_ShouldEject() throws IOException {
+        ClientHttpRequestFactory delegate = (uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            request.setResponse(new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE));
+            return request;
+        };
+        ClientHttpRequestFactory requestFactory = new LoadBalancingClientHttpRequestFactory(delegate, loadBalancer);
+
+        for (int i = 0; i < 6; i++) {
+            try (ClientHttpResponse response = requestFactory
+                    .createRequest(URI.create("http://localhost:9090/items/1"), HttpMethod.GET).execute()) {
+                assertThat(response.getStatusCode(), is(HttpStatus.SERVICE_UNAVAILABLE));
+            }
+        }
+
+        assertThat(first.isEjected(clock.get()) || second.isEjected(clock.get()), is(true));
+        assertThat(first.getOutstanding() + second.getOutstanding(), is(0));
+    }
+
+    @Test
+    @DisplayName("В адресе запроса заменяются схема и хост, путь и параметры сохраняются")
+    void resolve_ShouldKeepPathAndQuery() {
+        URI uri = first.resolve(URI.create("http://localhost:9090/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C"));
+
+        assertThat(uri.toString(), is("http://server-1:9090/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C"));
+    }
+
+    private static long warnings(ListAppender<ILoggingEvent> appender, String text) {
+        return appender.list.stream()
+                .filter(event -> event.getLevel() == Level.WARN && event.getFormattedMessage().contains(text))
+                .count();
+    }
+
+    private void failTimes(ServerInstance instance, int times) {
+        for (int i = 0; i < times; i++) {
+            loadBalancer.onFailure(instance, 1);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer(true);
+
+    @Test
+    @DisplayName("Одновременные одинаковые запросы выполняются в основном сервисе один раз")
+    void execute_ConcurrentSameRequests_ShouldCallServerOnce() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> requestCoalescer.execute("/items/1", 1L, () -> {
+                calls.incrementAndGet();
+                leaderStarted.countDown();
+                await(releaseLeader);
+                return "item";
+            }));
+            leaderStarted.await(5, TimeUnit.SECONDS);
+            Future<String> follower = executor.submit(() -> requestCoalescer.execute("/items/1", 1L, () -> {
+                calls.incrementAndGet();
+                return "other item";
+            }));
+            Thread.sleep(100);
+            releaseLeader.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS), is("item"));
+            assertThat(follower.get(5, TimeUnit.SECONDS), is("item"));
+            assertThat(calls.get(), is(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Запросы разных пользователей не объединяются")
+    void execute_DifferentUsers_ShouldCallServerForEachUser() {
+        AtomicInteger calls = new AtomicInteger();
+
+        requestCoalescer.execute("/items/1", 1L, () -> requestCoalescer.execute("/items/1", 2L, calls::incrementAndGet));
+
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("Завершенный запрос не переиспользуется")
+    void execute_SequentialRequests_ShouldCallServerEachTime() {
+        AtomicInteger calls = new AtomicInteger();
+
+        requestCoalescer.execute("/items/1", 1L, calls::incrementAndGet);
+        requestCoalescer.execute("/items/1", 1L, calls::incrementAndGet);
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("Ошибка основного сервиса передается вызывающему")
+    void execute_CallThrowsException_ShouldRethrow() {
+        assertThrows(IllegalStateException.class, () -> requestCoalescer.execute("/items/1", 1L, () -> {
+            throw new IllegalStateException();
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResponseCacheTest {
+
+    private ResponseCache responseCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ResponseCache(new ResponseCacheProperties());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Повторный запрос того же пути тем же пользователем берется из кэша")
+    void get_SamePathAndUser_ShouldLoadOnce() {
+        String first = responseCache.get("/items/1", 1L, this::load);
+        String second = responseCache.get("/items/1", 1L, this::load);
+
+        assertThat(first, is("response 1"));
+        assertThat(second, is("response 1"));
+        assertThat(loads.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("Ответы для разных пользователей кэшируются отдельно")
+    void get_DifferentUsers_ShouldLoadForEachUser() {
+        responseCache.get("/items/1", 1L, this::load);
+        String otherUserResponse = responseCache.get("/items/1", 2L, this::load);
+
+        assertThat(otherUserResponse, is("response 2"));
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("Удаление пути из кэша удаляет ответы для всех пользователей")
+    void evict_ShouldRemoveResponsesOfAllUsers() {
+        responseCache.get("/items/1", 1L, this::load);
+        responseCache.get("/items/1", 2L, this::load);
+        responseCache.get("/items/2", 1L, this::load);
+
+        responseCache.evict("/items/1");
+        responseCache.get("/items/1", 1L, this::load);
+        responseCache.get("/items/1", 2L, this::load);
+        responseCache.get("/items/2", 1L, this::load);
+
+        assertThat(loads.get(), is(5));
+    }
+
+    @Test
+    @DisplayName("Удаление ответов пользователя из кэша")
+    void evictByUser_ShouldRemoveOnlyResponsesOfUser() {
+        responseCache.get("/items/1", 1L, this::load);
+        responseCache.get("/items/1", 2L, this::load);
+
+        responseCache.evictByUser(1L);
+        responseCache.get("/items/1", 1L, this::load);
+        responseCache.get("/items/1", 2L, this::load);
+
+        assertThat(loads.get(), is(3));
+    }
+
+    @Test
+    @DisplayName("Удаление по метке удаляет только ответы с этой меткой")
+    void evictByTag_ShouldRemoveOnlyTaggedResponses() {
+        responseCache.get("/items/1", 1L, this::load, Objects::nonNull, response -> Set.of("comment-author:1"));
+        responseCache.get("/items/2", 1L, this::load, Objects::nonNull, response -> Set.of("comment-author:2"));
+
+        responseCache.evictByTag("comment-author:1");
+        responseCache.get("/items/1", 1L, this::load);
+        responseCache.get("/items/2", 1L, this::load);
+
+        assertThat(loads.get(), is(3));
+    }
+
+    @Test
+    @DisplayName("Ответ, загрузка которого началась до удаления пути из кэша, не кэшируется")
+    void get_EvictedDuringLoad_ShouldNotCache() {
+        String response = responseCache.get("/items/1", 1L, () -> {
+            String loaded = load();
+            responseCache.evict("/items/1");
+            return loaded;
+        });
+        String next = responseCache.get("/items/1", 1L, this::load);
+
+        assertThat(response, is("response 1"));
+        assertThat(next, is("response 2"));
+    }
+
+    @Test
+    @DisplayName("Удаление другого пути во время загрузки не мешает кэшированию ответа")
+    void get_OtherPathEvictedDuringLoad_ShouldCache() {
+        responseCache.get("/items/1", 1L, () -> {
+            String loaded = load();
+            responseCache.evict("/items/2");
+            responseCache.evictByUser(2L);
+            responseCache.evictByTag("comment-author:2");
+            return loaded;
+        }, Objects::nonNull, response -> Set.of("comment-author:1"));
+        String next = responseCache.get("/items/1", 1L, this::load);
+
+        assertThat(next, is("response 1"));
+    }
+
+    @Test
+    @DisplayName("Ответ, загрузка которого началась до удаления по его метке, не кэшируется")
+    void get_TagEvictedDuringLoad_ShouldNotCache() {
+        responseCache.get("/items/1", 1L, () -> {
+            String loaded = load();
+            responseCache.evictByTag("comment-author:1");
+            return loaded;
+        }, Objects::nonNull, response -> Set.of("comment-author:1"));
+
+        assertThat(responseCache.getKeysByTag().containsKey("comment-author:1"), is(false));
+        assertThat(responseCache.get("/items/1", 1L, this::load), is("response 2"));
+    }
+
+    @Test
+    @DisplayName("Удаленные и вытесненные ответы сразу удаляются из индексов")
+    void evict_ShouldRemoveKeysFromIndexes() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaximumSize(1);
+        responseCache = new ResponseCache(properties);
+        responseCache.get("/items/1", 1L, this::load, Objects::nonNull, response -> Set.of("comment-author:1"));
+        responseCache.get("/items/2", 2L, this::load, Objects::nonNull, response -> Set.of("comment-author:2"));
+        responseCache.getCache().cleanUp();
+
+        assertThat(responseCache.getCache().estimatedSize(), is(1L));
+        assertThat(responseCache.getKeysByTag().size(), is(1));
+
+        responseCache.evictByUser(responseCache.getCache().asMap().keySet().iterator().next().getUserId());
+
+        assertThat(responseCache.getKeysByPath().isEmpty(), is(true));
+        assertThat(responseCache.getKeysByUser().isEmpty(), is(true));
+        assertThat(responseCache.getKeysByTag().isEmpty(), is(true));
+    }
+
+    @Test
+    @DisplayName("Ошибка основного сервиса не кэшируется")
+    void get_LoaderThrowsException_ShouldNotCache() {
+        assertThrows(IllegalStateException.class, () -> responseCache.get("/items/1", 1L, () -> {
+            throw new IllegalStateException();
+        }));
+
+        String response = responseCache.get("/items/1", 1L, this::load);
+
+        assertThat(response, is("response 1"));
+    }
+
+    @Test
+    @DisplayName("При выключенном кэше ответ всегда загружается из основного сервиса")
+    void get_CacheDisabled_ShouldLoadEveryTime() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(false);
+        responseCache = new ResponseCache(properties);
+
+        responseCache.get("/items/1", 1L, this::load);
+        responseCache.get("/items/1", 1L, this::load);
+
+        assertThat(loads.get(), is(2));
+    }
+
+    private String load() {
+        return "response " + loads.incrementAndGet();
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+class RetryBudgetTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private RetryBudget retryBudget;
+
+    @BeforeEach
+    void setUp() {
+        UpstreamGuardProperties.Retry properties = new UpstreamGuardProperties.Retry();
+        properties.setBudgetRatio(0.1);
+        properties.setMinPerSecond(1);
+        properties.setMaxBudget(2);
+        retryBudget = new RetryBudget(properties, clock::get);
+    }
+
+    @Test
+    @DisplayName("После исчерпания бюджета повторы запрещены")
+    void tryWithdraw_EmptyBudget_ShouldReturnFalse() {
+        assertThat(retryBudget.tryWithdraw(), is(true));
+        assertThat(retryBudget.tryWithdraw(), is(true));
+        assertThat(retryBudget.tryWithdraw(), is(false));
+    }
+
+    @Test
+    @DisplayName("Бюджет пополняется на долю от количества запросов")
+    void onRequest_ShouldDepositRatio() {
+        drain();
+
+        for (int i = 0; i < 10; i++) {
+            retryBudget.onRequest();
+        }
+
+        assertThat(retryBudget.getAvailable(), closeTo(1, 0.001));
+        assertThat(retryBudget.tryWithdraw(), is(true));
+        assertThat(retryBudget.tryWithdraw(), is(false));
+    }
+
+    @Test
+    @DisplayName("Бюджет пополняется со временем, но не больше максимального запаса")
+    void tryWithdraw_AfterTime_ShouldRefillUpToMaxBudget() {
+        drain();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(retryBudget.tryWithdraw(), is(true));
+        assertThat(retryBudget.tryWithdraw(), is(false));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(retryBudget.getAvailable(), closeTo(2, 0.001));
+    }
+
+    private void drain() {
+        while (retryBudget.tryWithdraw()) {
+            // расходуем начальный запас
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class UnknownUserCacheTest {
+
+    private UnknownUserCache unknownUserCache;
+
+    @BeforeEach
+    void setUp() {
+        unknownUserCache = new UnknownUserCache(new UnknownUserCacheProperties(), new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Пользователь запоминается, если основной сервис ответил, что он не найден")
+    void recordIfUserNotFound_UserNotFound_ShouldRemember() {
+        unknownUserCache.recordIfUserNotFound(1L, unknownUserCache.generation(),
+                notFound("USER_NOT_FOUND", "Пользователь с id '1' не найден."));
+
+        assertThat(unknownUserCache.isUnknown(1L), is(true));
+        assertThat(unknownUserCache.isUnknown(2L), is(false));
+    }
+
+    @Test
+    @DisplayName("Другие ответы со статусом 404 не запоминаются")
+    void recordIfUserNotFound_OtherNotFound_ShouldNotRemember() {
+        unknownUserCache.recordIfUserNotFound(1L, unknownUserCache.generation(),
+                notFound("ITEM_NOT_FOUND", "Пользователь с id '1' не найден."));
+
+        assertThat(unknownUserCache.isUnknown(1L), is(false));
+    }
+
+    @Test
+    @DisplayName("Ответ со статусом 404 без кода ошибки не запоминается")
+    void recordIfUserNotFound_NotJson_ShouldNotRemember() {
+        unknownUserCache.recordIfUserNotFound(1L, unknownUserCache.generation(),
+                (HttpClientErrorException.NotFound) HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found",
+                        new HttpHeaders(), "Пользователь с id '1' не найден.".getBytes(StandardCharsets.UTF_8),
+                        StandardCharsets.UTF_8));
+
+        assertThat(unknownUserCache.isUnknown(1L), is(false));
+    }
+
+    @Test
+    @DisplayName("Созданный пользователь удаляется из кэша")
+    void evict_CreatedUser_ShouldForget() {
+        unknownUserCache.recordIfUserNotFound(1L, unknownUserCache.generation(),
+                notFound("USER_NOT_FOUND", "Пользователь с id '1' не найден."));
+
+        unknownUserCache.evict(1L);
+
+        assertThat(unknownUserCache.isUnknown(1L), is(false));
+    }
+
+    @Test
+    @DisplayName("Ответ на запрос, начатый до создания пользователя, не запоминается")
+    void recordIfUserNotFound_UserCreatedDuringRequest_ShouldNotRemember() {
+        long generation = unknownUserCache.generation();
+        unknownUserCache.evict(1L);
+
+        unknownUserCache.recordIfUserNotFound(1L, generation,
+                notFound("USER_NOT_FOUND", "Пользователь с id '1' не найден."));
+
+        assertThat(unknownUserCache.isUnknown(1L), is(false));
+    }
+
+    private HttpClientErrorException.NotFound notFound(String errorCode, String message) {
+        byte[] body = ("{\"errors\":{\"errorMessage\":\"" + message + "\",\"errorCode\":\"" + errorCode + "\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+        return (HttpClientErrorException.NotFound) HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found",
+                new HttpHeaders(), body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,174 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import ru.practicum.shareit.shared.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UpstreamGuardTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private UpstreamGuardProperties properties;
+
+    private UpstreamGuard upstreamGuard;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UpstreamGuardProperties();
+        properties.getRetry().setMaxAttempts(2);
+        properties.getRetry().setMaxBudget(10);
+        properties.getRetry().setMinPerSecond(0);
+        properties.getHedging().setMinSamples(1);
+        properties.getHedging().setMinDelay(Duration.ofMillis(1));
+        upstreamGuard = createGuard();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Идемпотентный запрос повторяется после ответа 5xx")
+    void executeIdempotent_ServerError_ShouldRetry() {
+        String result = upstreamGuard.executeIdempotent(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }
+            return "ok";
+        }, false);
+
+        assertThat(result, is("ok"));
+        assertThat(attempts.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("Ответ 504 и неидемпотентные запросы не повторяются")
+    void execute_GatewayTimeoutOrNotIdempotent_ShouldNotRetry() {
+        assertThrows(HttpServerErrorException.class, () -> upstreamGuard.executeIdempotent(() -> {
+            attempts.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.GATEWAY_TIMEOUT);
+        }, false));
+        assertThrows(HttpServerErrorException.class, () -> upstreamGuard.execute(() -> {
+            attempts.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        }));
+
+        assertThat(attempts.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("Ответ 503 повторяется после времени из Retry-After")
+    void executeIdempotent_ServiceUnavailable_ShouldRetryAfterDelay() {
+        String result = upstreamGuard.executeIdempotent(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw serviceUnavailable("0");
+            }
+            return "ok";
+        }, false);
+
+        assertThat(result, is("ok"));
+        assertThat(attempts.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("Ответ 503 не повторяется, если Retry-After больше допустимого времени ожидания")
+    void executeIdempotent_ServiceUnavailableWithLongRetryAfter_ShouldNotRetry() {
+        HttpServerErrorException e = assertThrows(HttpServerErrorException.class,
+                () -> upstreamGuard.executeIdempotent(() -> {
+                    attempts.incrementAndGet();
+                    throw serviceUnavailable("30");
+                }, false));
+
+        assertThat(e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER), is("30"));
+        assertThat(attempts.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("Ответы 503 размыкают автомат защиты и уменьшают лимит одновременных запросов")
+    void execute_ServiceUnavailable_ShouldOpenCircuit() {
+        int initialLimit = upstreamGuard.getConcurrencyLimit().getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(HttpServerErrorException.class, () -> upstreamGuard.execute(() -> {
+                throw serviceUnavailable("1");
+            }));
+        }
+
+        assertThat(upstreamGuard.getCircuitBreaker().getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(upstreamGuard.getConcurrencyLimit().getLimit() < initialLimit, is(true));
+        assertThrows(ServiceUnavailableException.class, () -> upstreamGuard.execute(() -> "ok"));
+    }
+
+    @Test
+    @DisplayName("Когда бюджет повторов исчерпан, запрос не повторяется")
+    void executeIdempotent_EmptyBudget_ShouldNotRetry() {
+        properties.getRetry().setMaxBudget(1);
+        properties.getRetry().setBudgetRatio(0);
+        upstreamGuard = createGuard();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(HttpServerErrorException.class, () -> upstreamGuard.executeIdempotent(() -> {
+                attempts.incrementAndGet();
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }, false));
+        }
+
+        assertThat(attempts.get(), is(3));
+    }
+
+    @Test
+    @DisplayName("При долгом ожидании отправляется дублирующий запрос, и используется первый полученный ответ")
+    void executeIdempotent_SlowResponse_ShouldReturnHedgedResponse() throws InterruptedException {
+        upstreamGuard.executeIdempotent(() -> "warm-up", true);
+        CountDownLatch slowResponse = new CountDownLatch(1);
+
+        String result = upstreamGuard.executeIdempotent(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    slowResponse.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "slow";
+            }
+            return "fast";
+        }, true);
+        slowResponse.countDown();
+
+        assertThat(result, is("fast"));
+        assertThat(attempts.get(), is(2));
+    }
+
+    private static HttpServerErrorException serviceUnavailable(String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        return HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", headers,
+                new byte[0], null);
+    }
+
+    private UpstreamGuard createGuard() {
+        return new UpstreamGuard("items",
+                new CircuitBreaker("items", properties.getCircuitBreaker()),
+                new AdaptiveConcurrencyLimit(properties.getConcurrencyLimit(), 10),
+                new RetryBudget(properties.getRetry()), properties.getRetry(), properties.getHedging(), executor);
+    }
+}
@@ -8,22 +8,33 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import ru.practicum.shareit.item.dto.AddCommentDto;
+import ru.practicum.shareit.item.dto.GetItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.SearchMode;
+
+import javax.validation.ConstraintViolationException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.shared.ControllerConstants.MAX_BATCH_SIZE;
 
 @WebMvcTest(controllers = ItemController.class)
 class ItemControllerTest {
@@ -113,7 +124,25 @@ class ItemControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof MissingRequestHeaderException));
 
-        verify(itemClient, never()).findItemById(anyLong(), anyLong());
+        verify(itemClient, never()).findItemById(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Получение вещи по id, ETag совпадает с If-None-Match")
+    @SneakyThrows
+    void getItemById_MatchingETag_ShouldReturnStatus304() {
+        String etag = "\"item-1-0\"";
+        when(itemClient.findItemById(userId, itemId, etag))
+                .thenReturn(ResponseEntity.ok().eTag(etag).body(GetItemDto.builder().id(itemId).build()));
+
+        mvc.perform(get("/items/{itemId}", itemId)
+                        .header(header, userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(itemClient, times(1)).findItemById(userId, itemId, etag);
     }
 
     @Test
@@ -124,7 +153,7 @@ class ItemControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof MissingRequestHeaderException));
 
-        verify(itemClient, never()).findAllItemsByUserId(any(), any(), any());
+        verify(itemClient, never()).findAllItemsByUserId(any(), any(), any(), anyBoolean(), any());
     }
 
     @Test
@@ -138,7 +167,7 @@ class ItemControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof MissingRequestHeaderException));
 
-        verify(itemClient, never()).searchItems(any(), any(), any(), any());
+        verify(itemClient, never()).searchItems(any(), any(), any(), any(), any(), any());
     }
 
     @Test
@@ -151,7 +180,7 @@ class ItemControllerTest {
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof
                         MissingServletRequestParameterException));
 
-        verify(itemClient, never()).searchItems(any(), any(), any(), any());
+        verify(itemClient, never()).searchItems(any(), any(), any(), any(), any(), any());
     }
 
     @Test
@@ -162,9 +191,10 @@ class ItemControllerTest {
                         .header(header, userId)
                         .param("text", ""))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()", is(0)));
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("[]"));
 
-        verify(itemClient, never()).searchItems(any(), any(), any(), any());
+        verify(itemClient, never()).searchItems(any(), any(), any(), any(), any(), any());
     }
 
     @Test
@@ -175,9 +205,38 @@ class ItemControllerTest {
                         .header(header, userId)
                         .param("text", "   "))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()", is(0)));
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("[]"));
 
-        verify(itemClient, never()).searchItems(any(), any(), any(), any());
+        verify(itemClient, never()).searchItems(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Поиск вещей, полнотекстовый режим")
+    @SneakyThrows
+    void searchItems_ModeFulltext_ShouldPassModeToClient() {
+        mvc.perform(get("/items/search")
+                        .header(header, userId)
+                        .param("text", "дрель")
+                        .param("mode", "fulltext"))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1)).searchItems(eq(userId), eq("дрель"), eq(SearchMode.FULLTEXT), eq(0L), eq(10),
+                any());
+    }
+
+    @Test
+    @DisplayName("Поиск вещей, неизвестный режим")
+    @SneakyThrows
+    void searchItems_UnknownMode_ShouldThrowConstraintViolationExceptionAndStatus400() {
+        mvc.perform(get("/items/search")
+                        .header(header, userId)
+                        .param("text", "дрель")
+                        .param("mode", "fuzzy"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
+
+        verify(itemClient, never()).searchItems(any(), any(), any(), any(), any(), any());
     }
 
     @Test
@@ -211,4 +270,34 @@ class ItemControllerTest {
 
         verify(itemClient, never()).addCommentToItem(any(), any(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Получение вещей по списку id")
+    @SneakyThrows
+    void getItemsByIds_ShouldRelayIdsToClient() {
+        mvc.perform(get("/items")
+                        .header(header, userId)
+                        .param("ids", "2,3"))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1)).findItemsByIds(eq(userId), eq(List.of(2L, 3L)), any());
+        verify(itemClient, never()).findAllItemsByUserId(any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("Получение вещей по списку id, превышен размер пакета")
+    @SneakyThrows
+    void getItemsByIds_TooManyIds_ShouldThrowConstraintViolationExceptionAndStatus400() {
+        String ids = LongStream.rangeClosed(1, MAX_BATCH_SIZE + 1)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        mvc.perform(get("/items")
+                        .header(header, userId)
+                        .param("ids", ids))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
+
+        verify(itemClient, never()).findItemsByIds(anyLong(), any(), any());
+    }
+}
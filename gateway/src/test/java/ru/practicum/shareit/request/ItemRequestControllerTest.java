@@ -18,6 +18,7 @@ import javax.validation.ConstraintViolationException;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -77,7 +78,7 @@ class ItemRequestControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
 
-        verify(itemRequestClient, never()).getAvailableItemRequests(any(), any(), any());
+        verify(itemRequestClient, never()).getAvailableItemRequests(any(), any(), any(), anyBoolean(), any());
     }
 
     @Test
@@ -91,7 +92,7 @@ class ItemRequestControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
 
-        verify(itemRequestClient, never()).getAvailableItemRequests(any(), any(), any());
+        verify(itemRequestClient, never()).getAvailableItemRequests(any(), any(), any(), anyBoolean(), any());
     }
 
     @Test
@@ -105,6 +106,6 @@ class ItemRequestControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
 
-        verify(itemRequestClient, never()).getAvailableItemRequests(any(), any(), any());
+        verify(itemRequestClient, never()).getAvailableItemRequests(any(), any(), any(), anyBoolean(), any());
     }
 }
\ No newline at end of file
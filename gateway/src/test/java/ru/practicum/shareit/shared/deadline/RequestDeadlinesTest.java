@@ -0,0 +1,72 @@
+package ru.practicum.shareit.shared.deadline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class RequestDeadlinesTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private RequestDeadlines deadlines;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setDefaultTimeout(Duration.ofSeconds(10));
+        DeadlineProperties.EndpointTimeout searchTimeout = new DeadlineProperties.EndpointTimeout();
+        searchTimeout.setPath("/items/search");
+        searchTimeout.setTimeout(Duration.ofSeconds(3));
+        properties.setEndpoints(List.of(searchTimeout));
+        deadlines = new RequestDeadlines(properties, clock::get);
+        request = new MockHttpServletRequest();
+    }
+
+    @Test
+    @DisplayName("Срок выполнения берется из настроек эндпоинта, для остальных эндпоинтов из общей настройки")
+    void assign_ShouldUseEndpointTimeout() {
+        long searchDeadline = deadlines.assign(request, "GET", "/items/search");
+        long itemDeadline = deadlines.assign(request, "GET", "/items/{itemId}");
+
+        assertThat(deadlines.remainingMillis(searchDeadline), is(3000L));
+        assertThat(deadlines.remainingMillis(itemDeadline), is(10000L));
+        assertThat(request.getAttribute(RequestDeadlines.DEADLINE_ATTRIBUTE), is(itemDeadline));
+    }
+
+    @Test
+    @DisplayName("Клиент может сократить срок выполнения заголовком, но не увеличить его")
+    void assign_TimeoutHeader_ShouldOnlyShortenTimeout() {
+        request.addHeader(RequestDeadlines.TIMEOUT_HEADER, "500");
+        long shortened = deadlines.assign(request, "GET", "/items/search");
+
+        MockHttpServletRequest longRequest = new MockHttpServletRequest();
+        longRequest.addHeader(RequestDeadlines.TIMEOUT_HEADER, "60000");
+        long notExtended = deadlines.assign(longRequest, "GET", "/items/search");
+
+        assertThat(deadlines.remainingMillis(shortened), is(500L));
+        assertThat(deadlines.remainingMillis(notExtended), is(3000L));
+    }
+
+    @Test
+    @DisplayName("Оставшееся время уменьшается с течением времени и становится неположительным после истечения срока")
+    void remainingMillis_AfterTimeout_ShouldBeNotPositive() {
+        long deadline = deadlines.assign(request, "GET", "/items/search");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(deadlines.remainingMillis(deadline), is(1000L));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(deadlines.remainingMillis(deadline), is(0L));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.shared.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Затраты на проверку лимита при одновременных запросах из нескольких потоков. Лимиты заданы так, что запросы
+ * всегда разрешены и каждая проверка меняет состояние корзины. Варианты: запросы разных пользователей, запросы
+ * одного пользователя (все потоки меняют одну корзину) и запросы к эндпоинту с собственным лимитом. Тесты
+ * baseline и nanoTime показывают затраты, которые не зависят от реализации лимита. Запуск (количество потоков
+ * можно изменить параметром -t):
+ * <pre>
+ * mvn -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) \
+ *     org.openjdk.jmh.Main TokenBucketRateLimiterBenchmark -t 8
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TokenBucketRateLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private TokenBucketRateLimiter rateLimiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getDefaultLimit().setCapacity(100);
+        properties.getDefaultLimit().setRefillPerSecond(1_000_000_000);
+        RateLimitProperties.EndpointLimit searchLimit = new RateLimitProperties.EndpointLimit();
+        searchLimit.setPath("/items/search");
+        searchLimit.setCapacity(20);
+        searchLimit.setRefillPerSecond(1_000_000_000);
+        properties.setEndpoints(List.of(searchLimit));
+        rateLimiter = new TokenBucketRateLimiter(properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        rateLimiter.close();
+    }
+
+    /**
+     * Затраты самого теста (выбор пользователя и вызов метода) для сравнения с остальными вариантами.
+     */
+    @Benchmark
+    public long baseline() {
+        return ThreadLocalRandom.current().nextInt(USERS);
+    }
+
+    /**
+     * Чтение часов, которое выполняется при каждой проверке лимита.
+     */
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public long distinctUsers() {
+        return rateLimiter.tryAcquire("GET", "/items/{itemId}", ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    @Benchmark
+    public long sameUser() {
+        return rateLimiter.tryAcquire("GET", "/items/{itemId}", 1L);
+    }
+
+    @Benchmark
+    public long endpointLimit() {
+        return rateLimiter.tryAcquire("GET", "/items/search", ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenBucketRateLimiterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
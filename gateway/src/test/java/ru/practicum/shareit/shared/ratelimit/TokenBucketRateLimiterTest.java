@@ -0,0 +1,90 @@
+package ru.practicum.shareit.shared.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private TokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getDefaultLimit().setCapacity(3);
+        properties.getDefaultLimit().setRefillPerSecond(1);
+        RateLimitProperties.EndpointLimit searchLimit = new RateLimitProperties.EndpointLimit();
+        searchLimit.setPath("/items/search");
+        searchLimit.setCapacity(1);
+        searchLimit.setRefillPerSecond(1);
+        properties.setEndpoints(List.of(searchLimit));
+        properties.setIdleTimeout(Duration.ofSeconds(10));
+        rateLimiter = new TokenBucketRateLimiter(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rateLimiter.close();
+    }
+
+    @Test
+    @DisplayName("Запросы в пределах емкости корзины разрешены, следующий отклоняется")
+    void tryAcquire_BurstAboveCapacity_ShouldRejectWithRetryAfter() {
+        long now = 0;
+
+        assertThat(rateLimiter.tryAcquire("GET", "/items/{itemId}", 1L, now), is(0L));
+        assertThat(rateLimiter.tryAcquire("GET", "/items/{itemId}", 1L, now), is(0L));
+        assertThat(rateLimiter.tryAcquire("GET", "/items/{itemId}", 1L, now), is(0L));
+        assertThat(rateLimiter.tryAcquire("GET", "/items/{itemId}", 1L, now), is(SECOND));
+    }
+
+    @Test
+    @DisplayName("Корзина пополняется со временем")
+    void tryAcquire_AfterRefill_ShouldAllow() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("GET", "/items/{itemId}", 1L, 0);
+        }
+
+        assertThat(rateLimiter.tryAcquire("GET", "/items/{itemId}", 1L, SECOND), is(0L));
+        assertThat(rateLimiter.tryAcquire("GET", "/items/{itemId}", 1L, SECOND), greaterThan(0L));
+    }
+
+    @Test
+    @DisplayName("Лимиты разных пользователей независимы")
+    void tryAcquire_DifferentUsers_ShouldNotAffectEachOther() {
+        rateLimiter.tryAcquire("GET", "/items/search", 1L, 0);
+
+        assertThat(rateLimiter.tryAcquire("GET", "/items/search", 1L, 0), greaterThan(0L));
+        assertThat(rateLimiter.tryAcquire("GET", "/items/search", 2L, 0), is(0L));
+    }
+
+    @Test
+    @DisplayName("Для эндпоинта применяется собственный лимит")
+    void tryAcquire_EndpointLimit_ShouldOverrideDefault() {
+        assertThat(rateLimiter.tryAcquire("GET", "/items/search", 1L, 0), is(0L));
+        assertThat(rateLimiter.tryAcquire("GET", "/items/search", 1L, 0), greaterThan(0L));
+        assertThat(rateLimiter.tryAcquire("POST", "/items/search", 1L, 0), is(0L));
+    }
+
+    @Test
+    @DisplayName("Простаивающие корзины удаляются")
+    void evictIdleBuckets_ShouldRemoveOnlyIdleBuckets() {
+        rateLimiter.tryAcquire("GET", "/items/{itemId}", 1L, 0);
+        rateLimiter.tryAcquire("GET", "/items/{itemId}", 2L, 20 * SECOND);
+
+        rateLimiter.evictIdleBuckets(25 * SECOND);
+
+        assertThat(rateLimiter.size(), is(1L));
+    }
+}
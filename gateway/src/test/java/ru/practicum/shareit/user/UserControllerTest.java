@@ -8,16 +8,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.client.HttpClientErrorException;
+import ru.practicum.shareit.shared.exception.UnknownUserException;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -61,4 +70,42 @@ class UserControllerTest {
         verify(userClient, never()).addUser(any(UserDto.class));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Ответ шлюза о неизвестном пользователе совпадает с ответом основного сервиса")
+    @SneakyThrows
+    void getUserById_UnknownUser_ShouldReturnSameBodyAsServer() {
+        String serverBody = "{\"errors\":{\"errorMessage\":\"" + UnknownUserException.message(1L)
+                + "\",\"errorCode\":\"USER_NOT_FOUND\"}}";
+        when(userClient.findUserById(1L, null))
+                .thenThrow(new UnknownUserException(1L))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(),
+                        serverBody.getBytes(StandardCharsets.UTF_8), null));
+
+        String localBody = mvc.perform(get("/users/{userId}", 1L))
+                .andExpect(status().isNotFound())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String relayedBody = mvc.perform(get("/users/{userId}", 1L))
+                .andExpect(status().isNotFound())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(objectMapper.readTree(localBody), is(objectMapper.readTree(serverBody)));
+        assertThat(objectMapper.readTree(relayedBody), is(objectMapper.readTree(serverBody)));
+    }
+
+    @Test
+    @DisplayName("Из ошибки основного сервиса клиенту передаются только сообщение и код ошибки")
+    @SneakyThrows
+    void getUserById_UpstreamErrorWithExtraFields_ShouldRelayMessageAndCodeOnly() {
+        String serverBody = "{\"errors\":{\"errorMessage\":\"" + UnknownUserException.message(1L)
+                + "\",\"errorCode\":\"USER_NOT_FOUND\",\"sql\":\"select * from users\"}}";
+        when(userClient.findUserById(1L, null))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(),
+                        serverBody.getBytes(StandardCharsets.UTF_8), null));
+
+        mvc.perform(get("/users/{userId}", 1L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errors.errorMessage", is(UnknownUserException.message(1L))))
+                .andExpect(jsonPath("$.errors.errorCode", is("USER_NOT_FOUND")))
+                .andExpect(jsonPath("$.errors.sql").doesNotExist());
+    }
+}
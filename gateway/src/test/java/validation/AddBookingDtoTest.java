@@ -82,4 +82,42 @@ class AddBookingDtoTest {
 
         assertTrue(dtoHasErrorMessage(addBookingDto, "Задан некорректный интервал бронирования."));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Проверка указания поля даты начала, когда дата начала в прошлом.")
+    void testCreateWhenStartInPastHasStartFieldMessage() {
+        AddBookingDto addBookingDto = AddBookingDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusDays(5))
+                .build();
+
+        assertTrue(dtoHasErrorMessage(addBookingDto, "Дата начала бронирования должна быть в будущем."));
+        assertTrue(dtoHasErrorOnField(addBookingDto, "start"));
+    }
+
+    @Test
+    @DisplayName("Проверка указания поля даты окончания, когда дата окончания раньше даты начала.")
+    void testCreateWhenEndEarlierThanStartHasEndFieldMessage() {
+        AddBookingDto addBookingDto = AddBookingDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(1))
+                .build();
+
+        assertTrue(dtoHasErrorMessage(addBookingDto, "Дата окончания бронирования должна быть позже даты начала."));
+        assertTrue(dtoHasErrorOnField(addBookingDto, "end"));
+    }
+
+    @Test
+    @DisplayName("Проверка создания бронирования с корректным интервалом.")
+    void testCreateWithValidInterval() {
+        AddBookingDto addBookingDto = AddBookingDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(5))
+                .build();
+
+        assertTrue(VALIDATOR.validate(addBookingDto).isEmpty());
+    }
+}
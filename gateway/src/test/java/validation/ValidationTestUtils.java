@@ -16,4 +16,9 @@ public class ValidationTestUtils {
         Set<ConstraintViolation<T>> errors = VALIDATOR.validate(dto);
         return errors.stream().map(ConstraintViolation::getMessage).anyMatch(message::equals);
     }
+
+    public static <T> boolean dtoHasErrorOnField(T dto, @NotNull String field) {
+        Set<ConstraintViolation<T>> errors = VALIDATOR.validate(dto);
+        return errors.stream().map(error -> error.getPropertyPath().toString()).anyMatch(field::equals);
+    }
 }
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.shared.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Асинхронный аппендер, который считает отброшенные события. Logback отбрасывает событие без уведомления, если
+ * очередь заполнена (при neverBlock=true) или если в ней осталось меньше discardingThreshold свободных мест и
+ * событие имеет уровень INFO или ниже. Очередь проверяется перед передачей события базовому классу, поэтому
+ * при конкурентной записи счетчик дает оценку, а не точное значение.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    /**
+     * Количество событий, отброшенных всеми экземплярами аппендера.
+     */
+    public static LongAdder droppedEvents() {
+        return DROPPED;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isStarted() && willBeDropped(event)) {
+            DROPPED.increment();
+        }
+        super.append(event);
+    }
+
+    private boolean willBeDropped(ILoggingEvent event) {
+        int remainingCapacity = getRemainingCapacity();
+        return remainingCapacity < getDiscardingThreshold() && isDiscardable(event)
+                || remainingCapacity == 0 && isNeverBlock();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.shared.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Configuration
+public class LoggingMetricsConfig {
+
+    @Bean
+    public MeterBinder loggingMetrics() {
+        return registry -> {
+            FunctionCounter.builder("logging.events.dropped", CountingAsyncAppender.droppedEvents(), LongAdder::sum)
+                    .description("События лога, отброшенные из-за переполнения очереди асинхронного аппендера")
+                    .register(registry);
+            FunctionCounter.builder("logging.events.sampled", SamplingTurboFilter.suppressedEvents(), LongAdder::sum)
+                    .description("Повторяющиеся сообщения лога, отброшенные при сэмплировании")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.shared.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничивает частоту повторяющихся сообщений уровня INFO. Ключом служит шаблон сообщения, поэтому у каждой
+ * точки логирования (а значит, и у каждого эндпоинта) собственный бюджет: в течение секунды пропускаются первые
+ * maxPerSecond сообщений, из остальных - каждое sampleRate-е. Сообщения уровня WARN и выше, а также сообщения с
+ * исключением не ограничиваются. Фильтр срабатывает до создания события и форматирования аргументов, поэтому
+ * отброшенное сообщение почти ничего не стоит.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Ограничение на количество отслеживаемых шаблонов. Сообщения с новыми шаблонами сверх этого числа
+     * пропускаются без ограничений.
+     */
+    private static final int MAX_TEMPLATES = 1024;
+
+    private static final LongAdder SUPPRESSED = new LongAdder();
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    private final LongSupplier clock;
+
+    private boolean enabled = true;
+
+    private String loggerPrefix = "";
+
+    private int maxPerSecond = 50;
+
+    private int sampleRate = 100;
+
+    public SamplingTurboFilter() {
+        this(System::nanoTime);
+    }
+
+    SamplingTurboFilter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Количество сообщений, отброшенных всеми экземплярами фильтра.
+     */
+    public static LongAdder suppressedEvents() {
+        return SUPPRESSED;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * Доля сообщений, которые пишутся после исчерпания секундного бюджета: 1 из sampleRate. При значении 0
+     * такие сообщения отбрасываются все.
+     */
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!enabled || format == null || t != null || level != Level.INFO
+                || !Level.INFO.isGreaterOrEqual(logger.getEffectiveLevel())
+                || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        long now = clock.getAsLong();
+        Window window = windows.get(format);
+        if (window == null) {
+            if (windows.size() >= MAX_TEMPLATES) {
+                return FilterReply.NEUTRAL;
+            }
+            window = windows.computeIfAbsent(format, key -> new Window(now));
+        }
+        long count = window.next(now);
+        if (count <= maxPerSecond || sampleRate > 0 && (count - maxPerSecond) % sampleRate == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        SUPPRESSED.increment();
+        return FilterReply.DENY;
+    }
+
+    private static final class Window {
+
+        private final AtomicLong start;
+
+        private final AtomicLong count = new AtomicLong();
+
+        private Window(long now) {
+            this.start = new AtomicLong(now);
+        }
+
+        private long next(long now) {
+            long windowStart = start.get();
+            if (now - windowStart >= WINDOW_NANOS && start.compareAndSet(windowStart, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet();
+        }
+    }
+}
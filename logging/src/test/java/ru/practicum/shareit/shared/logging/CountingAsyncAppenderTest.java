@@ -0,0 +1,90 @@
+package ru.practicum.shareit.shared.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class CountingAsyncAppenderTest {
+
+    private final CountDownLatch taken = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private LoggerContext context;
+
+    private CountingAsyncAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        AppenderBase<ILoggingEvent> blocking = new AppenderBase<>() {
+            @Override
+            @SneakyThrows
+            protected void append(ILoggingEvent event) {
+                taken.countDown();
+                release.await();
+            }
+        };
+        blocking.setContext(context);
+        blocking.start();
+        appender = new CountingAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(1);
+        appender.setDiscardingThreshold(0);
+        appender.setNeverBlock(true);
+        appender.addAppender(blocking);
+        appender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    @DisplayName("События, не поместившиеся в заполненную очередь, считаются отброшенными")
+    @SneakyThrows
+    void append_QueueFull_ShouldCountDroppedEvents() {
+        long droppedBefore = CountingAsyncAppender.droppedEvents().sum();
+
+        appender.doAppend(event(Level.INFO));
+        assertThat(taken.await(5, TimeUnit.SECONDS), is(true));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.ERROR));
+        appender.doAppend(event(Level.WARN));
+
+        assertThat(CountingAsyncAppender.droppedEvents().sum() - droppedBefore, is(2L));
+    }
+
+    @Test
+    @DisplayName("События, поместившиеся в очередь, не считаются отброшенными")
+    @SneakyThrows
+    void append_QueueHasCapacity_ShouldNotCount() {
+        long droppedBefore = CountingAsyncAppender.droppedEvents().sum();
+
+        appender.doAppend(event(Level.INFO));
+        assertThat(taken.await(5, TimeUnit.SECONDS), is(true));
+        appender.doAppend(event(Level.INFO));
+
+        assertThat(CountingAsyncAppender.droppedEvents().sum() - droppedBefore, is(0L));
+    }
+
+    private ILoggingEvent event(Level level) {
+        return new LoggingEvent(getClass().getName(), context.getLogger("ru.practicum.shareit"), level, "message",
+                null, null);
+    }
+}
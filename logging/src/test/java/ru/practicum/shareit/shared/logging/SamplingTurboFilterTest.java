@@ -0,0 +1,85 @@
+package ru.practicum.shareit.shared.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class SamplingTurboFilterTest {
+
+    private static final String FORMAT = "Get booking {}, userId={}";
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private SamplingTurboFilter filter;
+
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        logger = context.getLogger("ru.practicum.shareit.booking.BookingController");
+        logger.setLevel(Level.INFO);
+        filter = new SamplingTurboFilter(clock::get);
+        filter.setLoggerPrefix("ru.practicum.shareit");
+        filter.setMaxPerSecond(2);
+        filter.setSampleRate(3);
+    }
+
+    @Test
+    @DisplayName("После исчерпания секундного бюджета пишется каждое sampleRate-е сообщение")
+    void decide_AboveBudget_ShouldSample() {
+        List<FilterReply> replies = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            replies.add(filter.decide(null, logger, Level.INFO, FORMAT, null, null));
+        }
+
+        assertThat(replies, is(List.of(FilterReply.NEUTRAL, FilterReply.NEUTRAL,
+                FilterReply.DENY, FilterReply.DENY, FilterReply.NEUTRAL,
+                FilterReply.DENY, FilterReply.DENY, FilterReply.NEUTRAL)));
+    }
+
+    @Test
+    @DisplayName("Бюджет восстанавливается в следующей секунде")
+    void decide_NextWindow_ShouldResetBudget() {
+        for (int i = 0; i < 3; i++) {
+            filter.decide(null, logger, Level.INFO, FORMAT, null, null);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(filter.decide(null, logger, Level.INFO, FORMAT, null, null), is(FilterReply.NEUTRAL));
+    }
+
+    @Test
+    @DisplayName("У разных шаблонов сообщений независимые бюджеты")
+    void decide_DifferentTemplates_ShouldHaveSeparateBudgets() {
+        for (int i = 0; i < 3; i++) {
+            filter.decide(null, logger, Level.INFO, FORMAT, null, null);
+        }
+
+        assertThat(filter.decide(null, logger, Level.INFO, "Get bookings {}, userId={}", null, null),
+                is(FilterReply.NEUTRAL));
+    }
+
+    @Test
+    @DisplayName("Предупреждения, ошибки и сообщения других логгеров не ограничиваются")
+    void decide_WarnOrForeignLogger_ShouldNotBeLimited() {
+        Logger foreign = logger.getLoggerContext().getLogger("org.springframework.web");
+        for (int i = 0; i < 10; i++) {
+            assertThat(filter.decide(null, logger, Level.WARN, FORMAT, null, null), is(FilterReply.NEUTRAL));
+            assertThat(filter.decide(null, foreign, Level.INFO, FORMAT, null, null), is(FilterReply.NEUTRAL));
+            assertThat(filter.decide(null, logger, Level.INFO, null, null, null), is(FilterReply.NEUTRAL));
+        }
+    }
+}
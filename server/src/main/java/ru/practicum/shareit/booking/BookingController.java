@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -16,7 +18,11 @@ import ru.practicum.shareit.booking.dto.AddBookingDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.GetBookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
+import ru.practicum.shareit.shared.stream.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -26,6 +32,8 @@ public class BookingController {
 
     private final BookingService bookingService;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookingDto addNewBooking(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -46,11 +54,25 @@ public class BookingController {
         return bookingService.getBookingById(userId, bookingId);
     }
 
+    @GetMapping(params = "ids")
+    public List<BatchEntryDto<BookingDto>> getBookingsByIds(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                            @RequestParam List<Long> ids) {
+        return bookingService.getBookingsByIds(userId, ids);
+    }
+
     @GetMapping
     public List<BookingDto> getAllBookingsFromUser(@RequestHeader("X-Sharer-User-Id") long userId,
                                                    @RequestParam GetBookingState state,
                                                    @RequestParam Long from,
-                                                   @RequestParam Integer size) {
+                                                   @RequestParam Integer size,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                   String accept,
+                                                   HttpServletResponse response) throws IOException {
+        if (NdjsonWriter.isRequested(accept)) {
+            NdjsonWriter.write(objectMapper, response, writer ->
+                    bookingService.streamAllBookingsFromUser(userId, state, from, size, false, writer));
+            return null;
+        }
         return bookingService.getAllBookingsFromUser(userId, state, from, size, false);
     }
 
@@ -58,7 +80,15 @@ public class BookingController {
     public List<BookingDto> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                                 @RequestParam GetBookingState state,
                                                 @RequestParam Long from,
-                                                @RequestParam Integer size) {
+                                                @RequestParam Integer size,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                String accept,
+                                                HttpServletResponse response) throws IOException {
+        if (NdjsonWriter.isRequested(accept)) {
+            NdjsonWriter.write(objectMapper, response, writer ->
+                    bookingService.streamAllBookingsFromUser(userId, state, from, size, true, writer));
+            return null;
+        }
         return bookingService.getAllBookingsFromUser(userId, state, from, size, true);
     }
 }
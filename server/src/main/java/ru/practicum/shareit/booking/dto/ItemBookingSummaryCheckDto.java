@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат сверки сводок бронирований вещей с таблицей бронирований.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummaryCheckDto {
+
+    /**
+     * Количество проверенных сводок.
+     */
+    private long checked;
+
+    /**
+     * Количество сводок, ближайшее бронирование которых уже началось и которые еще не обновлены.
+     */
+    private long stale;
+
+    /**
+     * Количество сводок, не совпадающих с бронированиями вещи.
+     */
+    private long mismatched;
+
+    /**
+     * Количество вещей без сводки.
+     */
+    private long missing;
+
+    /**
+     * Идентификаторы вещей с несовпадающими сводками, первые 20.
+     */
+    private List<Long> mismatchedItemIds;
+
+    public boolean isConsistent() {
+        return mismatched == 0 && missing == 0;
+    }
+}
@@ -5,6 +5,8 @@ import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 
 import java.util.List;
 
@@ -17,4 +19,20 @@ public interface BookingMapper {
     ShortBookingDto toShortDto(Booking booking);
 
     List<BookingDto> toDtoList(List<Booking> bookings);
+
+    default ShortBookingDto toLastBookingDto(ItemBookingSummary summary) {
+        if (summary == null || summary.getLastBookingId() == null) {
+            return null;
+        }
+        return new ShortBookingDto(summary.getLastBookingId(), summary.getLastBookerId(), BookingStatus.APPROVED,
+                summary.getLastStart(), summary.getLastEnd());
+    }
+
+    default ShortBookingDto toNextBookingDto(ItemBookingSummary summary) {
+        if (summary == null || summary.getNextBookingId() == null) {
+            return null;
+        }
+        return new ShortBookingDto(summary.getNextBookingId(), summary.getNextBookerId(), BookingStatus.APPROVED,
+                summary.getNextStart(), summary.getNextEnd());
+    }
 }
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Последнее и ближайшее подтвержденные бронирования вещи, сохраненные отдельно от таблицы бронирований. Строка
+ * обновляется при изменении бронирований вещи и устаревает, когда наступает начало ближайшего бронирования: тогда
+ * оно может стать последним, а ближайшим — следующее.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start_date")
+    private LocalDateTime lastStart;
+
+    @Column(name = "last_end_date")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start_date")
+    private LocalDateTime nextStart;
+
+    @Column(name = "next_end_date")
+    private LocalDateTime nextEnd;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    /**
+     * Сводка бронирований вещи на указанный момент. Последнее бронирование — подтвержденное, начавшееся до этого
+     * момента, с наибольшей датой окончания; ближайшее — подтвержденное, начинающееся после него, с наименьшей датой
+     * начала.
+     *
+     * @param itemId   идентификатор вещи
+     * @param bookings бронирования вещи
+     * @param now      момент, на который составляется сводка
+     * @return сводка бронирований
+     */
+    public static ItemBookingSummary of(Long itemId, Collection<Booking> bookings, LocalDateTime now) {
+        ItemBookingSummary summary = new ItemBookingSummary(itemId);
+        summary.update(bookings, now);
+        return summary;
+    }
+
+    /**
+     * Замена последнего и ближайшего бронирований по бронированиям вещи на указанный момент.
+     */
+    public void update(Collection<Booking> bookings, LocalDateTime now) {
+        final Optional<Booking> lastBooking = bookings.stream()
+                .filter(booking -> booking.getStart().isBefore(now)
+                        && booking.getStatus().equals(BookingStatus.APPROVED))
+                .max(Comparator.comparing(Booking::getEnd));
+        final Optional<Booking> nextBooking = bookings.stream()
+                .filter(booking -> booking.getStart().isAfter(now)
+                        && booking.getStatus().equals(BookingStatus.APPROVED))
+                .min(Comparator.comparing(Booking::getStart));
+        lastBookingId = lastBooking.map(Booking::getId).orElse(null);
+        lastBookerId = lastBooking.map(booking -> booking.getBooker().getId()).orElse(null);
+        lastStart = lastBooking.map(Booking::getStart).orElse(null);
+        lastEnd = lastBooking.map(Booking::getEnd).orElse(null);
+        nextBookingId = nextBooking.map(Booking::getId).orElse(null);
+        nextBookerId = nextBooking.map(booking -> booking.getBooker().getId()).orElse(null);
+        nextStart = nextBooking.map(Booking::getStart).orElse(null);
+        nextEnd = nextBooking.map(Booking::getEnd).orElse(null);
+    }
+
+    /**
+     * Проверка, устарела ли сводка к указанному моменту: ближайшее бронирование уже началось.
+     */
+    public boolean isStale(LocalDateTime now) {
+        return nextStart != null && !nextStart.isAfter(now);
+    }
+
+    /**
+     * Проверка, указаны ли в сводках одни и те же последнее и ближайшее бронирования.
+     */
+    public boolean hasSameBookingsAs(ItemBookingSummary other) {
+        return Objects.equals(lastBookingId, other.lastBookingId)
+                && Objects.equals(lastBookerId, other.lastBookerId)
+                && Objects.equals(lastStart, other.lastStart)
+                && Objects.equals(lastEnd, other.lastEnd)
+                && Objects.equals(nextBookingId, other.nextBookingId)
+                && Objects.equals(nextBookerId, other.nextBookerId)
+                && Objects.equals(nextStart, other.nextStart)
+                && Objects.equals(nextEnd, other.nextEnd);
+    }
+}
@@ -3,8 +3,10 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.dto.AddBookingDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.GetBookingState;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto addBooking(Long userId, AddBookingDto bookingDto);
@@ -13,5 +15,10 @@ public interface BookingService {
 
     List<BookingDto> getAllBookingsFromUser(Long userId, GetBookingState state, Long from, Integer size, boolean isOwner);
 
+    void streamAllBookingsFromUser(Long userId, GetBookingState state, Long from, Integer size, boolean isOwner,
+                                   Consumer<? super BookingDto> consumer);
+
     BookingDto getBookingById(Long userId, Long bookingId);
+
+    List<BatchEntryDto<BookingDto>> getBookingsByIds(Long userId, List<Long> bookingIds);
 }
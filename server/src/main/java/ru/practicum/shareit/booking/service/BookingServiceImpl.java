@@ -15,16 +15,26 @@ import ru.practicum.shareit.booking.storage.BookingStorage;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.shared.OffsetPageRequest;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
+import ru.practicum.shareit.shared.exception.ErrorCode;
 import ru.practicum.shareit.shared.exception.ItemUnavailableException;
 import ru.practicum.shareit.shared.exception.NotAuthorizedException;
 import ru.practicum.shareit.shared.exception.NotFoundException;
+import ru.practicum.shareit.shared.stream.StreamingQueries;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -35,6 +45,8 @@ public class BookingServiceImpl implements BookingService {
     private final UserStorage userStorage;
     private final ItemStorage itemStorage;
     private final BookingMapper bookingMapper;
+    private final EntityManager entityManager;
+    private final ItemBookingSummaryService itemBookingSummaryService;
 
 
     /**
@@ -49,11 +61,11 @@ public class BookingServiceImpl implements BookingService {
     public BookingDto addBooking(final Long userId, final AddBookingDto bookingDto) {
         final User user = findUser(userId);
         final Item item = itemStorage.findById(bookingDto.getItemId())
-                .orElseThrow(() -> new NotFoundException("Вещь с id '" + bookingDto.getItemId() + "' не найдена."));
+                .orElseThrow(() -> NotFoundException.item(bookingDto.getItemId()));
         checkItemAvailability(item);
         if (item.getOwner().getId().equals(userId)) {
-            throw new NotAuthorizedException("Вещь с id '" + item.getId() +
-                    "' уже принадлежит пользователю с id '" + userId + "'.");
+            throw new NotAuthorizedException("Вещь с id '%s' уже принадлежит пользователю с id '%s'.",
+                    item.getId(), userId);
         }
         final Booking booking = Booking.builder()
                 .item(item)
@@ -68,7 +80,9 @@ public class BookingServiceImpl implements BookingService {
     }
 
     /**
-     * Подтверждение или отклонение запроса на бронирование. Может быть выполнено только владельцем вещи.
+     * Подтверждение или отклонение запроса на бронирование. Может быть выполнено только владельцем вещи. Сводка
+     * учитывает только подтвержденные бронирования, поэтому она обновляется в той же транзакции только при
+     * подтверждении.
      *
      * @param userId    идентификатор пользователя, делающего подтверждение
      * @param bookingId идентификатор бронирования
@@ -82,14 +96,17 @@ public class BookingServiceImpl implements BookingService {
         final Booking booking = findBooking(bookingId);
         final Item item = booking.getItem();
         if (!item.getOwner().getId().equals(userId)) {
-            throw new NotAuthorizedException("Пользователь с id '" + userId +
-                    "' не является владельцем вещи с id '" + item.getId() + "'.");
+            throw new NotAuthorizedException("Пользователь с id '%s' не является владельцем вещи с id '%s'.",
+                    userId, item.getId());
         }
         if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new ItemUnavailableException("Текущий статус бронирования не позволяет сделать подтверждение.");
+            throw new ItemUnavailableException(ErrorCode.BOOKING_NOT_ACKNOWLEDGEABLE,
+                    "Текущий статус бронирования не позволяет сделать подтверждение.");
         }
         if (approved) {
             booking.setStatus(BookingStatus.APPROVED);
+            itemStorage.incrementVersion(item.getId());
+            itemBookingSummaryService.refresh(item.getId());
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
@@ -111,11 +128,41 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getBooker().getId().equals(userId) || booking.getItem().getOwner().getId().equals(userId)) {
             return bookingMapper.toDto(booking);
         } else {
-            throw new NotAuthorizedException("У пользователя с id '" + userId + "' нет прав для доступа к бронированию с" +
-                    " id '" + bookingId + "'.");
+            throw new NotAuthorizedException("У пользователя с id '%s' нет прав для доступа к бронированию с id '%s'.",
+                    userId, bookingId);
         }
     }
 
+    /**
+     * Получение бронирований по списку идентификаторов одним запросом к базе данных. Каждое бронирование доступно
+     * только его автору или владельцу вещи. Результат возвращается в порядке запрошенных идентификаторов, для
+     * ненайденных и недоступных бронирований указывается причина.
+     *
+     * @param userId     идентификатор пользователя, делающего запрос
+     * @param bookingIds идентификаторы бронирований
+     * @return список найденных бронирований и ошибок
+     */
+    @Override
+    public List<BatchEntryDto<BookingDto>> getBookingsByIds(final Long userId, final List<Long> bookingIds) {
+        findUser(userId);
+        final Map<Long, Booking> bookings = bookingStorage.findAllByIdIn(new HashSet<>(bookingIds)).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        final List<BatchEntryDto<BookingDto>> result = new ArrayList<>(bookingIds.size());
+        for (Long bookingId : bookingIds) {
+            final Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                result.add(BatchEntryDto.failed(bookingId, NotFoundException.booking(bookingId).getMessage()));
+            } else if (booking.getBooker().getId().equals(userId) || booking.getItem().getOwner().getId().equals(userId)) {
+                result.add(BatchEntryDto.found(bookingId, bookingMapper.toDto(booking)));
+            } else {
+                result.add(BatchEntryDto.failed(bookingId, "У пользователя с id '" + userId +
+                        "' нет прав для доступа к бронированию с id '" + bookingId + "'."));
+            }
+        }
+        log.info("Получение пользователем с id '{}' бронирований с id {}.", userId, bookingIds);
+        return result;
+    }
+
     /**
      * Получение списка бронирований для всех вещей пользователя. Параметр state необязательный и по умолчанию
      * равен ALL. Также он может принимать значения CURRENT, PAST, FUTURE, WAITING, REJECTED. Бронирования возвращаются
@@ -145,6 +192,34 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.toDtoList(Lists.newArrayList(result));
     }
 
+    /**
+     * Получение списка бронирований с передачей каждого бронирования получателю сразу после чтения из базы данных.
+     * Бронирования читаются курсором, и после обработки каждой части контекст сохранения очищается, поэтому
+     * расход памяти не зависит от размера страницы. Порядок и постраничный вывод такие же, как в
+     * {@link #getAllBookingsFromUser}.
+     *
+     * @param userId   идентификатор пользователя, делающего запрос
+     * @param state    статус бронирования
+     * @param from     индекс первого отображаемого элемента (отсчет начинается с нуля)
+     * @param size     количество отображаемых элементов на странице
+     * @param isOwner  флаг, запрашивает ли пользователь бронирования своих вещей
+     * @param consumer получатель бронирований
+     */
+    @Override
+    @Transactional
+    public void streamAllBookingsFromUser(final Long userId, final GetBookingState state, Long from, Integer size,
+                                          boolean isOwner, Consumer<? super BookingDto> consumer) {
+        findUser(userId);
+        final OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size);
+        final Stream<Booking> bookings = isOwner
+                ? streamSortedBookingsFromOwner(state, userId, pageRequest)
+                : streamSortedBookingsFromBooker(state, userId, pageRequest);
+        StreamingQueries.forEachChunk(bookings, StreamingQueries.CHUNK_SIZE, chunk -> {
+            chunk.forEach(booking -> consumer.accept(bookingMapper.toDto(booking)));
+            entityManager.clear();
+        });
+    }
+
     private Iterable<Booking> getBookingFromOwner(Long userId, GetBookingState state, Long from, Integer size, Iterable<Booking> result) {
         OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size);
         result = getAllSortedBookingsFromUser(state, result, userId, pageRequest);
@@ -209,14 +284,52 @@ public class BookingServiceImpl implements BookingService {
         return result;
     }
 
+    private Stream<Booking> streamSortedBookingsFromOwner(final GetBookingState state, final Long userId,
+                                                          Pageable pageable) {
+        switch (state) {
+            case CURRENT:
+                return bookingStorage.streamCurrentBookingsByOwnerId(userId, LocalDateTime.now(), LocalDateTime.now(),
+                        pageable);
+            case PAST:
+                return bookingStorage.streamPastBookingsByOwnerId(userId, LocalDateTime.now(), pageable);
+            case FUTURE:
+                return bookingStorage.streamFutureBookingsByOwnerId(userId, LocalDateTime.now(), pageable);
+            case WAITING:
+                return bookingStorage.streamBookingsByOwnerIdAndStatus(userId, BookingStatus.WAITING, pageable);
+            case REJECTED:
+                return bookingStorage.streamBookingsByOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
+            default:
+                return bookingStorage.streamAllByItemOwnerId(userId, pageable);
+        }
+    }
+
+    private Stream<Booking> streamSortedBookingsFromBooker(final GetBookingState state, final Long bookerId,
+                                                           Pageable pageable) {
+        switch (state) {
+            case CURRENT:
+                return bookingStorage.streamCurrentBookingsByBookerId(bookerId, LocalDateTime.now(),
+                        LocalDateTime.now(), pageable);
+            case PAST:
+                return bookingStorage.streamPastBookingsByBookerId(bookerId, LocalDateTime.now(), pageable);
+            case FUTURE:
+                return bookingStorage.streamFutureBookingsByBookerId(bookerId, LocalDateTime.now(), pageable);
+            case WAITING:
+                return bookingStorage.streamBookingsByBookerIdAndStatus(bookerId, BookingStatus.WAITING, pageable);
+            case REJECTED:
+                return bookingStorage.streamBookingsByBookerIdAndStatus(bookerId, BookingStatus.REJECTED, pageable);
+            default:
+                return bookingStorage.streamAllByBookerId(bookerId, pageable);
+        }
+    }
+
     private User findUser(final Long userId) {
         return userStorage.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id '" + userId + "' не найден."));
+                .orElseThrow(() -> NotFoundException.user(userId));
     }
 
     private Booking findBooking(final Long bookingId) {
         return bookingStorage.findBookingById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование с id '" + bookingId + "' не найдено."));
+                .orElseThrow(() -> NotFoundException.booking(bookingId));
     }
 
     private void checkItemAvailability(final Item item) {
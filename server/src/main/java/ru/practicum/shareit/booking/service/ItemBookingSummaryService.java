@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.ItemBookingSummaryCheckDto;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+    void onItemAdded(Long itemId);
+
+    void refresh(Long itemId);
+
+    Map<Long, ItemBookingSummary> findByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    int sweep(int batchSize);
+
+    void rebuild();
+
+    ItemBookingSummaryCheckDto check();
+}
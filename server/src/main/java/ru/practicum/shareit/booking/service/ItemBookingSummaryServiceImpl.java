@@ -0,0 +1,229 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.ItemBookingSummaryCheckDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryStorage;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.shared.OffsetPageRequest;
+import ru.practicum.shareit.shared.stream.StreamingQueries;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сводки последнего и ближайшего подтвержденных бронирований вещей. Сводка обновляется в транзакции, изменившей
+ * бронирования вещи, а по мере наступления начала ближайших бронирований — периодическим обходом устаревших сводок.
+ * Устаревшие и отсутствующие сводки при чтении рассчитываются по таблице бронирований, поэтому владелец вещи видит
+ * актуальные бронирования и до очередного обхода.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+
+    private static final int MAX_SAMPLE_SIZE = 20;
+
+    private final ItemBookingSummaryStorage summaryStorage;
+    private final BookingStorage bookingStorage;
+    private final ItemStorage itemStorage;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Добавление пустой сводки для новой вещи.
+     *
+     * @param itemId идентификатор вещи
+     */
+    @Override
+    @Transactional
+    public void onItemAdded(final Long itemId) {
+        summaryStorage.save(new ItemBookingSummary(itemId));
+    }
+
+    /**
+     * Пересчет сводки вещи в текущей транзакции. Строка сводки блокируется до чтения бронирований, поэтому
+     * одновременные изменения бронирований одной вещи обновляют сводку по очереди, и каждое видит результат
+     * предыдущего. Если сводки нет, она будет создана при перестроении, а до тех пор рассчитывается при чтении.
+     *
+     * @param itemId идентификатор вещи
+     */
+    @Override
+    @Transactional
+    public void refresh(final Long itemId) {
+        final Optional<ItemBookingSummary> summary = summaryStorage.findByItemIdForUpdate(itemId);
+        if (summary.isEmpty()) {
+            log.debug("Сводка бронирований вещи с id '{}' не найдена.", itemId);
+            return;
+        }
+        bookingStorage.flush();
+        final LocalDateTime now = LocalDateTime.now();
+        summary.get().update(bookingStorage.findLastAndNextApprovedBookings(List.of(itemId), now), now);
+    }
+
+    /**
+     * Получение сводок бронирований вещей. Сводки, которых нет или которые устарели к указанному моменту,
+     * рассчитываются одним запросом к таблице бронирований и не сохраняются.
+     *
+     * @param itemIds идентификаторы вещей
+     * @param now     момент, на который нужны сводки
+     * @return сводки по идентификаторам вещей
+     */
+    @Override
+    public Map<Long, ItemBookingSummary> findByItemIds(final Collection<Long> itemIds, final LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        final Map<Long, ItemBookingSummary> result = summaryStorage.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity(), (a, b) -> a,
+                        HashMap::new));
+        final List<Long> outdatedItemIds = itemIds.stream()
+                .filter(itemId -> !result.containsKey(itemId) || result.get(itemId).isStale(now))
+                .collect(Collectors.toList());
+        if (!outdatedItemIds.isEmpty()) {
+            final Map<Long, List<Booking>> itemIdToBookings = findBookings(outdatedItemIds, now);
+            for (Long itemId : outdatedItemIds) {
+                result.put(itemId, ItemBookingSummary.of(itemId, itemIdToBookings.getOrDefault(itemId, List.of()),
+                        now));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Обновление сводок, ближайшее бронирование которых уже началось.
+     *
+     * @param batchSize максимальное количество обновляемых сводок
+     * @return количество обновленных сводок
+     */
+    @Override
+    @Transactional
+    public int sweep(final int batchSize) {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Long> itemIds = summaryStorage.findItemIdsWithStartedNextBooking(now,
+                OffsetPageRequest.of(0L, batchSize));
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        final List<ItemBookingSummary> summaries = summaryStorage.findAllByItemIdInForUpdate(itemIds);
+        final Map<Long, List<Booking>> itemIdToBookings = findBookings(itemIds, now);
+        summaries.forEach(summary -> summary.update(
+                itemIdToBookings.getOrDefault(summary.getItemId(), List.of()), now));
+        log.debug("Обновлено {} сводок бронирований вещей.", summaries.size());
+        return summaries.size();
+    }
+
+    /**
+     * Пересчет сводок всех вещей по таблице бронирований. Вещи обходятся частями, каждая часть обновляется в
+     * отдельной транзакции; недостающие сводки создаются.
+     */
+    @Override
+    public void rebuild() {
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long lastItemId = 0;
+        int updated = 0;
+        List<Long> itemIds;
+        do {
+            final long afterItemId = lastItemId;
+            itemIds = transaction.execute(status -> rebuildChunk(afterItemId));
+            if (itemIds == null || itemIds.isEmpty()) {
+                break;
+            }
+            updated += itemIds.size();
+            lastItemId = itemIds.get(itemIds.size() - 1);
+        } while (itemIds.size() == StreamingQueries.CHUNK_SIZE);
+        log.info("Перестроены сводки бронирований {} вещей.", updated);
+    }
+
+    /**
+     * Сверка сводок с таблицей бронирований. Сводки, ближайшее бронирование которых уже началось, считаются
+     * устаревшими и не сверяются: их обновит очередной обход.
+     *
+     * @return результат сверки
+     */
+    @Override
+    public ItemBookingSummaryCheckDto check() {
+        long checked = 0;
+        long stale = 0;
+        final List<Long> mismatchedItemIds = new ArrayList<>();
+        long mismatched = 0;
+        long lastItemId = 0;
+        List<ItemBookingSummary> summaries;
+        do {
+            summaries = summaryStorage.findAllAfter(lastItemId,
+                    OffsetPageRequest.of(0L, StreamingQueries.CHUNK_SIZE));
+            if (summaries.isEmpty()) {
+                break;
+            }
+            final LocalDateTime now = LocalDateTime.now();
+            final List<Long> itemIds = summaries.stream()
+                    .map(ItemBookingSummary::getItemId)
+                    .collect(Collectors.toList());
+            final Map<Long, List<Booking>> itemIdToBookings = findBookings(itemIds, now);
+            for (ItemBookingSummary summary : summaries) {
+                checked++;
+                if (summary.isStale(now)) {
+                    stale++;
+                    continue;
+                }
+                final ItemBookingSummary expected = ItemBookingSummary.of(summary.getItemId(),
+                        itemIdToBookings.getOrDefault(summary.getItemId(), List.of()), now);
+                if (!summary.hasSameBookingsAs(expected)) {
+                    mismatched++;
+                    if (mismatchedItemIds.size() < MAX_SAMPLE_SIZE) {
+                        mismatchedItemIds.add(summary.getItemId());
+                    }
+                }
+            }
+            lastItemId = itemIds.get(itemIds.size() - 1);
+        } while (summaries.size() == StreamingQueries.CHUNK_SIZE);
+        final long missing = summaryStorage.countItemsWithoutSummary();
+        if (mismatched > 0 || missing > 0) {
+            log.warn("Сводки бронирований не совпадают с бронированиями: несовпадающих {}, отсутствующих {}.",
+                    mismatched, missing);
+        }
+        return new ItemBookingSummaryCheckDto(checked, stale, mismatched, missing, mismatchedItemIds);
+    }
+
+    private List<Long> rebuildChunk(final long afterItemId) {
+        final List<Long> itemIds = itemStorage.findIdsAfter(afterItemId,
+                OffsetPageRequest.of(0L, StreamingQueries.CHUNK_SIZE));
+        if (itemIds.isEmpty()) {
+            return itemIds;
+        }
+        final LocalDateTime now = LocalDateTime.now();
+        final Map<Long, ItemBookingSummary> summaries = summaryStorage.findAllByItemIdInForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        final Map<Long, List<Booking>> itemIdToBookings = findBookings(itemIds, now);
+        final List<ItemBookingSummary> added = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            final List<Booking> bookings = itemIdToBookings.getOrDefault(itemId, List.of());
+            final ItemBookingSummary summary = summaries.get(itemId);
+            if (summary == null) {
+                added.add(ItemBookingSummary.of(itemId, bookings, now));
+            } else {
+                summary.update(bookings, now);
+            }
+        }
+        summaryStorage.saveAll(added);
+        return itemIds;
+    }
+
+    private Map<Long, List<Booking>> findBookings(final List<Long> itemIds, final LocalDateTime now) {
+        return bookingStorage.findLastAndNextApprovedBookings(itemIds, now).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    }
+}
@@ -3,19 +3,28 @@ package ru.practicum.shareit.booking.storage;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.shared.stream.StreamingQueries.FETCH_SIZE;
+import static ru.practicum.shareit.shared.stream.StreamingQueries.HINT_FETCH_SIZE;
 
 public interface BookingStorage extends JpaRepository<Booking, Long> {
 
     @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE b.id = ?1")
     Optional<Booking> findBookingById(Long bookingId);
 
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE b.id IN ?1")
+    List<Booking> findAllByIdIn(Collection<Long> bookingIds);
+
     @Query("SELECT b FROM Booking b JOIN b.item i JOIN FETCH b.booker u WHERE i.id = ?1")
     List<Booking> findAllByItemId(Long itemId);
 
@@ -25,6 +34,21 @@ public interface BookingStorage extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE i.id IN ?1")
     List<Booking> findAllByItemIdIn(Collection<Long> itemIds);
 
+    /**
+     * Последнее и ближайшее подтвержденные бронирования каждой вещи: для каждой вещи возвращается не более двух
+     * строк. Последнее бронирование — начавшееся до указанного момента с наибольшей датой окончания, ближайшее —
+     * начинающееся после него с наименьшей датой начала.
+     */
+    @Query(value = "SELECT * FROM ("
+            + "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC, b.id) AS rn "
+            + "FROM bookings b WHERE b.item_id IN ?1 AND b.status = 'APPROVED' AND b.start_date < ?2"
+            + ") last_booking WHERE rn = 1 "
+            + "UNION ALL SELECT * FROM ("
+            + "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date, b.id) AS rn "
+            + "FROM bookings b WHERE b.item_id IN ?1 AND b.status = 'APPROVED' AND b.start_date > ?2"
+            + ") next_booking WHERE rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextApprovedBookings(Collection<Long> itemIds, LocalDateTime now);
+
     @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE b.item.owner.id = ?1 ORDER BY b.start DESC")
     List<Booking> findAllByItemOwnerId(Long ownerId, Pageable pageable);
 
@@ -56,4 +80,49 @@ public interface BookingStorage extends JpaRepository<Booking, Long> {
 
     @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE b.booker.id = ?1 AND b.status = ?2 ORDER BY b.start DESC")
     List<Booking> findBookingsByBookerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.item.id = ?1 AND b.status = ?2 AND b.start < ?3")
+    long countByItemIdAndStatusStartedBefore(Long itemId, BookingStatus status, LocalDateTime dateTime);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE b.item.owner.id = ?1 ORDER BY b.start DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Booking> streamAllByItemOwnerId(Long ownerId, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE i.owner.id = ?1 AND b.start <= ?2 AND b.end >= ?3 ORDER BY b.start DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Booking> streamCurrentBookingsByOwnerId(Long ownerId, LocalDateTime startBefore,
+                                                   LocalDateTime endAfter, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE i.owner.id = ?1 AND b.end <= ?2 ORDER BY b.start DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Booking> streamPastBookingsByOwnerId(Long ownerId, LocalDateTime endBefore, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE i.owner.id = ?1 AND b.start >= ?2 ORDER BY b.start DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Booking> streamFutureBookingsByOwnerId(Long ownerId, LocalDateTime startAfter, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE i.owner.id = ?1 AND b.status = ?2 ORDER BY b.start DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Booking> streamBookingsByOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE b.booker.id = ?1 ORDER BY b.start DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Booking> streamAllByBookerId(Long bookerId, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE b.booker.id = ?1 AND b.start <= ?2 AND b.end >= ?3 ORDER BY b.start DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Booking> streamCurrentBookingsByBookerId(Long ownerId, LocalDateTime startBefore,
+                                                    LocalDateTime endAfter, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE b.booker.id = ?1 AND b.end <= ?2 ORDER BY b.start DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Booking> streamPastBookingsByBookerId(Long ownerId, LocalDateTime endBefore, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE b.booker.id = ?1 AND b.start >= ?2 ORDER BY b.start DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Booking> streamFutureBookingsByBookerId(Long ownerId, LocalDateTime startAfter, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker u WHERE b.booker.id = ?1 AND b.status = ?2 ORDER BY b.start DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Booking> streamBookingsByBookerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
 }
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingSummaryStorage extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.itemId = ?1")
+    Optional<ItemBookingSummary> findByItemIdForUpdate(Long itemId);
+
+    /**
+     * Блокировка сводок вещей. Строки блокируются в порядке возрастания идентификатора вещи, чтобы одновременные
+     * пакетные обновления не блокировали друг друга взаимно.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.itemId IN ?1 ORDER BY s.itemId")
+    List<ItemBookingSummary> findAllByItemIdInForUpdate(Collection<Long> itemIds);
+
+    /**
+     * Вещи, ближайшее бронирование которых уже началось, в порядке его начала.
+     */
+    @Query("SELECT s.itemId FROM ItemBookingSummary s WHERE s.nextStart <= ?1 ORDER BY s.nextStart")
+    List<Long> findItemIdsWithStartedNextBooking(LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.itemId > ?1 ORDER BY s.itemId")
+    List<ItemBookingSummary> findAllAfter(Long itemId, Pageable pageable);
+
+    @Query("SELECT COUNT(i) FROM Item i WHERE NOT EXISTS (SELECT s FROM ItemBookingSummary s WHERE s.itemId = i.id)")
+    long countItemsWithoutSummary();
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+
+@Configuration
+@EnableConfigurationProperties(BookingSummaryProperties.class)
+public class BookingSummaryConfig {
+
+    @Bean
+    public BookingSummarySweeper bookingSummarySweeper(BookingSummaryProperties properties,
+                                                       ItemBookingSummaryService summaryService) {
+        return new BookingSummarySweeper(properties, summaryService);
+    }
+
+    @Bean
+    public ItemBookingSummaryEndpoint itemBookingSummaryEndpoint(ItemBookingSummaryService summaryService) {
+        return new ItemBookingSummaryEndpoint(summaryService);
+    }
+
+    @Bean
+    public ApplicationRunner itemBookingSummaryBuilder(BookingSummaryProperties properties,
+                                                       ItemBookingSummaryService summaryService) {
+        return args -> {
+            if (properties.isRebuildOnStartup()) {
+                summaryService.rebuild();
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки сводок последнего и ближайшего бронирований вещей.
+ */
+@ConfigurationProperties(prefix = "shareit-server.booking-summary")
+@Getter
+@Setter
+public class BookingSummaryProperties {
+
+    /**
+     * Интервал обхода сводок, ближайшее бронирование которых уже началось. Нулевое значение отключает обход: такие
+     * сводки по-прежнему рассчитываются при чтении, но не сохраняются.
+     */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    /**
+     * Количество сводок, обновляемых в одной транзакции обхода.
+     */
+    private int sweepBatchSize = 500;
+
+    /**
+     * Перестроение всех сводок при запуске приложения. Сводки поддерживаются при изменении бронирований, поэтому
+     * перестроение нужно только после ручного изменения данных или переноса базы. Его также можно выполнить через
+     * служебную точку доступа itembookingsummary.
+     */
+    private boolean rebuildOnStartup = false;
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодический обход сводок бронирований, ближайшее бронирование которых уже началось. Сводки обновляются
+ * частями, пока устаревшие сводки не закончатся.
+ */
+@Slf4j
+public class BookingSummarySweeper implements AutoCloseable {
+
+    private final ItemBookingSummaryService summaryService;
+
+    private final int batchSize;
+
+    private final ScheduledExecutorService executor;
+
+    public BookingSummarySweeper(BookingSummaryProperties properties, ItemBookingSummaryService summaryService) {
+        this.summaryService = summaryService;
+        batchSize = Math.max(1, properties.getSweepBatchSize());
+        long sweepInterval = properties.getSweepInterval().toMillis();
+        if (sweepInterval > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "booking-summary-sweep");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::sweepQuietly, sweepInterval, sweepInterval,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            executor = null;
+        }
+    }
+
+    /**
+     * Обновление всех устаревших сводок.
+     *
+     * @return количество обновленных сводок
+     */
+    public int sweep() {
+        int total = 0;
+        int updated;
+        do {
+            updated = summaryService.sweep(batchSize);
+            total += updated;
+        } while (updated == batchSize && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обновить сводки бронирований вещей.", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import ru.practicum.shareit.booking.dto.ItemBookingSummaryCheckDto;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+
+/**
+ * Служебная точка доступа к сводкам бронирований вещей: GET сверяет сводки с таблицей бронирований, POST
+ * перестраивает все сводки и возвращает результат сверки после перестроения. Служебные точки доступа
+ * основного сервиса доступны только на отдельном порту management.server.port, который слушает локальный адрес.
+ */
+@Endpoint(id = "itembookingsummary")
+public class ItemBookingSummaryEndpoint {
+
+    private final ItemBookingSummaryService summaryService;
+
+    public ItemBookingSummaryEndpoint(ItemBookingSummaryService summaryService) {
+        this.summaryService = summaryService;
+    }
+
+    @ReadOperation
+    public ItemBookingSummaryCheckDto check() {
+        return summaryService.check();
+    }
+
+    @WriteOperation
+    public ItemBookingSummaryCheckDto rebuild() {
+        summaryService.rebuild();
+        return summaryService.check();
+    }
+}
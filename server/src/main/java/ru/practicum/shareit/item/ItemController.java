@@ -1,11 +1,18 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
+import ru.practicum.shareit.shared.stream.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -15,6 +22,8 @@ public class ItemController {
 
     private final ItemService itemService;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody ItemDto itemDto) {
@@ -29,14 +38,33 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public GetItemDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
+    public GetItemDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
+                                  WebRequest request) {
+        String etag = itemService.getItemEtag(userId, itemId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return itemService.findItemById(userId, itemId);
     }
 
+    @GetMapping(params = "ids")
+    public List<BatchEntryDto<GetItemDto>> getItemsByIds(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                         @RequestParam List<Long> ids) {
+        return itemService.findItemsByIds(userId, ids);
+    }
+
     @GetMapping
     public List<GetItemDto> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
                                                 @RequestParam Long from,
-                                                @RequestParam Integer size) {
+                                                @RequestParam Integer size,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                String accept,
+                                                HttpServletResponse response) throws IOException {
+        if (NdjsonWriter.isRequested(accept)) {
+            NdjsonWriter.write(objectMapper, response, writer ->
+                    itemService.streamAllItemsByUserId(userId, from, size, writer));
+            return null;
+        }
         return itemService.findAllItemsByUserId(userId, from, size);
     }
 
@@ -44,7 +72,11 @@ public class ItemController {
     public List<ItemDto> searchItems(@RequestHeader("X-Sharer-User-Id") long userId,
                                      @RequestParam String text,
                                      @RequestParam Long from,
-                                     @RequestParam Integer size) {
+                                     @RequestParam Integer size,
+                                     @RequestParam(defaultValue = "SUBSTRING") SearchMode mode) {
+        if (mode == SearchMode.FULLTEXT) {
+            return itemService.searchItemsFullText(text, from, size);
+        }
         return itemService.searchItems(text, from, size);
     }
 
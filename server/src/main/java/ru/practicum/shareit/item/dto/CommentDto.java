@@ -17,6 +17,8 @@ public class CommentDto {
 
     private String text;
 
+    private Long authorId;
+
     private String authorName;
 
     private LocalDateTime created;
@@ -10,6 +10,7 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface CommentMapper {
 
+    @Mapping(source = "author.id", target = "authorId")
     @Mapping(source = "author.name", target = "authorName")
     CommentDto toDto(Comment comment);
 
@@ -15,6 +15,7 @@ public interface ItemMapper {
     @Mapping(source = "request.id", target = "requestId")
     ItemDto toDto(Item item);
 
+    @Mapping(target = "version", ignore = true)
     Item toModel(ItemDto itemDto);
 
     List<ItemDto> toDtoList(List<Item> itemList);
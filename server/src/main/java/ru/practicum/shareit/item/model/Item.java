@@ -51,4 +51,11 @@ public class Item {
     @JoinColumn(name = "request_id")
     @ToString.Exclude
     private ItemRequest request;
+
+    /**
+     * Версия представления вещи вместе с ее бронированиями и отзывами. Увеличивается запросами к базе данных при
+     * каждом изменении, влияющем на ответ API, и используется для формирования ETag.
+     */
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    private long version;
 }
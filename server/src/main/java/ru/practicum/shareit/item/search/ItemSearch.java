@@ -0,0 +1,240 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.shared.stream.StreamingQueries;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Поиск доступных вещей по названию и описанию с помощью индекса в памяти {@link ItemSearchIndex}. Индекс строится
+ * при запуске сервиса и обновляется после фиксации транзакций, изменивших вещи. Пока индекс не построен, а также
+ * для транзакции, которая сама изменила вещи и еще не зафиксирована, поиск выполняется запросом к базе данных:
+ * такой запрос видит незафиксированные изменения транзакции.
+ * <p>
+ * Индекс отражает только изменения, сделанные этим экземпляром сервиса. Если с базой данных работают несколько
+ * экземпляров ({@link ItemSearchProperties#getInstances()} больше единицы), индекс не используется: иначе изменения
+ * вещей на других экземплярах были бы не видны в поиске до очередного перестроения.
+ */
+@Slf4j
+public class ItemSearch implements MeterBinder, AutoCloseable {
+
+    private final ItemStorage itemStorage;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final boolean enabled;
+
+    private final boolean fullTextEnabled;
+
+    private final ScheduledExecutorService rebuildExecutor;
+
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder indexedSearches = new LongAdder();
+
+    private final LongAdder databaseSearches = new LongAdder();
+
+    private volatile ItemSearchIndex index = new ItemSearchIndex();
+
+    private volatile boolean ready;
+
+    private volatile boolean rebuilding;
+
+    public ItemSearch(ItemSearchProperties properties, ItemStorage itemStorage,
+                      PlatformTransactionManager transactionManager) {
+        this.itemStorage = itemStorage;
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        enabled = properties.isEnabled() && properties.getInstances() <= 1;
+        if (properties.isEnabled() && !enabled) {
+            log.info("Запущено экземпляров сервиса: {}, поиск вещей выполняется запросом к базе данных.",
+                    properties.getInstances());
+        }
+        fullTextEnabled = properties.getFullText().isEnabled();
+        long rebuildInterval = properties.getRebuildInterval().toMillis();
+        if (enabled && rebuildInterval > 0) {
+            rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "item-search-rebuild");
+                thread.setDaemon(true);
+                return thread;
+            });
+            rebuildExecutor.scheduleWithFixedDelay(this::rebuildQuietly, rebuildInterval, rebuildInterval,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            rebuildExecutor = null;
+        }
+    }
+
+    /**
+     * Проверка, доступен ли полнотекстовый поиск средствами базы данных.
+     */
+    public boolean isFullTextEnabled() {
+        return fullTextEnabled;
+    }
+
+    /**
+     * Проверка, может ли поиск по строке быть выполнен по индексу с тем же результатом, что и запрос к базе данных.
+     * Символы % и _ в запросе к базе данных означают шаблоны, поэтому такие строки ищутся запросом к базе данных.
+     * Строки короче триграммы тоже ищутся запросом к базе данных.
+     */
+    public boolean canSearch(String text) {
+        boolean indexed = ready && ItemSearchIndex.isSearchable(text) && text.indexOf('%') < 0 && text.indexOf('_') < 0
+                && !TransactionSynchronizationManager.hasResource(this);
+        if (indexed) {
+            indexedSearches.increment();
+        } else {
+            databaseSearches.increment();
+        }
+        return indexed;
+    }
+
+    /**
+     * Поиск доступных вещей, название или описание которых содержит строку поиска без учета регистра.
+     *
+     * @return идентификаторы найденных вещей в порядке возрастания
+     */
+    public List<Long> search(String text, long from, int size) {
+        return index.search(text, from, size);
+    }
+
+    /**
+     * Продолжение поиска после вещи с указанным идентификатором.
+     *
+     * @return идентификаторы найденных вещей в порядке возрастания
+     */
+    public List<Long> searchAfter(String text, long afterId, int size) {
+        return index.search(text, afterId, 0, size);
+    }
+
+    /**
+     * Учет добавленной или измененной вещи. Если вещь изменена в транзакции, индекс обновляется после ее фиксации.
+     */
+    public void onItemSaved(Item item) {
+        if (!enabled) {
+            return;
+        }
+        long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(id, name, description, available);
+            return;
+        }
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(id, name, description, available);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ItemSearch.this);
+            }
+        });
+    }
+
+    /**
+     * Удаление из индекса вещей, которых больше нет в базе данных, например удаленных вместе с владельцем.
+     */
+    public void onItemsDeleted(Collection<Long> ids) {
+        if (enabled) {
+            ids.forEach(id -> apply(id, null, null, false));
+        }
+    }
+
+    /**
+     * Полное построение индекса по вещам из базы данных. Вещи, изменившиеся во время построения, после замены
+     * индекса перечитываются из базы данных.
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        rebuilding = true;
+        try {
+            changedDuringRebuild.clear();
+            ItemSearchIndex newIndex = new ItemSearchIndex();
+            readOnlyTransaction.executeWithoutResult(status -> StreamingQueries.forEachChunk(
+                    itemStorage.streamAllSearchable(), StreamingQueries.CHUNK_SIZE,
+                    chunk -> chunk.forEach(item -> newIndex.put(item.getId(), item.getName(),
+                            item.getDescription(), true))));
+            index = newIndex;
+            ready = true;
+            List<Long> changed = new ArrayList<>(changedDuringRebuild);
+            if (!changed.isEmpty()) {
+                readOnlyTransaction.executeWithoutResult(status -> itemStorage.findAllById(changed)
+                        .forEach(item -> newIndex.put(item.getId(), item.getName(), item.getDescription(),
+                                Boolean.TRUE.equals(item.getAvailable()))));
+            }
+        } finally {
+            rebuilding = false;
+        }
+        log.info("Поисковый индекс вещей построен за {} мс, доступных вещей: {}.",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), index.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("server.item.search.index.size", this, search -> search.index.size())
+                .description("Количество доступных вещей в поисковом индексе")
+                .register(registry);
+        FunctionCounter.builder("server.item.search.queries", indexedSearches, LongAdder::sum)
+                .description("Поисковые запросы вещей")
+                .tag("source", "index")
+                .register(registry);
+        FunctionCounter.builder("server.item.search.queries", databaseSearches, LongAdder::sum)
+                .description("Поисковые запросы вещей")
+                .tag("source", "database")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        if (rebuildExecutor != null) {
+            rebuildExecutor.shutdownNow();
+        }
+    }
+
+    private void apply(long id, String name, String description, boolean available) {
+        if (rebuilding) {
+            changedDuringRebuild.add(id);
+        }
+        if (!ItemSearchIndex.isIndexable(id)) {
+            ready = false;
+            log.warn("Идентификатор вещи {} не помещается в поисковый индекс, поиск переключен на базу данных.", id);
+            return;
+        }
+        index.put(id, name, description, available);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Не удалось перестроить поисковый индекс вещей: {}", e.getLocalizedMessage());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+@Configuration
+@EnableConfigurationProperties(ItemSearchProperties.class)
+public class ItemSearchConfig {
+
+    @Bean
+    public ItemSearch itemSearch(ItemSearchProperties properties, ItemStorage itemStorage,
+                                 PlatformTransactionManager transactionManager) {
+        return new ItemSearch(properties, itemStorage, transactionManager);
+    }
+
+    @Bean
+    public ApplicationRunner itemSearchIndexBuilder(ItemSearch itemSearch) {
+        return args -> itemSearch.rebuild();
+    }
+}
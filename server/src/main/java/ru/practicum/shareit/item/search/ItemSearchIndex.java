@@ -0,0 +1,286 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Инвертированный индекс доступных вещей по триграммам названия и описания. Поиск подстроки, как и запрос
+ * LIKE '%text%', находит вещи, у которых название или описание содержит все триграммы строки поиска, и проверяет
+ * найденные вещи по полному тексту. Вещи перебираются в порядке возрастания идентификатора, поэтому для страницы
+ * результатов проверяется только from + size подходящих вещей.
+ * <p>
+ * Текст вещей хранится в массиве, индексом в котором служит идентификатор вещи: идентификаторы выдаются базой
+ * данных последовательно и почти не имеют пропусков. Списки вещей для триграмм хранятся в отсортированных массивах.
+ * Новые вещи дописываются в конец массива, а вещи, попавшие в список не по порядку (при изменении текста или при
+ * завершении транзакций не в порядке выдачи идентификаторов), хранятся в небольшом дополнительном массиве, который
+ * периодически сливается с основным. Изменение индекса выполняется под блокировкой, поиск выполняется без
+ * блокировок по опубликованным неизменяемым снимкам списков.
+ * <p>
+ * Устаревшие записи из списков триграмм не удаляются: после изменения текста вещь отсеивается проверкой по полному
+ * тексту. Они исчезают при следующем полном построении индекса.
+ */
+class ItemSearchIndex {
+
+    /**
+     * Длина триграммы и минимальная длина строки поиска по индексу. Более короткие строки ищутся запросом к базе
+     * данных: без триграмм их пришлось бы искать перебором всех вещей.
+     */
+    static final int GRAM = 3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final Map<Long, Postings> postings = new ConcurrentHashMap<>();
+
+    private volatile String[] texts = new String[INITIAL_CAPACITY];
+
+    private volatile int documents;
+
+    /**
+     * Проверка, можно ли индексировать вещь с таким идентификатором.
+     */
+    static boolean isIndexable(long id) {
+        return id > 0 && id < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Проверка, можно ли искать строку по индексу.
+     */
+    static boolean isSearchable(String text) {
+        return text.length() >= GRAM;
+    }
+
+    /**
+     * Добавление, изменение или удаление вещи из индекса.
+     *
+     * @param id          идентификатор вещи
+     * @param name        название вещи
+     * @param description описание вещи
+     * @param available   доступна ли вещь для бронирования; недоступные вещи в индекс не попадают
+     */
+    synchronized void put(long id, String name, String description, boolean available) {
+        if (!isIndexable(id)) {
+            throw new IllegalArgumentException("Идентификатор вещи " + id + " не помещается в поисковый индекс.");
+        }
+        int docId = (int) id;
+        String[] current = ensureCapacity(docId);
+        String previous = current[docId];
+        String text = available ? normalize(name) + FIELD_SEPARATOR + normalize(description) : null;
+        if (text != null) {
+            for (long gram : grams(text)) {
+                postings.compute(gram, (key, list) -> list == null ? Postings.of(docId) : list.add(docId));
+            }
+        }
+        current[docId] = text;
+        if (previous == null && text != null) {
+            documents++;
+        } else if (previous != null && text == null) {
+            documents--;
+        }
+        // Публикация изменений массива для потоков поиска.
+        texts = current;
+    }
+
+    /**
+     * Поиск доступных вещей, название или описание которых содержит строку поиска без учета регистра.
+     *
+     * @param text строка поиска
+     * @param from количество пропускаемых вещей
+     * @param size максимальное количество вещей в результате
+     * @return идентификаторы найденных вещей в порядке возрастания
+     */
+    List<Long> search(String text, long from, int size) {
+        return search(text, 0, from, size);
+    }
+
+    /**
+     * Поиск доступных вещей с идентификатором больше заданного, название или описание которых содержит строку
+     * поиска без учета регистра.
+     *
+     * @param text    строка поиска не короче {@link #GRAM} символов
+     * @param afterId идентификатор, после которого начинается поиск
+     * @param from    количество пропускаемых вещей
+     * @param size    максимальное количество вещей в результате
+     * @return идентификаторы найденных вещей в порядке возрастания
+     */
+    List<Long> search(String text, long afterId, long from, int size) {
+        if (!isSearchable(text)) {
+            throw new IllegalArgumentException("Строка поиска короче " + GRAM + " символов не ищется по индексу.");
+        }
+        String query = normalize(text);
+        String[] current = texts;
+        List<Long> result = new ArrayList<>(Math.min(size, 64));
+        if (size <= 0 || query.indexOf(FIELD_SEPARATOR) >= 0) {
+            return result;
+        }
+        long skip = from;
+        Set<Long> queryGrams = grams(query);
+        Postings[] lists = new Postings[queryGrams.size()];
+        int i = 0;
+        for (long gram : queryGrams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return result;
+            }
+            lists[i++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(Postings::size));
+        Postings.Cursor cursor = lists[0].cursor();
+        while (result.size() < size && cursor.hasNext()) {
+            int docId = cursor.next();
+            if (docId <= afterId || docId >= current.length || !containsAll(lists, docId)) {
+                continue;
+            }
+            String document = current[docId];
+            if (document != null && document.contains(query)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    result.add((long) docId);
+                }
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return documents;
+    }
+
+    private static boolean containsAll(Postings[] lists, int docId) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(docId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String[] ensureCapacity(int docId) {
+        String[] current = texts;
+        if (docId < current.length) {
+            return current;
+        }
+        int capacity = current.length;
+        while (capacity <= docId) {
+            capacity = capacity > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE - 1 : capacity * 2;
+        }
+        return Arrays.copyOf(current, capacity);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            char first = text.charAt(i);
+            char second = text.charAt(i + 1);
+            char third = text.charAt(i + 2);
+            if (first == FIELD_SEPARATOR || second == FIELD_SEPARATOR || third == FIELD_SEPARATOR) {
+                continue;
+            }
+            grams.add(((long) first << 32) | ((long) second << 16) | third);
+        }
+        return grams;
+    }
+
+    /**
+     * Отсортированный список вещей, содержащих триграмму. Снимок списка не изменяется после публикации: запись в
+     * конец общего массива не видна снимкам меньшей длины.
+     */
+    private static final class Postings {
+
+        private static final int MAX_EXTRA = 256;
+
+        private static final int[] EMPTY = new int[0];
+
+        private final int[] base;
+
+        private final int baseSize;
+
+        private final int[] extra;
+
+        private Postings(int[] base, int baseSize, int[] extra) {
+            this.base = base;
+            this.baseSize = baseSize;
+            this.extra = extra;
+        }
+
+        static Postings of(int docId) {
+            int[] base = new int[4];
+            base[0] = docId;
+            return new Postings(base, 1, EMPTY);
+        }
+
+        int size() {
+            return baseSize + extra.length;
+        }
+
+        boolean contains(int docId) {
+            return Arrays.binarySearch(base, 0, baseSize, docId) >= 0
+                    || extra.length > 0 && Arrays.binarySearch(extra, docId) >= 0;
+        }
+
+        Postings add(int docId) {
+            if (baseSize == 0 || docId > base[baseSize - 1]) {
+                int[] target = baseSize < base.length ? base : Arrays.copyOf(base, baseSize * 2);
+                target[baseSize] = docId;
+                return new Postings(target, baseSize + 1, extra);
+            }
+            if (contains(docId)) {
+                return this;
+            }
+            int position = -Arrays.binarySearch(extra, docId) - 1;
+            int[] newExtra = new int[extra.length + 1];
+            System.arraycopy(extra, 0, newExtra, 0, position);
+            newExtra[position] = docId;
+            System.arraycopy(extra, position, newExtra, position + 1, extra.length - position);
+            if (newExtra.length <= MAX_EXTRA) {
+                return new Postings(base, baseSize, newExtra);
+            }
+            int[] merged = new int[baseSize + newExtra.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < baseSize || j < newExtra.length) {
+                merged[k++] = j == newExtra.length || i < baseSize && base[i] < newExtra[j] ? base[i++] : newExtra[j++];
+            }
+            return new Postings(merged, merged.length, EMPTY);
+        }
+
+        Cursor cursor() {
+            return new Cursor();
+        }
+
+        /**
+         * Перебор вещей списка в порядке возрастания идентификатора.
+         */
+        final class Cursor {
+
+            private int i;
+
+            private int j;
+
+            boolean hasNext() {
+                return i < baseSize || j < extra.length;
+            }
+
+            int next() {
+                if (j == extra.length || i < baseSize && base[i] < extra[j]) {
+                    return base[i++];
+                }
+                return extra[j++];
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки поиска вещей по индексу в памяти.
+ */
+@ConfigurationProperties(prefix = "shareit-server.item-search")
+@Getter
+@Setter
+public class ItemSearchProperties {
+
+    /**
+     * Включение поиска по индексу в памяти. Если поиск выключен или индекс еще не построен, вещи ищутся запросом
+     * к базе данных.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Количество экземпляров сервиса, работающих с одной базой данных. Индекс в памяти учитывает только изменения,
+     * сделанные своим экземпляром, а изменения остальных экземпляров видит лишь после перестроения. Поэтому при
+     * нескольких экземплярах индекс не строится и вещи ищутся запросом к базе данных.
+     */
+    private int instances = 1;
+
+    /**
+     * Интервал полного перестроения индекса. Перестроение удаляет устаревшие записи и учитывает изменения, сделанные
+     * другими экземплярами сервиса. Нулевое значение отключает перестроение.
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(15);
+
+    private FullText fullText = new FullText();
+
+    @Getter
+    @Setter
+    public static class FullText {
+
+        /**
+         * Полнотекстовый поиск средствами PostgreSQL. Если он выключен, например при работе с H2, в режиме
+         * полнотекстового поиска вещи ищутся по подстроке, и вещи с совпадением в названии идут первыми.
+         */
+        private boolean enabled;
+    }
+}
@@ -5,8 +5,10 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto addItem(Long userId, ItemDto itemDto);
@@ -15,9 +17,17 @@ public interface ItemService {
 
     GetItemDto findItemById(Long userId, Long itemId);
 
+    String getItemEtag(Long userId, Long itemId);
+
     List<GetItemDto> findAllItemsByUserId(Long userId, Long from, Integer size);
 
+    void streamAllItemsByUserId(Long userId, Long from, Integer size, Consumer<? super GetItemDto> consumer);
+
+    List<BatchEntryDto<GetItemDto>> findItemsByIds(Long userId, List<Long> itemIds);
+
     List<ItemDto> searchItems(String text, Long from, Integer size);
 
+    List<ItemDto> searchItemsFullText(String text, Long from, Integer size);
+
     CommentDto addCommentToItem(Long userId, Long itemId, AddCommentDto commentDto);
 }
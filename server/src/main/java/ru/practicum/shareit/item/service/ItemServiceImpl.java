@@ -7,25 +7,35 @@ import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.booking.storage.BookingStorage;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.item.storage.CommentStorage;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestStorage;
+import ru.practicum.shareit.shared.EntityTags;
 import ru.practicum.shareit.shared.OffsetPageRequest;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
+import ru.practicum.shareit.shared.exception.ErrorCode;
 import ru.practicum.shareit.shared.exception.ItemUnavailableException;
 import ru.practicum.shareit.shared.exception.NotFoundException;
+import ru.practicum.shareit.shared.stream.StreamingQueries;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,6 +50,9 @@ public class ItemServiceImpl implements ItemService {
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
+    private final EntityManager entityManager;
+    private final ItemSearch itemSearch;
+    private final ItemBookingSummaryService itemBookingSummaryService;
 
     /**
      * Добавление новой вещи.
@@ -56,6 +69,9 @@ public class ItemServiceImpl implements ItemService {
         item.setOwner(owner);
         assignRequestToItem(itemDto, item);
         final Item addedItem = itemStorage.save(item);
+        incrementRequestVersion(addedItem);
+        itemSearch.onItemSaved(addedItem);
+        itemBookingSummaryService.onItemAdded(addedItem.getId());
         log.info("Пользователь с id '{}' добавил новую вещь c id '{}'.", userId, addedItem.getId());
         return itemMapper.toDto(addedItem);
     }
@@ -75,7 +91,8 @@ public class ItemServiceImpl implements ItemService {
         getUser(userId);
         final Item item = getItem(itemId);
         if (!item.getOwner().getId().equals(userId)) {
-            throw new NotFoundException("У пользователя с id '" + userId + "' не найдена вещь с id '" + itemId + "'.");
+            throw new NotFoundException(ErrorCode.ITEM_NOT_FOUND,
+                    "У пользователя с id '%s' не найдена вещь с id '%s'.", userId, itemId);
         }
         if (itemUpdateDto.getName() != null) {
             item.setName(itemUpdateDto.getName());
@@ -87,12 +104,15 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemUpdateDto.getAvailable());
         }
         final Item updatedItem = itemStorage.save(item);
+        itemStorage.incrementVersion(itemId);
+        incrementRequestVersion(updatedItem);
+        itemSearch.onItemSaved(updatedItem);
         return itemMapper.toDto(updatedItem);
     }
 
     /**
      * Получение вещи по ее идентификатору. Если запрос делает владелец вещи, то он также видит даты ближайшего и
-     * последнего бронирования.
+     * последнего бронирования. Эти бронирования читаются из сводки бронирований вещи, сами бронирования не загружаются.
      *
      * @param userId идентификатор пользователя, делающего запрос
      * @param itemId идентификатор запрашиваемой вещи
@@ -102,10 +122,11 @@ public class ItemServiceImpl implements ItemService {
     public GetItemDto findItemById(final Long userId, final Long itemId) {
         getUser(userId);
         final Item item = getItem(itemId);
-        List<Booking> itemBookings = bookingStorage.findAllByItemId(itemId);
         GetItemDto itemWithBookingDatesDto;
         if (item.getOwner().getId().equals(userId)) {
-            itemWithBookingDatesDto = getItemWithBookings(item, itemBookings);
+            final ItemBookingSummary summary = itemBookingSummaryService.findByItemIds(List.of(itemId),
+                    LocalDateTime.now()).get(itemId);
+            itemWithBookingDatesDto = getItemWithBookings(item, summary);
         } else {
             itemWithBookingDatesDto = itemMapper.toWithBookingsDto(item);
         }
@@ -115,6 +136,76 @@ public class ItemServiceImpl implements ItemService {
         return itemWithBookingDatesDto;
     }
 
+    /**
+     * Получение ETag вещи без загрузки ее данных, бронирований и отзывов. Владелец вещи видит даты ближайшего и
+     * последнего бронирования, которые меняются со временем и без изменения данных, поэтому в его ETag входит
+     * количество уже начавшихся подтвержденных бронирований.
+     *
+     * @param userId идентификатор пользователя, делающего запрос
+     * @param itemId идентификатор вещи
+     * @return ETag или null, если пользователь или вещь не найдены
+     */
+    @Override
+    public String getItemEtag(final Long userId, final Long itemId) {
+        if (!userStorage.existsById(userId)) {
+            return null;
+        }
+        return itemStorage.findVersionById(itemId)
+                .map(itemVersion -> {
+                    if (!itemVersion.getOwnerId().equals(userId)) {
+                        return EntityTags.of("item", itemId, itemVersion.getVersion());
+                    }
+                    long startedBookings = bookingStorage.countByItemIdAndStatusStartedBefore(itemId,
+                            BookingStatus.APPROVED, LocalDateTime.now());
+                    return EntityTags.of("item", itemId, itemVersion.getVersion(), "owner-" + startedBookings);
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Получение вещей по списку идентификаторов. Вещи, их комментарии и сводки бронирований загружаются одним
+     * запросом к базе данных для каждого вида сущностей. Даты ближайшего и последнего бронирования видны только
+     * для вещей, владельцем которых является запрашивающий пользователь. Результат возвращается в порядке запрошенных
+     * идентификаторов, для ненайденных вещей указывается причина.
+     *
+     * @param userId  идентификатор пользователя, делающего запрос
+     * @param itemIds идентификаторы вещей
+     * @return список найденных вещей и ошибок
+     */
+    @Override
+    public List<BatchEntryDto<GetItemDto>> findItemsByIds(final Long userId, final List<Long> itemIds) {
+        getUser(userId);
+        final Map<Long, Item> items = itemStorage.findAllById(new HashSet<>(itemIds)).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        final List<Long> ownedItemIds = items.values().stream()
+                .filter(item -> item.getOwner().getId().equals(userId))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        final Map<Long, ItemBookingSummary> summaries =
+                itemBookingSummaryService.findByItemIds(ownedItemIds, LocalDateTime.now());
+        final Map<Long, List<Comment>> itemIdToComments = items.isEmpty() ? Map.of() :
+                commentStorage.findAllByItemIdIn(items.keySet()).stream()
+                        .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        final List<BatchEntryDto<GetItemDto>> result = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            final Item item = items.get(itemId);
+            if (item == null) {
+                result.add(BatchEntryDto.failed(itemId, NotFoundException.item(itemId).getMessage()));
+                continue;
+            }
+            final GetItemDto itemDto;
+            if (item.getOwner().getId().equals(userId)) {
+                itemDto = getItemWithBookings(item, summaries.get(itemId));
+            } else {
+                itemDto = itemMapper.toWithBookingsDto(item);
+            }
+            itemDto.getComments().addAll(commentMapper.toDtoList(itemIdToComments.getOrDefault(itemId, List.of())));
+            result.add(BatchEntryDto.found(itemId, itemDto));
+        }
+        log.info("Получение вещей с id {}.", itemIds);
+        return result;
+    }
+
     /**
      * Просмотр владельцем списка всех его вещей. Результат возвращается постранично. Для этого указываются два
      * параметра:  from — индекс первого элемента, начиная с 0, и size — количество элементов для отображения.
@@ -131,14 +222,44 @@ public class ItemServiceImpl implements ItemService {
         final List<Item> items = itemStorage.findAllByOwnerIdOrderById(userId, pageRequest);
         final List<Long> itemIds = items.stream()
                 .map(Item::getId).collect(Collectors.toList());
-        final List<Booking> bookingFromIds = bookingStorage.findAllByItemIdIn(itemIds);
+        final Map<Long, ItemBookingSummary> summaries =
+                itemBookingSummaryService.findByItemIds(itemIds, LocalDateTime.now());
         List<Comment> itemsComments = commentStorage.findAllByItemIdIn(itemIds);
         final List<GetItemDto> itemsWithBookings =
-                getItemsWithBookingsAndComments(items, bookingFromIds, itemsComments);
+                getItemsWithBookingsAndComments(items, summaries, itemsComments);
         log.info("Получение всех вещей пользователя с id '{}'.", userId);
         return itemsWithBookings;
     }
 
+    /**
+     * Просмотр владельцем списка всех его вещей с передачей каждой вещи получателю по мере чтения из базы данных.
+     * Вещи читаются курсором, сводки бронирований и комментарии загружаются для каждой части вещей отдельно,
+     * поэтому расход памяти не зависит от размера страницы. Результат совпадает с {@link #findAllItemsByUserId}.
+     *
+     * @param userId   идентификатор пользователя, делающего запрос
+     * @param from     индекс первого отображаемого элемента, начиная с 0
+     * @param size     количество элементов для отображения
+     * @param consumer получатель вещей
+     */
+    @Override
+    @Transactional
+    public void streamAllItemsByUserId(final Long userId, Long from, Integer size,
+                                       Consumer<? super GetItemDto> consumer) {
+        getUser(userId);
+        OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size);
+        StreamingQueries.forEachChunk(itemStorage.streamAllByOwnerIdOrderById(userId, pageRequest),
+                StreamingQueries.CHUNK_SIZE, items -> {
+                    final List<Long> itemIds = items.stream()
+                            .map(Item::getId).collect(Collectors.toList());
+                    final Map<Long, ItemBookingSummary> summaries =
+                            itemBookingSummaryService.findByItemIds(itemIds, LocalDateTime.now());
+                    final List<Comment> comments = commentStorage.findAllByItemIdIn(itemIds);
+                    getItemsWithBookingsAndComments(items, summaries, comments).forEach(consumer);
+                    entityManager.clear();
+                });
+        log.info("Получение всех вещей пользователя с id '{}'.", userId);
+    }
+
     /**
      * Поиск вещи потенциальным арендатором. Пользователь передаёт в строке запроса текст, и система ищет вещи,
      * содержащие этот текст в названии или описании. Регистр текста не учитывается. Результат возвращается постранично.
@@ -153,12 +274,35 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public List<ItemDto> searchItems(final String text, Long from, Integer size) {
         log.info("Поиск вещей по запросу: {}.", text);
+        if (itemSearch.canSearch(text)) {
+            return itemMapper.toDtoList(findIndexedItems(text, from, size));
+        }
         String searchText = "%" + text.toLowerCase() + "%";
         OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size);
         final Iterable<Item> searchResult = itemStorage.searchInTitleAndDescription(searchText, pageRequest);
         return itemMapper.toDtoList(Lists.newArrayList(searchResult));
     }
 
+    /**
+     * Полнотекстовый поиск вещи потенциальным арендатором. Слова запроса ищутся в названии и описании с учетом
+     * словоформ, результат упорядочен по релевантности: совпадения в названии важнее совпадений в описании.
+     *
+     * @param text текстовый запрос
+     * @param from индекс первого отображаемого элемента, начиная с 0
+     * @param size количество элементов для отображения
+     * @return список вещей, соответсвующих запросу
+     */
+    @Override
+    public List<ItemDto> searchItemsFullText(final String text, Long from, Integer size) {
+        log.info("Полнотекстовый поиск вещей по запросу: {}.", text);
+        OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size);
+        if (itemSearch.isFullTextEnabled()) {
+            return itemMapper.toDtoList(itemStorage.searchFullText(text, pageRequest));
+        }
+        String searchText = "%" + text.toLowerCase() + "%";
+        return itemMapper.toDtoList(itemStorage.searchInTitleAndDescriptionByRelevance(searchText, pageRequest));
+    }
+
     /**
      * Добавление комментария о вещи после окончания аренды.
      *
@@ -181,43 +325,31 @@ public class ItemServiceImpl implements ItemService {
                 .created(LocalDateTime.now())
                 .build();
         Comment savedComment = commentStorage.save(comment);
+        itemStorage.incrementVersion(itemId);
         log.info("Пользователь с id '{} добавил комментарий вещи с id '{}.", userId, itemId);
         return commentMapper.toDto(savedComment);
     }
 
-    private List<GetItemDto> getItemsWithBookingsAndComments(List<Item> items, List<Booking> bookings, List<Comment> comments) {
-        if (bookings.isEmpty()) {
-            return itemMapper.toWithBookingsDtoList(items);
-        }
-        final Map<Long, List<Booking>> itemIdToBookings = bookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.toList()));
+    private List<GetItemDto> getItemsWithBookingsAndComments(List<Item> items,
+                                                             Map<Long, ItemBookingSummary> summaries,
+                                                             List<Comment> comments) {
         Map<Long, List<Comment>> itemIdToComments = comments.stream()
                 .collect(Collectors.groupingBy(comment -> comment.getItem().getId(), Collectors.toList()));
         final List<GetItemDto> result = new ArrayList<>();
         for (Item item : items) {
             final Long itemId = item.getId();
-            List<Booking> itemBookings = itemIdToBookings.computeIfAbsent(itemId, k -> new ArrayList<>());
             List<Comment> itemComments = itemIdToComments.computeIfAbsent(itemId, k -> new ArrayList<>());
-            final GetItemDto itemWithBookingDatesDto = getItemWithBookings(item, itemBookings);
+            final GetItemDto itemWithBookingDatesDto = getItemWithBookings(item, summaries.get(itemId));
             itemWithBookingDatesDto.getComments().addAll(commentMapper.toDtoList(itemComments));
             result.add(itemWithBookingDatesDto);
         }
         return result;
     }
 
-    private GetItemDto getItemWithBookings(final Item item, final List<Booking> itemBookings) {
-        final Optional<Booking> closestBooking = itemBookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now())
-                        && booking.getStatus().equals(BookingStatus.APPROVED))
-                .min(Comparator.comparing(Booking::getStart));
-        final Optional<Booking> lastBooking = itemBookings.stream()
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()) &&
-                        booking.getStatus().equals(BookingStatus.APPROVED))
-                .max(Comparator.comparing(Booking::getEnd));
+    private GetItemDto getItemWithBookings(final Item item, final ItemBookingSummary summary) {
         return itemMapper.toGetItemDto(item,
-                bookingMapper.toShortDto(lastBooking.orElse(null)),
-                bookingMapper.toShortDto(closestBooking.orElse(null)));
-
+                bookingMapper.toLastBookingDto(summary),
+                bookingMapper.toNextBookingDto(summary));
     }
 
     private void checkIfUserCanAddComments(Long userId, Long itemId, List<Booking> bookings) {
@@ -225,28 +357,69 @@ public class ItemServiceImpl implements ItemService {
                 .anyMatch(booking -> booking.getBooker().getId().equals(userId) && booking.getEnd().isBefore(LocalDateTime.now())
                         && booking.getStatus().equals(BookingStatus.APPROVED));
         if (!isAbleToAddComment) {
-            throw new ItemUnavailableException("Пользователь с id '" + userId + "' не брал в аренду вещь с id '" +
-                    itemId + "'.");
+            throw new ItemUnavailableException(ErrorCode.COMMENT_NOT_ALLOWED,
+                    "Пользователь с id '%s' не брал в аренду вещь с id '%s'.", userId, itemId);
         }
     }
 
     private User getUser(final long userId) {
         return userStorage.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id '" + userId + "' не найден."));
+                .orElseThrow(() -> NotFoundException.user(userId));
     }
 
     private Item getItem(final long itemId) {
         return itemStorage.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь с id '" + itemId + "' не найдена."));
+                .orElseThrow(() -> NotFoundException.item(itemId));
+    }
+
+    private void incrementRequestVersion(final Item item) {
+        if (item != null && item.getRequest() != null) {
+            itemRequestStorage.incrementVersion(item.getRequest().getId());
+        }
     }
 
     private void assignRequestToItem(ItemDto itemDto, Item item) {
         Long requestId = itemDto.getRequestId();
         if (requestId != null && requestId > 0) {
             ItemRequest itemRequest = itemRequestStorage.findById(requestId)
-                    .orElseThrow(() -> new NotFoundException("Запрос с id '" + requestId + "' не найден."));
+                    .orElseThrow(() -> NotFoundException.request(requestId));
             itemRequest.addItem(item);
             item.setRequest(itemRequest);
         }
     }
+
+    /**
+     * Загрузка вещей, найденных по поисковому индексу. Вещи возвращаются в порядке индекса; вещи, удаленные из базы
+     * данных в обход сервиса, удаляются из индекса, а недоступные вещи обновляются в индексе. Вместо отсеянных вещей
+     * из индекса загружаются следующие, пока страница не заполнится или индекс не закончится.
+     */
+    private List<Item> findIndexedItems(String text, Long from, Integer size) {
+        List<Item> result = new ArrayList<>(size);
+        int requested = size;
+        List<Long> itemIds = itemSearch.search(text, from, requested);
+        while (!itemIds.isEmpty()) {
+            Map<Long, Item> items = itemStorage.findAllById(itemIds).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            List<Long> deletedIds = new ArrayList<>();
+            for (Long itemId : itemIds) {
+                Item item = items.get(itemId);
+                if (item == null) {
+                    deletedIds.add(itemId);
+                } else if (Boolean.TRUE.equals(item.getAvailable())) {
+                    result.add(item);
+                } else {
+                    itemSearch.onItemSaved(item);
+                }
+            }
+            if (!deletedIds.isEmpty()) {
+                itemSearch.onItemsDeleted(deletedIds);
+            }
+            if (result.size() >= size || itemIds.size() < requested) {
+                break;
+            }
+            requested = size - result.size();
+            itemIds = itemSearch.searchAfter(text, itemIds.get(itemIds.size() - 1), requested);
+        }
+        return result;
+    }
 }
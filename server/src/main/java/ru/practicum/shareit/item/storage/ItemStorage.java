@@ -2,15 +2,96 @@ package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.shared.stream.StreamingQueries.FETCH_SIZE;
+import static ru.practicum.shareit.shared.stream.StreamingQueries.HINT_FETCH_SIZE;
 
 public interface ItemStorage extends JpaRepository<Item, Long> {
 
     List<Item> findAllByOwnerIdOrderById(Long userId, Pageable pageable);
 
-    @Query(value = "SELECT i FROM Item i WHERE (LOWER(i.name) LIKE ?1 OR LOWER(i.description) LIKE ?1) AND i.available = true")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Item> streamAllByOwnerIdOrderById(Long userId, Pageable pageable);
+
+    /**
+     * Поиск доступных вещей по шаблону LIKE в названии и описании без учета регистра. Выражения LOWER(item_name) и
+     * LOWER(description) совпадают с выражениями триграммных GIN-индексов из schema-postgresql.sql, поэтому в
+     * PostgreSQL запрос выполняется по индексам. В H2 индексов нет, и тот же запрос выполняется перебором.
+     */
+    String SEARCH_IN_TITLE_AND_DESCRIPTION = "SELECT * FROM items "
+            + "WHERE (LOWER(item_name) LIKE ?1 OR LOWER(description) LIKE ?1) AND available = TRUE ORDER BY id";
+
+    @Query(value = SEARCH_IN_TITLE_AND_DESCRIPTION, nativeQuery = true)
     List<Item> searchInTitleAndDescription(String text, Pageable pageable);
+
+    /**
+     * Полнотекстовый поиск доступных вещей с учетом морфологии русского и английского языков. Вещи упорядочены по
+     * релевантности: слова из названия весят больше слов из описания. Только для PostgreSQL: столбец search_document
+     * и его индекс создаются в schema-postgresql.sql.
+     */
+    @Query(value = "SELECT i.* FROM items i, "
+            + "(SELECT plainto_tsquery('russian', ?1) || plainto_tsquery('english', ?1) AS q) query "
+            + "WHERE i.available = TRUE AND i.search_document @@ query.q "
+            + "ORDER BY ts_rank(i.search_document, query.q) DESC, i.id", nativeQuery = true)
+    List<Item> searchFullText(String text, Pageable pageable);
+
+    /**
+     * Поиск доступных вещей по шаблону LIKE, в котором вещи с совпадением в названии идут раньше вещей с совпадением
+     * только в описании. Используется вместо полнотекстового поиска в базах данных, отличных от PostgreSQL.
+     */
+    @Query(value = "SELECT * FROM items "
+            + "WHERE (LOWER(item_name) LIKE ?1 OR LOWER(description) LIKE ?1) AND available = TRUE "
+            + "ORDER BY CASE WHEN LOWER(item_name) LIKE ?1 THEN 0 ELSE 1 END, id", nativeQuery = true)
+    List<Item> searchInTitleAndDescriptionByRelevance(String text, Pageable pageable);
+
+    /**
+     * Доступные вещи для построения поискового индекса в порядке возрастания идентификатора.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description FROM Item i "
+            + "WHERE i.available = true ORDER BY i.id")
+    Stream<SearchableItem> streamAllSearchable();
+
+    /**
+     * Идентификаторы вещей, следующие за указанным, в порядке возрастания. Используется для обхода всех вещей
+     * частями.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id > ?1 ORDER BY i.id")
+    List<Long> findIdsAfter(Long itemId, Pageable pageable);
+
+    @Query("SELECT i.owner.id AS ownerId, i.version AS version FROM Item i WHERE i.id = ?1")
+    Optional<ItemVersion> findVersionById(Long itemId);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.version = i.version + 1 WHERE i.id = ?1")
+    void incrementVersion(Long itemId);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.version = i.version + 1 WHERE i.id IN (SELECT c.item.id FROM Comment c WHERE c.author.id = ?1)")
+    void incrementVersionOfItemsCommentedBy(Long authorId);
+
+    interface ItemVersion {
+
+        Long getOwnerId();
+
+        long getVersion();
+    }
+
+    interface SearchableItem {
+
+        Long getId();
+
+        String getName();
+
+        String getDescription();
+    }
 }
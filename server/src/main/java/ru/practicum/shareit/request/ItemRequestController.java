@@ -1,13 +1,19 @@
 package ru.practicum.shareit.request;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.AddItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.shared.stream.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -18,6 +24,8 @@ public class ItemRequestController {
 
     private final ItemRequestService itemRequestService;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemRequestDto addNewItemRequest(@RequestHeader("X-Sharer-User-id") long userId,
@@ -33,13 +41,26 @@ public class ItemRequestController {
     @GetMapping("/all")
     public List<ItemRequestDto> getAvailableItemRequests(@RequestHeader("X-Sharer-User-id") long userId,
                                                          @RequestParam Long from,
-                                                         @RequestParam Integer size) {
+                                                         @RequestParam Integer size,
+                                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                         String accept,
+                                                         HttpServletResponse response) throws IOException {
+        if (NdjsonWriter.isRequested(accept)) {
+            NdjsonWriter.write(objectMapper, response, writer ->
+                    itemRequestService.streamAvailableItemRequests(userId, from, size, writer));
+            return null;
+        }
         return itemRequestService.getAvailableItemRequests(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-id") long userId,
-                                             @PathVariable Long requestId) {
+                                             @PathVariable Long requestId,
+                                             WebRequest request) {
+        String etag = itemRequestService.getItemRequestEtag(userId, requestId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return itemRequestService.getItemRequestById(userId, requestId);
     }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.request.dto.AddItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -11,6 +12,7 @@ import java.util.List;
 @Mapper(componentModel = "spring", uses = ItemMapper.class)
 public interface ItemRequestMapper {
 
+    @Mapping(target = "version", ignore = true)
     ItemRequest toModel(AddItemRequestDto addItemRequestDto);
 
     ItemRequestDto toDto(ItemRequest itemRequest);
@@ -9,6 +9,7 @@ import lombok.ToString;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
@@ -49,6 +50,13 @@ public class ItemRequest {
 
     private final LocalDateTime created = LocalDateTime.now();
 
+    /**
+     * Версия представления запроса вместе с вещами, добавленными в ответ на него. Увеличивается запросами к базе
+     * данных при каждом изменении, влияющем на ответ API, и используется для формирования ETag.
+     */
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    private long version;
+
     public void addItem(Item item) {
         items.add(item);
         item.setRequest(this);
@@ -4,6 +4,7 @@ import ru.practicum.shareit.request.dto.AddItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemRequestService {
     ItemRequestDto addNewItemRequest(Long userId, AddItemRequestDto addItemRequestDto);
@@ -12,5 +13,9 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAvailableItemRequests(Long userId, Long from, Integer size);
 
+    void streamAvailableItemRequests(Long userId, Long from, Integer size, Consumer<? super ItemRequestDto> consumer);
+
     ItemRequestDto getItemRequestById(Long userId, Long requestId);
+
+    String getItemRequestEtag(Long userId, Long requestId);
 }
@@ -9,12 +9,20 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestStorage;
+import ru.practicum.shareit.shared.EntityTags;
 import ru.practicum.shareit.shared.OffsetPageRequest;
 import ru.practicum.shareit.shared.exception.NotFoundException;
+import ru.practicum.shareit.shared.stream.StreamingQueries;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +32,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestStorage itemRequestStorage;
     private final UserStorage userStorage;
     private final ItemRequestMapper itemRequestMapper;
+    private final EntityManager entityManager;
 
     /**
      * Добавление нового запроса вещи.
@@ -53,7 +62,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDto> getAllItemRequestsFromUser(final Long userId) {
         findUser(userId);
         final List<ItemRequest> requests = itemRequestStorage.findRequestsFromUser(userId);
-        log.info("Получение всех запросов для пользователя с id '" + userId + "'.");
+        log.info("Получение всех запросов для пользователя с id '{}'.", userId);
         return itemRequestMapper.toDtoList(requests);
     }
 
@@ -76,6 +85,34 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestMapper.toDtoList(requests.getContent());
     }
 
+    /**
+     * Получение списка запросов, созданных другими пользователями, с передачей каждого запроса получателю по мере
+     * чтения из базы данных. Идентификаторы запросов читаются курсором, а сами запросы вместе с вещами загружаются
+     * частями, поэтому расход памяти не зависит от размера страницы. Порядок и постраничный вывод такие же, как в
+     * {@link #getAvailableItemRequests}.
+     *
+     * @param userId   идентификатор пользователя, делающего запрос
+     * @param from     индекс первого отображаемого элемента, начиная с 0
+     * @param size     количество элементов для отображения
+     * @param consumer получатель запросов
+     */
+    @Override
+    @Transactional
+    public void streamAvailableItemRequests(final Long userId, final Long from, final Integer size,
+                                            final Consumer<? super ItemRequestDto> consumer) {
+        findUser(userId);
+        final OffsetPageRequest pageRequest = OffsetPageRequest.of(from, size);
+        StreamingQueries.forEachChunk(itemRequestStorage.streamAvailableRequestIds(userId, pageRequest),
+                StreamingQueries.CHUNK_SIZE, requestIds -> {
+                    final Map<Long, ItemRequest> requests = itemRequestStorage.findAllWithItemsByIdIn(requestIds)
+                            .stream()
+                            .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+                    requestIds.forEach(requestId -> consumer.accept(itemRequestMapper.toDto(requests.get(requestId))));
+                    entityManager.clear();
+                });
+        log.info("Получение списка запросов, начиная с '{}', по '{}' элемента на странице.", from, size);
+    }
+
     /**
      * Получение данных о конкретном запросе вместе с с данными об ответах на него Посмотреть данные об отдельном
      * запросе может любой пользователь.
@@ -88,13 +125,30 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public ItemRequestDto getItemRequestById(final Long userId, final Long requestId) {
         findUser(userId);
         final ItemRequest itemRequest = itemRequestStorage.findById(requestId)
-                .orElseThrow(() -> new NotFoundException("Запрос с id '" + requestId + "' не найден."));
+                .orElseThrow(() -> NotFoundException.request(requestId));
         log.info("Получение запроса с id '{}'.", requestId);
         return itemRequestMapper.toDto(itemRequest);
     }
 
+    /**
+     * Получение ETag запроса без загрузки его данных.
+     *
+     * @param userId    идентификатор пользователя, делающего запрос
+     * @param requestId идентификатор запроса
+     * @return ETag или null, если пользователь или запрос не найдены
+     */
+    @Override
+    public String getItemRequestEtag(final Long userId, final Long requestId) {
+        if (!userStorage.existsById(userId)) {
+            return null;
+        }
+        return itemRequestStorage.findVersionById(requestId)
+                .map(version -> EntityTags.of("request", requestId, version))
+                .orElse(null);
+    }
+
     private User findUser(final Long userId) {
         return userStorage.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id '" + userId + "' не найден."));
+                .orElseThrow(() -> NotFoundException.user(userId));
     }
 }
@@ -3,10 +3,19 @@ package ru.practicum.shareit.request.storage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.shared.stream.StreamingQueries.FETCH_SIZE;
+import static ru.practicum.shareit.shared.stream.StreamingQueries.HINT_FETCH_SIZE;
 
 public interface ItemRequestStorage extends JpaRepository<ItemRequest, Long> {
     @Query("SELECT ir FROM ItemRequest ir LEFT JOIN FETCH ir.items i ORDER BY ir.created DESC ")
@@ -18,4 +27,18 @@ public interface ItemRequestStorage extends JpaRepository<ItemRequest, Long> {
 
     @Query("SELECT ir FROM ItemRequest ir LEFT JOIN FETCH ir.items i JOIN ir.requester r WHERE r.id = ?1 ORDER BY ir.created DESC ")
     List<ItemRequest> findRequestsFromUser(Long requesterId);
+
+    @Query("SELECT ir.id FROM ItemRequest ir WHERE ir.requester.id <> ?1 ORDER BY ir.created DESC")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Long> streamAvailableRequestIds(long requesterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT ir FROM ItemRequest ir LEFT JOIN FETCH ir.items i WHERE ir.id IN ?1")
+    List<ItemRequest> findAllWithItemsByIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT ir.version FROM ItemRequest ir WHERE ir.id = ?1")
+    Optional<Long> findVersionById(Long requestId);
+
+    @Modifying
+    @Query("UPDATE ItemRequest ir SET ir.version = ir.version + 1 WHERE ir.id = ?1")
+    void incrementVersion(Long requestId);
 }
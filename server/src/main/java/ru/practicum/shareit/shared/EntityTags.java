@@ -0,0 +1,27 @@
+package ru.practicum.shareit.shared;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Формирование значений ETag по версиям сущностей. В значение входит метка запуска сервиса: схема базы данных
+ * пересоздается при старте, и без метки после перезапуска те же идентификатор и версия могли бы соответствовать
+ * другому содержимому.
+ */
+@UtilityClass
+public class EntityTags {
+
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    public static String of(String kind, long id, long version) {
+        return kind + "-" + id + "-" + version + "-" + EPOCH;
+    }
+
+    /**
+     * ETag представления, которое зависит не только от версии сущности, но и от того, кто ее запрашивает.
+     *
+     * @param variant признак варианта представления
+     */
+    public static String of(String kind, long id, long version, String variant) {
+        return of(kind, id, version) + "-" + variant;
+    }
+}
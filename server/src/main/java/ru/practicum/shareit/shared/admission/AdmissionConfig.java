@@ -0,0 +1,37 @@
+package ru.practicum.shareit.shared.admission;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "shareit-server.admission", name = "enabled", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    public HikariConnectionPoolSignals hikariConnectionPoolSignals(DataSource dataSource) {
+        return new HikariConnectionPoolSignals(dataSource);
+    }
+
+    @Bean
+    public AdmissionController admissionController(AdmissionProperties properties,
+                                                   HikariConnectionPoolSignals hikariConnectionPoolSignals) {
+        return new AdmissionController(properties, hikariConnectionPoolSignals);
+    }
+
+    @Bean
+    public WebMvcConfigurer admissionConfigurer(AdmissionController admissionController) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new AdmissionInterceptor(admissionController));
+            }
+        };
+    }
+}
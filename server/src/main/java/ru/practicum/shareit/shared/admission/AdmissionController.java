@@ -0,0 +1,162 @@
+package ru.practicum.shareit.shared.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Допуск запросов к обработке по загрузке пула соединений с базой данных. Когда все соединения заняты, новые
+ * запросы ждут соединение в пуле и задерживают друг друга, поэтому часть запросов выгоднее сразу отклонить.
+ * Запросы делятся на классы приоритета: при росте загрузки первыми отклоняются дорогие операции, а важные
+ * операции принимаются до последнего. Загрузка оценивается по доле занятых соединений, количеству потоков,
+ * ожидающих соединение, и среднему времени ожидания соединения за последний интервал.
+ */
+public class AdmissionController implements MeterBinder {
+
+    private final Map<String, AdmissionProperties.Priority> endpointPriorities = new HashMap<>();
+
+    private final AdmissionProperties.Priority defaultPriority;
+
+    private final Map<AdmissionProperties.Priority, Limits> limits = new EnumMap<>(AdmissionProperties.Priority.class);
+
+    private final Map<AdmissionProperties.Priority, LongAdder> rejected =
+            new EnumMap<>(AdmissionProperties.Priority.class);
+
+    private final long sampleIntervalNanos;
+
+    private final long retryAfterSeconds;
+
+    private final ConnectionPoolSignals pool;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong nextSampleAt;
+
+    private volatile long lastAcquireCount;
+
+    private volatile double lastAcquireTotalNanos;
+
+    private volatile long poolWaitNanos;
+
+    AdmissionController(AdmissionProperties properties, ConnectionPoolSignals pool) {
+        this(properties, pool, System::nanoTime);
+    }
+
+    AdmissionController(AdmissionProperties properties, ConnectionPoolSignals pool, LongSupplier clock) {
+        for (AdmissionProperties.EndpointPriority endpoint : properties.getEndpoints()) {
+            endpointPriorities.put(endpointKey(endpoint.getMethod(), endpoint.getPath()), endpoint.getPriority());
+        }
+        defaultPriority = properties.getDefaultPriority();
+        for (AdmissionProperties.Priority priority : AdmissionProperties.Priority.values()) {
+            AdmissionProperties.Threshold threshold = properties.getThresholds().get(priority);
+            limits.put(priority, threshold == null ? Limits.UNLIMITED : new Limits(threshold));
+            rejected.put(priority, new LongAdder());
+        }
+        sampleIntervalNanos = properties.getSampleInterval().toNanos();
+        retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        this.pool = pool;
+        this.clock = clock;
+        nextSampleAt = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Проверка, можно ли принять запрос к эндпоинту при текущей загрузке пула соединений.
+     *
+     * @param method HTTP-метод запроса
+     * @param path   шаблон пути эндпоинта
+     * @return true, если запрос принят
+     */
+    public boolean tryAdmit(String method, String path) {
+        if (!pool.isAvailable()) {
+            return true;
+        }
+        sampleIfDue(clock.getAsLong());
+        AdmissionProperties.Priority priority = endpointPriorities.getOrDefault(endpointKey(method, path),
+                defaultPriority);
+        if (limits.get(priority).admits(pool.active(), pool.maximum(), pool.waiting(), poolWaitNanos)) {
+            return true;
+        }
+        rejected.get(priority).increment();
+        return false;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    long getPoolWaitNanos() {
+        return poolWaitNanos;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejected.forEach((priority, counter) -> FunctionCounter.builder("server.admission.rejected", counter,
+                        LongAdder::sum)
+                .description("Запросы, отклоненные из-за загрузки пула соединений с базой данных")
+                .tag("priority", priority.name().toLowerCase())
+                .register(registry));
+        TimeGauge.builder("server.admission.pool.wait", this, TimeUnit.NANOSECONDS,
+                        controller -> controller.poolWaitNanos)
+                .description("Среднее время ожидания соединения из пула за последний интервал")
+                .register(registry);
+    }
+
+    /**
+     * Пересчет среднего времени ожидания соединения не чаще одного раза за интервал. Пересчет выполняет один
+     * из потоков, остальные используют предыдущее значение.
+     */
+    private void sampleIfDue(long now) {
+        long sampleAt = nextSampleAt.get();
+        if (now - sampleAt < 0 || !nextSampleAt.compareAndSet(sampleAt, now + sampleIntervalNanos)) {
+            return;
+        }
+        long count = pool.acquireCount();
+        double totalNanos = pool.acquireTotalNanos();
+        long acquired = count - lastAcquireCount;
+        if (acquired > 0) {
+            poolWaitNanos = (long) ((totalNanos - lastAcquireTotalNanos) / acquired);
+        } else if (pool.waiting() == 0) {
+            poolWaitNanos = 0;
+        }
+        lastAcquireCount = count;
+        lastAcquireTotalNanos = totalNanos;
+    }
+
+    private static String endpointKey(String method, String path) {
+        return method.toUpperCase() + ' ' + path;
+    }
+
+    private static class Limits {
+
+        static final Limits UNLIMITED = new Limits(Double.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+
+        private final double maxUtilization;
+
+        private final int maxWaiting;
+
+        private final long maxPoolWaitNanos;
+
+        Limits(AdmissionProperties.Threshold threshold) {
+            this(threshold.getMaxUtilization(), threshold.getMaxWaiting(), threshold.getMaxPoolWait().toNanos());
+        }
+
+        Limits(double maxUtilization, int maxWaiting, long maxPoolWaitNanos) {
+            this.maxUtilization = maxUtilization;
+            this.maxWaiting = maxWaiting;
+            this.maxPoolWaitNanos = maxPoolWaitNanos;
+        }
+
+        boolean admits(int active, int maximum, int waiting, long poolWaitNanos) {
+            return active <= maximum * maxUtilization && waiting <= maxWaiting && poolWaitNanos <= maxPoolWaitNanos;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.shared.admission;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.shared.exception.ServiceUnavailableException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Допуск запроса к обработке до вызова контроллера, пока запрос еще не занял соединение с базой данных.
+ */
+@RequiredArgsConstructor
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private final AdmissionController admissionController;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object path = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (path == null || admissionController.tryAdmit(request.getMethod(), path.toString())) {
+            return true;
+        }
+        throw new ServiceUnavailableException(admissionController.getRetryAfterSeconds());
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.shared.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Настройки допуска запросов к обработке в зависимости от загрузки пула соединений с базой данных.
+ */
+@ConfigurationProperties(prefix = "shareit-server.admission")
+@Getter
+@Setter
+public class AdmissionProperties {
+
+    public enum Priority {
+        /**
+         * Дешевые или важные операции, которые отклоняются последними.
+         */
+        CRITICAL,
+
+        /**
+         * Обычные операции.
+         */
+        NORMAL,
+
+        /**
+         * Дорогие операции, которые отклоняются первыми при росте нагрузки.
+         */
+        SHEDDABLE
+    }
+
+    /**
+     * Включение допуска запросов.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Класс приоритета эндпоинтов, для которых он не задан явно.
+     */
+    private Priority defaultPriority = Priority.NORMAL;
+
+    /**
+     * Классы приоритета отдельных эндпоинтов.
+     */
+    private List<EndpointPriority> endpoints = new ArrayList<>();
+
+    /**
+     * Пороги загрузки пула соединений для каждого класса приоритета.
+     */
+    private Map<Priority, Threshold> thresholds = defaultThresholds();
+
+    /**
+     * Интервал, за который усредняется время ожидания соединения из пула.
+     */
+    private Duration sampleInterval = Duration.ofMillis(100);
+
+    /**
+     * Время, через которое клиенту предлагается повторить отклоненный запрос.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    @Getter
+    @Setter
+    public static class Threshold {
+
+        /**
+         * Максимальная доля занятых соединений пула, при которой запросы класса еще принимаются.
+         */
+        private double maxUtilization = 1.0;
+
+        /**
+         * Максимальное количество потоков, ожидающих соединение из пула, при котором запросы класса еще
+         * принимаются.
+         */
+        private int maxWaiting = 10;
+
+        /**
+         * Максимальное среднее время ожидания соединения из пула, при котором запросы класса еще принимаются.
+         */
+        private Duration maxPoolWait = Duration.ofMillis(200);
+
+        public Threshold() {
+        }
+
+        Threshold(double maxUtilization, int maxWaiting, Duration maxPoolWait) {
+            this.maxUtilization = maxUtilization;
+            this.maxWaiting = maxWaiting;
+            this.maxPoolWait = maxPoolWait;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class EndpointPriority {
+
+        /**
+         * HTTP-метод эндпоинта.
+         */
+        private String method = "GET";
+
+        /**
+         * Шаблон пути эндпоинта в том виде, в котором он указан в контроллере, например /bookings/{bookingId}.
+         */
+        private String path;
+
+        /**
+         * Класс приоритета эндпоинта.
+         */
+        private Priority priority = Priority.NORMAL;
+    }
+
+    private static Map<Priority, Threshold> defaultThresholds() {
+        Map<Priority, Threshold> thresholds = new EnumMap<>(Priority.class);
+        thresholds.put(Priority.CRITICAL, new Threshold(1.0, 50, Duration.ofSeconds(1)));
+        thresholds.put(Priority.NORMAL, new Threshold(1.0, 10, Duration.ofMillis(200)));
+        thresholds.put(Priority.SHEDDABLE, new Threshold(0.8, 0, Duration.ofMillis(50)));
+        return thresholds;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.shared.admission;
+
+/**
+ * Показатели загрузки пула соединений с базой данных.
+ */
+interface ConnectionPoolSignals {
+
+    /**
+     * Проверка, доступны ли показатели. Пока пул не создан, запросы принимаются без проверок.
+     */
+    boolean isAvailable();
+
+    int active();
+
+    int maximum();
+
+    /**
+     * Количество потоков, ожидающих соединение из пула.
+     */
+    int waiting();
+
+    /**
+     * Количество выданных пулом соединений с момента запуска.
+     */
+    long acquireCount();
+
+    /**
+     * Суммарное время ожидания выданных соединений в наносекундах.
+     */
+    double acquireTotalNanos();
+}
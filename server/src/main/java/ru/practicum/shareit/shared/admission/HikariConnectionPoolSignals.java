@@ -0,0 +1,96 @@
+package ru.practicum.shareit.shared.admission;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Показатели пула соединений HikariCP. Количество занятых соединений и ожидающих потоков берется из пула
+ * напрямую, время ожидания соединения из таймера hikaricp.connections.acquire, который регистрирует Spring Boot.
+ * Если источник данных не использует HikariCP, показатели недоступны.
+ */
+@Slf4j
+public class HikariConnectionPoolSignals implements ConnectionPoolSignals, MeterBinder {
+
+    private static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+
+    private final HikariDataSource dataSource;
+
+    private volatile MeterRegistry registry;
+
+    private volatile Timer acquireTimer;
+
+    HikariConnectionPoolSignals(DataSource dataSource) {
+        this.dataSource = unwrap(dataSource);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return dataSource != null && dataSource.getHikariPoolMXBean() != null;
+    }
+
+    @Override
+    public int active() {
+        return pool().getActiveConnections();
+    }
+
+    @Override
+    public int maximum() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    @Override
+    public int waiting() {
+        return pool().getThreadsAwaitingConnection();
+    }
+
+    @Override
+    public long acquireCount() {
+        Timer timer = acquireTimer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Override
+    public double acquireTotalNanos() {
+        Timer timer = acquireTimer();
+        return timer == null ? 0 : timer.totalTime(TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private HikariPoolMXBean pool() {
+        return dataSource.getHikariPoolMXBean();
+    }
+
+    private Timer acquireTimer() {
+        Timer timer = acquireTimer;
+        MeterRegistry meterRegistry = registry;
+        if (timer == null && meterRegistry != null) {
+            timer = meterRegistry.find(ACQUIRE_TIMER).tag("pool", dataSource.getPoolName()).timer();
+            acquireTimer = timer;
+        }
+        return timer;
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            log.warn("Не удалось получить пул соединений HikariCP: {}", e.getLocalizedMessage());
+        }
+        log.warn("Источник данных не использует HikariCP, допуск запросов по загрузке пула отключен.");
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.shared.config;
+
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Поддержка HTTP/2 без TLS (h2c) для запросов от шлюза. Соединение HTTP/1.1 может быть переведено на HTTP/2
+ * запросом Upgrade, либо клиент может сразу начать соединение по HTTP/2 (prior knowledge).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shareit-server.h2c", name = "enabled", havingValue = "true")
+public class Http2CleartextConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2CleartextCustomizer(
+            @Value("${shareit-server.h2c.max-concurrent-streams:200}") long maxConcurrentStreams) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            Http2Protocol http2Protocol = new Http2Protocol();
+            http2Protocol.setMaxConcurrentStreams(maxConcurrentStreams);
+            http2Protocol.setMaxConcurrentStreamExecution((int) maxConcurrentStreams);
+            connector.addUpgradeProtocol(http2Protocol);
+        });
+    }
+}
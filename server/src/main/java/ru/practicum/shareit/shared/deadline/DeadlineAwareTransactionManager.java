@@ -0,0 +1,55 @@
+package ru.practicum.shareit.shared.deadline;
+
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Менеджер транзакций JPA, ограничивающий время транзакции оставшимся временем на выполнение запроса. Время
+ * транзакции Spring применяет к каждому запросу к базе данных как тайм-аут JDBC, а перед каждым запросом
+ * проверяет, не истекло ли оно. Транзакция с уже истекшим сроком не начинается.
+ */
+public class DeadlineAwareTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline.check();
+        super.doBegin(transaction, definition);
+        long remainingMillis = RequestDeadline.remainingMillis();
+        if (remainingMillis == Long.MAX_VALUE) {
+            return;
+        }
+        int timeout = super.determineTimeout(definition);
+        long timeoutMillis = timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingMillis
+                : Math.min(remainingMillis, TimeUnit.SECONDS.toMillis(timeout));
+        // Тайм-аут транзакции задается в секундах, поэтому у открытых ресурсов он уточняется до миллисекунд.
+        EntityManagerHolder entityManagerHolder =
+                (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (entityManagerHolder != null) {
+            entityManagerHolder.setTimeoutInMillis(timeoutMillis);
+        }
+        DataSource dataSource = getDataSource();
+        ConnectionHolder connectionHolder = dataSource == null ? null
+                : (ConnectionHolder) TransactionSynchronizationManager.getResource(dataSource);
+        if (connectionHolder != null) {
+            connectionHolder.setTimeoutInMillis(timeoutMillis);
+        }
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        long remainingMillis = RequestDeadline.remainingMillis();
+        if (remainingMillis == Long.MAX_VALUE) {
+            return timeout;
+        }
+        int remainingSeconds = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (remainingMillis + 999) / 1000));
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds
+                : Math.min(timeout, remainingSeconds);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.shared.deadline;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Configuration
+@ConditionalOnProperty(prefix = "shareit-server.deadline", name = "enabled", matchIfMissing = true)
+public class DeadlineConfig {
+
+    @Bean
+    public WebMvcConfigurer deadlineConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new DeadlineInterceptor());
+            }
+        };
+    }
+
+    /**
+     * Заменяет менеджер транзакций, который Spring Boot создает по умолчанию, сохраняя его настройки.
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        DeadlineAwareTransactionManager transactionManager = new DeadlineAwareTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public MeterBinder deadlineMetrics() {
+        return registry -> {
+            for (RequestDeadline.AbandonReason reason : RequestDeadline.AbandonReason.values()) {
+                FunctionCounter.builder("server.requests.abandoned", RequestDeadline.abandoned(reason),
+                                LongAdder::sum)
+                        .description("Запросы, работа над которыми оказалась напрасной из-за истекшего срока")
+                        .tag("reason", reason.name().toLowerCase())
+                        .register(registry);
+            }
+        };
+    }
+}
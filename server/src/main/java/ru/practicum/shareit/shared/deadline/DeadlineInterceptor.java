@@ -0,0 +1,48 @@
+package ru.practicum.shareit.shared.deadline;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.shared.exception.DeadlineExceededException;
+import ru.practicum.shareit.shared.stream.NdjsonWriter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Чтение срока выполнения запроса из заголовка X-Request-Timeout-Ms. Запрос с истекшим сроком отклоняется до
+ * вызова контроллера. Потоковые ответы в формате NDJSON сроком не ограничиваются: их передача может длиться
+ * дольше обычного запроса, а отключение клиента и так прерывает запись ответа.
+ */
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestDeadline.clear();
+        String header = request.getHeader(RequestDeadline.TIMEOUT_HEADER);
+        if (header == null || NdjsonWriter.isRequested(request.getHeader(HttpHeaders.ACCEPT))) {
+            return true;
+        }
+        long timeoutMillis;
+        try {
+            timeoutMillis = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        if (timeoutMillis <= 0) {
+            throw new DeadlineExceededException(RequestDeadline.AbandonReason.EXPIRED_ON_ARRIVAL);
+        }
+        RequestDeadline.start(timeoutMillis);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                @Nullable Exception ex) {
+        if (ex == null && RequestDeadline.isSet() && RequestDeadline.remainingMillis() <= 0
+                && response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) {
+            RequestDeadline.onAbandoned(RequestDeadline.AbandonReason.COMPLETED_LATE);
+        }
+        RequestDeadline.clear();
+    }
+}
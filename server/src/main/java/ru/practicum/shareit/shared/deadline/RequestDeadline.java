@@ -0,0 +1,98 @@
+package ru.practicum.shareit.shared.deadline;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.shared.exception.DeadlineExceededException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Срок выполнения текущего запроса, переданный шлюзом в заголовке X-Request-Timeout-Ms. Срок хранится в потоке,
+ * который обрабатывает запрос, и используется для ограничения времени транзакций и запросов к базе данных.
+ * Работа, которая была прервана или завершилась после истечения срока, учитывается в счетчиках по причинам.
+ */
+@UtilityClass
+public class RequestDeadline {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    /**
+     * Причина, по которой работа над запросом оказалась напрасной.
+     */
+    public enum AbandonReason {
+        /**
+         * Срок истек до начала обработки запроса, запрос отклонен.
+         */
+        EXPIRED_ON_ARRIVAL,
+
+        /**
+         * Срок истек во время обработки, обработка прервана.
+         */
+        EXPIRED_IN_FLIGHT,
+
+        /**
+         * Запрос обработан полностью, но после истечения срока, и результат клиенту уже не нужен.
+         */
+        COMPLETED_LATE
+    }
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private static final Map<AbandonReason, LongAdder> ABANDONED = new EnumMap<>(AbandonReason.class);
+
+    static {
+        for (AbandonReason reason : AbandonReason.values()) {
+            ABANDONED.put(reason, new LongAdder());
+        }
+    }
+
+    /**
+     * Установка срока выполнения текущего запроса.
+     *
+     * @param timeoutMillis оставшееся время в миллисекундах
+     */
+    public static void start(long timeoutMillis) {
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * Оставшееся время на выполнение текущего запроса в миллисекундах. Если срок не задан, возвращается
+     * Long.MAX_VALUE; значение меньше или равное нулю означает, что срок истек.
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    /**
+     * Проверка, что срок выполнения текущего запроса не истек. Вызывается перед началом новой порции работы.
+     *
+     * @throws DeadlineExceededException если срок истек
+     */
+    public static void check() {
+        if (remainingMillis() <= 0) {
+            throw new DeadlineExceededException(AbandonReason.EXPIRED_IN_FLIGHT);
+        }
+    }
+
+    public static void onAbandoned(AbandonReason reason) {
+        ABANDONED.get(reason).increment();
+    }
+
+    static LongAdder abandoned(AbandonReason reason) {
+        return ABANDONED.get(reason);
+    }
+}
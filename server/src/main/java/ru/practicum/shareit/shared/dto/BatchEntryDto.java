@@ -0,0 +1,31 @@
+package ru.practicum.shareit.shared.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Элемент ответа на пакетный запрос сущностей по идентификаторам. Содержит либо найденную сущность, либо причину,
+ * по которой она не может быть получена.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchEntryDto<T> {
+
+    private Long id;
+
+    private T value;
+
+    private String error;
+
+    public static <T> BatchEntryDto<T> found(Long id, T value) {
+        return new BatchEntryDto<>(id, value, null);
+    }
+
+    public static <T> BatchEntryDto<T> failed(Long id, String error) {
+        return new BatchEntryDto<>(id, null, error);
+    }
+}
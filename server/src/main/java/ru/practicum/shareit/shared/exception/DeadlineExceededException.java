@@ -0,0 +1,22 @@
+package ru.practicum.shareit.shared.exception;
+
+import ru.practicum.shareit.shared.deadline.RequestDeadline;
+
+/**
+ * Срок выполнения запроса, переданный шлюзом, истек.
+ */
+public class DeadlineExceededException extends ShareItException {
+
+    private final RequestDeadline.AbandonReason reason;
+
+    public DeadlineExceededException(RequestDeadline.AbandonReason reason) {
+        super(ErrorCode.DEADLINE_EXCEEDED, reason == RequestDeadline.AbandonReason.EXPIRED_ON_ARRIVAL
+                ? "Срок выполнения запроса истек до начала его обработки."
+                : "Срок выполнения запроса истек во время его обработки.");
+        this.reason = reason;
+    }
+
+    public RequestDeadline.AbandonReason getReason() {
+        return reason;
+    }
+}
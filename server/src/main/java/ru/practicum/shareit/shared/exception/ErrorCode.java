@@ -0,0 +1,21 @@
+package ru.practicum.shareit.shared.exception;
+
+/**
+ * Машиночитаемые коды ошибок, возвращаемые клиенту в поле errors.errorCode.
+ */
+public enum ErrorCode {
+    NOT_FOUND,
+    USER_NOT_FOUND,
+    ITEM_NOT_FOUND,
+    BOOKING_NOT_FOUND,
+    REQUEST_NOT_FOUND,
+    ITEM_UNAVAILABLE,
+    BOOKING_NOT_ACKNOWLEDGEABLE,
+    COMMENT_NOT_ALLOWED,
+    ACCESS_DENIED,
+    CONSTRAINT_VIOLATION,
+    MISSING_HEADER,
+    DEADLINE_EXCEEDED,
+    SERVICE_UNAVAILABLE,
+    INTERNAL_ERROR
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.shared.exception;
 
-public class ItemUnavailableException extends RuntimeException {
+public class ItemUnavailableException extends ShareItException {
     public ItemUnavailableException(String string) {
-        super(string);
+        super(ErrorCode.ITEM_UNAVAILABLE, string);
+    }
+
+    public ItemUnavailableException(ErrorCode code, String template, Object... args) {
+        super(code, template, args);
     }
 }
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.shared.exception;
 
-public class NotAuthorizedException extends RuntimeException {
+public class NotAuthorizedException extends ShareItException {
     public NotAuthorizedException(String message) {
-        super(message);
+        super(ErrorCode.ACCESS_DENIED, message);
+    }
+
+    public NotAuthorizedException(String template, Object... args) {
+        super(ErrorCode.ACCESS_DENIED, template, args);
     }
 }
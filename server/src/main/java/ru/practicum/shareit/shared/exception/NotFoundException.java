@@ -1,8 +1,28 @@
 package ru.practicum.shareit.shared.exception;
 
-public class NotFoundException extends RuntimeException {
+public class NotFoundException extends ShareItException {
 
     public NotFoundException(String message) {
-        super(message);
+        super(ErrorCode.NOT_FOUND, message);
+    }
+
+    public NotFoundException(ErrorCode code, String template, Object... args) {
+        super(code, template, args);
+    }
+
+    public static NotFoundException user(Long userId) {
+        return new NotFoundException(ErrorCode.USER_NOT_FOUND, "Пользователь с id '%s' не найден.", userId);
+    }
+
+    public static NotFoundException item(Long itemId) {
+        return new NotFoundException(ErrorCode.ITEM_NOT_FOUND, "Вещь с id '%s' не найдена.", itemId);
+    }
+
+    public static NotFoundException booking(Long bookingId) {
+        return new NotFoundException(ErrorCode.BOOKING_NOT_FOUND, "Бронирование с id '%s' не найдено.", bookingId);
+    }
+
+    public static NotFoundException request(Long requestId) {
+        return new NotFoundException(ErrorCode.REQUEST_NOT_FOUND, "Запрос с id '%s' не найден.", requestId);
     }
 }
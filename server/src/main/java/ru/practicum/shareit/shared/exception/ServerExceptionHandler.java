@@ -2,53 +2,57 @@ package ru.practicum.shareit.shared.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.shared.deadline.RequestDeadline;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicLong;
 
 @RestControllerAdvice
 @Slf4j
 public class ServerExceptionHandler {
 
+    /**
+     * Стек вызовов непредвиденной ошибки пишется в лог для каждой STACK_TRACE_SAMPLE_RATE-й ошибки, остальные
+     * логируются одной строкой. При включенном уровне DEBUG стек пишется всегда.
+     */
+    private static final long STACK_TRACE_SAMPLE_RATE = 100;
+
+    private final AtomicLong unexpectedErrors = new AtomicLong();
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleUserNotFoundException(NotFoundException e) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.getErrors().put("errorMessage", e.getLocalizedMessage());
         log.error(e.getLocalizedMessage());
-        return errorResponse;
+        return errorResponse(e.getCode(), e.getLocalizedMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleItemUnavailableException(ItemUnavailableException e) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.getErrors().put("errorMessage", e.getLocalizedMessage());
         log.error(e.getLocalizedMessage());
-        return errorResponse;
+        return errorResponse(e.getCode(), e.getLocalizedMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotAuthorizedException(NotAuthorizedException e) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.getErrors().put("errorMessage", e.getLocalizedMessage());
         log.error(e.getLocalizedMessage());
-        return errorResponse;
+        return errorResponse(e.getCode(), e.getLocalizedMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleItemUnavailableException(ConstraintViolationException e) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.getErrors().put("errorMessage", e.getLocalizedMessage());
         log.error(e.getLocalizedMessage());
-        return errorResponse;
+        return errorResponse(ErrorCode.CONSTRAINT_VIOLATION, e.getLocalizedMessage());
     }
 
     @ExceptionHandler
@@ -56,24 +60,55 @@ public class ServerExceptionHandler {
     public ErrorResponse handleMissingRequestHeaderException(MissingRequestHeaderException e) {
         ErrorResponse errorResponse = new ErrorResponse();
         errorResponse.getErrors().put(e.getHeaderName(), e.getLocalizedMessage());
+        errorResponse.getErrors().put("errorCode", ErrorCode.MISSING_HEADER.name());
         log.error(e.getLocalizedMessage());
         return errorResponse;
     }
 
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException e) {
+        log.debug(e.getLocalizedMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse(e.getCode(), e.getLocalizedMessage()));
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ErrorResponse handleDeadlineExceededException(DeadlineExceededException e) {
+        RequestDeadline.onAbandoned(e.getReason());
+        log.warn(e.getLocalizedMessage());
+        return errorResponse(e.getCode(), e.getLocalizedMessage());
+    }
+
+    /**
+     * Запрос к базе данных прерван по тайм-ауту, который задается из срока выполнения запроса.
+     */
+    @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ErrorResponse handleQueryTimeoutException(RuntimeException e) {
+        RequestDeadline.onAbandoned(RequestDeadline.AbandonReason.EXPIRED_IN_FLIGHT);
+        log.warn(e.getLocalizedMessage());
+        return errorResponse(ErrorCode.DEADLINE_EXCEEDED, e.getLocalizedMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleAllException(Exception e) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.getErrors().put("errorMessage", e.getLocalizedMessage());
-        errorResponse.getErrors().put("stackTrace", getStackTraceAsString(e));
-        log.error(e.getLocalizedMessage());
-        return errorResponse;
+        if (log.isDebugEnabled() || unexpectedErrors.getAndIncrement() % STACK_TRACE_SAMPLE_RATE == 0) {
+            log.error(e.getLocalizedMessage(), e);
+        } else {
+            log.error("{}: {}", e.getClass().getName(), e.getLocalizedMessage());
+        }
+        return errorResponse(ErrorCode.INTERNAL_ERROR, e.getLocalizedMessage());
     }
 
-    private String getStackTraceAsString(Exception e) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        return sw.toString();
+    private ErrorResponse errorResponse(ErrorCode code, String message) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.getErrors().put("errorMessage", message);
+        if (code != null) {
+            errorResponse.getErrors().put("errorCode", code.name());
+        }
+        return errorResponse;
     }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.shared.exception;
+
+/**
+ * Запрос отклонен, так как сервис перегружен и не успеет обработать его в разумное время.
+ */
+public class ServiceUnavailableException extends ShareItException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(long retryAfterSeconds) {
+        super(ErrorCode.SERVICE_UNAVAILABLE, "Сервис перегружен, повторите запрос через %s с.", retryAfterSeconds);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
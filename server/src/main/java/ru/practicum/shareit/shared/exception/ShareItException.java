@@ -0,0 +1,44 @@
+package ru.practicum.shareit.shared.exception;
+
+/**
+ * Базовое исключение предметной области. Описывает ожидаемые ситуации (сущность не найдена, нет прав доступа),
+ * поэтому создается без стека вызовов и без подавленных исключений. Текст сообщения собирается по шаблону
+ * только при первом обращении к нему.
+ */
+public abstract class ShareItException extends RuntimeException {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final ErrorCode code;
+
+    private final String template;
+
+    private final Object[] args;
+
+    private String message;
+
+    protected ShareItException(ErrorCode code, String message) {
+        this(code, message, NO_ARGS);
+    }
+
+    protected ShareItException(ErrorCode code, String template, Object... args) {
+        super(null, null, false, false);
+        this.code = code;
+        this.template = template;
+        this.args = args;
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+
+    @Override
+    public String getMessage() {
+        String result = message;
+        if (result == null) {
+            result = args == null || args.length == 0 ? template : String.format(template, args);
+            message = result;
+        }
+        return result;
+    }
+}
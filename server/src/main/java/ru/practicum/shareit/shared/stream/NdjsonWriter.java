@@ -0,0 +1,99 @@
+package ru.practicum.shareit.shared.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Запись ответа в формате NDJSON: каждый элемент списка записывается отдельной строкой JSON сразу после получения,
+ * без построения всего списка в памяти. Первая строка отправляется клиенту немедленно, остальные по мере
+ * заполнения буфера ответа.
+ */
+public class NdjsonWriter implements Consumer<Object> {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private final ObjectWriter writer;
+
+    private final HttpServletResponse response;
+
+    private OutputStream out;
+
+    public NdjsonWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+        writer = objectMapper.writer();
+        this.response = response;
+    }
+
+    /**
+     * Проверка, запрошен ли клиентом ответ в формате NDJSON. Формат нужно указать в заголовке Accept явно:
+     * ответы с ошибками возвращаются в формате JSON, поэтому клиенту следует принимать и application/json.
+     *
+     * @param accept значение заголовка Accept
+     * @return true, если запрошен NDJSON
+     */
+    public static boolean isRequested(@Nullable String accept) {
+        if (accept == null || !accept.contains(APPLICATION_NDJSON_VALUE)) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(APPLICATION_NDJSON));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Запись ответа в формате NDJSON.
+     *
+     * @param objectMapper преобразование элементов в JSON
+     * @param response     ответ
+     * @param producer     источник элементов, передающий их в writer
+     */
+    public static void write(ObjectMapper objectMapper, HttpServletResponse response,
+                             Consumer<NdjsonWriter> producer) throws IOException {
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, response);
+        producer.accept(writer);
+        writer.finish();
+    }
+
+    @Override
+    public void accept(Object value) {
+        try {
+            boolean first = out == null;
+            if (first) {
+                response.setContentType(APPLICATION_NDJSON_VALUE);
+                response.setCharacterEncoding("UTF-8");
+                out = response.getOutputStream();
+            }
+            out.write(writer.writeValueAsBytes(value));
+            out.write('\n');
+            if (first) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Завершение ответа. Если не было записано ни одного элемента, отправляется пустой ответ.
+     */
+    public void finish() throws IOException {
+        if (out == null) {
+            response.setContentType(APPLICATION_NDJSON_VALUE);
+            out = response.getOutputStream();
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.shared.stream;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Чтение результатов запроса к базе данных курсором. Строки загружаются порциями по FETCH_SIZE и обрабатываются
+ * частями по CHUNK_SIZE, поэтому расход памяти не зависит от количества строк в результате.
+ */
+@UtilityClass
+public class StreamingQueries {
+
+    public static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+
+    public static final String FETCH_SIZE = "100";
+
+    public static final int CHUNK_SIZE = 100;
+
+    /**
+     * Обработка строк результата частями. Поток закрывается после обработки.
+     *
+     * @param rows      строки результата запроса
+     * @param chunkSize размер части
+     * @param action    обработка части
+     */
+    public static <T> void forEachChunk(Stream<T> rows, int chunkSize, Consumer<List<T>> action) {
+        try (rows) {
+            Iterator<T> iterator = rows.iterator();
+            List<T> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    action.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                action.accept(chunk);
+            }
+        }
+    }
+}
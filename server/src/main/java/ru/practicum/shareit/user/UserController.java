@@ -9,8 +9,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -35,7 +38,11 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable long userId) {
+    public UserDto getUserById(@PathVariable long userId, WebRequest request) {
+        String etag = userService.getUserEtag(userId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return userService.findUserById(userId);
     }
 
@@ -44,6 +51,11 @@ public class UserController {
         return userService.findAllUsers();
     }
 
+    @GetMapping(params = "ids")
+    public List<BatchEntryDto<UserDto>> getUsersByIds(@RequestParam List<Long> ids) {
+        return userService.findUsersByIds(ids);
+    }
+
     @DeleteMapping("/{userId}")
     public void deleteUserById(@PathVariable long userId) {
         userService.deleteUserById(userId);
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -11,6 +12,7 @@ public interface UserMapper {
 
     UserDto toDto(User user);
 
+    @Mapping(target = "version", ignore = true)
     User toModel(UserDto userDto);
 
     List<UserDto> toDtoList(List<User> userList);
@@ -39,6 +39,14 @@ public class User {
 
     @Column(name = "email", nullable = false)
     private String email;
+
+    /**
+     * Версия представления пользователя. Увеличивается запросами к базе данных при каждом изменении, влияющем на
+     * ответ API, и используется для формирования ETag.
+     */
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    private long version;
+
     @OneToMany(mappedBy = "owner", cascade = CascadeType.ALL, orphanRemoval = true)
     @ToString.Exclude
     private final List<Item> items = new ArrayList<>();
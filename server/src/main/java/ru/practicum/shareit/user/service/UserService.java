@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
@@ -12,7 +13,11 @@ public interface UserService {
 
     UserDto findUserById(long userId);
 
+    String getUserEtag(long userId);
+
     List<UserDto> findAllUsers();
 
+    List<BatchEntryDto<UserDto>> findUsersByIds(List<Long> userIds);
+
     void deleteUserById(long userId);
 }
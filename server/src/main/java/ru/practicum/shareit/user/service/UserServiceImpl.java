@@ -3,6 +3,9 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.shared.EntityTags;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
 import ru.practicum.shareit.shared.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
@@ -11,7 +14,12 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserStorage;
 
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +28,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserStorage userStorage;
     private final UserMapper userMapper;
+    private final ItemStorage itemStorage;
 
     /**
      * Добавление нового пользователя.
@@ -37,7 +46,8 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Обновление данных пользователя. Разрешено обновлять имя и электронную почту.
+     * Обновление данных пользователя. Разрешено обновлять имя и электронную почту. Вместе с версией пользователя
+     * увеличиваются версии вещей, к которым он оставлял отзывы, так как в отзывах указывается имя автора.
      *
      * @param userId        идентификатор пользователя
      * @param userUpdateDto обновленные данные
@@ -47,9 +57,11 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto updateUser(final long userId, final UserUpdateDto userUpdateDto) {
         User storedUser = userStorage.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id '" + userId + "' не найден."));
+                .orElseThrow(() -> NotFoundException.user(userId));
         updateNameAndEmail(userUpdateDto, storedUser);
         userStorage.save(storedUser);
+        userStorage.incrementVersion(userId);
+        itemStorage.incrementVersionOfItemsCommentedBy(userId);
         log.info("Обновление пользователя с id '{}'.", userId);
         return userMapper.toDto(storedUser);
     }
@@ -63,11 +75,24 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto findUserById(final long userId) {
         final User user = userStorage.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id '" + userId + "' не найден."));
+                .orElseThrow(() -> NotFoundException.user(userId));
         log.info("Получение пользователя с id '{}.", userId);
         return userMapper.toDto(user);
     }
 
+    /**
+     * Получение ETag пользователя без загрузки его данных.
+     *
+     * @param userId идентификатор пользователя
+     * @return ETag или null, если пользователь не найден
+     */
+    @Override
+    public String getUserEtag(final long userId) {
+        return userStorage.findVersionById(userId)
+                .map(version -> EntityTags.of("user", userId, version))
+                .orElse(null);
+    }
+
     /**
      * Получение списка всех пользователей.
      *
@@ -80,6 +105,30 @@ public class UserServiceImpl implements UserService {
         return userMapper.toDtoList(users);
     }
 
+    /**
+     * Получение пользователей по списку идентификаторов одним запросом к базе данных. Результат возвращается в
+     * порядке запрошенных идентификаторов, для ненайденных пользователей указывается причина.
+     *
+     * @param userIds идентификаторы пользователей
+     * @return список найденных пользователей и ошибок
+     */
+    @Override
+    public List<BatchEntryDto<UserDto>> findUsersByIds(final List<Long> userIds) {
+        final Map<Long, User> users = userStorage.findAllById(new HashSet<>(userIds)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        final List<BatchEntryDto<UserDto>> result = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            final User user = users.get(userId);
+            if (user == null) {
+                result.add(BatchEntryDto.failed(userId, NotFoundException.user(userId).getMessage()));
+            } else {
+                result.add(BatchEntryDto.found(userId, userMapper.toDto(user)));
+            }
+        }
+        log.info("Получение пользователей с id {}.", userIds);
+        return result;
+    }
+
     /**
      * Удаление пользователя по идентификатору.
      *
@@ -1,7 +1,18 @@
 package ru.practicum.shareit.user.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Optional;
+
 public interface UserStorage extends JpaRepository<User, Long> {
+
+    @Query("SELECT u.version FROM User u WHERE u.id = ?1")
+    Optional<Long> findVersionById(Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.version = u.version + 1 WHERE u.id = ?1")
+    void incrementVersion(Long userId);
 }
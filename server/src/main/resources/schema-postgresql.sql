@@ -0,0 +1,12 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING GIN (LOWER(item_name) gin_trgm_ops) WHERE available = TRUE;
+
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING GIN (LOWER(description) gin_trgm_ops) WHERE available = TRUE;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_document tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', item_name), 'A') || setweight(to_tsvector('english', item_name), 'A') ||
+    setweight(to_tsvector('russian', description), 'B') || setweight(to_tsvector('english', description), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS items_search_document_idx ON items USING GIN (search_document) WHERE available = TRUE;
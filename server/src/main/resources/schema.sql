@@ -1,9 +1,10 @@
-DROP TABLE IF EXISTS users, items, bookings, comments, item_requests;
+DROP TABLE IF EXISTS item_booking_summary, users, items, bookings, comments, item_requests;
 
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) NOT NULL PRIMARY KEY,
     username VARCHAR(255) NOT NULL,
-    email VARCHAR(255) UNIQUE NOT NULL
+    email VARCHAR(255) UNIQUE NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS item_requests (
@@ -11,6 +12,7 @@ CREATE TABLE IF NOT EXISTS item_requests (
     description VARCHAR(2000) NOT NULL,
     created TIMESTAMP NOT NULL,
     requester_id BIGINT,
+    version BIGINT DEFAULT 0 NOT NULL,
     FOREIGN KEY (requester_id) REFERENCES users(id)
 );
 
@@ -21,6 +23,7 @@ CREATE TABLE IF NOT EXISTS items (
     available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    version BIGINT DEFAULT 0 NOT NULL,
     FOREIGN KEY (request_id) REFERENCES item_requests(id),
     FOREIGN KEY (owner_id) REFERENCES users(id)
 );
@@ -36,6 +39,23 @@ CREATE TABLE IF NOT EXISTS bookings (
     FOREIGN KEY (user_id) REFERENCES users(id)
 );
 
+CREATE INDEX IF NOT EXISTS bookings_item_id_status_start_date_idx ON bookings (item_id, status, start_date);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL PRIMARY KEY,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start_date TIMESTAMP,
+    last_end_date TIMESTAMP,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start_date TIMESTAMP,
+    next_end_date TIMESTAMP,
+    FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS item_booking_summary_next_start_date_idx ON item_booking_summary (next_start_date);
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) NOT NULL PRIMARY KEY,
     text VARCHAR(2000) NOT NULL,
@@ -140,7 +140,8 @@ class BookingControllerTest {
                         .content(objectMapper.writeValueAsString(addBookingDto)))
                 .andExpect(status().isNotFound())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof NotAuthorizedException))
-                .andExpect(jsonPath("$.errors.errorMessage", is(errorMessage)));
+                .andExpect(jsonPath("$.errors.errorMessage", is(errorMessage)))
+                .andExpect(jsonPath("$.errors.errorCode", is("ACCESS_DENIED")));
 
         verify(bookingService, times(1)).addBooking(userId, addBookingDto);
     }
@@ -203,7 +204,9 @@ class BookingControllerTest {
                         .header(header, userId)
                         .param("approved", approved.toString()))
                 .andExpect(status().isInternalServerError())
-                .andExpect(result -> assertTrue(result.getResolvedException() instanceof RuntimeException));
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof RuntimeException))
+                .andExpect(jsonPath("$.errors.errorCode", is("INTERNAL_ERROR")))
+                .andExpect(jsonPath("$.errors.stackTrace").doesNotExist());
 
         verify(bookingService, times(1)).acknowledgeBooking(userId, bookingId, approved);
     }
@@ -7,12 +7,15 @@ import org.junit.jupiter.api.TestInstance;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class BookingMapperTest {
@@ -49,4 +52,28 @@ class BookingMapperTest {
         assertThat(shortDto.getId(), is(booking.getId()));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Проверка маппинга сводки бронирований вещи")
+    void mapSummaryToLastAndNextBookings() {
+        User booker = User.builder()
+                .id(1L)
+                .build();
+        Booking lastBooking = Booking.builder()
+                .id(2L)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .build();
+        ItemBookingSummary summary = ItemBookingSummary.of(3L, List.of(lastBooking), LocalDateTime.now());
+
+        ShortBookingDto lastDto = bookingMapper.toLastBookingDto(summary);
+
+        assertThat(lastDto.getId(), is(lastBooking.getId()));
+        assertThat(lastDto.getBookerId(), is(booker.getId()));
+        assertThat(lastDto.getStatus(), is(BookingStatus.APPROVED));
+        assertThat(lastDto.getStart(), is(lastBooking.getStart()));
+        assertThat(lastDto.getEnd(), is(lastBooking.getEnd()));
+        assertThat(bookingMapper.toNextBookingDto(summary), nullValue());
+    }
+}
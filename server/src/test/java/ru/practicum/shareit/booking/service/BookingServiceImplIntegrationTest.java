@@ -15,6 +15,7 @@ import ru.practicum.shareit.booking.dto.GetBookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
 import ru.practicum.shareit.shared.exception.ItemUnavailableException;
 import ru.practicum.shareit.shared.exception.NotAuthorizedException;
 import ru.practicum.shareit.shared.exception.NotFoundException;
@@ -23,11 +24,13 @@ import ru.practicum.shareit.user.storage.UserStorage;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -271,6 +274,21 @@ class BookingServiceImplIntegrationTest {
         assertThat(bookings, is(List.of(addedBooking)));
     }
 
+    @Test
+    @DisplayName("Потоковое получение бронирований совпадает с получением списком")
+    void streamAllBookingsFromUser_ShouldReturnSameBookingsAsList() {
+        bookingService.addBooking(booker.getId(), addBookingDto1);
+        bookingService.addBooking(booker.getId(), addBookingDto2);
+        List<BookingDto> expected = bookingService.getAllBookingsFromUser(owner.getId(), GetBookingState.ALL, 0L,
+                10, true);
+        List<BookingDto> streamed = new ArrayList<>();
+
+        bookingService.streamAllBookingsFromUser(owner.getId(), GetBookingState.ALL, 0L, 10, true, streamed::add);
+
+        assertThat(streamed.size(), is(2));
+        assertThat(streamed, is(expected));
+    }
+
     @Test
     @DisplayName("Получение всех бронирований, начиная с 0го элемента по 1 на странице")
     void getAllBookingsFromUser_WhenRequesterIsBookerStateAllFrom0Size1_ShouldReturnAllBooking() {
@@ -426,4 +444,25 @@ class BookingServiceImplIntegrationTest {
         assertThat(bookings, notNullValue());
         assertThat(bookings, is(List.of(acknowledgedBooking)));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Получение бронирований по списку идентификаторов")
+    void getBookingsByIds_ShouldReturnAccessibleBookingsAndReportMissingAndForbiddenOnes() {
+        User stranger = userStorage.save(User.builder()
+                .name("stranger")
+                .email("stranger@mail.com")
+                .build());
+        BookingDto ownBooking = bookingService.addBooking(booker.getId(), addBookingDto1);
+        BookingDto strangerBooking = bookingService.addBooking(stranger.getId(), addBookingDto3);
+
+        List<BatchEntryDto<BookingDto>> bookings = bookingService.getBookingsByIds(owner.getId(),
+                List.of(ownBooking.getId(), 999L, strangerBooking.getId()));
+
+        assertThat(bookings.size(), is(3));
+        assertThat(bookings.get(0).getValue().getId(), is(ownBooking.getId()));
+        assertThat(bookings.get(1).getError(), is("Бронирование с id '999' не найдено."));
+        assertThat(bookings.get(2).getValue(), nullValue());
+        assertThat(bookings.get(2).getError(), is("У пользователя с id '" + owner.getId() +
+                "' нет прав для доступа к бронированию с id '" + strangerBooking.getId() + "'."));
+    }
+}
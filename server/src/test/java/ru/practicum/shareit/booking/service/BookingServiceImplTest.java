@@ -18,6 +18,7 @@ import ru.practicum.shareit.booking.storage.BookingStorage;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.shared.OffsetPageRequest;
+import ru.practicum.shareit.shared.exception.ErrorCode;
 import ru.practicum.shareit.shared.exception.ItemUnavailableException;
 import ru.practicum.shareit.shared.exception.NotAuthorizedException;
 import ru.practicum.shareit.shared.exception.NotFoundException;
@@ -49,6 +50,9 @@ class BookingServiceImplTest {
     @Mock
     private BookingMapper bookingMapper;
 
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -128,6 +132,7 @@ class BookingServiceImplTest {
         assertThat(captorValue.getStart(), is(addBookingDto.getStart()));
         assertThat(captorValue.getEnd(), is(addBookingDto.getEnd()));
 
+        verify(itemBookingSummaryService, never()).refresh(any());
         verify(bookingMapper, times(1)).toDto(any());
     }
 
@@ -222,6 +227,7 @@ class BookingServiceImplTest {
         Booking captorValue = bookingArgumentCaptor.getValue();
 
         assertThat(captorValue.getStatus(), is(BookingStatus.APPROVED));
+        verify(itemBookingSummaryService, times(1)).refresh(itemId);
     }
 
     @Test
@@ -241,6 +247,7 @@ class BookingServiceImplTest {
         Booking captorValue = bookingArgumentCaptor.getValue();
 
         assertThat(captorValue.getStatus(), is(BookingStatus.REJECTED));
+        verify(itemBookingSummaryService, never()).refresh(any());
     }
 
     @Test
@@ -257,9 +264,11 @@ class BookingServiceImplTest {
                 () -> bookingService.acknowledgeBooking(userId, bookingId, false));
 
         assertThat(e.getMessage(), is("Текущий статус бронирования не позволяет сделать подтверждение."));
+        assertThat(e.getCode(), is(ErrorCode.BOOKING_NOT_ACKNOWLEDGEABLE));
 
         verify(userStorage, times(1)).findById(userId);
         verify(bookingStorage, times(1)).findBookingById(bookingId);
+        verify(itemBookingSummaryService, never()).refresh(any());
         verify(bookingMapper, never()).toDto(any());
     }
 
@@ -0,0 +1,244 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.ItemBookingSummaryCheckDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryServiceImplTest {
+
+    @Mock
+    private ItemBookingSummaryStorage summaryStorage;
+
+    @Mock
+    private BookingStorage bookingStorage;
+
+    @Mock
+    private ItemStorage itemStorage;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ItemBookingSummaryServiceImpl summaryService;
+
+    private long itemId;
+
+    private User booker;
+
+    private Booking currentBooking;
+
+    private Booking pastBooking;
+
+    private Booking futureBooking;
+
+    @BeforeEach
+    void setUp() {
+        itemId = 4;
+        Item item = Item.builder()
+                .id(itemId)
+                .build();
+        booker = User.builder()
+                .id(3L)
+                .build();
+        currentBooking = Booking.builder()
+                .id(1L)
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusDays(4))
+                .status(BookingStatus.WAITING)
+                .build();
+        pastBooking = Booking.builder()
+                .id(2L)
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.now().minusDays(5))
+                .end(LocalDateTime.now().minusDays(4))
+                .status(BookingStatus.WAITING)
+                .build();
+        futureBooking = Booking.builder()
+                .id(3L)
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.now().plusDays(5))
+                .end(LocalDateTime.now().plusDays(6))
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Получение сводок, сохраненная сводка актуальна")
+    void findByItemIds_WhenSummaryIsFresh_ShouldReturnStoredSummary() {
+        LocalDateTime now = LocalDateTime.now();
+        currentBooking.setStatus(BookingStatus.APPROVED);
+        futureBooking.setStatus(BookingStatus.APPROVED);
+        ItemBookingSummary summary = ItemBookingSummary.of(itemId, List.of(currentBooking, futureBooking), now);
+        when(summaryStorage.findAllById(List.of(itemId)))
+                .thenReturn(List.of(summary));
+
+        Map<Long, ItemBookingSummary> summaries = summaryService.findByItemIds(List.of(itemId), now);
+
+        assertThat(summaries.get(itemId), sameInstance(summary));
+        verify(bookingStorage, never()).findLastAndNextApprovedBookings(any(), any());
+    }
+
+    @Test
+    @DisplayName("Получение сводок, ближайшее бронирование уже началось")
+    void findByItemIds_WhenSummaryIsStale_ShouldCalculateSummaryFromBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        currentBooking.setStatus(BookingStatus.APPROVED);
+        futureBooking.setStatus(BookingStatus.APPROVED);
+        ItemBookingSummary stale = ItemBookingSummary.of(itemId, List.of(currentBooking, futureBooking),
+                now.minusDays(2));
+        when(summaryStorage.findAllById(List.of(itemId)))
+                .thenReturn(List.of(stale));
+        when(bookingStorage.findLastAndNextApprovedBookings(List.of(itemId), now))
+                .thenReturn(List.of(currentBooking, futureBooking));
+
+        ItemBookingSummary summary = summaryService.findByItemIds(List.of(itemId), now).get(itemId);
+
+        assertThat(summary.getLastBookingId(), is(currentBooking.getId()));
+        assertThat(summary.getNextBookingId(), is(futureBooking.getId()));
+        assertThat(stale.getLastBookingId(), nullValue());
+    }
+
+    @Test
+    @DisplayName("Получение сводок, сводки нет, следующее бронирование не подтверждено")
+    void findByItemIds_WhenSummaryIsMissingAndNextBookingIsNotApproved_ShouldReturnOnlyLastBooking() {
+        LocalDateTime now = LocalDateTime.now();
+        currentBooking.setStatus(BookingStatus.APPROVED);
+        pastBooking.setStatus(BookingStatus.APPROVED);
+        when(summaryStorage.findAllById(List.of(itemId)))
+                .thenReturn(List.of());
+        when(bookingStorage.findLastAndNextApprovedBookings(List.of(itemId), now))
+                .thenReturn(List.of(currentBooking, pastBooking, futureBooking));
+
+        ItemBookingSummary summary = summaryService.findByItemIds(List.of(itemId), now).get(itemId);
+
+        assertThat(summary.getLastBookingId(), is(currentBooking.getId()));
+        assertThat(summary.getLastBookerId(), is(booker.getId()));
+        assertThat(summary.getLastStart(), is(currentBooking.getStart()));
+        assertThat(summary.getLastEnd(), is(currentBooking.getEnd()));
+        assertThat(summary.getNextBookingId(), nullValue());
+        verify(summaryStorage, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Получение сводок, сводки нет, бронирования не подтверждены")
+    void findByItemIds_WhenSummaryIsMissingAndBookingsAreNotApproved_ShouldReturnEmptySummary() {
+        LocalDateTime now = LocalDateTime.now();
+        when(summaryStorage.findAllById(List.of(itemId)))
+                .thenReturn(List.of());
+        when(bookingStorage.findLastAndNextApprovedBookings(List.of(itemId), now))
+                .thenReturn(List.of(currentBooking, pastBooking, futureBooking));
+
+        ItemBookingSummary summary = summaryService.findByItemIds(List.of(itemId), now).get(itemId);
+
+        assertThat(summary.getItemId(), is(itemId));
+        assertThat(summary.getLastBookingId(), nullValue());
+        assertThat(summary.getNextBookingId(), nullValue());
+    }
+
+    @Test
+    @DisplayName("Обновление сводки после изменения бронирований")
+    void refresh_WhenSummaryExists_ShouldLockSummaryAndUpdateBookings() {
+        currentBooking.setStatus(BookingStatus.APPROVED);
+        futureBooking.setStatus(BookingStatus.APPROVED);
+        ItemBookingSummary summary = new ItemBookingSummary(itemId);
+        when(summaryStorage.findByItemIdForUpdate(itemId))
+                .thenReturn(Optional.of(summary));
+        when(bookingStorage.findLastAndNextApprovedBookings(eq(List.of(itemId)), any()))
+                .thenReturn(List.of(currentBooking, futureBooking));
+
+        summaryService.refresh(itemId);
+
+        verify(bookingStorage, times(1)).flush();
+        assertThat(summary.getLastBookingId(), is(currentBooking.getId()));
+        assertThat(summary.getNextBookingId(), is(futureBooking.getId()));
+        assertThat(summary.getNextStart(), is(futureBooking.getStart()));
+    }
+
+    @Test
+    @DisplayName("Обновление сводки, сводки нет")
+    void refresh_WhenSummaryIsMissing_ShouldNotLoadBookings() {
+        when(summaryStorage.findByItemIdForUpdate(itemId))
+                .thenReturn(Optional.empty());
+
+        summaryService.refresh(itemId);
+
+        verify(bookingStorage, never()).findLastAndNextApprovedBookings(any(), any());
+    }
+
+    @Test
+    @DisplayName("Обход устаревших сводок")
+    void sweep_WhenNextBookingStarted_ShouldMoveItToLastBooking() {
+        futureBooking.setStatus(BookingStatus.APPROVED);
+        ItemBookingSummary summary = ItemBookingSummary.of(itemId, List.of(futureBooking),
+                LocalDateTime.now().minusDays(6));
+        futureBooking.setStart(LocalDateTime.now().minusHours(1));
+        when(summaryStorage.findItemIdsWithStartedNextBooking(any(), any()))
+                .thenReturn(List.of(itemId));
+        when(summaryStorage.findAllByItemIdInForUpdate(List.of(itemId)))
+                .thenReturn(List.of(summary));
+        when(bookingStorage.findLastAndNextApprovedBookings(eq(List.of(itemId)), any()))
+                .thenReturn(List.of(futureBooking));
+
+        int updated = summaryService.sweep(10);
+
+        assertThat(updated, is(1));
+        assertThat(summary.getLastBookingId(), is(futureBooking.getId()));
+        assertThat(summary.getNextBookingId(), nullValue());
+    }
+
+    @Test
+    @DisplayName("Сверка сводок с бронированиями")
+    void check_WhenSummaryDiffersFromBookings_ShouldReportMismatch() {
+        currentBooking.setStatus(BookingStatus.APPROVED);
+        ItemBookingSummary summary = new ItemBookingSummary(itemId);
+        when(summaryStorage.findAllAfter(eq(0L), any()))
+                .thenReturn(List.of(summary));
+        when(bookingStorage.findLastAndNextApprovedBookings(eq(List.of(itemId)), any()))
+                .thenReturn(List.of(currentBooking));
+        when(summaryStorage.countItemsWithoutSummary())
+                .thenReturn(2L);
+
+        ItemBookingSummaryCheckDto report = summaryService.check();
+
+        assertThat(report.getChecked(), is(1L));
+        assertThat(report.getMismatched(), is(1L));
+        assertThat(report.getMissing(), is(2L));
+        assertThat(report.getMismatchedItemIds(), is(List.of(itemId)));
+        assertThat(report.isConsistent(), is(false));
+    }
+}
@@ -17,6 +17,7 @@ import ru.practicum.shareit.shared.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -295,6 +296,34 @@ class BookingStorageTest {
         assertThat(bookings.get(0).getId(), is(is(savedBooking3.getId())));
     }
 
+    @Test
+    @DisplayName("Поиск последнего и ближайшего подтвержденных бронирований вещей")
+    void findLastAndNextApprovedBookings_ShouldReturnOneLastAndOneNextBookingPerItem() {
+        Booking past1 = saveApprovedBooking(now().minusDays(10), now().minusDays(8));
+        Booking past2 = saveApprovedBooking(now().minusDays(6), now().minusDays(2));
+        saveApprovedBooking(now().plusDays(3), now().plusDays(4));
+        Booking future2 = saveApprovedBooking(now().plusDays(1), now().plusDays(2));
+
+        List<Booking> bookings = bookingStorage.findLastAndNextApprovedBookings(
+                List.of(savedItem1.getId(), savedItem2.getId()), now());
+
+        assertThat(bookings.size(), is(2));
+        assertTrue(bookings.stream().anyMatch(booking -> booking.getId().equals(past2.getId())));
+        assertTrue(bookings.stream().anyMatch(booking -> booking.getId().equals(future2.getId())));
+        assertTrue(bookings.stream().noneMatch(booking -> booking.getId().equals(past1.getId())));
+    }
+
+    private Booking saveApprovedBooking(LocalDateTime start, LocalDateTime end) {
+        Booking booking = Booking.builder()
+                .item(savedItem2)
+                .booker(savedUser2)
+                .status(BookingStatus.APPROVED)
+                .start(start)
+                .end(end)
+                .build();
+        return bookingStorage.save(booking);
+    }
+
     private Item createItem(Long id) {
         return Item.builder()
                 .name("name" + id)
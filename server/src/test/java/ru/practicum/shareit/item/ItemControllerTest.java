@@ -15,6 +15,7 @@ import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -145,6 +146,43 @@ class ItemControllerTest {
         verify(itemService, times(1)).findItemById(userId, itemId);
     }
 
+    @Test
+    @DisplayName("Получение вещи по id с актуальным ETag")
+    @SneakyThrows
+    void getItemById_WhenEtagMatches_ShouldReturnStatus304() {
+        when(itemService.getItemEtag(userId, itemId))
+                .thenReturn("item-1-0-x");
+
+        mvc.perform(get("/items/{itemId}", itemId)
+                        .header(header, userId)
+                        .header("If-None-Match", "\"item-1-0-x\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"item-1-0-x\""))
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).findItemById(any(), any());
+    }
+
+    @Test
+    @DisplayName("Получение вещи по id с устаревшим ETag")
+    @SneakyThrows
+    void getItemById_WhenEtagChanged_ShouldReturnBodyWithNewEtag() {
+        GetItemDto getItemDto = new GetItemDto();
+        when(itemService.getItemEtag(userId, itemId))
+                .thenReturn("item-1-1-x");
+        when(itemService.findItemById(userId, itemId))
+                .thenReturn(getItemDto);
+
+        mvc.perform(get("/items/{itemId}", itemId)
+                        .header(header, userId)
+                        .header("If-None-Match", "\"item-1-0-x\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"item-1-1-x\""))
+                .andExpect(content().string(objectMapper.writeValueAsString(getItemDto)));
+
+        verify(itemService, times(1)).findItemById(userId, itemId);
+    }
+
     @Test
     @DisplayName("Получение вещи по id, запрос без заголовка")
     @SneakyThrows
@@ -189,6 +227,34 @@ class ItemControllerTest {
         verify(itemService, times(1)).findAllItemsByUserId(userId, from, size);
     }
 
+    @Test
+    @DisplayName("Получение вещей пользователя в формате NDJSON")
+    @SneakyThrows
+    void getAllItemsByUserId_AcceptNdjson_ShouldStreamOneItemPerLine() {
+        long from = 0;
+        int size = 5;
+        GetItemDto first = GetItemDto.builder().id(1L).name("first").build();
+        GetItemDto second = GetItemDto.builder().id(2L).name("second").build();
+        doAnswer(invocation -> {
+            Consumer<GetItemDto> consumer = invocation.getArgument(3);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(itemService).streamAllItemsByUserId(eq(userId), eq(from), eq(size), any());
+
+        mvc.perform(get("/items")
+                        .header(header, userId)
+                        .param("from", String.valueOf(from))
+                        .param("size", String.valueOf(size))
+                        .accept("application/x-ndjson", MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(objectMapper.writeValueAsString(first) + "\n"
+                        + objectMapper.writeValueAsString(second) + "\n"));
+
+        verify(itemService, never()).findAllItemsByUserId(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Получение вещей пользователя")
     @SneakyThrows
@@ -234,6 +300,30 @@ class ItemControllerTest {
         verify(itemService, times(1)).searchItems(text, from, size);
     }
 
+    @Test
+    @DisplayName("Полнотекстовый поиск вещей")
+    @SneakyThrows
+    void searchItems_ModeFulltext_ShouldSearchFullText() {
+        String text = "search";
+        long from = 0;
+        int size = 5;
+        when(itemService.searchItemsFullText(text, from, size))
+                .thenReturn(List.of(itemDto));
+
+        mvc.perform(get("/items/search")
+                        .header(header, userId)
+                        .param("text", text)
+                        .param("from", String.valueOf(from))
+                        .param("size", String.valueOf(size))
+                        .param("mode", "FULLTEXT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$.[0].id", is(itemDto.getId())));
+
+        verify(itemService, times(1)).searchItemsFullText(text, from, size);
+        verify(itemService, never()).searchItems(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Поиск вещей, запрос без заголовка")
     @SneakyThrows
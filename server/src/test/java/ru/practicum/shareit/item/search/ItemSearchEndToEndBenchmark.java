@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.shared.OffsetPageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Сравнение поиска вещей через сервис (по индексу в памяти) с запросом LIKE к базе данных на большом количестве
+ * вещей. Тест проверяет, что оба способа возвращают одинаковые страницы, и выводит время поиска в журнал. Запуск:
+ * {@code mvn test -Dbenchmark=true -Dtest=ItemSearchEndToEndBenchmark}, количество вещей задается свойством
+ * benchmark.items.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class ItemSearchEndToEndBenchmark {
+
+    private static final String[] WORDS = {"дрель", "отвертка", "лестница", "стремянка", "пила", "молоток", "клей",
+            "перфоратор", "шуруповерт", "рулетка", "уровень", "палатка", "велосипед", "самокат", "удочка", "мангал"};
+
+    private static final List<String> QUERIES = List.of("дрель", "ДРЕЛЬ МОЛ", "ка", "№12345", "нет такой");
+
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemStorage itemStorage;
+
+    @Autowired
+    private ItemSearch itemSearch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void init() {
+        int items = Integer.getInteger("benchmark.items", 200_000);
+        jdbcTemplate.update("INSERT INTO users (username, email) VALUES ('benchmark', 'benchmark@mail.ru')");
+        Long ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'benchmark@mail.ru'",
+                Long.class);
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 1; i <= items; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            String description = WORDS[random.nextInt(WORDS.length)] + " №" + i;
+            batch.add(new Object[]{name, description, random.nextInt(10) != 0, ownerId});
+            if (batch.size() == 10_000 || i == items) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO items (item_name, description, available, owner_id) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        long start = System.nanoTime();
+        itemSearch.rebuild();
+        log.info("Вещей: {}, построение индекса: {} мс.", items,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id IN (SELECT id FROM users WHERE email = ?)",
+                "benchmark@mail.ru");
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", "benchmark@mail.ru");
+        itemSearch.rebuild();
+    }
+
+    @Test
+    @DisplayName("Поиск по индексу возвращает те же страницы, что и запрос LIKE, и выполняется быстрее")
+    void searchItems_IndexAndLikeQuery_ShouldReturnSamePages() {
+        for (String query : QUERIES) {
+            for (long from : new long[]{0, 100}) {
+                List<Long> indexed = measure("индекс", query, () -> itemService.searchItems(query, from, 20).stream()
+                        .map(ItemDto::getId)
+                        .collect(Collectors.toList()));
+                List<Long> like = measure("LIKE", query, () -> itemStorage.searchInTitleAndDescription(
+                                "%" + query.toLowerCase() + "%", OffsetPageRequest.of(from, 20)).stream()
+                        .map(Item::getId)
+                        .collect(Collectors.toList()));
+
+                assertThat(indexed, is(like));
+            }
+        }
+    }
+
+    private List<Long> measure(String method, String query, Supplier<List<Long>> search) {
+        List<Long> result = search.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            search.get();
+        }
+        log.info("{} '{}': {} мкс на запрос.", method, query,
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ITERATIONS);
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение поиска по индексу с перебором всех вещей, как при выполнении запроса LIKE '%text%' без индекса.
+ * Запуск:
+ * <pre>
+ * mvn -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) \
+ *     ru.practicum.shareit.item.search.ItemSearchIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ItemSearchIndexBenchmark {
+
+    private static final String[] WORDS = {"дрель", "отвертка", "лестница", "стремянка", "пила", "молоток", "клей",
+            "перфоратор", "шуруповерт", "рулетка", "уровень", "палатка", "велосипед", "самокат", "удочка", "мангал",
+            "аккумуляторная", "ударная", "складная", "алюминиевая", "туристическая", "детский", "новый", "старый"};
+
+    @Param({"100000", "1000000"})
+    private int items;
+
+    /**
+     * Строка поиска: частая (найдется на первых вещах), редкая (одна вещь в конце) и отсутствующая.
+     */
+    @Param({"дрель", "редкая вещь", "нет такой"})
+    private String text;
+
+    private ItemSearchIndex index;
+
+    private String[] names;
+
+    private String[] descriptions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ItemSearchIndex();
+        names = new String[items + 1];
+        descriptions = new String[items + 1];
+        for (int id = 1; id <= items; id++) {
+            names[id] = word(random) + " " + word(random);
+            descriptions[id] = word(random) + " " + word(random) + " " + word(random) + " №" + id;
+            index.put(id, names[id], descriptions[id], true);
+        }
+        descriptions[items] = "Редкая вещь";
+        index.put(items, names[items], descriptions[items], true);
+    }
+
+    @Benchmark
+    public List<Long> index() {
+        return index.search(text, 0, 20);
+    }
+
+    @Benchmark
+    public List<Long> scan() {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Long> result = new ArrayList<>(20);
+        for (int id = 1; id <= items && result.size() < 20; id++) {
+            if (names[id].toLowerCase(Locale.ROOT).contains(query)
+                    || descriptions[id].toLowerCase(Locale.ROOT).contains(query)) {
+                result.add((long) id);
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSearchIndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
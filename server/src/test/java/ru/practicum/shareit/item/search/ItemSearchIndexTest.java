@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ItemSearchIndexTest {
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex();
+        index.put(1, "Дрель", "Аккумуляторная дрель", true);
+        index.put(2, "Отвертка", "Аккумуляторная отвертка", true);
+        index.put(3, "Клей", "Тюбик суперклея", true);
+        index.put(4, "Дрель ударная", "Сломана", false);
+    }
+
+    @Test
+    @DisplayName("Поиск подстроки в названии и описании без учета регистра, недоступные вещи не находятся")
+    void search_Substring_ShouldFindAvailableItemsInIdOrder() {
+        assertThat(index.search("ДРЕЛ", 0, 10), contains(1L));
+        assertThat(index.search("аккумулятор", 0, 10), contains(1L, 2L));
+        assertThat(index.search("перкл", 0, 10), contains(3L));
+        assertThat(index.size(), is(3));
+    }
+
+    @Test
+    @DisplayName("Найденные триграммы без подстроки целиком не дают результата")
+    void search_AllGramsButNoSubstring_ShouldReturnEmptyList() {
+        index.put(5, "абвгд", "вгдабв", true);
+
+        assertThat(index.search("абвгдабв", 0, 10), is(empty()));
+        assertThat(index.search("дрельотвертка", 0, 10), is(empty()));
+    }
+
+    @Test
+    @DisplayName("Строка поиска не находит текст на границе названия и описания")
+    void search_AcrossFields_ShouldReturnEmptyList() {
+        assertThat(index.search("дрельаккум", 0, 10), is(empty()));
+    }
+
+    @Test
+    @DisplayName("Постраничный поиск пропускает from вещей и возвращает не более size вещей")
+    void search_WithPaging_ShouldReturnRequestedPage() {
+        for (int id = 10; id < 20; id++) {
+            index.put(id, "Стремянка " + id, null, true);
+        }
+
+        assertThat(index.search("стремянка", 3, 2), contains(13L, 14L));
+        assertThat(index.search("стремянка", 9, 5), contains(19L));
+        assertThat(index.search("стремянка", 10, 5), is(empty()));
+    }
+
+    @Test
+    @DisplayName("Изменение вещи обновляет результат поиска, вещь, ставшая недоступной, не находится")
+    void put_ChangedItem_ShouldUpdateSearchResult() {
+        index.put(1, "Перфоратор", "Мощный", true);
+        index.put(2, "Отвертка", "Аккумуляторная отвертка", false);
+
+        assertThat(index.search("дрель", 0, 10), is(empty()));
+        assertThat(index.search("перфоратор", 0, 10), contains(1L));
+        assertThat(index.search("аккумулятор", 0, 10), is(empty()));
+        assertThat(index.size(), is(2));
+    }
+
+    @Test
+    @DisplayName("Вещи, добавленные не по порядку идентификаторов, возвращаются по порядку")
+    void put_OutOfOrder_ShouldReturnIdsInAscendingOrder() {
+        for (int id = 2000; id > 5; id--) {
+            index.put(id, "Лестница", null, true);
+        }
+
+        assertThat(index.search("лестница", 0, 3), contains(6L, 7L, 8L));
+        assertThat(index.search("лестница", 1992, 10), contains(1998L, 1999L, 2000L));
+    }
+
+    @Test
+    @DisplayName("Продолжение поиска после вещи с указанным идентификатором")
+    void search_AfterId_ShouldReturnOnlyLaterItems() {
+        assertThat(index.search("аккумулятор", 1, 0, 10), contains(2L));
+        assertThat(index.search("аккумулятор", 2, 0, 10), is(empty()));
+    }
+
+    @Test
+    @DisplayName("Строка короче триграммы по индексу не ищется")
+    void search_ShortText_ShouldNotBeSearchable() {
+        assertThat(ItemSearchIndex.isSearchable("ей"), is(false));
+        assertThat(ItemSearchIndex.isSearchable("дре"), is(true));
+        assertThrows(IllegalArgumentException.class, () -> index.search("Д", 0, 1));
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ItemSearchTest {
+
+    private final ItemStorage itemStorage = mock(ItemStorage.class);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    @DisplayName("При нескольких экземплярах сервиса индекс не строится и поиск выполняется запросом к базе данных")
+    void canSearch_SeveralInstances_ShouldSearchDatabase() {
+        ItemSearchProperties properties = new ItemSearchProperties();
+        properties.setInstances(2);
+
+        try (ItemSearch itemSearch = new ItemSearch(properties, itemStorage, transactionManager)) {
+            itemSearch.rebuild();
+
+            assertThat(itemSearch.canSearch("дрель"), is(false));
+        }
+        verifyNoInteractions(itemStorage, transactionManager);
+    }
+}
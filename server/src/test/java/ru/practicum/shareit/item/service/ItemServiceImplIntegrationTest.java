@@ -17,6 +17,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
 import ru.practicum.shareit.shared.exception.ItemUnavailableException;
 import ru.practicum.shareit.shared.exception.NotFoundException;
 import ru.practicum.shareit.user.model.User;
@@ -31,6 +32,7 @@ import static org.hamcrest.Matchers.emptyIterable;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -418,6 +420,62 @@ class ItemServiceImplIntegrationTest {
                 savedItem.getId() + "'."));
     }
 
+    @Test
+    @DisplayName("Получение вещей по списку идентификаторов")
+    void findItemsByIds_ShouldReturnItemsInRequestedOrderWithOwnerBookingsAndMissingIds() {
+        ItemDto savedItem = itemService.addItem(savedUser1.getId(), itemDto);
+        setUpBookings(savedItem.getId());
+
+        List<BatchEntryDto<GetItemDto>> ownerItems =
+                itemService.findItemsByIds(savedUser1.getId(), List.of(999L, savedItem.getId()));
+        List<BatchEntryDto<GetItemDto>> otherUserItems =
+                itemService.findItemsByIds(savedUser2.getId(), List.of(savedItem.getId()));
+
+        assertThat(ownerItems.size(), is(2));
+        assertThat(ownerItems.get(0).getId(), is(999L));
+        assertThat(ownerItems.get(0).getValue(), nullValue());
+        assertThat(ownerItems.get(0).getError(), is("Вещь с id '999' не найдена."));
+        assertThat(ownerItems.get(1).getValue().getId(), is(savedItem.getId()));
+        assertThat(ownerItems.get(1).getValue().getLastBooking().getId(), is(savedBooking1.getId()));
+        assertThat(ownerItems.get(1).getValue().getNextBooking().getId(), is(savedBooking3.getId()));
+        assertThat(otherUserItems.get(0).getValue().getLastBooking(), nullValue());
+        assertThat(otherUserItems.get(0).getValue().getNextBooking(), nullValue());
+    }
+
+    @Test
+    @DisplayName("ETag вещи не меняется без изменений и меняется после обновления")
+    void getItemEtag_AfterUpdate_ShouldChange() {
+        ItemDto savedItem = itemService.addItem(savedUser1.getId(), itemDto);
+        String etag = itemService.getItemEtag(savedUser2.getId(), savedItem.getId());
+
+        assertThat(etag, notNullValue());
+        assertThat(itemService.getItemEtag(savedUser2.getId(), savedItem.getId()), is(etag));
+        assertThat(itemService.getItemEtag(savedUser1.getId(), savedItem.getId()), not(etag));
+
+        itemService.updateItem(savedUser1.getId(), savedItem.getId(), ItemUpdateDto.builder()
+                .name("new name")
+                .build());
+
+        assertThat(itemService.getItemEtag(savedUser2.getId(), savedItem.getId()), not(etag));
+    }
+
+    @Test
+    @DisplayName("ETag вещи владельца меняется после подтверждения бронирования")
+    void getItemEtag_AfterBookingApproved_ShouldChangeForOwner() {
+        ItemDto savedItem = itemService.addItem(savedUser1.getId(), itemDto);
+        String ownerEtag = itemService.getItemEtag(savedUser1.getId(), savedItem.getId());
+
+        setUpBookings(savedItem.getId());
+
+        assertThat(itemService.getItemEtag(savedUser1.getId(), savedItem.getId()), not(ownerEtag));
+    }
+
+    @Test
+    @DisplayName("ETag ненайденной вещи")
+    void getItemEtag_ItemNotExists_ShouldReturnNull() {
+        assertThat(itemService.getItemEtag(savedUser1.getId(), 999L), nullValue());
+    }
+
 
     private void setUpBookings(long itemId) {
         AddBookingDto addBookingDto1 = AddBookingDto.builder()
@@ -13,6 +13,8 @@ import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.booking.storage.BookingStorage;
 import ru.practicum.shareit.item.dto.AddCommentDto;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -23,6 +25,7 @@ import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.item.storage.CommentStorage;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -36,6 +39,7 @@ import ru.practicum.shareit.user.storage.UserStorage;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -79,15 +83,18 @@ class ItemServiceImplTest {
     @Mock
     private CommentMapper commentMapper;
 
+    @Mock
+    private ItemSearch itemSearch;
+
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
     @Captor
     private ArgumentCaptor<Item> itemArgumentCaptor;
 
-    @Captor
-    private ArgumentCaptor<Booking> bookingArgumentCaptor;
-
     @Captor
     private ArgumentCaptor<String> stringArgumentCaptor;
 
@@ -197,6 +204,7 @@ class ItemServiceImplTest {
         assertThat(captorValue.getOwner(), is(owner));
         assertThat(captorValue.getRequest(), is(itemRequest));
         assertThat(itemRequest.getItems(), is(List.of(captorValue)));
+        verify(itemBookingSummaryService, times(1)).onItemAdded(itemId);
         verify(itemMapper, times(1)).toDto(item);
     }
 
@@ -450,33 +458,34 @@ class ItemServiceImplTest {
         booking1.setStatus(BookingStatus.APPROVED);
         booking2.setStatus(BookingStatus.APPROVED);
         booking3.setStatus(BookingStatus.APPROVED);
+        ItemBookingSummary summary = ItemBookingSummary.of(itemId, List.of(booking1, booking2, booking3),
+                LocalDateTime.now());
         when(userStorage.findById(ownerId))
                 .thenReturn(Optional.of(owner));
         when(itemStorage.findById(itemId))
                 .thenReturn(Optional.of(item));
-        when(bookingStorage.findAllByItemId(itemId))
-                .thenReturn(List.of(booking1, booking2, booking3));
+        when(itemBookingSummaryService.findByItemIds(eq(List.of(itemId)), any()))
+                .thenReturn(Map.of(itemId, summary));
         Comment comment = new Comment();
         when(commentStorage.findAllByItemId(itemId))
                 .thenReturn(List.of(comment));
-        ShortBookingDto shortBookingDto = new ShortBookingDto();
-        when(bookingMapper.toShortDto(any()))
-                .thenReturn(shortBookingDto);
-        when(itemMapper.toGetItemDto(eq(item), any(), any()))
+        ShortBookingDto lastBookingDto = new ShortBookingDto();
+        ShortBookingDto nextBookingDto = new ShortBookingDto();
+        when(bookingMapper.toLastBookingDto(summary))
+                .thenReturn(lastBookingDto);
+        when(bookingMapper.toNextBookingDto(summary))
+                .thenReturn(nextBookingDto);
+        when(itemMapper.toGetItemDto(item, lastBookingDto, nextBookingDto))
                 .thenReturn(new GetItemDto());
 
         itemService.findItemById(ownerId, itemId);
 
         verify(userStorage, times(1)).findById(ownerId);
         verify(itemStorage, times(1)).findById(itemId);
-        verify(bookingStorage, times(1)).findAllByItemId(itemId);
+        verify(itemBookingSummaryService, times(1)).findByItemIds(eq(List.of(itemId)), any());
+        verify(bookingStorage, never()).findLastAndNextApprovedBookings(any(), any());
         verify(commentStorage, times(1)).findAllByItemId(itemId);
-        verify(itemMapper, times(1)).toGetItemDto(eq(item), any(), any());
-        verify(bookingMapper, times(2)).toShortDto(bookingArgumentCaptor.capture());
-        List<Booking> bookings = bookingArgumentCaptor.getAllValues();
-        assertThat(bookings.size(), is(2));
-        assertThat(bookings.get(0), is(booking1));
-        assertThat(bookings.get(1), is(booking3));
+        verify(itemMapper, times(1)).toGetItemDto(item, lastBookingDto, nextBookingDto);
         verify(commentMapper, times(1)).toDtoList(List.of(comment));
     }
 
@@ -487,8 +496,6 @@ class ItemServiceImplTest {
                 .thenReturn(Optional.of(requester));
         when(itemStorage.findById(itemId))
                 .thenReturn(Optional.of(item));
-        when(bookingStorage.findAllByItemId(itemId))
-                .thenReturn(List.of(booking1, booking2, booking3));
         Comment comment = new Comment();
         when(commentStorage.findAllByItemId(itemId))
                 .thenReturn(List.of(comment));
@@ -501,7 +508,7 @@ class ItemServiceImplTest {
 
         verify(userStorage, times(1)).findById(requesterId);
         verify(itemStorage, times(1)).findById(itemId);
-        verify(bookingStorage, times(1)).findAllByItemId(itemId);
+        verify(itemBookingSummaryService, never()).findByItemIds(any(), any());
         verify(itemMapper, times(1)).toWithBookingsDto(item);
         verify(commentStorage, times(1)).findAllByItemId(itemId);
         verify(commentMapper, times(1)).toDtoList(List.of(comment));
@@ -520,7 +527,7 @@ class ItemServiceImplTest {
 
         verify(userStorage, times(1)).findById(requesterId);
         verify(itemStorage, never()).findById(any());
-        verify(bookingStorage, never()).findAllByItemId(any());
+        verify(itemBookingSummaryService, never()).findByItemIds(any(), any());
         verify(itemMapper, never()).toWithBookingsDto(any());
         verify(commentStorage, never()).findAllByItemId(any());
         verify(commentMapper, never()).toDtoList(any());
@@ -541,7 +548,7 @@ class ItemServiceImplTest {
 
         verify(userStorage, times(1)).findById(requesterId);
         verify(itemStorage, times(1)).findById(itemId);
-        verify(bookingStorage, never()).findAllByItemId(any());
+        verify(itemBookingSummaryService, never()).findByItemIds(any(), any());
         verify(itemMapper, never()).toWithBookingsDto(any());
         verify(commentStorage, never()).findAllByItemId(any());
         verify(commentMapper, never()).toDtoList(any());
@@ -555,66 +562,14 @@ class ItemServiceImplTest {
         booking1.setStatus(BookingStatus.APPROVED);
         booking2.setStatus(BookingStatus.APPROVED);
         booking3.setStatus(BookingStatus.APPROVED);
+        ItemBookingSummary summary = ItemBookingSummary.of(itemId, List.of(booking1, booking2, booking3),
+                LocalDateTime.now());
         when(userStorage.findById(requesterId))
                 .thenReturn(Optional.of(requester));
         when(itemStorage.findAllByOwnerIdOrderById(eq(requesterId), any()))
                 .thenReturn(List.of(item));
-        when(bookingStorage.findAllByItemIdIn(List.of(itemId)))
-                .thenReturn(List.of(booking1, booking2, booking3));
-        LocalDateTime now = LocalDateTime.now();
-        Comment comment = Comment.builder()
-                .item(item)
-                .text("comment")
-                .created(now)
-                .build();
-        CommentDto commentDto = CommentDto.builder()
-                .text("dto comment")
-                .authorName("author name")
-                .build();
-        when(commentMapper.toDtoList(List.of(comment)))
-                .thenReturn(List.of(commentDto));
-        when(commentStorage.findAllByItemIdIn(List.of(itemId)))
-                .thenReturn(List.of(comment));
-        ShortBookingDto shortBookingDto = new ShortBookingDto();
-        when(bookingMapper.toShortDto(any()))
-                .thenReturn(shortBookingDto);
-        when(itemMapper.toGetItemDto(eq(item), any(), any()))
-                .thenReturn(new GetItemDto());
-
-        List<GetItemDto> items = itemService.findAllItemsByUserId(requesterId, from, size);
-
-        assertThat(items, notNullValue());
-        assertThat(items.size(), is(1));
-        assertThat(items.get(0).getComments(), is(List.of(commentDto)));
-        verify(bookingMapper, times(2)).toShortDto(bookingArgumentCaptor.capture());
-        List<Booking> bookings = bookingArgumentCaptor.getAllValues();
-        assertThat(bookings.size(), is(2));
-        assertThat(bookings.get(0), is(booking1));
-        assertThat(bookings.get(1), is(booking3));
-        verify(userStorage, times(1)).findById(requesterId);
-        verify(itemStorage, times(1)).findAllByOwnerIdOrderById(eq(requesterId),
-                offsetPageRequestArgumentCaptor.capture());
-        OffsetPageRequest captorValue = offsetPageRequestArgumentCaptor.getValue();
-        assertThat(captorValue.getOffset(), is(from));
-        assertThat(captorValue.getPageSize(), is(size));
-        verify(bookingStorage, times(1)).findAllByItemIdIn(List.of(itemId));
-        verify(commentStorage, times(1)).findAllByItemIdIn(List.of(itemId));
-        verify(commentMapper, times(1)).toDtoList(List.of(comment));
-    }
-
-    @Test
-    @DisplayName("Поиск вещей пользователя, следующее бронирование не подтверждено")
-    void findAllItemsByUserId_WhenNextBookingsIsNotApproved_ShouldReturnItemsWithBookingAndComments() {
-        long from = 0;
-        int size = 4;
-        booking1.setStatus(BookingStatus.APPROVED);
-        booking2.setStatus(BookingStatus.APPROVED);
-        when(userStorage.findById(requesterId))
-                .thenReturn(Optional.of(requester));
-        when(itemStorage.findAllByOwnerIdOrderById(eq(requesterId), any()))
-                .thenReturn(List.of(item));
-        when(bookingStorage.findAllByItemIdIn(List.of(itemId)))
-                .thenReturn(List.of(booking1, booking2, booking3));
+        when(itemBookingSummaryService.findByItemIds(eq(List.of(itemId)), any()))
+                .thenReturn(Map.of(itemId, summary));
         LocalDateTime now = LocalDateTime.now();
         Comment comment = Comment.builder()
                 .item(item)
@@ -629,10 +584,13 @@ class ItemServiceImplTest {
                 .thenReturn(List.of(commentDto));
         when(commentStorage.findAllByItemIdIn(List.of(itemId)))
                 .thenReturn(List.of(comment));
-        ShortBookingDto shortBookingDto = new ShortBookingDto();
-        when(bookingMapper.toShortDto(any()))
-                .thenReturn(shortBookingDto);
-        when(itemMapper.toGetItemDto(eq(item), any(), any()))
+        ShortBookingDto lastBookingDto = new ShortBookingDto();
+        ShortBookingDto nextBookingDto = new ShortBookingDto();
+        when(bookingMapper.toLastBookingDto(summary))
+                .thenReturn(lastBookingDto);
+        when(bookingMapper.toNextBookingDto(summary))
+                .thenReturn(nextBookingDto);
+        when(itemMapper.toGetItemDto(item, lastBookingDto, nextBookingDto))
                 .thenReturn(new GetItemDto());
 
         List<GetItemDto> items = itemService.findAllItemsByUserId(requesterId, from, size);
@@ -640,70 +598,15 @@ class ItemServiceImplTest {
         assertThat(items, notNullValue());
         assertThat(items.size(), is(1));
         assertThat(items.get(0).getComments(), is(List.of(commentDto)));
-        verify(bookingMapper, times(2)).toShortDto(bookingArgumentCaptor.capture());
-        List<Booking> bookings = bookingArgumentCaptor.getAllValues();
-        assertThat(bookings.size(), is(2));
-        assertThat(bookings.get(0), is(booking1));
-        assertThat(bookings.get(1), nullValue());
         verify(userStorage, times(1)).findById(requesterId);
         verify(itemStorage, times(1)).findAllByOwnerIdOrderById(eq(requesterId),
                 offsetPageRequestArgumentCaptor.capture());
         OffsetPageRequest captorValue = offsetPageRequestArgumentCaptor.getValue();
         assertThat(captorValue.getOffset(), is(from));
         assertThat(captorValue.getPageSize(), is(size));
-        verify(bookingStorage, times(1)).findAllByItemIdIn(List.of(itemId));
-        verify(commentStorage, times(1)).findAllByItemIdIn(List.of(itemId));
-        verify(commentMapper, times(1)).toDtoList(List.of(comment));
-    }
-
-    @Test
-    @DisplayName("Поиск вещей пользователя, все бронирования не подтверждены")
-    void findAllItemsByUserId_WhenBookingsAreNotApproved_ShouldReturnItemsWithNoBookingAndComments() {
-        long from = 1;
-        int size = 4;
-        when(userStorage.findById(requesterId))
-                .thenReturn(Optional.of(requester));
-        when(itemStorage.findAllByOwnerIdOrderById(eq(requesterId), any()))
-                .thenReturn(List.of(item));
-        when(bookingStorage.findAllByItemIdIn(List.of(itemId)))
-                .thenReturn(List.of(booking1, booking2, booking3));
-        LocalDateTime now = LocalDateTime.now();
-        Comment comment = Comment.builder()
-                .item(item)
-                .text("comment")
-                .created(now)
-                .build();
-        CommentDto commentDto = CommentDto.builder()
-                .text("dto comment")
-                .authorName("author name")
-                .build();
-        when(commentMapper.toDtoList(List.of(comment)))
-                .thenReturn(List.of(commentDto));
-        when(commentStorage.findAllByItemIdIn(List.of(itemId)))
-                .thenReturn(List.of(comment));
-        ShortBookingDto shortBookingDto = new ShortBookingDto();
-        when(bookingMapper.toShortDto(any()))
-                .thenReturn(shortBookingDto);
-        when(itemMapper.toGetItemDto(eq(item), any(), any()))
-                .thenReturn(new GetItemDto());
-
-        List<GetItemDto> items = itemService.findAllItemsByUserId(requesterId, from, size);
-
-        assertThat(items, notNullValue());
-        assertThat(items.size(), is(1));
-        assertThat(items.get(0).getComments(), is(List.of(commentDto)));
-        verify(bookingMapper, times(2)).toShortDto(bookingArgumentCaptor.capture());
-        List<Booking> bookings = bookingArgumentCaptor.getAllValues();
-        assertThat(bookings.size(), is(2));
-        assertThat(bookings.get(0), nullValue());
-        assertThat(bookings.get(1), nullValue());
-        verify(userStorage, times(1)).findById(requesterId);
-        verify(itemStorage, times(1)).findAllByOwnerIdOrderById(eq(requesterId),
-                offsetPageRequestArgumentCaptor.capture());
-        OffsetPageRequest captorValue = offsetPageRequestArgumentCaptor.getValue();
-        assertThat(captorValue.getOffset(), is(from));
-        assertThat(captorValue.getPageSize(), is(size));
-        verify(bookingStorage, times(1)).findAllByItemIdIn(List.of(itemId));
+        verify(itemBookingSummaryService, times(1)).findByItemIds(eq(List.of(itemId)), any());
+        verify(bookingStorage, never()).findLastAndNextApprovedBookings(any(), any());
+        verify(itemMapper, times(1)).toGetItemDto(item, lastBookingDto, nextBookingDto);
         verify(commentStorage, times(1)).findAllByItemIdIn(List.of(itemId));
         verify(commentMapper, times(1)).toDtoList(List.of(comment));
     }
@@ -713,17 +616,17 @@ class ItemServiceImplTest {
     void findAllItemsByUserId_WhenNoBookings_ShouldReturnItemsWithoutBookingAndComments() {
         long from = 1;
         int size = 4;
+        ItemBookingSummary summary = new ItemBookingSummary(itemId);
         when(userStorage.findById(requesterId))
                 .thenReturn(Optional.of(requester));
         when(itemStorage.findAllByOwnerIdOrderById(eq(requesterId), any()))
                 .thenReturn(List.of(item));
-        when(bookingStorage.findAllByItemIdIn(List.of(itemId)))
-                .thenReturn(Collections.emptyList());
+        when(itemBookingSummaryService.findByItemIds(eq(List.of(itemId)), any()))
+                .thenReturn(Map.of(itemId, summary));
         when(commentStorage.findAllByItemIdIn(List.of(itemId)))
                 .thenReturn(Collections.emptyList());
-        GetItemDto getItemDto = new GetItemDto();
-        when(itemMapper.toWithBookingsDtoList(List.of(item)))
-                .thenReturn(List.of(getItemDto));
+        when(itemMapper.toGetItemDto(item, null, null))
+                .thenReturn(new GetItemDto());
 
         List<GetItemDto> items = itemService.findAllItemsByUserId(requesterId, from, size);
 
@@ -736,9 +639,11 @@ class ItemServiceImplTest {
         OffsetPageRequest captorValue = offsetPageRequestArgumentCaptor.getValue();
         assertThat(captorValue.getOffset(), is(from));
         assertThat(captorValue.getPageSize(), is(size));
-        verify(bookingStorage, times(1)).findAllByItemIdIn(List.of(itemId));
+        verify(itemBookingSummaryService, times(1)).findByItemIds(eq(List.of(itemId)), any());
         verify(commentStorage, times(1)).findAllByItemIdIn(List.of(itemId));
-        verify(itemMapper, times(1)).toWithBookingsDtoList(List.of(item));
+        verify(bookingMapper, times(1)).toLastBookingDto(summary);
+        verify(bookingMapper, times(1)).toNextBookingDto(summary);
+        verify(itemMapper, times(1)).toGetItemDto(item, null, null);
     }
 
     @Test
@@ -754,9 +659,9 @@ class ItemServiceImplTest {
         assertThat(e.getMessage(), is("Пользователь с id '" + requesterId + "' не найден."));
         verify(userStorage, times(1)).findById(requesterId);
         verify(itemStorage, never()).findAllByOwnerIdOrderById(any(), any());
-        verify(bookingStorage, never()).findAllByItemIdIn(any());
+        verify(itemBookingSummaryService, never()).findByItemIds(any(), any());
         verify(commentStorage, never()).findAllByItemIdIn(any());
-        verify(itemMapper, never()).toWithBookingsDtoList(any());
+        verify(itemMapper, never()).toGetItemDto(any(), any(), any());
     }
 
     @Test
@@ -801,6 +706,97 @@ class ItemServiceImplTest {
         verify(itemMapper, times(1)).toDtoList(any());
     }
 
+    @Test
+    @DisplayName("Полнотекстовый поиск вещей средствами базы данных")
+    void searchItemsFullText_WhenFullTextEnabled_ShouldSearchFullText() {
+        long from = 0;
+        int size = 10;
+        String text = "Дрель";
+        when(itemSearch.isFullTextEnabled())
+                .thenReturn(true);
+        when(itemStorage.searchFullText(any(), any()))
+                .thenReturn(List.of(item));
+
+        itemService.searchItemsFullText(text, from, size);
+
+        verify(itemStorage, times(1)).searchFullText(stringArgumentCaptor.capture(), any());
+        assertThat(stringArgumentCaptor.getValue(), is(text));
+        verify(itemStorage, never()).searchInTitleAndDescriptionByRelevance(any(), any());
+        verify(itemMapper, times(1)).toDtoList(List.of(item));
+    }
+
+    @Test
+    @DisplayName("Полнотекстовый поиск вещей без поддержки базы данных ищет подстроку")
+    void searchItemsFullText_WhenFullTextDisabled_ShouldSearchSubstringByRelevance() {
+        long from = 0;
+        int size = 10;
+        String text = "Дрель";
+        when(itemStorage.searchInTitleAndDescriptionByRelevance(any(), any()))
+                .thenReturn(List.of(item));
+
+        itemService.searchItemsFullText(text, from, size);
+
+        verify(itemStorage, times(1)).searchInTitleAndDescriptionByRelevance(stringArgumentCaptor.capture(), any());
+        assertThat(stringArgumentCaptor.getValue(), is("%дрель%"));
+        verify(itemStorage, never()).searchFullText(any(), any());
+    }
+
+    @Test
+    @DisplayName("Поиск вещей по поисковому индексу, удаленные вещи убираются из индекса")
+    void searchItems_WhenIndexCanSearch_ShouldLoadFoundItemsAndRemoveDeleted() {
+        long from = 0;
+        int size = 10;
+        String text = "search";
+        long deletedItemId = 99;
+        when(itemSearch.canSearch(text))
+                .thenReturn(true);
+        when(itemSearch.search(text, from, size))
+                .thenReturn(List.of(itemId, deletedItemId));
+        when(itemStorage.findAllById(List.of(itemId, deletedItemId)))
+                .thenReturn(List.of(item));
+
+        itemService.searchItems(text, from, size);
+
+        verify(itemStorage, never()).searchInTitleAndDescription(any(), any());
+        verify(itemSearch, times(1)).onItemsDeleted(List.of(deletedItemId));
+        verify(itemMapper, times(1)).toDtoList(List.of(item));
+    }
+
+    @Test
+    @DisplayName("Поиск вещей по поисковому индексу, отсеянные вещи заменяются следующими найденными")
+    void searchItems_WhenIndexReturnsUnavailableItems_ShouldLoadNextItems() {
+        long from = 0;
+        int size = 2;
+        String text = "search";
+        long deletedItemId = 98;
+        long unavailableItemId = 99;
+        long nextItemId = 100;
+        Item unavailableItem = Item.builder()
+                .id(unavailableItemId)
+                .available(false)
+                .build();
+        Item nextItem = Item.builder()
+                .id(nextItemId)
+                .available(true)
+                .build();
+        when(itemSearch.canSearch(text))
+                .thenReturn(true);
+        when(itemSearch.search(text, from, size))
+                .thenReturn(List.of(deletedItemId, unavailableItemId));
+        when(itemStorage.findAllById(List.of(deletedItemId, unavailableItemId)))
+                .thenReturn(List.of(unavailableItem));
+        when(itemSearch.searchAfter(text, unavailableItemId, size))
+                .thenReturn(List.of(nextItemId));
+        when(itemStorage.findAllById(List.of(nextItemId)))
+                .thenReturn(List.of(nextItem));
+
+        itemService.searchItems(text, from, size);
+
+        verify(itemSearch, times(1)).onItemsDeleted(List.of(deletedItemId));
+        verify(itemSearch, times(1)).onItemSaved(unavailableItem);
+        verify(itemMapper, times(1)).toDtoList(List.of(nextItem));
+    }
+
     @Test
     @DisplayName("Добавление отзыва о вещи")
     void addCommentToItem_WhenUserIsAbleToAddComments_ShouldReturnCommentDto() {
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Проверка плана поискового запроса вещей в PostgreSQL: запрос должен выполняться по триграммным индексам, а не
+ * перебором таблицы. Тест создает таблицы в отдельной схеме и удаляет ее после выполнения. Запускается, если задана
+ * переменная окружения SHAREIT_TEST_POSTGRES_URL, например jdbc:postgresql://localhost:6541/shareit; имя
+ * пользователя и пароль задаются переменными POSTGRES_USER и POSTGRES_PASSWORD.
+ */
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemSearchQueryPlanTest {
+
+    private static final String SCHEMA = "item_search_plan_test";
+
+    private static final int ITEMS = 50_000;
+
+    private Connection connection;
+
+    @BeforeAll
+    void init() throws SQLException {
+        connection = DriverManager.getConnection(System.getenv("SHAREIT_TEST_POSTGRES_URL"),
+                Objects.requireNonNullElse(System.getenv("POSTGRES_USER"), "root"),
+                Objects.requireNonNullElse(System.getenv("POSTGRES_PASSWORD"), "root"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            // Таблицы основной схемы не должны быть видны скрипту, удаляющему таблицы.
+            statement.execute("SET search_path TO " + SCHEMA);
+        }
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + SCHEMA + ", public");
+        }
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-postgresql.sql"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (username, email) VALUES ('owner', 'owner@mail.ru')");
+        }
+        String[] words = {"дрель", "отвертка", "лестница", "стремянка", "пила", "молоток", "клей", "палатка"};
+        Random random = new Random(42);
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO items "
+                + "(item_name, description, available, owner_id) VALUES (?, ?, ?, 1)")) {
+            for (int i = 1; i <= ITEMS; i++) {
+                statement.setString(1, words[random.nextInt(words.length)] + " " + i);
+                statement.setString(2, i % 10_000 == 0 ? "Редкая вещь" : words[random.nextInt(words.length)]);
+                statement.setBoolean(3, random.nextInt(10) != 0);
+                statement.addBatch();
+                if (i % 5_000 == 0) {
+                    statement.executeBatch();
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE items");
+        }
+    }
+
+    @AfterAll
+    void cleanUp() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Поиск вещей выполняется по триграммным индексам названия и описания")
+    void searchInTitleAndDescription_ShouldUseTrigramIndexes() throws SQLException {
+        String plan = explain("%редкая вещь%");
+
+        assertThat(plan, not(containsString("Seq Scan")));
+        assertThat(plan, containsString("items_name_trgm_idx"));
+        assertThat(plan, containsString("items_description_trgm_idx"));
+    }
+
+    private String explain(String text) throws SQLException {
+        String query = ItemStorage.SEARCH_IN_TITLE_AND_DESCRIPTION.replace("?1", "?") + " LIMIT ? OFFSET ?";
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query)) {
+            statement.setString(1, text);
+            statement.setString(2, text);
+            statement.setInt(3, 20);
+            statement.setInt(4, 0);
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
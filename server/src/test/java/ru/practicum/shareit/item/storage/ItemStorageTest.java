@@ -177,6 +177,25 @@ class ItemStorageTest {
         assertThat(items.get(1).getId(), is(savedItem3.getId()));
     }
 
+    @Test
+    @DisplayName("Поиск по названию и описанию вещи, совпадения в названии идут первыми")
+    void searchInTitleAndDescriptionByRelevance_ShouldReturnTitleMatchesFirst() {
+        Item item4 = createItem(4);
+        item4.setName("item description in name");
+        item4.setOwner(savedUser2);
+        Item savedItem4 = itemStorage.save(item4);
+        String text = "%description%";
+        OffsetPageRequest pageRequest = OffsetPageRequest.of(0L, 5);
+
+        List<Item> items = itemStorage.searchInTitleAndDescriptionByRelevance(text, pageRequest);
+
+        assertThat(items, notNullValue());
+        assertThat(items.size(), is(3));
+        assertThat(items.get(0).getId(), is(savedItem4.getId()));
+        assertThat(items.get(1).getId(), is(savedItem1.getId()));
+        assertThat(items.get(2).getId(), is(savedItem3.getId()));
+    }
+
     @Test
     @DisplayName("Поиск по описанию вещи 3")
     void searchInTitleAndDescription_WhenSearchInDescription2_ShouldReturnAllItems() {
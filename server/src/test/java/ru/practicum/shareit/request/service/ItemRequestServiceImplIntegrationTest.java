@@ -17,6 +17,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserStorage;
 
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -115,6 +116,24 @@ class ItemRequestServiceImplIntegrationTest {
         assertThat(availableItemRequests, is(List.of(savedRequest3, savedRequest2)));
     }
 
+    @Test
+    @DisplayName("Потоковое получение доступных запросов в том же порядке, что и списком")
+    @SneakyThrows
+    void streamAvailableItemRequests_ShouldReturnSameRequestsAsList() {
+        User user2 = User.builder().name("username2").email("test2@email.com").build();
+        User savedUser2 = userStorage.save(user2);
+        ItemRequestDto savedRequest2 = itemRequestService.addNewItemRequest(savedUser2.getId(),
+                new AddItemRequestDto("description 2"));
+        Thread.sleep(100L);
+        ItemRequestDto savedRequest3 = itemRequestService.addNewItemRequest(savedUser2.getId(),
+                new AddItemRequestDto("description 3"));
+        List<ItemRequestDto> streamed = new ArrayList<>();
+
+        itemRequestService.streamAvailableItemRequests(savedUser.getId(), 0L, 5, streamed::add);
+
+        assertThat(streamed, is(List.of(savedRequest3, savedRequest2)));
+    }
+
     @Test
     @DisplayName("Поиск доступных запросов со 2го элемента")
     @SneakyThrows
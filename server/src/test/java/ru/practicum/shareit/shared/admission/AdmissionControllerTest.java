@@ -0,0 +1,129 @@
+package ru.practicum.shareit.shared.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class AdmissionControllerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final TestPool pool = new TestPool();
+
+    private AdmissionController admissionController;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setEndpoints(List.of(
+                endpoint("PATCH", "/bookings/{bookingId}", AdmissionProperties.Priority.CRITICAL),
+                endpoint("GET", "/items/search", AdmissionProperties.Priority.SHEDDABLE)));
+        properties.setSampleInterval(Duration.ofMillis(100));
+        admissionController = new AdmissionController(properties, pool, clock::get);
+    }
+
+    @Test
+    @DisplayName("При свободном пуле соединений принимаются запросы всех классов")
+    void tryAdmit_IdlePool_ShouldAdmitAll() {
+        pool.active = 2;
+
+        assertThat(admissionController.tryAdmit("GET", "/items/search"), is(true));
+        assertThat(admissionController.tryAdmit("GET", "/users/{userId}"), is(true));
+        assertThat(admissionController.tryAdmit("PATCH", "/bookings/{bookingId}"), is(true));
+    }
+
+    @Test
+    @DisplayName("При занятом пуле первыми отклоняются дорогие запросы, затем обычные, важные принимаются дольше всех")
+    void tryAdmit_SaturatedPool_ShouldShedByPriority() {
+        pool.active = 9;
+        assertThat(admissionController.tryAdmit("GET", "/items/search"), is(false));
+        assertThat(admissionController.tryAdmit("GET", "/users/{userId}"), is(true));
+
+        pool.active = 10;
+        pool.waiting = 20;
+        assertThat(admissionController.tryAdmit("GET", "/users/{userId}"), is(false));
+        assertThat(admissionController.tryAdmit("PATCH", "/bookings/{bookingId}"), is(true));
+
+        pool.waiting = 60;
+        assertThat(admissionController.tryAdmit("PATCH", "/bookings/{bookingId}"), is(false));
+    }
+
+    @Test
+    @DisplayName("Долгое ожидание соединения из пула приводит к отклонению запросов")
+    void tryAdmit_LongPoolWait_ShouldReject() {
+        admissionController.tryAdmit("GET", "/users/{userId}");
+        pool.acquire(10, TimeUnit.MILLISECONDS.toNanos(300));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(admissionController.tryAdmit("GET", "/users/{userId}"), is(false));
+        assertThat(admissionController.getPoolWaitNanos(), is(TimeUnit.MILLISECONDS.toNanos(300)));
+        assertThat(admissionController.tryAdmit("PATCH", "/bookings/{bookingId}"), is(true));
+
+        pool.acquire(10, TimeUnit.MILLISECONDS.toNanos(1));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(admissionController.tryAdmit("GET", "/users/{userId}"), is(true));
+    }
+
+    private static AdmissionProperties.EndpointPriority endpoint(String method, String path,
+                                                                 AdmissionProperties.Priority priority) {
+        AdmissionProperties.EndpointPriority endpoint = new AdmissionProperties.EndpointPriority();
+        endpoint.setMethod(method);
+        endpoint.setPath(path);
+        endpoint.setPriority(priority);
+        return endpoint;
+    }
+
+    private static class TestPool implements ConnectionPoolSignals {
+
+        private int active;
+
+        private int waiting;
+
+        private long acquireCount;
+
+        private double acquireTotalNanos;
+
+        void acquire(int count, long waitNanos) {
+            acquireCount += count;
+            acquireTotalNanos += (double) count * waitNanos;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public int active() {
+            return active;
+        }
+
+        @Override
+        public int maximum() {
+            return 10;
+        }
+
+        @Override
+        public int waiting() {
+            return waiting;
+        }
+
+        @Override
+        public long acquireCount() {
+            return acquireCount;
+        }
+
+        @Override
+        public double acquireTotalNanos() {
+            return acquireTotalNanos;
+        }
+    }
+}
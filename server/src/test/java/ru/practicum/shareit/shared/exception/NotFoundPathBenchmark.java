@@ -0,0 +1,175 @@
+package ru.practicum.shareit.shared.exception;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Пропускная способность ответа 404 до и после перехода на исключения без стека вызовов. Вариант before
+ * воспроизводит прежний путь: исключение со стеком вызовов, сообщение собирается конкатенацией строк при создании
+ * исключения. Вариант after использует NotFoundException.user и ServerExceptionHandler.
+ * <p>
+ * Тесты mvcBefore и mvcAfter проводят запрос через DispatcherServlet и сериализуют ответ в JSON. Тесты
+ * handlerBefore и handlerAfter бросают исключение на заданной глубине стека (в приложении между контроллером и
+ * Tomcat обычно больше ста вызовов) и передают его обработчику ошибок напрямую, без затрат MockMvc. Запись в лог
+ * отключена во всех вариантах, так как она одинакова и зависит от настроек приложения. Запуск:
+ * <pre>
+ * mvn -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) \
+ *     ru.practicum.shareit.shared.exception.NotFoundPathBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotFoundPathBenchmark {
+
+    private final UserLookupController controller = new UserLookupController();
+
+    private final ServerExceptionHandler handler = new ServerExceptionHandler();
+
+    private final LegacyExceptionHandler legacyHandler = new LegacyExceptionHandler();
+
+    private MockMvc mockMvc;
+
+    private long userId;
+
+    @State(Scope.Benchmark)
+    public static class Stack {
+
+        @Param({"20", "150"})
+        private int depth;
+    }
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(ServerExceptionHandler.class)).setLevel(Level.OFF);
+        ((Logger) LoggerFactory.getLogger(LegacyExceptionHandler.class)).setLevel(Level.OFF);
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(handler, legacyHandler)
+                .build();
+    }
+
+    @Benchmark
+    public String mvcBefore() throws Exception {
+        return mockMvc.perform(get("/legacy/users/{id}", ++userId)).andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String mvcAfter() throws Exception {
+        return mockMvc.perform(get("/users/{id}", ++userId)).andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public ErrorResponse handlerBefore(Stack stack) {
+        try {
+            controller.findLegacy(++userId, stack.depth);
+            throw new IllegalStateException();
+        } catch (LegacyNotFoundException e) {
+            return legacyHandler.handleNotFoundException(e);
+        }
+    }
+
+    @Benchmark
+    public ErrorResponse handlerAfter(Stack stack) {
+        try {
+            controller.find(++userId, stack.depth);
+            throw new IllegalStateException();
+        } catch (NotFoundException e) {
+            return handler.handleUserNotFoundException(e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NotFoundPathBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @RestController
+    static class UserLookupController {
+
+        @GetMapping("/legacy/users/{id}")
+        public void findLegacy(@PathVariable Long id) {
+            throw new LegacyNotFoundException("Пользователь с id '" + id + "' не найден.");
+        }
+
+        @GetMapping("/users/{id}")
+        public void find(@PathVariable Long id) {
+            throw NotFoundException.user(id);
+        }
+
+        void findLegacy(long id, int depth) {
+            if (depth > 0) {
+                findLegacy(id, depth - 1);
+            } else {
+                findLegacy(id);
+            }
+        }
+
+        void find(long id, int depth) {
+            if (depth > 0) {
+                find(id, depth - 1);
+            } else {
+                find(id);
+            }
+        }
+    }
+
+    /**
+     * Исключение и обработчик в том виде, в котором они были до перехода на ShareItException.
+     */
+    static class LegacyNotFoundException extends RuntimeException {
+
+        LegacyNotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    @RestControllerAdvice
+    @Slf4j
+    static class LegacyExceptionHandler {
+
+        @ExceptionHandler
+        @ResponseStatus(HttpStatus.NOT_FOUND)
+        public ErrorResponse handleNotFoundException(LegacyNotFoundException e) {
+            ErrorResponse errorResponse = new ErrorResponse();
+            errorResponse.getErrors().put("errorMessage", e.getLocalizedMessage());
+            log.error(e.getLocalizedMessage());
+            return errorResponse;
+        }
+    }
+}
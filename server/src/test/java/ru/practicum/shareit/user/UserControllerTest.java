@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.shared.dto.BatchEntryDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -129,6 +130,28 @@ class UserControllerTest {
         verify(userService, times(1)).findAllUsers();
     }
 
+    @Test
+    @DisplayName("Поиск пользователей по списку id")
+    @SneakyThrows
+    void getUsersByIds_ShouldReturnFoundUsersAndErrors() {
+        when(userService.findUsersByIds(List.of(userId, 999L)))
+                .thenReturn(List.of(BatchEntryDto.found(userId, userDto),
+                        BatchEntryDto.failed(999L, "Пользователь с id '999' не найден.")));
+
+        mvc.perform(get("/users")
+                        .param("ids", userId + ",999")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$.[0].value.name", is(userDto.getName())))
+                .andExpect(jsonPath("$.[0].error").doesNotExist())
+                .andExpect(jsonPath("$.[1].id", is(999)))
+                .andExpect(jsonPath("$.[1].error", is("Пользователь с id '999' не найден.")));
+
+        verify(userService, times(1)).findUsersByIds(List.of(userId, 999L));
+        verify(userService, never()).findAllUsers();
+    }
+
     @Test
     @DisplayName("Удаление пользователя по id")
     @SneakyThrows
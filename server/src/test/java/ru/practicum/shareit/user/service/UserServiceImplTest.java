@@ -9,6 +9,7 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.shared.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
@@ -37,6 +38,9 @@ class UserServiceImplTest {
     @Mock
     private UserStorage userStorage;
 
+    @Mock
+    private ItemStorage itemStorage;
+
     @InjectMocks
     private UserServiceImpl userService;
 